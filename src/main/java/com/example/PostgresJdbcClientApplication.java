@@ -1,19 +1,25 @@
 package com.example;
 
 import com.example.service.ConnectionMonitoringService;
+import com.example.service.PoolMetricsSnapshot;
 import com.example.service.SchemaService;
 import com.example.service.VaultService;
+import com.example.service.prewarm.BufferPrewarmService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 import javax.sql.DataSource;
 
-@SpringBootApplication
+// The reactive pool is built by ReactiveDatabaseConfiguration; Boot's own R2DBC
+// setup would add a second ConnectionFactory and a competing transaction manager
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 @EnableScheduling
 public class PostgresJdbcClientApplication {
 
@@ -35,7 +41,8 @@ public class PostgresJdbcClientApplication {
     public CommandLineRunner applicationRunner(DataSource dataSource,
                                              VaultService vaultService,
                                              SchemaService schemaService,
-                                             ConnectionMonitoringService monitoringService) {
+                                             ConnectionMonitoringService monitoringService,
+                                             BufferPrewarmService prewarmService) {
         return args -> {
             logger.info("=== PostgreSQL JDBC Client Application Initialization ===");
             
@@ -52,6 +59,9 @@ public class PostgresJdbcClientApplication {
                 // Initialize schema if configured
                 initializeSchema(schemaService);
                 
+                // Warm the buffer cache before the application reports ready
+                warmBufferCache(prewarmService);
+                
                 // Display connection pool status
                 displayConnectionPoolStatus(monitoringService);
                 
@@ -77,7 +87,7 @@ public class PostgresJdbcClientApplication {
             ╚══════════════════════════════════════════════════════════════╝
             
             Features:
-            • HikariCP Connection Pool with 10 connections
+            • Workload-isolated HikariCP pools (OLTP, reporting, admin)
             • 20 Database tables with indexes and sequences  
             • HashiCorp Vault integration for credentials
             • Real-time connection monitoring
@@ -147,27 +157,44 @@ public class PostgresJdbcClientApplication {
         }
     }
 
+    private void warmBufferCache(BufferPrewarmService prewarmService) {
+        if (!prewarmService.isEnabled()) {
+            return;
+        }
+        logger.info("Warming the database buffer cache...");
+        
+        try {
+            prewarmService.warmUpAtStartup();
+            logger.info("✓ Buffer cache warm-up completed");
+            
+        } catch (Exception e) {
+            logger.error("Buffer cache warm-up failed", e);
+        }
+    }
+
     private void displayConnectionPoolStatus(ConnectionMonitoringService monitoringService) {
         logger.info("Connection Pool Status:");
         
         try {
-            var metrics = monitoringService.getConnectionMetrics();
-            
-            logger.info("  Pool Name: {}", metrics.get("poolName"));
-            logger.info("  Maximum Pool Size: {}", metrics.get("maximumPoolSize"));
-            logger.info("  Minimum Idle: {}", metrics.get("minimumIdle"));
-            logger.info("  Total Connections: {}", metrics.get("totalConnections"));
-            logger.info("  Active Connections: {}", metrics.get("activeConnections"));
-            logger.info("  Idle Connections: {}", metrics.get("idleConnections"));
-            logger.info("  Threads Awaiting: {}", metrics.get("threadsAwaitingConnection"));
-            logger.info("  Connection Timeout: {}ms", metrics.get("connectionTimeout"));
-            logger.info("  Idle Timeout: {}ms", metrics.get("idleTimeout"));
-            logger.info("  Max Lifetime: {}ms", metrics.get("maxLifetime"));
-            
-            boolean isRunning = (Boolean) metrics.getOrDefault("isRunning", false);
-            boolean isClosed = (Boolean) metrics.getOrDefault("isClosed", true);
-            
-            logger.info("  Pool Status: {}", isRunning && !isClosed ? "RUNNING" : "STOPPED");
+            for (String pool : monitoringService.getPoolNames()) {
+                PoolMetricsSnapshot snapshot = monitoringService.getSnapshot(pool);
+                
+                logger.info("  Pool Name: {} ({})", snapshot.poolName(), pool);
+                logger.info("  Maximum Pool Size: {}", snapshot.maximumPoolSize());
+                logger.info("  Minimum Idle: {}", snapshot.minimumIdle());
+                logger.info("  Total Connections: {}", snapshot.totalConnections());
+                logger.info("  Active Connections: {}", snapshot.activeConnections());
+                logger.info("  Idle Connections: {}", snapshot.idleConnections());
+                logger.info("  Threads Awaiting: {}", snapshot.threadsAwaitingConnection());
+                logger.info("  Connection Timeout: {}ms", snapshot.connectionTimeout());
+                logger.info("  Idle Timeout: {}ms", snapshot.idleTimeout());
+                logger.info("  Max Lifetime: {}ms", snapshot.maxLifetime());
+                
+                boolean isRunning = snapshot.running();
+                boolean isClosed = snapshot.closed();
+                
+                logger.info("  Pool Status: {}", isRunning && !isClosed ? "RUNNING" : "STOPPED");
+            }
             
         } catch (Exception e) {
             logger.error("Failed to retrieve connection pool status", e);
@@ -177,7 +204,18 @@ public class PostgresJdbcClientApplication {
     private void displayApiEndpoints() {
         logger.info("Available API Endpoints:");
         logger.info("  Health Check:         GET  /api/monitoring/health");
-        logger.info("  Connection Metrics:   GET  /api/monitoring/connections");
+        logger.info("  Connection Metrics:   GET  /api/monitoring/connections?pool={name}");
+        logger.info("  All Pool Metrics:     GET  /api/monitoring/connections/pools");
+        logger.info("  Pool History:         GET  /api/monitoring/history?pool={name}&from=&to=&tier=");
+        logger.info("  Admission Status:     GET  /api/monitoring/admission");
+        logger.info("  Circuit Breakers:     GET  /api/monitoring/circuit-breakers");
+        logger.info("  Reset Breaker:        POST /api/monitoring/circuit-breakers/{pool}/reset");
+        logger.info("  Result-Set Guard:     GET  /api/monitoring/result-guard");
+        logger.info("  Clear Guard History:  POST /api/monitoring/result-guard/clear");
+        logger.info("  Statement Warm-up:    GET  /api/monitoring/statement-warmup");
+        logger.info("  Driver Benchmark:     POST /api/monitoring/driver-profiles/benchmark?lookups=5000&batchRows=50000&scanRows=500000");
+        logger.info("  Buffer Prewarm:       GET  /api/monitoring/prewarm");
+        logger.info("  Run Prewarm:          POST /api/monitoring/prewarm/run");
         logger.info("  Connection Test:      POST /api/monitoring/connections/test");
         logger.info("  Suspend Pool:         POST /api/monitoring/connections/suspend");
         logger.info("  Resume Pool:          POST /api/monitoring/connections/resume");
@@ -185,11 +223,56 @@ public class PostgresJdbcClientApplication {
         logger.info("  Monitoring Status:    GET  /api/monitoring/monitoring/status");
         logger.info("  Enable Monitoring:    POST /api/monitoring/monitoring/enable");
         logger.info("  Disable Monitoring:   POST /api/monitoring/monitoring/disable");
-        logger.info("  Update Interval:      POST /api/monitoring/monitoring/interval/{{seconds}}");
+        logger.info("  Update Interval:      POST /api/monitoring/monitoring/interval/{seconds}");
         logger.info("  Vault Path:           GET  /api/monitoring/vault/path");
         logger.info("  Update Vault Path:    POST /api/monitoring/vault/path");
         logger.info("  Schema Status:        GET  /api/schema/status");
         logger.info("  Create Schema:        POST /api/schema/create");
+        logger.info("  Table Statistics:     GET  /api/schema/tables?refresh=false");
+        logger.info("  Exact Row Count:      GET  /api/schema/tables/{table}/count");
+        logger.info("  Table Rows (keyset):  GET  /api/schema/tables/{table}/rows?sort=created_at&direction=desc&limit=50&cursor=");
+        logger.info("  Materialized Views:   GET  /api/schema/matviews");
+        logger.info("  Refresh Matview:      POST /api/schema/matviews/{view}/refresh");
+        logger.info("  Partition Layout:     GET  /api/schema/partitions");
+        logger.info("  Maintain Partitions:  POST /api/schema/partitions/{table}/maintain");
+        logger.info("  Index Builds:         GET|POST /api/schema/indexes/builds");
+        logger.info("  Rebuild Index:        POST /api/schema/indexes/{name}/rebuild");
+        logger.info("  Build Script Indexes: POST /api/schema/indexes/script?name=03_create_indexes.sql");
+        logger.info("  Invalid Indexes:      GET  /api/schema/indexes/invalid");
+        logger.info("  Shard Topology:       GET  /api/shards");
+        logger.info("  Shard Route:          GET  /api/shards/route?customerId=");
+        logger.info("  Reload Shards:        POST /api/shards/reload");
+        logger.info("  Customer Orders:      GET  /api/shards/customers/{id}/orders");
+        logger.info("  Recent Orders:        GET  /api/shards/orders/recent?limit=50");
+        logger.info("  Reactive Orders:      GET  /api/reactive/orders/recent (NDJSON stream)");
+        logger.info("  Reactive Customer:    GET  /api/reactive/customers/{id}/orders");
+        logger.info("  Reactive Benchmark:   POST /api/reactive/benchmark?requests=2000&concurrency=200&sleepMs=20");
+        logger.info("  Tracing Status:       GET  /api/tracing/status");
+        logger.info("  Recent Traces:        GET  /api/tracing/traces?limit=50&minDurationMs=0");
+        logger.info("  Trace Detail:         GET  /api/tracing/traces/{traceId}");
+        logger.info("  Trace Sample Rate:    POST /api/tracing/sample-rate?rate=0.01");
+        logger.info("  Tracing Overhead:     POST /api/tracing/overhead?iterations=2000");
+        logger.info("  Snapshots:            GET  /api/snapshots");
+        logger.info("  Create Snapshot:      POST /api/snapshots?table=orders&parallelism=4");
+        logger.info("  Snapshot Job:         GET  /api/snapshots/jobs/{id}");
+        logger.info("  Snapshot Manifest:    GET  /api/snapshots/{name}/manifest");
+        logger.info("  Restore Snapshot:     POST /api/snapshots/{name}/restore?target=&truncate=false");
+        logger.info("  Arrow Sources:        GET  /api/arrow/sources");
+        logger.info("  Arrow Export:         GET  /api/arrow/export/{source}?limit=0");
+        logger.info("  Arrow Benchmark:      POST /api/arrow/benchmark?source=v_product_inventory&iterations=5");
+        logger.info("  Search:               GET  /api/search/{target}?q=wireless%20keyb&limit=20&fuzzy=true");
+        logger.info("  Search Setup:         POST /api/search/setup?target=all");
+        logger.info("  Search Status:        GET  /api/search/status");
+        logger.info("  Search Benchmark:     POST /api/search/benchmark?rows=100000&iterations=5");
+        logger.info("  Fault Scenarios:      GET  /api/resilience/scenarios");
+        logger.info("  Resilience Run:       POST /api/resilience/run?scenarios=all");
+        logger.info("  JFR Status:           GET  /api/jfr/status");
+        logger.info("  JFR Start Recording:  POST /api/jfr/recordings/start?durationSeconds=0");
+        logger.info("  JFR Stop Recording:   POST /api/jfr/recordings/stop");
+        logger.info("  CDC Status:           GET  /api/cdc/status");
+        logger.info("  CDC Start/Stop:       POST /api/cdc/start | /api/cdc/stop");
+        logger.info("  CDC Events:           GET  /api/cdc/events");
+        logger.info("  CDC Subscribers:      GET|POST|DELETE /api/cdc/subscribers");
         logger.info("  Actuator Health:      GET  /actuator/health");
         logger.info("  Actuator Metrics:     GET  /actuator/metrics");
         logger.info("");
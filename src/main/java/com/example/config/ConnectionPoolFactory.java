@@ -0,0 +1,168 @@
+package com.example.config;
+
+import com.example.config.DatabaseConfiguration.PoolSettings;
+import com.example.service.warmup.StatementWarmupService;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.util.DriverDataSource;
+import org.postgresql.Driver;
+import org.postgresql.PGProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Builds HikariCP pools from {@link PoolSettings}, filling unset values from
+ * app.database.pool.*. Shared by the named workload pools and the shard pools
+ * so every pool gets the same driver and session configuration.
+ */
+@Component
+public class ConnectionPoolFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolFactory.class);
+
+    private final StatementWarmupService statementWarmup;
+
+    @Value("${app.database.pool.maximum-pool-size:10}")
+    private int maximumPoolSize;
+
+    @Value("${app.database.pool.minimum-idle:5}")
+    private int minimumIdle;
+
+    @Value("${app.database.pool.connection-timeout:30000}")
+    private long connectionTimeout;
+
+    @Value("${app.database.pool.idle-timeout:600000}")
+    private long idleTimeout;
+
+    @Value("${app.database.pool.max-lifetime:1800000}")
+    private long maxLifetime;
+
+    @Value("${app.database.pool.leak-detection-threshold:60000}")
+    private long leakDetectionThreshold;
+
+    @Value("${spring.application.name:postgres-jdbc-client}")
+    private String applicationName;
+
+    public ConnectionPoolFactory(StatementWarmupService statementWarmup) {
+        this.statementWarmup = statementWarmup;
+    }
+
+    /**
+     * Creates and starts a pool; credentials holds url, username, password and driver
+     */
+    public HikariDataSource create(String name, PoolSettings settings, Map<String, String> credentials) {
+        PoolSettings effective = effective(name, settings);
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(credentials.get("url"));
+        config.setUsername(credentials.get("username"));
+        config.setPassword(credentials.get("password"));
+        config.setDriverClassName(credentials.get("driver"));
+
+        // Connection pool configuration
+        config.setMaximumPoolSize(effective.getMaximumPoolSize());
+        config.setMinimumIdle(effective.getMinimumIdle());
+        config.setConnectionTimeout(effective.getConnectionTimeout());
+        config.setIdleTimeout(effective.getIdleTimeout());
+        config.setMaxLifetime(effective.getMaxLifetime());
+        config.setLeakDetectionThreshold(effective.getLeakDetectionThreshold());
+        if (effective.getValidationTimeout() != null) {
+            config.setValidationTimeout(effective.getValidationTimeout());
+        }
+        if (effective.getKeepaliveTime() != null) {
+            config.setKeepaliveTime(effective.getKeepaliveTime());
+        }
+
+        // Pool name and additional settings
+        config.setPoolName(effective.getPoolName());
+        config.setConnectionTestQuery("SELECT 1");
+        // Profiles' defaultRowFetchSize therefore only pages reads inside a transaction
+        config.setAutoCommit(true);
+
+        // pgjdbc tuning from the pool's driver profile, with per-pool overrides on top
+        Properties driverProperties = effective.getDriverProfile().properties();
+        driverProperties.putAll(effective.getDriverProperties());
+        warnUnknownDriverProperties(effective.getPoolName(), config.getJdbcUrl(), driverProperties);
+        config.getDataSourceProperties().putAll(driverProperties);
+
+        // Per-workload session settings
+        config.addDataSourceProperty("ApplicationName", effective.getApplicationName());
+        if (effective.getStatementTimeout() > 0) {
+            config.addDataSourceProperty("options", "-c statement_timeout=" + effective.getStatementTimeout());
+        }
+
+        // Physical connections come from our own driver data source so new ones can be warmed up
+        Properties urlProperties = config.getJdbcUrl() != null
+            ? Driver.parseURL(config.getJdbcUrl(), config.getDataSourceProperties()) : null;
+        if (statementWarmup.appliesTo(name, urlProperties != null ? urlProperties : config.getDataSourceProperties())) {
+            config.setDataSource(statementWarmup.wrap(name, new DriverDataSource(config.getJdbcUrl(),
+                config.getDriverClassName(), config.getDataSourceProperties(), config.getUsername(), config.getPassword())));
+        }
+
+        logger.info("Creating HikariCP DataSource '{}' with pool size: {}, minimum idle: {}, statement timeout: {}ms, driver profile: {}",
+                   effective.getPoolName(), config.getMaximumPoolSize(), config.getMinimumIdle(),
+                   effective.getStatementTimeout(), effective.getDriverProfile());
+
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Warns about driver properties pgjdbc does not know, in the pool's
+     * settings or in the JDBC URL; the driver ignores them silently
+     */
+    private void warnUnknownDriverProperties(String poolName, String url, Properties driverProperties) {
+        Set<String> unknown = new TreeSet<>();
+        for (String name : driverProperties.stringPropertyNames()) {
+            if (PGProperty.forName(name) == null) {
+                unknown.add(name);
+            }
+        }
+        Properties urlProperties = url != null ? Driver.parseURL(url, null) : null;
+        if (urlProperties != null) {
+            for (String name : urlProperties.stringPropertyNames()) {
+                if (PGProperty.forName(name) == null) {
+                    unknown.add(name + " (in URL)");
+                }
+            }
+        }
+        if (!unknown.isEmpty()) {
+            logger.warn("Pool '{}' sets driver properties pgjdbc does not recognize and will ignore: {}", poolName, unknown);
+        }
+    }
+
+    /**
+     * Copy of the settings with every unset value filled in from app.database.pool.*
+     */
+    public PoolSettings effective(String name, PoolSettings settings) {
+        PoolSettings effective = new PoolSettings();
+        int poolSize = settings.getMaximumPoolSize() != null ? settings.getMaximumPoolSize() : maximumPoolSize;
+        int poolMinimumIdle = settings.getMinimumIdle() != null ? settings.getMinimumIdle() : minimumIdle;
+        effective.setMaximumPoolSize(poolSize);
+        effective.setMinimumIdle(Math.min(poolMinimumIdle, poolSize));
+        effective.setConnectionTimeout(settings.getConnectionTimeout() != null ? settings.getConnectionTimeout() : connectionTimeout);
+        effective.setIdleTimeout(settings.getIdleTimeout() != null ? settings.getIdleTimeout() : idleTimeout);
+        effective.setMaxLifetime(settings.getMaxLifetime() != null ? settings.getMaxLifetime() : maxLifetime);
+        effective.setLeakDetectionThreshold(settings.getLeakDetectionThreshold() != null
+            ? settings.getLeakDetectionThreshold() : leakDetectionThreshold);
+        // Left unset, Hikari's own defaults apply
+        effective.setValidationTimeout(settings.getValidationTimeout());
+        effective.setKeepaliveTime(settings.getKeepaliveTime());
+        effective.setStatementTimeout(settings.getStatementTimeout() != null ? settings.getStatementTimeout() : 0L);
+        effective.setPoolName(settings.getPoolName() != null ? settings.getPoolName()
+            : DatabasePool.OLTP.equals(name) ? "PostgreSQLPool" : "PostgreSQLPool-" + name);
+        effective.setApplicationName(settings.getApplicationName() != null
+            ? settings.getApplicationName() : applicationName + "-" + name);
+        effective.setDriverProfile(settings.getDriverProfile() != null
+            ? settings.getDriverProfile() : DriverProfile.forPool(name));
+        effective.setDriverProperties(new LinkedHashMap<>(settings.getDriverProperties()));
+        return effective;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.config;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the DataSource handed out for a named pool. Decorator beans are
+ * applied in {@link org.springframework.core.annotation.Order} order, the
+ * lowest order ending up closest to the HikariCP pool.
+ */
+public interface DataSourceDecorator {
+
+    DataSource decorate(String poolName, DataSource dataSource);
+
+    /**
+     * Called once the pool has been removed from the registry, to drop any
+     * state and meters kept for it
+     */
+    default void release(String poolName) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Holds the named connection pools created by {@link DatabaseConfiguration}.
+ * Each workload (OLTP, reporting, admin, ...) gets its own HikariCP pool so a
+ * slow report or schema operation can never exhaust the connections that
+ * latency-sensitive requests depend on.
+ *
+ * <p>Pools may also be added and removed at runtime (shard pools); lookups
+ * read an immutable copy so they never block on registration.
+ */
+public class DataSourceRegistry implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceRegistry.class);
+
+    private final List<DataSourceDecorator> decorators;
+    private volatile Map<String, Entry> entries = Collections.emptyMap();
+
+    public DataSourceRegistry(List<DataSourceDecorator> decorators) {
+        this.decorators = decorators;
+    }
+
+    /**
+     * Registers a pool under the given name, applying all decorators. An
+     * existing pool with the same name is replaced but not closed.
+     */
+    public synchronized void register(String name, HikariDataSource pool) {
+        DataSource dataSource = pool;
+        for (DataSourceDecorator decorator : decorators) {
+            dataSource = decorator.decorate(name, dataSource);
+        }
+
+        Map<String, Entry> updated = new LinkedHashMap<>(entries);
+        updated.put(name, new Entry(pool, dataSource, new JdbcTemplate(dataSource)));
+        entries = Collections.unmodifiableMap(updated);
+    }
+
+    /**
+     * Removes a pool from the registry and returns it; closing it is up to the caller
+     */
+    public synchronized HikariDataSource unregister(String name) {
+        Map<String, Entry> updated = new LinkedHashMap<>(entries);
+        Entry removed = updated.remove(name);
+        if (removed == null) {
+            throw new IllegalArgumentException("Unknown connection pool: " + name);
+        }
+        entries = Collections.unmodifiableMap(updated);
+        decorators.forEach(decorator -> decorator.release(name));
+        return removed.pool();
+    }
+
+    /**
+     * Returns the DataSource callers should use for the named pool, with all
+     * registered decorators applied
+     */
+    public DataSource getDataSource(String name) {
+        return entry(name).dataSource();
+    }
+
+    /**
+     * Returns the underlying HikariCP pool, for monitoring and pool management
+     */
+    public HikariDataSource getPool(String name) {
+        return entry(name).pool();
+    }
+
+    public JdbcTemplate getJdbcTemplate(String name) {
+        return entry(name).jdbcTemplate();
+    }
+
+    public boolean hasPool(String name) {
+        return entries.containsKey(name);
+    }
+
+    public Set<String> getPoolNames() {
+        return entries.keySet();
+    }
+
+    private Entry entry(String name) {
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            throw new IllegalArgumentException("Unknown connection pool: " + name);
+        }
+        return entry;
+    }
+
+    @Override
+    public void destroy() {
+        entries.forEach((name, entry) -> {
+            if (!entry.pool().isClosed()) {
+                logger.info("Closing connection pool: {}", name);
+                entry.pool().close();
+            }
+        });
+    }
+
+    private record Entry(HikariDataSource pool, DataSource dataSource, JdbcTemplate jdbcTemplate) {
+    }
+}
@@ -1,17 +1,16 @@
 package com.example.config;
 
-import com.example.service.VaultService;
-import com.zaxxer.hikari.HikariConfig;
-import com.zaxxer.hikari.HikariDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import javax.sql.DataSource;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Configuration
@@ -19,102 +18,65 @@ public class DatabaseConfiguration {
 
     private static final Logger logger = LoggerFactory.getLogger(DatabaseConfiguration.class);
 
-    @Value("${app.vault.enabled:true}")
-    private boolean vaultEnabled;
+    private final DatabaseCredentials databaseCredentials;
+    private final ConnectionPoolFactory poolFactory;
 
-    @Value("${app.database.pool.maximum-pool-size:10}")
-    private int maximumPoolSize;
-
-    @Value("${app.database.pool.minimum-idle:5}")
-    private int minimumIdle;
-
-    @Value("${app.database.pool.connection-timeout:30000}")
-    private long connectionTimeout;
-
-    @Value("${app.database.pool.idle-timeout:600000}")
-    private long idleTimeout;
-
-    @Value("${app.database.pool.max-lifetime:1800000}")
-    private long maxLifetime;
-
-    @Value("${app.database.pool.leak-detection-threshold:60000}")
-    private long leakDetectionThreshold;
-
-    // Fallback properties
-    @Value("${app.database.fallback.url}")
-    private String fallbackUrl;
-
-    @Value("${app.database.fallback.username}")
-    private String fallbackUsername;
+    public DatabaseConfiguration(DatabaseCredentials databaseCredentials, ConnectionPoolFactory poolFactory) {
+        this.databaseCredentials = databaseCredentials;
+        this.poolFactory = poolFactory;
+    }
 
-    @Value("${app.database.fallback.password}")
-    private String fallbackPassword;
+    @Bean
+    public DataSourceRegistry dataSourceRegistry(NamedPoolProperties namedPoolProperties,
+                                                 ObjectProvider<DataSourceDecorator> decorators) {
+        Map<String, String> credentials = databaseCredentials.resolve();
+        DataSourceRegistry registry = new DataSourceRegistry(decorators.orderedStream().toList());
+
+        Map<String, PoolSettings> pools = new LinkedHashMap<>(namedPoolProperties.getPools());
+        pools.putIfAbsent(DatabasePool.OLTP, new PoolSettings());
+        pools.putIfAbsent(DatabasePool.REPORTING, new PoolSettings());
+        pools.putIfAbsent(DatabasePool.ADMIN, new PoolSettings());
+
+        pools.forEach((name, settings) -> registry.register(name, poolFactory.create(name, settings, credentials)));
+        return registry;
+    }
 
-    @Value("${app.database.fallback.driver-class-name}")
-    private String fallbackDriverClassName;
+    @Bean
+    @Primary
+    @DatabasePool(DatabasePool.OLTP)
+    public DataSource dataSource(DataSourceRegistry registry) {
+        return registry.getDataSource(DatabasePool.OLTP);
+    }
 
-    private final VaultService vaultService;
+    @Bean
+    @DatabasePool(DatabasePool.REPORTING)
+    public DataSource reportingDataSource(DataSourceRegistry registry) {
+        return registry.getDataSource(DatabasePool.REPORTING);
+    }
 
-    public DatabaseConfiguration(VaultService vaultService) {
-        this.vaultService = vaultService;
+    @Bean
+    @DatabasePool(DatabasePool.ADMIN)
+    public DataSource adminDataSource(DataSourceRegistry registry) {
+        return registry.getDataSource(DatabasePool.ADMIN);
     }
 
     @Bean
     @Primary
-    public DataSource dataSource() {
-        HikariConfig config = new HikariConfig();
-        
-        try {
-            if (vaultEnabled) {
-                logger.info("Attempting to retrieve database credentials from Vault");
-                Map<String, String> dbCredentials = vaultService.getCredentials();
-                
-                config.setJdbcUrl(dbCredentials.get("url"));
-                config.setUsername(dbCredentials.get("username"));
-                config.setPassword(dbCredentials.get("password"));
-                config.setDriverClassName(dbCredentials.getOrDefault("driver", "org.postgresql.Driver"));
-                
-                logger.info("Successfully configured database connection using Vault credentials");
-            } else {
-                logger.warn("Vault is disabled, using fallback configuration");
-                configureWithFallback(config);
-            }
-        } catch (Exception e) {
-            logger.error("Failed to retrieve credentials from Vault, falling back to default configuration", e);
-            configureWithFallback(config);
-        }
-
-        // Connection pool configuration
-        config.setMaximumPoolSize(maximumPoolSize);
-        config.setMinimumIdle(minimumIdle);
-        config.setConnectionTimeout(connectionTimeout);
-        config.setIdleTimeout(idleTimeout);
-        config.setMaxLifetime(maxLifetime);
-        config.setLeakDetectionThreshold(leakDetectionThreshold);
-
-        // Pool name and additional settings
-        config.setPoolName("PostgreSQLPool");
-        config.setConnectionTestQuery("SELECT 1");
-        config.setAutoCommit(true);
-
-        // Additional PostgreSQL specific settings
-        config.addDataSourceProperty("cachePrepStmts", "true");
-        config.addDataSourceProperty("prepStmtCacheSize", "250");
-        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-        config.addDataSourceProperty("useServerPrepStmts", "true");
-        config.addDataSourceProperty("reWriteBatchedInserts", "true");
-
-        logger.info("Creating HikariCP DataSource with pool size: {}, minimum idle: {}", 
-                   maximumPoolSize, minimumIdle);
-
-        return new HikariDataSource(config);
+    @DatabasePool(DatabasePool.OLTP)
+    public JdbcTemplate jdbcTemplate(DataSourceRegistry registry) {
+        return registry.getJdbcTemplate(DatabasePool.OLTP);
     }
 
-    private void configureWithFallback(HikariConfig config) {
-        config.setJdbcUrl(fallbackUrl);
-        config.setUsername(fallbackUsername);
-        config.setPassword(fallbackPassword);
-        config.setDriverClassName(fallbackDriverClassName);
+    @Bean
+    @DatabasePool(DatabasePool.REPORTING)
+    public JdbcTemplate reportingJdbcTemplate(DataSourceRegistry registry) {
+        return registry.getJdbcTemplate(DatabasePool.REPORTING);
+    }
+
+    @Bean
+    @DatabasePool(DatabasePool.ADMIN)
+    public JdbcTemplate adminJdbcTemplate(DataSourceRegistry registry) {
+        return registry.getJdbcTemplate(DatabasePool.ADMIN);
     }
 
     // Configuration properties for monitoring
@@ -124,6 +86,12 @@ public class DatabaseConfiguration {
         return new DatabasePoolProperties();
     }
 
+    @Bean
+    @ConfigurationProperties(prefix = "app.database")
+    public NamedPoolProperties namedPoolProperties() {
+        return new NamedPoolProperties();
+    }
+
     public static class DatabasePoolProperties {
         private int maximumPoolSize = 10;
         private int minimumIdle = 5;
@@ -151,4 +119,70 @@ public class DatabaseConfiguration {
         public long getLeakDetectionThreshold() { return leakDetectionThreshold; }
         public void setLeakDetectionThreshold(long leakDetectionThreshold) { this.leakDetectionThreshold = leakDetectionThreshold; }
     }
+
+    public static class NamedPoolProperties {
+        private Map<String, PoolSettings> pools = new LinkedHashMap<>();
+
+        public Map<String, PoolSettings> getPools() { return pools; }
+        public void setPools(Map<String, PoolSettings> pools) { this.pools = pools; }
+    }
+
+    /**
+     * Settings for one named pool; null values inherit app.database.pool.*
+     */
+    public static class PoolSettings {
+        private String poolName;
+        private Integer maximumPoolSize;
+        private Integer minimumIdle;
+        private Long connectionTimeout;
+        private Long idleTimeout;
+        private Long maxLifetime;
+        private Long leakDetectionThreshold;
+        private Long validationTimeout;
+        private Long keepaliveTime;
+        private Long statementTimeout;
+        private String applicationName;
+        private DriverProfile driverProfile;
+        private Map<String, String> driverProperties = new LinkedHashMap<>();
+
+        // Getters and setters
+        public String getPoolName() { return poolName; }
+        public void setPoolName(String poolName) { this.poolName = poolName; }
+
+        public Integer getMaximumPoolSize() { return maximumPoolSize; }
+        public void setMaximumPoolSize(Integer maximumPoolSize) { this.maximumPoolSize = maximumPoolSize; }
+
+        public Integer getMinimumIdle() { return minimumIdle; }
+        public void setMinimumIdle(Integer minimumIdle) { this.minimumIdle = minimumIdle; }
+
+        public Long getConnectionTimeout() { return connectionTimeout; }
+        public void setConnectionTimeout(Long connectionTimeout) { this.connectionTimeout = connectionTimeout; }
+
+        public Long getIdleTimeout() { return idleTimeout; }
+        public void setIdleTimeout(Long idleTimeout) { this.idleTimeout = idleTimeout; }
+
+        public Long getMaxLifetime() { return maxLifetime; }
+        public void setMaxLifetime(Long maxLifetime) { this.maxLifetime = maxLifetime; }
+
+        public Long getLeakDetectionThreshold() { return leakDetectionThreshold; }
+        public void setLeakDetectionThreshold(Long leakDetectionThreshold) { this.leakDetectionThreshold = leakDetectionThreshold; }
+
+        public Long getValidationTimeout() { return validationTimeout; }
+        public void setValidationTimeout(Long validationTimeout) { this.validationTimeout = validationTimeout; }
+
+        public Long getKeepaliveTime() { return keepaliveTime; }
+        public void setKeepaliveTime(Long keepaliveTime) { this.keepaliveTime = keepaliveTime; }
+
+        public Long getStatementTimeout() { return statementTimeout; }
+        public void setStatementTimeout(Long statementTimeout) { this.statementTimeout = statementTimeout; }
+
+        public String getApplicationName() { return applicationName; }
+        public void setApplicationName(String applicationName) { this.applicationName = applicationName; }
+
+        public DriverProfile getDriverProfile() { return driverProfile; }
+        public void setDriverProfile(DriverProfile driverProfile) { this.driverProfile = driverProfile; }
+
+        public Map<String, String> getDriverProperties() { return driverProperties; }
+        public void setDriverProperties(Map<String, String> driverProperties) { this.driverProperties = driverProperties; }
+    }
 }
\ No newline at end of file
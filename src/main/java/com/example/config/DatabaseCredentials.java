@@ -0,0 +1,91 @@
+package com.example.config;
+
+import com.example.service.VaultService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolves the primary database credentials (url, username, password, driver)
+ * from Vault, falling back to app.database.fallback.*. Resolved once and
+ * shared by the JDBC pools and the reactive pool.
+ */
+@Component
+public class DatabaseCredentials {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseCredentials.class);
+
+    @Value("${app.vault.enabled:true}")
+    private boolean vaultEnabled;
+
+    // Fallback properties
+    @Value("${app.database.fallback.url}")
+    private String fallbackUrl;
+
+    @Value("${app.database.fallback.username}")
+    private String fallbackUsername;
+
+    @Value("${app.database.fallback.password}")
+    private String fallbackPassword;
+
+    @Value("${app.database.fallback.driver-class-name}")
+    private String fallbackDriverClassName;
+
+    private final VaultService vaultService;
+    private volatile Map<String, String> resolved;
+
+    public DatabaseCredentials(VaultService vaultService) {
+        this.vaultService = vaultService;
+    }
+
+    public Map<String, String> resolve() {
+        Map<String, String> credentials = resolved;
+        if (credentials == null) {
+            synchronized (this) {
+                if (resolved == null) {
+                    resolved = Collections.unmodifiableMap(resolveCredentials());
+                }
+                credentials = resolved;
+            }
+        }
+        return credentials;
+    }
+
+    private Map<String, String> resolveCredentials() {
+        Map<String, String> credentials = new HashMap<>();
+
+        try {
+            if (vaultEnabled) {
+                logger.info("Attempting to retrieve database credentials from Vault");
+                Map<String, String> dbCredentials = vaultService.getCredentials();
+                
+                credentials.put("url", dbCredentials.get("url"));
+                credentials.put("username", dbCredentials.get("username"));
+                credentials.put("password", dbCredentials.get("password"));
+                credentials.put("driver", dbCredentials.getOrDefault("driver", "org.postgresql.Driver"));
+                
+                logger.info("Successfully configured database connection using Vault credentials");
+            } else {
+                logger.warn("Vault is disabled, using fallback configuration");
+                configureWithFallback(credentials);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to retrieve credentials from Vault, falling back to default configuration", e);
+            configureWithFallback(credentials);
+        }
+
+        return credentials;
+    }
+
+    private void configureWithFallback(Map<String, String> credentials) {
+        credentials.put("url", fallbackUrl);
+        credentials.put("username", fallbackUsername);
+        credentials.put("password", fallbackPassword);
+        credentials.put("driver", fallbackDriverClassName);
+    }
+}
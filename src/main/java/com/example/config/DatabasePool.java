@@ -0,0 +1,27 @@
+package com.example.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Qualifier selecting the named connection pool a DataSource or JdbcTemplate
+ * is drawn from, e.g. {@code @DatabasePool(DatabasePool.REPORTING) JdbcTemplate}.
+ * Unqualified injection points receive the OLTP pool.
+ */
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Qualifier
+@Documented
+public @interface DatabasePool {
+
+    String OLTP = "oltp";
+    String REPORTING = "reporting";
+    String ADMIN = "admin";
+
+    String value();
+}
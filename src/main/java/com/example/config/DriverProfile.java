@@ -0,0 +1,96 @@
+package com.example.config;
+
+import org.postgresql.PGProperty;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * pgjdbc tuning per workload, applied as driver properties by
+ * {@link ConnectionPoolFactory}. A pool uses the profile named by its
+ * driver-profile setting, by default the one matching its name, with
+ * driver-properties layered on top.
+ *
+ * pgjdbc server-prepares a statement once the same PreparedStatement text
+ * has been executed prepareThreshold times on a connection, and keeps
+ * parsed statements in a per-connection cache bounded by
+ * preparedStatementCacheQueries and preparedStatementCacheSizeMiB.
+ * defaultRowFetchSize only streams results when auto-commit is off, and
+ * every pool hands out auto-commit connections: the REPORTING and BULK page
+ * sizes apply to reads inside a transaction the caller opened (e.g.
+ * {@code @Transactional(readOnly = true)}) or inside the cursor scope the
+ * result-set guard opens. A plain auto-commit read still buffers the whole
+ * result.
+ */
+public enum DriverProfile {
+
+    /**
+     * Short, repeated statements: server-prepare early, keep a large cache,
+     * and let small results arrive in one round trip
+     */
+    OLTP(Map.of(
+        PGProperty.PREPARE_THRESHOLD.getName(), "3",
+        PGProperty.PREPARED_STATEMENT_CACHE_QUERIES.getName(), "512",
+        PGProperty.PREPARED_STATEMENT_CACHE_SIZE_MIB.getName(), "8",
+        PGProperty.DEFAULT_ROW_FETCH_SIZE.getName(), "0",
+        PGProperty.BINARY_TRANSFER.getName(), "true",
+        PGProperty.REWRITE_BATCHED_INSERTS.getName(), "true",
+        PGProperty.TCP_KEEP_ALIVE.getName(), "true")),
+
+    /**
+     * Few, long-running and parameter-sensitive queries: never server-prepare,
+     * so every execution gets a custom plan, and fetch large results in pages
+     * when read inside a transaction
+     */
+    REPORTING(Map.of(
+        PGProperty.PREPARE_THRESHOLD.getName(), "0",
+        PGProperty.PREPARED_STATEMENT_CACHE_QUERIES.getName(), "64",
+        PGProperty.PREPARED_STATEMENT_CACHE_SIZE_MIB.getName(), "2",
+        PGProperty.DEFAULT_ROW_FETCH_SIZE.getName(), "1000",
+        PGProperty.BINARY_TRANSFER.getName(), "true",
+        PGProperty.REWRITE_BATCHED_INSERTS.getName(), "false",
+        PGProperty.TCP_KEEP_ALIVE.getName(), "true")),
+
+    /**
+     * Loads and exports: one statement executed many times, batched inserts
+     * rewritten into multi-row VALUES, big fetch pages inside a transaction
+     */
+    BULK(Map.of(
+        PGProperty.PREPARE_THRESHOLD.getName(), "1",
+        PGProperty.PREPARED_STATEMENT_CACHE_QUERIES.getName(), "64",
+        PGProperty.PREPARED_STATEMENT_CACHE_SIZE_MIB.getName(), "2",
+        PGProperty.DEFAULT_ROW_FETCH_SIZE.getName(), "10000",
+        PGProperty.BINARY_TRANSFER.getName(), "true",
+        PGProperty.REWRITE_BATCHED_INSERTS.getName(), "true",
+        PGProperty.TCP_KEEP_ALIVE.getName(), "true"));
+
+    private final Map<String, String> properties;
+
+    DriverProfile(Map<String, String> properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * A fresh copy of the profile's driver properties
+     */
+    public Properties properties() {
+        Properties copy = new Properties();
+        copy.putAll(properties);
+        return copy;
+    }
+
+    public Map<String, String> asMap() {
+        return new LinkedHashMap<>(properties);
+    }
+
+    /**
+     * The profile a pool uses when none is configured
+     */
+    public static DriverProfile forPool(String poolName) {
+        if (DatabasePool.REPORTING.equals(poolName)) {
+            return REPORTING;
+        }
+        return "bulk".equals(poolName) ? BULK : OLTP;
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.config;
+
+import com.example.config.DatabaseConfiguration.PoolSettings;
+import com.example.service.PoolMetricsSnapshot;
+import com.example.service.PoolMetricsSource;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.postgresql.PostgresqlConnectionConfiguration;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.r2dbc.postgresql.client.SSLMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Non-blocking R2DBC connection pool next to the JDBC pools. It uses the same
+ * credentials as {@link DatabaseConfiguration} and takes its settings from
+ * app.r2dbc.pool.*, with unset values inherited from app.database.pool.*
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.r2dbc", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveDatabaseConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveDatabaseConfiguration.class);
+
+    public static final String POOL_NAME = "reactive";
+
+    @Value("${app.r2dbc.fetch-size:256}")
+    private int fetchSize;
+
+    @Bean
+    @ConfigurationProperties(prefix = "app.r2dbc.pool")
+    public PoolSettings reactivePoolSettings() {
+        return new PoolSettings();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool reactiveConnectionFactory(DatabaseCredentials databaseCredentials,
+                                                    ConnectionPoolFactory poolFactory,
+                                                    PoolSettings reactivePoolSettings) {
+        PoolSettings settings = poolFactory.effective(POOL_NAME, reactivePoolSettings);
+        Map<String, String> credentials = databaseCredentials.resolve();
+        PostgresqlConnectionConfiguration.Builder connection = fromJdbcUrl(credentials.get("url"))
+            .username(credentials.get("username"))
+            .password(credentials.get("password"))
+            .applicationName(settings.getApplicationName())
+            .fetchSize(fetchSize);
+        if (settings.getStatementTimeout() > 0) {
+            connection.statementTimeout(Duration.ofMillis(settings.getStatementTimeout()));
+        }
+
+        ConnectionPoolConfiguration configuration = ConnectionPoolConfiguration
+            .builder(new PostgresqlConnectionFactory(connection.build()))
+            .name(settings.getPoolName())
+            .maxSize(settings.getMaximumPoolSize())
+            .minIdle(settings.getMinimumIdle())
+            .maxAcquireTime(Duration.ofMillis(settings.getConnectionTimeout()))
+            .maxIdleTime(Duration.ofMillis(settings.getIdleTimeout()))
+            .maxLifeTime(Duration.ofMillis(settings.getMaxLifetime()))
+            .validationQuery("SELECT 1")
+            .build();
+
+        logger.info("Creating R2DBC ConnectionPool '{}' with pool size: {}, minimum idle: {}, fetch size: {}",
+                   settings.getPoolName(), settings.getMaximumPoolSize(), settings.getMinimumIdle(), fetchSize);
+        return new ConnectionPool(configuration);
+    }
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(ConnectionPool reactiveConnectionFactory) {
+        return DatabaseClient.create(reactiveConnectionFactory);
+    }
+
+    @Bean
+    public PoolMetricsSource reactivePoolMetricsSource(ConnectionPool reactiveConnectionFactory,
+                                                       ConnectionPoolFactory poolFactory,
+                                                       PoolSettings reactivePoolSettings) {
+        return new ReactivePoolMetricsSource(reactiveConnectionFactory,
+                                             poolFactory.effective(POOL_NAME, reactivePoolSettings));
+    }
+
+    /**
+     * Translates jdbc:postgresql://host[:port][,host[:port]]/database?currentSchema=..&sslmode=..
+     */
+    static PostgresqlConnectionConfiguration.Builder fromJdbcUrl(String jdbcUrl) {
+        if (jdbcUrl == null || !jdbcUrl.startsWith("jdbc:postgresql://")) {
+            throw new IllegalArgumentException("Not a PostgreSQL JDBC URL: " + jdbcUrl);
+        }
+        String rest = jdbcUrl.substring("jdbc:postgresql://".length());
+        int slash = rest.indexOf('/');
+        String hosts = slash >= 0 ? rest.substring(0, slash) : rest;
+        URI uri = URI.create("postgresql://localhost" + (slash >= 0 ? rest.substring(slash) : "/"));
+
+        PostgresqlConnectionConfiguration.Builder builder = PostgresqlConnectionConfiguration.builder();
+        String[] hostList = hosts.split(",");
+        for (String hostAndPort : hostList) {
+            int colon = hostAndPort.lastIndexOf(':');
+            boolean hasPort = colon > 0 && !hostAndPort.endsWith("]");
+            String host = hasPort ? hostAndPort.substring(0, colon) : hostAndPort;
+            int port = hasPort ? Integer.parseInt(hostAndPort.substring(colon + 1)) : 5432;
+            if (hostList.length == 1) {
+                builder.host(host).port(port);
+            } else {
+                builder.addHost(host, port);
+            }
+        }
+
+        String database = uri.getPath() != null && uri.getPath().length() > 1 ? uri.getPath().substring(1) : null;
+        if (database != null) {
+            builder.database(database);
+        }
+        if (uri.getQuery() != null) {
+            for (String parameter : uri.getQuery().split("&")) {
+                int eq = parameter.indexOf('=');
+                if (eq <= 0) {
+                    continue;
+                }
+                String key = parameter.substring(0, eq);
+                String value = parameter.substring(eq + 1);
+                if ("currentSchema".equalsIgnoreCase(key)) {
+                    builder.schema(value);
+                } else if ("sslmode".equalsIgnoreCase(key)) {
+                    builder.sslMode(SSLMode.fromValue(value));
+                }
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Maps r2dbc-pool metrics onto the snapshot used for the HikariCP pools;
+     * pending acquires take the place of threads awaiting a connection
+     */
+    static final class ReactivePoolMetricsSource implements PoolMetricsSource {
+        private final ConnectionPool pool;
+        private final PoolSettings settings;
+
+        ReactivePoolMetricsSource(ConnectionPool pool, PoolSettings settings) {
+            this.pool = pool;
+            this.settings = settings;
+        }
+
+        @Override
+        public String getName() {
+            return POOL_NAME;
+        }
+
+        @Override
+        public PoolMetricsSnapshot sample() {
+            Optional<PoolMetrics> metrics = pool.getMetrics();
+            boolean available = metrics.isPresent();
+            return new PoolMetricsSnapshot(
+                POOL_NAME,
+                settings.getPoolName(),
+                System.currentTimeMillis(),
+                System.nanoTime(),
+                available,
+                metrics.map(PoolMetrics::allocatedSize).orElse(PoolMetricsSnapshot.UNAVAILABLE),
+                metrics.map(PoolMetrics::acquiredSize).orElse(PoolMetricsSnapshot.UNAVAILABLE),
+                metrics.map(PoolMetrics::idleSize).orElse(PoolMetricsSnapshot.UNAVAILABLE),
+                metrics.map(PoolMetrics::pendingAcquireSize).orElse(PoolMetricsSnapshot.UNAVAILABLE),
+                settings.getMaximumPoolSize(),
+                settings.getMinimumIdle(),
+                settings.getConnectionTimeout(),
+                settings.getIdleTimeout(),
+                settings.getMaxLifetime(),
+                pool.isDisposed(),
+                !pool.isDisposed());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.config;
+
+import com.example.service.admission.AdmissionInterceptor;
+import com.example.service.matview.StalenessInterceptor;
+import com.example.service.tracing.TracingInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+    private final AdmissionInterceptor admissionInterceptor;
+    private final TracingInterceptor tracingInterceptor;
+    private final StalenessInterceptor stalenessInterceptor;
+
+    public WebConfiguration(AdmissionInterceptor admissionInterceptor, TracingInterceptor tracingInterceptor,
+                            StalenessInterceptor stalenessInterceptor) {
+        this.admissionInterceptor = admissionInterceptor;
+        this.tracingInterceptor = tracingInterceptor;
+        this.stalenessInterceptor = stalenessInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Tracing first, so the root span also covers admission
+        registry.addInterceptor(tracingInterceptor).addPathPatterns("/api/**");
+        registry.addInterceptor(admissionInterceptor).addPathPatterns("/api/**");
+        registry.addInterceptor(stalenessInterceptor).addPathPatterns("/api/**");
+    }
+}
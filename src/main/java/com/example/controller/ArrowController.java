@@ -0,0 +1,100 @@
+package com.example.controller;
+
+import com.example.service.admission.AdmissionPolicy;
+import com.example.service.admission.PriorityClass;
+import com.example.service.arrow.ArrowExportBenchmark;
+import com.example.service.arrow.ArrowExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/arrow")
+public class ArrowController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArrowController.class);
+
+    private final ArrowExportService exportService;
+    private final ArrowExportBenchmark exportBenchmark;
+
+    public ArrowController(ArrowExportService exportService, ArrowExportBenchmark exportBenchmark) {
+        this.exportService = exportService;
+        this.exportBenchmark = exportBenchmark;
+    }
+
+    @GetMapping("/sources")
+    public ResponseEntity<Map<String, Object>> getSources() {
+        Map<String, Object> result = new HashMap<>(exportService.getStatus());
+        result.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Streams the source as an Arrow IPC stream; errors detected before the
+     * first batch are answered with a JSON body instead
+     */
+    @GetMapping("/export/{source}")
+    @AdmissionPolicy(priority = PriorityClass.BACKGROUND)
+    public void export(@PathVariable String source,
+                       @RequestParam(defaultValue = "0") long limit,
+                       HttpServletResponse response) throws IOException {
+        try {
+            exportService.resolve(source);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            ErrorResponses.write(response, HttpStatus.BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        response.setContentType(ArrowExportService.MEDIA_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + source + ".arrows\"");
+        try {
+            exportService.export(source, Math.max(0, limit), response.getOutputStream());
+        } catch (Exception e) {
+            logger.error("Arrow export of {} failed", source, e);
+            if (response.isCommitted()) {
+                // Readers see a truncated stream without the end marker
+                throw e;
+            }
+            response.reset();
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            ErrorResponses.write(response, HttpStatus.INTERNAL_SERVER_ERROR, "Arrow export failed: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/benchmark")
+    @AdmissionPolicy(priority = PriorityClass.BACKGROUND)
+    public ResponseEntity<Map<String, Object>> benchmark(@RequestParam(defaultValue = "v_product_inventory") String source,
+                                                         @RequestParam(defaultValue = "0") long limit,
+                                                         @RequestParam(defaultValue = "5") int iterations) {
+        try {
+            Map<String, Object> result = new HashMap<>(
+                exportBenchmark.run(source, Math.max(0, limit), Math.max(1, Math.min(iterations, 100))));
+            result.put("status", "success");
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(result);
+
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Arrow export benchmark failed", e);
+
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Benchmark failed: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+}
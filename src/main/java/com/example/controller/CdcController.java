@@ -0,0 +1,155 @@
+package com.example.controller;
+
+import com.example.service.admission.AdmissionPolicy;
+import com.example.service.admission.PriorityClass;
+import com.example.service.cdc.ChangeDataCaptureService;
+import com.example.service.cdc.ChangeEvent;
+import com.example.service.cdc.HttpSubscriberSink;
+import com.example.service.cdc.InMemoryQueueSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cdc")
+@AdmissionPolicy(priority = PriorityClass.BACKGROUND)
+public class CdcController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CdcController.class);
+
+    private final ChangeDataCaptureService cdcService;
+    private final ObjectProvider<InMemoryQueueSink> queueSink;
+    private final ObjectProvider<HttpSubscriberSink> httpSink;
+
+    public CdcController(ChangeDataCaptureService cdcService,
+                         ObjectProvider<InMemoryQueueSink> queueSink,
+                         ObjectProvider<HttpSubscriberSink> httpSink) {
+        this.cdcService = cdcService;
+        this.queueSink = queueSink;
+        this.httpSink = httpSink;
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        Map<String, Object> status = cdcService.getStatus();
+        InMemoryQueueSink queue = queueSink.getIfAvailable();
+        if (queue != null) {
+            status.put("queuedEvents", queue.size());
+        }
+        status.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(status);
+    }
+
+    @PostMapping("/start")
+    public ResponseEntity<Map<String, Object>> start() {
+        try {
+            cdcService.start();
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("status", "success");
+            result.put("message", "CDC stream started");
+            result.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Failed to start CDC stream", e);
+
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Failed to start CDC stream: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<Map<String, Object>> stop() {
+        cdcService.stop();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("status", "success");
+        result.put("message", "CDC stream stopped");
+        result.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/events")
+    public ResponseEntity<Map<String, Object>> drainEvents(@RequestParam(defaultValue = "100") int max) {
+        InMemoryQueueSink queue = queueSink.getIfAvailable();
+        if (queue == null) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "In-memory CDC queue sink is disabled");
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        List<ChangeEvent> events = queue.drain(Math.max(1, Math.min(max, 10000)));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("events", events);
+        result.put("count", events.size());
+        result.put("remaining", queue.size());
+        result.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/subscribers")
+    public ResponseEntity<Map<String, Object>> getSubscribers() {
+        HttpSubscriberSink sink = httpSink.getIfAvailable();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", sink != null);
+        result.put("subscribers", sink != null ? sink.getSubscribers() : List.of());
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/subscribers")
+    public ResponseEntity<Map<String, Object>> addSubscriber(@RequestBody Map<String, String> request) {
+        HttpSubscriberSink sink = httpSink.getIfAvailable();
+        String url = request.get("url");
+
+        if (sink == null || url == null || url.trim().isEmpty()) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", sink == null ? "HTTP CDC sink is disabled" : "Subscriber url cannot be empty");
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        try {
+            sink.addSubscriber(url.trim());
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("status", "success");
+            result.put("message", "Subscriber registered");
+            result.put("subscribers", sink.getSubscribers());
+            return ResponseEntity.ok(result);
+
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Invalid subscriber url: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @DeleteMapping("/subscribers")
+    public ResponseEntity<Map<String, Object>> removeSubscriber(@RequestParam String url) {
+        HttpSubscriberSink sink = httpSink.getIfAvailable();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("removed", sink != null && sink.removeSubscriber(url));
+        result.put("subscribers", sink != null ? sink.getSubscribers() : List.of());
+        return ResponseEntity.ok(result);
+    }
+}
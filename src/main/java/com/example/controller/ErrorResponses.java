@@ -0,0 +1,33 @@
+package com.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Error bodies for endpoints that write the response themselves, in the same
+ * status/message/timestamp shape the ResponseEntity endpoints return
+ */
+final class ErrorResponses {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ErrorResponses() {
+    }
+
+    static void write(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        Map<String, Object> error = new HashMap<>();
+        error.put("status", "error");
+        error.put("message", message);
+        error.put("timestamp", System.currentTimeMillis());
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        MAPPER.writeValue(response.getOutputStream(), error);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.controller;
+
+import com.example.service.jfr.FlightRecorderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/jfr")
+public class FlightRecorderController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderController.class);
+
+    private final FlightRecorderService flightRecorderService;
+
+    public FlightRecorderController(FlightRecorderService flightRecorderService) {
+        this.flightRecorderService = flightRecorderService;
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        Map<String, Object> status = new HashMap<>(flightRecorderService.getStatus());
+        status.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(status);
+    }
+
+    /**
+     * Starts a recording; the optional body overrides event thresholds,
+     * e.g. {"statement-execute": "2 ms", "connection-acquire": "0 ms"}
+     */
+    @PostMapping("/recordings/start")
+    public ResponseEntity<Map<String, Object>> startRecording(
+            @RequestParam(defaultValue = "0") long durationSeconds,
+            @RequestBody(required = false) Map<String, String> thresholds) {
+        try {
+            Map<String, Object> result = new HashMap<>(flightRecorderService.startRecording(
+                Duration.ofSeconds(Math.max(0, durationSeconds)), thresholds != null ? thresholds : Map.of()));
+            result.put("status", "success");
+            result.put("message", "Recording started");
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(result);
+
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            logger.error("Failed to start JFR recording", e);
+
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Failed to start recording: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    @PostMapping("/recordings/stop")
+    public ResponseEntity<Map<String, Object>> stopRecording() {
+        try {
+            Map<String, Object> result = new HashMap<>(flightRecorderService.stopRecording());
+            result.put("status", "success");
+            result.put("message", "Recording written");
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(result);
+
+        } catch (IllegalStateException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            logger.error("Failed to stop JFR recording", e);
+
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Failed to write recording: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+}
@@ -1,12 +1,30 @@
 package com.example.controller;
 
+import com.example.config.DatabasePool;
 import com.example.service.ConnectionMonitoringService;
+import com.example.service.HealthAggregatorService;
+import com.example.service.PoolMetricsJsonWriter;
+import com.example.service.PoolMetricsSnapshot;
 import com.example.service.VaultService;
+import com.example.service.admission.AdmissionPolicy;
+import com.example.service.admission.ConnectionAdmissionService;
+import com.example.service.admission.PriorityClass;
+import com.example.service.driver.DriverProfileBenchmark;
+import com.example.service.guard.ResultSetGuardService;
+import com.example.service.metrics.MetricsHistoryService;
+import com.example.service.prewarm.BufferPrewarmService;
+import com.example.service.resilience.CircuitBreakerService;
+import com.example.service.resilience.DatabaseCircuitBreaker;
+import com.example.service.warmup.StatementWarmupService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -18,35 +36,127 @@ public class MonitoringController {
 
     private final ConnectionMonitoringService monitoringService;
     private final VaultService vaultService;
+    private final ConnectionAdmissionService admissionService;
+    private final CircuitBreakerService circuitBreakerService;
+    private final HealthAggregatorService healthAggregator;
+    private final MetricsHistoryService metricsHistoryService;
+    private final ResultSetGuardService resultSetGuardService;
+    private final BufferPrewarmService prewarmService;
+    private final StatementWarmupService statementWarmupService;
+    private final DriverProfileBenchmark driverProfileBenchmark;
 
     public MonitoringController(ConnectionMonitoringService monitoringService, 
-                               VaultService vaultService) {
+                               VaultService vaultService,
+                               ConnectionAdmissionService admissionService,
+                               CircuitBreakerService circuitBreakerService,
+                               HealthAggregatorService healthAggregator,
+                               MetricsHistoryService metricsHistoryService,
+                               ResultSetGuardService resultSetGuardService,
+                               BufferPrewarmService prewarmService,
+                               StatementWarmupService statementWarmupService,
+                               DriverProfileBenchmark driverProfileBenchmark) {
         this.monitoringService = monitoringService;
         this.vaultService = vaultService;
+        this.admissionService = admissionService;
+        this.circuitBreakerService = circuitBreakerService;
+        this.healthAggregator = healthAggregator;
+        this.metricsHistoryService = metricsHistoryService;
+        this.resultSetGuardService = resultSetGuardService;
+        this.prewarmService = prewarmService;
+        this.statementWarmupService = statementWarmupService;
+        this.driverProfileBenchmark = driverProfileBenchmark;
     }
 
-    @GetMapping("/connections")
-    public ResponseEntity<Map<String, Object>> getConnectionMetrics() {
+    @GetMapping(value = "/connections", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void getConnectionMetrics(@RequestParam(defaultValue = DatabasePool.OLTP) String pool,
+                                     HttpServletResponse response) throws IOException {
+        // Written straight from the shared snapshot with a reusable buffer, so frequent scrapes stay cheap
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
         try {
-            Map<String, Object> metrics = monitoringService.getConnectionMetrics();
-            return ResponseEntity.ok(metrics);
+            PoolMetricsSnapshot snapshot = monitoringService.getSnapshot(pool);
+            PoolMetricsJsonWriter.write(snapshot, response.getOutputStream());
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            PoolMetricsJsonWriter.writeError("Unknown connection pool", e.getMessage(), response.getOutputStream());
+        } catch (IOException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to retrieve connection metrics", e);
+            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            PoolMetricsJsonWriter.writeError("Failed to retrieve connection metrics", e.getMessage(),
+                                             response.getOutputStream());
+        }
+    }
+
+    @GetMapping("/connections/pools")
+    public ResponseEntity<Map<String, Object>> getAllPoolMetrics() {
+        try {
+            Map<String, Object> result = new HashMap<>();
+            result.put("pools", monitoringService.getAllPoolMetrics());
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Failed to retrieve pool metrics", e);
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Failed to retrieve pool metrics");
+            error.put("message", e.getMessage());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    @GetMapping("/history")
+    public ResponseEntity<Map<String, Object>> getPoolHistory(
+            @RequestParam(defaultValue = DatabasePool.OLTP) String pool,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(required = false) String tier,
+            @RequestParam(defaultValue = "1000") int maxPoints) {
+        long end = to != null ? to : System.currentTimeMillis();
+        long start = from != null ? from : end - 15 * 60 * 1000L;
+        try {
+            Map<String, Object> history = metricsHistoryService.query(pool, tier, start, end,
+                                                                      Math.max(1, Math.min(maxPoints, 100000)));
+            history.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(history);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Failed to read metrics history", e);
             Map<String, Object> error = new HashMap<>();
-            error.put("error", "Failed to retrieve connection metrics");
+            error.put("error", "Failed to read metrics history");
             error.put("message", e.getMessage());
             return ResponseEntity.internalServerError().body(error);
         }
     }
 
     @GetMapping("/health")
+    @AdmissionPolicy(priority = PriorityClass.CRITICAL)
     public ResponseEntity<Map<String, Object>> getHealthStatus() {
+        if (!healthAggregator.isHealthAggregationEnabled()) {
+            return getInlineHealthStatus();
+        }
+
+        // Served from the background probe snapshot, no backend calls on this path
+        Map<String, Object> health = healthAggregator.describe();
+        if (HealthAggregatorService.STATUS_DOWN.equals(health.get("status"))) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(health);
+        }
+        return ResponseEntity.ok(health);
+    }
+
+    private ResponseEntity<Map<String, Object>> getInlineHealthStatus() {
         Map<String, Object> health = new HashMap<>();
         
         try {
             // Get connection metrics
             Map<String, Object> connectionMetrics = monitoringService.getConnectionMetrics();
             health.put("connectionPool", connectionMetrics);
+            health.put("pools", monitoringService.getAllPoolMetrics());
             
             // Check Vault accessibility
             boolean vaultAccessible = vaultService.isVaultAccessible();
@@ -55,8 +165,12 @@ public class MonitoringController {
             vaultHealth.put("path", vaultService.getVaultPath());
             health.put("vault", vaultHealth);
             
+            // Circuit breaker state per pool
+            health.put("circuitBreakers", circuitBreakerService.getStatus());
+            boolean circuitOpen = circuitBreakerService.getState(DatabasePool.OLTP) != DatabaseCircuitBreaker.State.CLOSED;
+            
             // Overall status
-            health.put("status", vaultAccessible ? "UP" : "DEGRADED");
+            health.put("status", circuitOpen ? "DOWN" : vaultAccessible ? "UP" : "DEGRADED");
             health.put("timestamp", System.currentTimeMillis());
             
             return ResponseEntity.ok(health);
@@ -70,10 +184,136 @@ public class MonitoringController {
         }
     }
 
+    @GetMapping("/admission")
+    public ResponseEntity<Map<String, Object>> getAdmissionStatus() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", admissionService.isAdmissionEnabled());
+        result.put("pools", admissionService.getStatus());
+        result.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/circuit-breakers")
+    public ResponseEntity<Map<String, Object>> getCircuitBreakers() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", circuitBreakerService.isCircuitBreakerEnabled());
+        result.put("pools", circuitBreakerService.getStatus());
+        result.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/circuit-breakers/{pool}/reset")
+    public ResponseEntity<Map<String, Object>> resetCircuitBreaker(@PathVariable String pool) {
+        try {
+            circuitBreakerService.reset(pool);
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("status", "success");
+            result.put("message", "Circuit breaker reset");
+            result.put("pool", pool);
+            result.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.ok(result);
+
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @GetMapping("/result-guard")
+    public ResponseEntity<Map<String, Object>> getResultSetGuard() {
+        Map<String, Object> result = new HashMap<>(resultSetGuardService.getStatus());
+        result.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/result-guard/clear")
+    public ResponseEntity<Map<String, Object>> clearResultSetGuard() {
+        int cleared = resultSetGuardService.clearOversized();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("status", "success");
+        result.put("message", "Forgot " + cleared + " oversized queries");
+        result.put("cleared", cleared);
+        result.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/statement-warmup")
+    public ResponseEntity<Map<String, Object>> getStatementWarmup() {
+        Map<String, Object> result = new HashMap<>(statementWarmupService.getStatus());
+        result.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/driver-profiles/benchmark")
+    @AdmissionPolicy(priority = PriorityClass.BACKGROUND)
+    public ResponseEntity<Map<String, Object>> benchmarkDriverProfiles(@RequestParam(defaultValue = "5000") int lookups,
+                                                                       @RequestParam(defaultValue = "50000") int batchRows,
+                                                                       @RequestParam(defaultValue = "500000") int scanRows) {
+        try {
+            Map<String, Object> result = new HashMap<>(driverProfileBenchmark.run(
+                Math.max(1, Math.min(lookups, 1_000_000)), Math.max(1, Math.min(batchRows, 5_000_000)),
+                Math.max(1, Math.min(scanRows, 50_000_000))));
+            result.put("status", "success");
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Driver profile benchmark failed", e);
+
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Benchmark failed: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    @GetMapping("/prewarm")
+    public ResponseEntity<Map<String, Object>> getPrewarmStatus() {
+        Map<String, Object> result = new HashMap<>(prewarmService.getStatus());
+        result.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/prewarm/run")
+    @AdmissionPolicy(priority = PriorityClass.BACKGROUND)
+    public ResponseEntity<Map<String, Object>> runPrewarm() {
+        try {
+            logger.info("Buffer cache warm-up requested via API");
+
+            Map<String, Object> result = new HashMap<>(prewarmService.warmUp());
+            result.put("status", "success");
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(result);
+
+        } catch (IllegalStateException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Buffer cache warm-up failed", e);
+
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Buffer cache warm-up failed: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
     @PostMapping("/connections/test")
-    public ResponseEntity<Map<String, Object>> testConnection() {
+    public ResponseEntity<Map<String, Object>> testConnection(
+            @RequestParam(defaultValue = DatabasePool.OLTP) String pool) {
         try {
-            monitoringService.performConnectionTest();
+            monitoringService.performConnectionTest(pool);
             
             Map<String, Object> result = new HashMap<>();
             result.put("status", "success");
@@ -83,6 +323,7 @@ public class MonitoringController {
             return ResponseEntity.ok(result);
             
         } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
             logger.error("Connection test failed", e);
             
             Map<String, Object> result = new HashMap<>();
@@ -95,9 +336,10 @@ public class MonitoringController {
     }
 
     @PostMapping("/connections/suspend")
-    public ResponseEntity<Map<String, Object>> suspendConnectionPool() {
+    public ResponseEntity<Map<String, Object>> suspendConnectionPool(
+            @RequestParam(defaultValue = DatabasePool.OLTP) String pool) {
         try {
-            monitoringService.suspendPool();
+            monitoringService.suspendPool(pool);
             
             Map<String, Object> result = new HashMap<>();
             result.put("status", "success");
@@ -107,6 +349,7 @@ public class MonitoringController {
             return ResponseEntity.ok(result);
             
         } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
             logger.error("Failed to suspend connection pool", e);
             
             Map<String, Object> result = new HashMap<>();
@@ -119,9 +362,10 @@ public class MonitoringController {
     }
 
     @PostMapping("/connections/resume")
-    public ResponseEntity<Map<String, Object>> resumeConnectionPool() {
+    public ResponseEntity<Map<String, Object>> resumeConnectionPool(
+            @RequestParam(defaultValue = DatabasePool.OLTP) String pool) {
         try {
-            monitoringService.resumePool();
+            monitoringService.resumePool(pool);
             
             Map<String, Object> result = new HashMap<>();
             result.put("status", "success");
@@ -131,6 +375,7 @@ public class MonitoringController {
             return ResponseEntity.ok(result);
             
         } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
             logger.error("Failed to resume connection pool", e);
             
             Map<String, Object> result = new HashMap<>();
@@ -143,9 +388,10 @@ public class MonitoringController {
     }
 
     @PostMapping("/connections/evict")
-    public ResponseEntity<Map<String, Object>> evictIdleConnections() {
+    public ResponseEntity<Map<String, Object>> evictIdleConnections(
+            @RequestParam(defaultValue = DatabasePool.OLTP) String pool) {
         try {
-            monitoringService.softEvictConnections();
+            monitoringService.softEvictConnections(pool);
             
             Map<String, Object> result = new HashMap<>();
             result.put("status", "success");
@@ -155,6 +401,7 @@ public class MonitoringController {
             return ResponseEntity.ok(result);
             
         } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
             logger.error("Failed to evict idle connections", e);
             
             Map<String, Object> result = new HashMap<>();
@@ -241,6 +488,7 @@ public class MonitoringController {
             return ResponseEntity.ok(result);
             
         } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
             logger.error("Failed to update Vault path", e);
             
             Map<String, Object> error = new HashMap<>();
@@ -272,6 +520,7 @@ public class MonitoringController {
             return ResponseEntity.ok(status);
             
         } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
             logger.error("Failed to get schema status", e);
             
             status.put("status", "error");
@@ -0,0 +1,125 @@
+package com.example.controller;
+
+import com.example.service.reactive.ReactiveBenchmarkService;
+import com.example.service.reactive.ReactiveQueryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read endpoints served from the R2DBC pool. Spring MVC subscribes to the
+ * returned Mono/Flux asynchronously, so a request waiting on the database or
+ * on a slow client does not hold a servlet thread.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+public class ReactiveController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveController.class);
+
+    private static final String ORDER_COLUMNS =
+        "id, order_number, customer_id, order_date, status, total_amount";
+
+    private final ObjectProvider<ReactiveQueryService> reactiveQueryService;
+    private final ObjectProvider<ReactiveBenchmarkService> benchmarkService;
+
+    public ReactiveController(ObjectProvider<ReactiveQueryService> reactiveQueryService,
+                              ObjectProvider<ReactiveBenchmarkService> benchmarkService) {
+        this.reactiveQueryService = reactiveQueryService;
+        this.benchmarkService = benchmarkService;
+    }
+
+    /**
+     * Recent orders streamed as newline-delimited JSON; rows are fetched from
+     * the server only as fast as the client reads them
+     */
+    @GetMapping(value = "/orders/recent", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Map<String, Object>> streamRecentOrders(@RequestParam(defaultValue = "1000") int limit) {
+        ReactiveQueryService queries = reactiveQueryService.getIfAvailable();
+        if (queries == null) {
+            return Flux.error(new IllegalStateException("Reactive data access is disabled (app.r2dbc.enabled)"));
+        }
+        return queries.query("SELECT " + ORDER_COLUMNS + " FROM orders ORDER BY order_date DESC LIMIT $1",
+                             Math.max(1, Math.min(limit, 100000)));
+    }
+
+    @GetMapping("/customers/{customerId}/orders")
+    public Mono<ResponseEntity<Map<String, Object>>> getCustomerOrders(@PathVariable long customerId,
+                                                                       @RequestParam(defaultValue = "50") int limit) {
+        ReactiveQueryService queries = reactiveQueryService.getIfAvailable();
+        if (queries == null) {
+            return Mono.just(disabled());
+        }
+
+        return queries.query("SELECT " + ORDER_COLUMNS
+                                 + " FROM orders WHERE customer_id = $1 ORDER BY order_date DESC LIMIT $2",
+                             customerId, Math.max(1, Math.min(limit, 1000)))
+            .collectList()
+            .map(orders -> {
+                Map<String, Object> result = new HashMap<>();
+                result.put("customerId", customerId);
+                result.put("orders", orders);
+                result.put("count", orders.size());
+                result.put("timestamp", System.currentTimeMillis());
+                return ResponseEntity.ok(result);
+            })
+            .onErrorResume(e -> {
+                logger.error("Failed to load orders of customer {}", customerId, e);
+
+                Map<String, Object> error = new HashMap<>();
+                error.put("status", "error");
+                error.put("message", "Failed to load orders: " + e.getMessage());
+                error.put("timestamp", System.currentTimeMillis());
+                return Mono.just(ResponseEntity.internalServerError().body(error));
+            });
+    }
+
+    /**
+     * Compares the blocking JDBC path with the reactive path on the same slow query
+     */
+    @PostMapping("/benchmark")
+    public ResponseEntity<Map<String, Object>> benchmark(@RequestParam(defaultValue = "2000") int requests,
+                                                         @RequestParam(defaultValue = "200") int concurrency,
+                                                         @RequestParam(defaultValue = "20") long sleepMs) {
+        ReactiveBenchmarkService benchmark = benchmarkService.getIfAvailable();
+        if (benchmark == null) {
+            return disabled();
+        }
+
+        try {
+            Map<String, Object> result = new HashMap<>(benchmark.run(
+                Math.max(1, Math.min(requests, 100000)),
+                Math.max(1, Math.min(concurrency, 2000)),
+                Math.max(0, Math.min(sleepMs, 10000))));
+            result.put("status", "success");
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Reactive benchmark failed", e);
+
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Benchmark failed: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    private static ResponseEntity<Map<String, Object>> disabled() {
+        Map<String, Object> error = new HashMap<>();
+        error.put("status", "error");
+        error.put("message", "Reactive data access is disabled (app.r2dbc.enabled)");
+        error.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.badRequest().body(error);
+    }
+}
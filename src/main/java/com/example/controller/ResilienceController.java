@@ -0,0 +1,78 @@
+package com.example.controller;
+
+import com.example.service.admission.AdmissionPolicy;
+import com.example.service.admission.PriorityClass;
+import com.example.service.faults.FaultScenario;
+import com.example.service.faults.PoolResilienceHarness;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/resilience")
+public class ResilienceController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilienceController.class);
+
+    private final PoolResilienceHarness harness;
+
+    public ResilienceController(PoolResilienceHarness harness) {
+        this.harness = harness;
+    }
+
+    @GetMapping("/scenarios")
+    public ResponseEntity<Map<String, Object>> getScenarios() {
+        Map<String, Object> scenarios = new LinkedHashMap<>();
+        for (FaultScenario scenario : FaultScenario.values()) {
+            scenarios.put(scenario.key(), scenario.description());
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", harness.isEnabled());
+        result.put("scenarios", scenarios);
+        result.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Runs the given fault scenarios against a throwaway pool behind a
+     * fault-injecting proxy; takes a few phase lengths per scenario
+     */
+    @PostMapping("/run")
+    @AdmissionPolicy(priority = PriorityClass.BACKGROUND)
+    public ResponseEntity<Map<String, Object>> run(@RequestParam(defaultValue = "all") List<String> scenarios) {
+        try {
+            logger.info("Resilience run requested via API for {}", scenarios);
+
+            List<FaultScenario> selected = scenarios.size() == 1 && "all".equalsIgnoreCase(scenarios.get(0))
+                ? Arrays.asList(FaultScenario.values())
+                : scenarios.stream().map(FaultScenario::of).toList();
+
+            Map<String, Object> result = new HashMap<>(harness.run(selected));
+            result.put("status", "success");
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(result);
+
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            logger.error("Resilience run failed", e);
+
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Resilience run failed: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+}
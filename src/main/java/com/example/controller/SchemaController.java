@@ -1,24 +1,56 @@
 package com.example.controller;
 
 import com.example.service.SchemaService;
+import com.example.service.admission.AdmissionPolicy;
+import com.example.service.admission.PriorityClass;
+import com.example.service.catalog.TableStatisticsService;
+import com.example.service.index.IndexBuildJob;
+import com.example.service.index.IndexBuildManager;
+import com.example.service.matview.MaterializedViewService;
+import com.example.service.paging.KeysetPaginationService;
+import com.example.service.paging.KeysetQuery;
+import com.example.service.partition.PartitionManagementService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/schema")
+@AdmissionPolicy(priority = PriorityClass.BACKGROUND, maxConcurrency = 1)
 public class SchemaController {
 
     private static final Logger logger = LoggerFactory.getLogger(SchemaController.class);
 
     private final SchemaService schemaService;
+    private final PartitionManagementService partitionService;
+    private final IndexBuildManager indexBuildManager;
+    private final TableStatisticsService tableStatisticsService;
+    private final MaterializedViewService materializedViewService;
+    private final KeysetPaginationService paginationService;
+    private final ObjectMapper objectMapper;
 
-    public SchemaController(SchemaService schemaService) {
+    public SchemaController(SchemaService schemaService, PartitionManagementService partitionService,
+                            IndexBuildManager indexBuildManager, TableStatisticsService tableStatisticsService,
+                            MaterializedViewService materializedViewService,
+                            KeysetPaginationService paginationService, ObjectMapper objectMapper) {
         this.schemaService = schemaService;
+        this.partitionService = partitionService;
+        this.indexBuildManager = indexBuildManager;
+        this.tableStatisticsService = tableStatisticsService;
+        this.materializedViewService = materializedViewService;
+        this.paginationService = paginationService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/status")
@@ -33,6 +65,7 @@ public class SchemaController {
             return ResponseEntity.ok(status);
             
         } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
             logger.error("Failed to get schema status", e);
             
             Map<String, Object> error = new HashMap<>();
@@ -69,6 +102,7 @@ public class SchemaController {
             return ResponseEntity.ok(result);
             
         } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
             logger.error("Schema creation failed", e);
             
             Map<String, Object> error = new HashMap<>();
@@ -98,6 +132,7 @@ public class SchemaController {
             return ResponseEntity.ok(result);
             
         } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
             logger.error("Schema drop failed", e);
             
             Map<String, Object> error = new HashMap<>();
@@ -128,6 +163,7 @@ public class SchemaController {
             return ResponseEntity.ok(result);
             
         } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
             logger.error("Schema recreation failed", e);
             
             Map<String, Object> error = new HashMap<>();
@@ -160,6 +196,7 @@ public class SchemaController {
             return ResponseEntity.ok(result);
             
         } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
             logger.error("Schema validation failed", e);
             
             Map<String, Object> error = new HashMap<>();
@@ -185,6 +222,7 @@ public class SchemaController {
             return ResponseEntity.ok(result);
             
         } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
             logger.error("Failed to get schema statistics", e);
             
             Map<String, Object> error = new HashMap<>();
@@ -228,6 +266,7 @@ public class SchemaController {
             return ResponseEntity.ok(info);
             
         } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
             logger.error("Failed to get schema info", e);
             
             Map<String, Object> error = new HashMap<>();
@@ -240,16 +279,15 @@ public class SchemaController {
     }
 
     @GetMapping("/tables")
-    public ResponseEntity<Map<String, Object>> getTableList() {
+    public ResponseEntity<Map<String, Object>> getTableList(@RequestParam(defaultValue = "false") boolean refresh) {
         try {
-            // This would require additional implementation in SchemaService
-            Map<String, Object> result = new HashMap<>();
-            result.put("message", "Table list functionality - to be implemented");
+            Map<String, Object> result = new HashMap<>(tableStatisticsService.getTableStatistics(refresh));
             result.put("timestamp", System.currentTimeMillis());
             
             return ResponseEntity.ok(result);
             
         } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
             logger.error("Failed to get table list", e);
             
             Map<String, Object> error = new HashMap<>();
@@ -260,4 +298,320 @@ public class SchemaController {
             return ResponseEntity.internalServerError().body(error);
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/tables/{table}/count")
+    public ResponseEntity<Map<String, Object>> getExactRowCount(@PathVariable String table) {
+        try {
+            logger.info("Exact row count requested via API for table {}", table);
+            
+            Map<String, Object> result = new HashMap<>(tableStatisticsService.exactCount(table));
+            result.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.ok(result);
+            
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+            
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Exact row count failed for table {}", table, e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Exact row count failed: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    /**
+     * One keyset page of a table, rows streamed as they are read; pass the
+     * returned nextCursor to get the following page
+     */
+    @GetMapping("/tables/{table}/rows")
+    @AdmissionPolicy(priority = PriorityClass.NORMAL)
+    public void getTableRows(@PathVariable String table,
+                             @RequestParam(required = false) String sort,
+                             @RequestParam(required = false) String direction,
+                             @RequestParam(required = false) String cursor,
+                             @RequestParam(required = false) Integer limit,
+                             @RequestParam(required = false) List<String> columns,
+                             HttpServletResponse response) throws IOException {
+        KeysetQuery query;
+        try {
+            query = paginationService.plan(table, sort, direction, cursor, limit, columns);
+        } catch (IllegalArgumentException e) {
+            ErrorResponses.write(response, HttpStatus.BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        // Not closed on failure, so nothing buffered so far reaches the client
+        JsonGenerator json = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        try {
+            json.writeStartObject();
+            json.writeStringField("table", query.table());
+            json.writeStringField("sort", query.sort());
+            json.writeStringField("direction", query.descending() ? "desc" : "asc");
+            json.writeStringField("index", query.index());
+            json.writeNumberField("limit", query.limit());
+            json.writeArrayFieldStart("data");
+            Map<String, Object> page = paginationService.stream(query, json::writeObject);
+            json.writeEndArray();
+            for (Map.Entry<String, Object> entry : page.entrySet()) {
+                json.writeObjectField(entry.getKey(), entry.getValue());
+            }
+            json.writeNumberField("timestamp", System.currentTimeMillis());
+            json.writeEndObject();
+            json.close();
+        } catch (Exception e) {
+            logger.error("Keyset page of {} failed", table, e);
+            if (response.isCommitted()) {
+                // Clients see truncated JSON
+                throw e;
+            }
+            response.reset();
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            ErrorResponses.write(response, HttpStatus.INTERNAL_SERVER_ERROR, "Page fetch failed: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/matviews")
+    public ResponseEntity<Map<String, Object>> getMaterializedViews() {
+        Map<String, Object> result = new HashMap<>(materializedViewService.getStatus());
+        result.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/matviews/{view}/refresh")
+    public ResponseEntity<Map<String, Object>> refreshMaterializedView(@PathVariable String view) {
+        try {
+            logger.info("Materialized view refresh requested via API for {}", view);
+            
+            Map<String, Object> result = new HashMap<>(materializedViewService.refresh(view));
+            result.put("status", "success");
+            result.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.ok(result);
+            
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+            
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Materialized view refresh failed for {}", view, e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Materialized view refresh failed: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    @GetMapping("/partitions")
+    public ResponseEntity<Map<String, Object>> getPartitionLayout() {
+        try {
+            Map<String, Object> result = new HashMap<>();
+            result.put("enabled", partitionService.isEnabled());
+            result.put("tables", partitionService.getLayout());
+            result.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.ok(result);
+            
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Failed to get partition layout", e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Failed to get partition layout: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    @PostMapping("/partitions/{table}/maintain")
+    public ResponseEntity<Map<String, Object>> maintainPartitions(@PathVariable String table) {
+        try {
+            logger.info("Partition maintenance requested via API for table {}", table);
+            
+            Map<String, Object> result = new HashMap<>(partitionService.maintain(table));
+            result.put("status", "success");
+            result.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.ok(result);
+            
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+            
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Partition maintenance failed for table {}", table, e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Partition maintenance failed: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    @GetMapping("/indexes/builds")
+    public ResponseEntity<Map<String, Object>> getIndexBuilds() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("status", indexBuildManager.getStatus());
+        result.put("builds", indexBuildManager.getJobs());
+        result.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/indexes/builds/{id}")
+    public ResponseEntity<Map<String, Object>> getIndexBuild(@PathVariable long id) {
+        try {
+            return ResponseEntity.ok(indexBuildManager.getJob(id));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @PostMapping("/indexes/builds")
+    public ResponseEntity<Map<String, Object>> submitIndexBuild(@RequestBody Map<String, String> request) {
+        try {
+            String statement = request.get("statement");
+            if (statement == null || statement.trim().isEmpty()) {
+                throw new IllegalArgumentException("statement cannot be empty");
+            }
+            IndexBuildJob job = indexBuildManager.submitBuild(statement);
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("status", "success");
+            result.put("message", "Index build queued");
+            result.put("build", indexBuildManager.getJob(job.getId()));
+            result.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.accepted().body(result);
+            
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @PostMapping("/indexes/{name}/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildIndex(@PathVariable String name) {
+        try {
+            IndexBuildJob job = indexBuildManager.submitRebuild(name);
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("status", "success");
+            result.put("message", "Index rebuild queued");
+            result.put("build", indexBuildManager.getJob(job.getId()));
+            result.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.accepted().body(result);
+            
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @PostMapping("/indexes/script")
+    public ResponseEntity<Map<String, Object>> buildIndexesFromScript(
+            @RequestParam(defaultValue = "03_create_indexes.sql") String name) {
+        try {
+            List<IndexBuildJob> jobs = indexBuildManager.submitScript(name);
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("status", "success");
+            result.put("message", "Queued " + jobs.size() + " online index builds from " + name);
+            result.put("buildIds", jobs.stream().map(IndexBuildJob::getId).toList());
+            result.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.accepted().body(result);
+            
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+            
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Failed to queue index builds from {}", name, e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Failed to queue index builds: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    @PostMapping("/indexes/builds/{id}/cancel")
+    public ResponseEntity<Map<String, Object>> cancelIndexBuild(@PathVariable long id) {
+        try {
+            boolean cancelled = indexBuildManager.cancel(id);
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("cancelled", cancelled);
+            result.put("build", indexBuildManager.getJob(id));
+            result.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.ok(result);
+            
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @GetMapping("/indexes/invalid")
+    public ResponseEntity<Map<String, Object>> getInvalidIndexes() {
+        try {
+            List<Map<String, Object>> invalid = indexBuildManager.findInvalidIndexes();
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("invalidIndexes", invalid);
+            result.put("count", invalid.size());
+            result.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.ok(result);
+            
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Failed to list invalid indexes", e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Failed to list invalid indexes: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+}
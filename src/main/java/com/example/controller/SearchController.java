@@ -0,0 +1,149 @@
+package com.example.controller;
+
+import com.example.service.admission.AdmissionPolicy;
+import com.example.service.admission.PriorityClass;
+import com.example.service.search.FullTextSearchService;
+import com.example.service.search.SearchBenchmark;
+import com.example.service.search.SearchTarget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchController.class);
+
+    private final FullTextSearchService searchService;
+    private final SearchBenchmark searchBenchmark;
+
+    public SearchController(FullTextSearchService searchService, SearchBenchmark searchBenchmark) {
+        this.searchService = searchService;
+        this.searchBenchmark = searchBenchmark;
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        try {
+            Map<String, Object> result = new HashMap<>(searchService.getStatus());
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Failed to read search index status", e);
+
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Failed to read search index status: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    /**
+     * Adds the search indexes; the builds run online in the background and
+     * can be followed under /api/schema/indexes/builds
+     */
+    @PostMapping("/setup")
+    @AdmissionPolicy(priority = PriorityClass.BACKGROUND)
+    public ResponseEntity<Map<String, Object>> setup(@RequestParam(defaultValue = "all") String target) {
+        try {
+            logger.info("Search setup requested via API for {}", target);
+
+            List<SearchTarget> targets = "all".equalsIgnoreCase(target)
+                ? Arrays.asList(SearchTarget.values())
+                : List.of(SearchTarget.of(target));
+            List<Map<String, Object>> results = new ArrayList<>();
+            for (SearchTarget searchTarget : targets) {
+                results.add(searchService.setup(searchTarget));
+            }
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("status", "success");
+            result.put("targets", results);
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(result);
+
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Search setup failed for {}", target, e);
+
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Search setup failed: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    @PostMapping("/benchmark")
+    @AdmissionPolicy(priority = PriorityClass.BACKGROUND)
+    public ResponseEntity<Map<String, Object>> benchmark(@RequestParam(defaultValue = "100000") int rows,
+                                                         @RequestParam(defaultValue = "5") int iterations,
+                                                         @RequestParam(defaultValue = "wireless,ergo,leather chair,camera tripod") List<String> terms) {
+        try {
+            Map<String, Object> result = new HashMap<>(searchBenchmark.run(
+                Math.max(1, Math.min(rows, 5_000_000)), Math.max(1, Math.min(iterations, 100)), terms));
+            result.put("status", "success");
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(result);
+
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Search benchmark failed", e);
+
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Benchmark failed: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    @GetMapping("/{target}")
+    public ResponseEntity<Map<String, Object>> search(@PathVariable String target,
+                                                      @RequestParam String q,
+                                                      @RequestParam(required = false) Integer limit,
+                                                      @RequestParam(defaultValue = "true") boolean fuzzy) {
+        try {
+            Map<String, Object> result = new HashMap<>(searchService.search(SearchTarget.of(target), q, limit, fuzzy));
+            result.put("status", "success");
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(result);
+
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Search of {} failed", target, e);
+
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Search failed: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+}
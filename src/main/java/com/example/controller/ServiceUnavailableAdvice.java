@@ -0,0 +1,69 @@
+package com.example.controller;
+
+import com.example.service.admission.AdmissionRejectedException;
+import com.example.service.resilience.CircuitOpenException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers requests that were turned away before reaching the database with
+ * 503 and a Retry-After header instead of a generic server error. Handlers
+ * also match when the rejection is the cause of e.g. a Spring
+ * DataAccessException.
+ */
+@RestControllerAdvice
+public class ServiceUnavailableAdvice {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceUnavailableAdvice.class);
+
+    /** Admission clears as soon as connections are returned, so clients may come back quickly */
+    static final long ADMISSION_RETRY_AFTER_SECONDS = 1;
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Map<String, Object>> admissionRejected(AdmissionRejectedException e) {
+        logger.warn("Request rejected by admission control: {}", e.getMessage());
+        return unavailable(e.getMessage(), ADMISSION_RETRY_AFTER_SECONDS);
+    }
+
+    /** Clients come back once the breaker lets a trial connection through */
+    @ExceptionHandler(CircuitOpenException.class)
+    public ResponseEntity<Map<String, Object>> circuitOpen(CircuitOpenException e) {
+        logger.warn("Request failed fast on an open circuit breaker: {}", e.getMessage());
+        long retryAfterSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(e.getRetryAfterMillis() + 999));
+        return unavailable(e.getMessage(), retryAfterSeconds);
+    }
+
+    /**
+     * Rethrows the exception if it or one of its causes turned the request
+     * away, so the catch-all blocks of the controllers leave it to this advice
+     */
+    static void rethrowIfUnavailable(Exception e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof AdmissionRejectedException || cause instanceof CircuitOpenException) {
+                throw e instanceof RuntimeException runtime
+                    ? runtime
+                    : new TransientDataAccessResourceException(e.getMessage(), e);
+            }
+        }
+    }
+
+    private static ResponseEntity<Map<String, Object>> unavailable(String message, long retryAfterSeconds) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("status", "error");
+        error.put("message", message);
+        error.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+            .body(error);
+    }
+}
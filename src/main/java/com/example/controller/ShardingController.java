@@ -0,0 +1,154 @@
+package com.example.controller;
+
+import com.example.service.sharding.ScatterGatherResult;
+import com.example.service.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.web.bind.annotation.*;
+
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/shards")
+public class ShardingController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardingController.class);
+
+    private static final String ORDER_COLUMNS =
+        "id, order_number, customer_id, order_date, status, total_amount";
+
+    private static final Comparator<Map<String, Object>> NEWEST_FIRST = Comparator
+        .comparing((Map<String, Object> row) -> (Timestamp) row.get("order_date"),
+                   Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(row -> ((Number) row.get("id")).longValue(), Comparator.reverseOrder());
+
+    private final ShardRouter shardRouter;
+
+    public ShardingController(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getTopology() {
+        Map<String, Object> topology = shardRouter.getTopology();
+        topology.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(topology);
+    }
+
+    @GetMapping("/route")
+    public ResponseEntity<Map<String, Object>> route(@RequestParam long customerId) {
+        if (!shardRouter.isEnabled()) {
+            return notEnabled();
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("customerId", customerId);
+        result.put("shard", shardRouter.shardFor(customerId));
+        result.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/reload")
+    public ResponseEntity<Map<String, Object>> reload() {
+        try {
+            Map<String, Object> result = new HashMap<>(shardRouter.reload());
+            result.put("status", "success");
+            result.put("message", "Shard topology reloaded");
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Failed to reload shard topology", e);
+
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    /**
+     * Orders of one customer, served entirely by the shard owning that customer
+     */
+    @GetMapping("/customers/{customerId}/orders")
+    public ResponseEntity<Map<String, Object>> getCustomerOrders(@PathVariable long customerId,
+                                                                 @RequestParam(defaultValue = "50") int limit) {
+        if (!shardRouter.isEnabled()) {
+            return notEnabled();
+        }
+
+        try {
+            List<Map<String, Object>> orders = shardRouter.forCustomer(customerId).queryForList(
+                "SELECT " + ORDER_COLUMNS + " FROM orders WHERE customer_id = ? ORDER BY order_date DESC LIMIT ?",
+                customerId, Math.max(1, Math.min(limit, 1000)));
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("customerId", customerId);
+            result.put("shard", shardRouter.shardFor(customerId));
+            result.put("orders", orders);
+            result.put("count", orders.size());
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Failed to load orders of customer {}", customerId, e);
+
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Failed to load orders: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    /**
+     * Most recent orders across all shards, merged newest first
+     */
+    @GetMapping("/orders/recent")
+    public ResponseEntity<Map<String, Object>> getRecentOrders(@RequestParam(defaultValue = "50") int limit) {
+        if (!shardRouter.isEnabled()) {
+            return notEnabled();
+        }
+
+        int capped = Math.max(1, Math.min(limit, 1000));
+        ScatterGatherResult<Map<String, Object>> scatter = shardRouter.scatterGather(
+            "SELECT " + ORDER_COLUMNS + " FROM orders ORDER BY order_date DESC NULLS LAST, id DESC LIMIT ?",
+            new ColumnMapRowMapper(), NEWEST_FIRST, capped, capped);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("orders", scatter.rows());
+        result.put("count", scatter.rows().size());
+        result.put("partial", scatter.isPartial());
+        result.put("shardRows", scatter.shardRows());
+        result.put("shardDurationsMs", scatter.shardDurationsMs());
+        result.put("failures", scatter.failures());
+        result.put("elapsedMs", scatter.elapsedMs());
+        result.put("timestamp", System.currentTimeMillis());
+
+        // Every shard failing is an error; some failing still returns the rows we have
+        if (scatter.shardRows().isEmpty()) {
+            result.put("status", "error");
+            result.put("message", "All shards failed");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    private ResponseEntity<Map<String, Object>> notEnabled() {
+        Map<String, Object> error = new HashMap<>();
+        error.put("status", "error");
+        error.put("message", "Sharding is not enabled (app.sharding.enabled)");
+        error.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.badRequest().body(error);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.controller;
+
+import com.example.service.admission.AdmissionPolicy;
+import com.example.service.admission.PriorityClass;
+import com.example.service.snapshot.SnapshotJob;
+import com.example.service.snapshot.TableSnapshotService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/snapshots")
+public class SnapshotController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotController.class);
+
+    private final TableSnapshotService snapshotService;
+
+    public SnapshotController(TableSnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getSnapshots() {
+        try {
+            Map<String, Object> result = new HashMap<>();
+            result.put("snapshots", snapshotService.listSnapshots());
+            result.put("jobs", snapshotService.getJobs());
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Failed to list snapshots", e);
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Failed to list snapshots: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable long id) {
+        try {
+            return ResponseEntity.ok(snapshotService.getJob(id));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @GetMapping("/{name}/manifest")
+    public ResponseEntity<Object> getManifest(@PathVariable String name) {
+        try {
+            return ResponseEntity.ok(snapshotService.readManifest(name));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Failed to read manifest of snapshot {}", name, e);
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Failed to read manifest: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    @PostMapping
+    @AdmissionPolicy(priority = PriorityClass.BACKGROUND)
+    public ResponseEntity<Map<String, Object>> createSnapshot(@RequestParam String table,
+                                                              @RequestParam(defaultValue = "4") int parallelism) {
+        try {
+            SnapshotJob job = snapshotService.submitSnapshot(table, parallelism);
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("status", "success");
+            result.put("message", "Snapshot started");
+            result.put("job", snapshotService.getJob(job.getId()));
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.accepted().body(result);
+
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @PostMapping("/{name}/restore")
+    @AdmissionPolicy(priority = PriorityClass.BACKGROUND)
+    public ResponseEntity<Map<String, Object>> restoreSnapshot(@PathVariable String name,
+                                                               @RequestParam(required = false) String target,
+                                                               @RequestParam(defaultValue = "4") int parallelism,
+                                                               @RequestParam(defaultValue = "false") boolean truncate) {
+        try {
+            SnapshotJob job = snapshotService.submitRestore(name, target, parallelism, truncate);
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("status", "success");
+            result.put("message", "Restore started");
+            result.put("job", snapshotService.getJob(job.getId()));
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.accepted().body(result);
+
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Failed to start restore of snapshot {}", name, e);
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Failed to start restore: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+}
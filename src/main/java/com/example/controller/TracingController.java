@@ -0,0 +1,102 @@
+package com.example.controller;
+
+import com.example.service.admission.AdmissionPolicy;
+import com.example.service.admission.PriorityClass;
+import com.example.service.tracing.TracingOverheadBenchmark;
+import com.example.service.tracing.TracingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/tracing")
+public class TracingController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TracingController.class);
+
+    private final TracingService tracingService;
+    private final TracingOverheadBenchmark overheadBenchmark;
+
+    public TracingController(TracingService tracingService, TracingOverheadBenchmark overheadBenchmark) {
+        this.tracingService = tracingService;
+        this.overheadBenchmark = overheadBenchmark;
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        Map<String, Object> status = tracingService.getStatus();
+        status.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(status);
+    }
+
+    @GetMapping("/traces")
+    public ResponseEntity<Map<String, Object>> getTraces(@RequestParam(defaultValue = "50") int limit,
+                                                         @RequestParam(defaultValue = "0") long minDurationMs) {
+        List<Map<String, Object>> traces = tracingService.getRecentTraces(Math.max(1, Math.min(limit, 1000)),
+                                                                          Math.max(0, minDurationMs));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("traces", traces);
+        result.put("count", traces.size());
+        result.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/traces/{traceId}")
+    public ResponseEntity<Map<String, Object>> getTrace(@PathVariable String traceId) {
+        try {
+            return ResponseEntity.ok(tracingService.getTrace(traceId));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(404).body(error);
+        }
+    }
+
+    @PostMapping("/sample-rate")
+    public ResponseEntity<Map<String, Object>> setSampleRate(@RequestParam double rate) {
+        try {
+            tracingService.setSampleRate(rate);
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("status", "success");
+            result.put("message", "Sample rate updated");
+            result.put("sampleRate", tracingService.getSampleRate());
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(result);
+
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @PostMapping("/overhead")
+    @AdmissionPolicy(priority = PriorityClass.BACKGROUND)
+    public ResponseEntity<Map<String, Object>> measureOverhead(@RequestParam(defaultValue = "2000") int iterations) {
+        try {
+            Map<String, Object> result = new HashMap<>(overheadBenchmark.run(Math.max(100, Math.min(iterations, 100000))));
+            result.put("status", "success");
+            result.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+            logger.error("Tracing overhead measurement failed", e);
+
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", "Overhead measurement failed: " + e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+}
@@ -1,23 +1,32 @@
 package com.example.service;
 
+import com.example.config.DataSourceRegistry;
+import com.example.config.DatabasePool;
 import com.zaxxer.hikari.HikariDataSource;
 import com.zaxxer.hikari.HikariPoolMXBean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import javax.sql.DataSource;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class ConnectionMonitoringService {
 
     private static final Logger logger = LoggerFactory.getLogger(ConnectionMonitoringService.class);
 
-    private final DataSource dataSource;
+    private final DataSourceRegistry dataSourceRegistry;
+    private final Map<String, PoolMetricsSource> externalSources = new LinkedHashMap<>();
+    private final Map<String, PoolSampler> samplers = new ConcurrentHashMap<>();
 
     @Value("${app.monitoring.enabled:true}")
     private boolean monitoringEnabled;
@@ -25,21 +34,23 @@ public class ConnectionMonitoringService {
     @Value("${app.monitoring.interval:30}")
     private int monitoringInterval;
 
-    private HikariPoolMXBean poolMXBean;
+    @Value("${app.monitoring.snapshot-max-age-ms:100}")
+    private long snapshotMaxAgeMs;
 
-    public ConnectionMonitoringService(DataSource dataSource) {
-        this.dataSource = dataSource;
+    public ConnectionMonitoringService(DataSourceRegistry dataSourceRegistry,
+                                       ObjectProvider<PoolMetricsSource> externalSources) {
+        this.dataSourceRegistry = dataSourceRegistry;
+        externalSources.orderedStream().forEach(source -> this.externalSources.put(source.getName(), source));
         initializeMonitoring();
     }
 
     private void initializeMonitoring() {
-        if (dataSource instanceof HikariDataSource) {
-            HikariDataSource hikariDS = (HikariDataSource) dataSource;
-            this.poolMXBean = hikariDS.getHikariPoolMXBean();
+        for (String name : dataSourceRegistry.getPoolNames()) {
             logger.info("Connection monitoring initialized for HikariCP pool: {}", 
-                       hikariDS.getPoolName());
-        } else {
-            logger.warn("DataSource is not HikariDataSource, limited monitoring available");
+                       dataSourceRegistry.getPool(name).getPoolName());
+        }
+        for (String name : externalSources.keySet()) {
+            logger.info("Connection monitoring initialized for pool: {}", name);
         }
     }
 
@@ -49,117 +60,196 @@ public class ConnectionMonitoringService {
             return;
         }
 
-        try {
-            Map<String, Object> metrics = getConnectionMetrics();
-            
-            logger.info("Connection Pool Status - Total: {}, Active: {}, Idle: {}, Waiting: {}",
-                       metrics.get("totalConnections"),
-                       metrics.get("activeConnections"),
-                       metrics.get("idleConnections"),
-                       metrics.get("threadsAwaitingConnection"));
-
-            // Log additional details at debug level
-            if (logger.isDebugEnabled()) {
-                logger.debug("Detailed Pool Metrics: {}", metrics);
-            }
+        for (String name : getPoolNames()) {
+            try {
+                PoolMetricsSnapshot snapshot = getSnapshot(name);
+                
+                logger.info("Connection Pool Status [{}] - Total: {}, Active: {}, Idle: {}, Waiting: {}",
+                           name,
+                           snapshot.totalConnections(),
+                           snapshot.activeConnections(),
+                           snapshot.idleConnections(),
+                           snapshot.threadsAwaitingConnection());
+
+                // Log additional details at debug level
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Detailed Pool Metrics [{}]: {}", name, snapshot);
+                }
 
-            // Log warnings for potential issues
-            checkPoolHealth(metrics);
+                // Log warnings for potential issues
+                checkPoolHealth(snapshot);
 
-        } catch (Exception e) {
-            logger.error("Failed to retrieve connection pool metrics", e);
+            } catch (Exception e) {
+                logger.error("Failed to retrieve connection pool metrics for pool {}", name, e);
+            }
+        }
+    }
+
+    /**
+     * Latest snapshot of the named pool. The MXBean is read at most once per
+     * app.monitoring.snapshot-max-age-ms; callers within that window share
+     * the same immutable instance.
+     */
+    public PoolMetricsSnapshot getSnapshot(String poolName) {
+        PoolSampler sampler = sampler(poolName);
+        PoolMetricsSnapshot latest = sampler.latest;
+        if (latest != null && latest.ageNanos(System.nanoTime()) <= TimeUnit.MILLISECONDS.toNanos(snapshotMaxAgeMs)) {
+            return latest;
         }
+        return sampler.sample();
+    }
+
+    public PoolMetricsSnapshot getSnapshot() {
+        return getSnapshot(DatabasePool.OLTP);
     }
 
+    /**
+     * Metrics of the OLTP pool
+     */
     public Map<String, Object> getConnectionMetrics() {
-        Map<String, Object> metrics = new HashMap<>();
+        return getConnectionMetrics(DatabasePool.OLTP);
+    }
 
-        if (poolMXBean != null) {
-            metrics.put("totalConnections", poolMXBean.getTotalConnections());
-            metrics.put("activeConnections", poolMXBean.getActiveConnections());
-            metrics.put("idleConnections", poolMXBean.getIdleConnections());
-            metrics.put("threadsAwaitingConnection", poolMXBean.getThreadsAwaitingConnection());
-            
-            // Additional HikariCP metrics
-            if (dataSource instanceof HikariDataSource) {
-                HikariDataSource hikariDS = (HikariDataSource) dataSource;
-                metrics.put("maximumPoolSize", hikariDS.getMaximumPoolSize());
-                metrics.put("minimumIdle", hikariDS.getMinimumIdle());
-                metrics.put("connectionTimeout", hikariDS.getConnectionTimeout());
-                metrics.put("idleTimeout", hikariDS.getIdleTimeout());
-                metrics.put("maxLifetime", hikariDS.getMaxLifetime());
-                metrics.put("poolName", hikariDS.getPoolName());
-                metrics.put("isClosed", hikariDS.isClosed());
-                metrics.put("isRunning", hikariDS.isRunning());
-            }
-        } else {
-            logger.warn("Pool MXBean not available, cannot retrieve detailed metrics");
-            metrics.put("totalConnections", "N/A");
-            metrics.put("activeConnections", "N/A");
-            metrics.put("idleConnections", "N/A");
-            metrics.put("threadsAwaitingConnection", "N/A");
+    public Map<String, Object> getConnectionMetrics(String poolName) {
+        return getSnapshot(poolName).toMap();
+    }
+
+    /**
+     * Metrics of every named pool, keyed by pool name
+     */
+    public Map<String, Map<String, Object>> getAllPoolMetrics() {
+        Map<String, Map<String, Object>> allMetrics = new LinkedHashMap<>();
+        for (String name : getPoolNames()) {
+            allMetrics.put(name, getConnectionMetrics(name));
         }
+        return allMetrics;
+    }
 
-        return metrics;
+    /**
+     * Registry pools followed by external pools such as the reactive one
+     */
+    public Set<String> getPoolNames() {
+        if (externalSources.isEmpty()) {
+            return dataSourceRegistry.getPoolNames();
+        }
+        Set<String> names = new LinkedHashSet<>(dataSourceRegistry.getPoolNames());
+        names.addAll(externalSources.keySet());
+        return Collections.unmodifiableSet(names);
     }
 
-    private void checkPoolHealth(Map<String, Object> metrics) {
-        try {
-            if (poolMXBean != null) {
-                int totalConnections = poolMXBean.getTotalConnections();
-                int activeConnections = poolMXBean.getActiveConnections();
-                int threadsWaiting = poolMXBean.getThreadsAwaitingConnection();
-                
-                HikariDataSource hikariDS = (HikariDataSource) dataSource;
-                int maxPoolSize = hikariDS.getMaximumPoolSize();
+    private PoolSampler sampler(String poolName) {
+        PoolMetricsSource external = externalSources.get(poolName);
+        Object source = external != null ? external : dataSourceRegistry.getPool(poolName);
+        PoolSampler sampler = samplers.get(poolName);
+        if (sampler == null || sampler.source != source) {
+            // First use, or the pool was replaced at runtime (shard reload)
+            sampler = samplers.compute(poolName, (name, existing) ->
+                existing != null && existing.source == source ? existing : new PoolSampler(name, source));
+        }
+        return sampler;
+    }
 
-                // Check for pool exhaustion
-                if (totalConnections >= maxPoolSize) {
-                    logger.warn("Connection pool is at maximum capacity! " +
-                               "Total: {}, Max: {}", totalConnections, maxPoolSize);
-                }
+    private void checkPoolHealth(PoolMetricsSnapshot snapshot) {
+        String poolName = snapshot.pool();
+        if (!snapshot.mxBeanAvailable()) {
+            return;
+        }
 
-                // Check for high utilization
-                double utilizationPercent = (double) activeConnections / maxPoolSize * 100;
-                if (utilizationPercent > 80) {
-                    logger.warn("High connection pool utilization: {:.1f}% " +
-                               "(Active: {}, Max: {})", utilizationPercent, activeConnections, maxPoolSize);
-                }
+        // Check for pool exhaustion
+        if (snapshot.atCapacity()) {
+            logger.warn("Connection pool {} is at maximum capacity! " +
+                       "Total: {}, Max: {}", poolName, snapshot.totalConnections(), snapshot.maximumPoolSize());
+        }
 
-                // Check for waiting threads
-                if (threadsWaiting > 0) {
-                    logger.warn("Threads waiting for connections: {}", threadsWaiting);
-                }
+        // Check for high utilization
+        double utilizationPercent = snapshot.utilizationPercent();
+        if (utilizationPercent > 80) {
+            logger.warn("High connection pool utilization on {}: {}% " +
+                       "(Active: {}, Max: {})", poolName, String.format("%.1f", utilizationPercent),
+                       snapshot.activeConnections(), snapshot.maximumPoolSize());
+        }
 
-                // Check if pool is closed
-                if (hikariDS.isClosed()) {
-                    logger.error("Connection pool is closed!");
-                }
+        // Check for waiting threads
+        if (snapshot.threadsAwaitingConnection() > 0) {
+            logger.warn("Threads waiting for connections on {}: {}", poolName, snapshot.threadsAwaitingConnection());
+        }
+
+        // Check if pool is closed
+        if (snapshot.closed()) {
+            logger.error("Connection pool {} is closed!", poolName);
+        }
+    }
+
+    /**
+     * Reads one pool (a HikariCP pool or a {@link PoolMetricsSource}) and keeps
+     * the latest snapshot. Concurrent samples may race; the last one written
+     * wins, which is harmless for metrics.
+     */
+    private static final class PoolSampler {
+        private final String name;
+        private final Object source;
+        private volatile PoolMetricsSnapshot latest;
+
+        PoolSampler(String name, Object source) {
+            this.name = name;
+            this.source = source;
+        }
+
+        PoolMetricsSnapshot sample() {
+            PoolMetricsSnapshot snapshot = source instanceof PoolMetricsSource external
+                ? external.sample() : sampleHikari((HikariDataSource) source);
+            latest = snapshot;
+            return snapshot;
+        }
+
+        private PoolMetricsSnapshot sampleHikari(HikariDataSource pool) {
+            HikariPoolMXBean poolMXBean = pool.getHikariPoolMXBean();
+            boolean available = poolMXBean != null;
+            if (!available) {
+                logger.warn("Pool MXBean not available for pool {}, cannot retrieve detailed metrics", name);
             }
-        } catch (Exception e) {
-            logger.error("Error during pool health check", e);
+
+            return new PoolMetricsSnapshot(
+                name,
+                pool.getPoolName(),
+                System.currentTimeMillis(),
+                System.nanoTime(),
+                available,
+                available ? poolMXBean.getTotalConnections() : PoolMetricsSnapshot.UNAVAILABLE,
+                available ? poolMXBean.getActiveConnections() : PoolMetricsSnapshot.UNAVAILABLE,
+                available ? poolMXBean.getIdleConnections() : PoolMetricsSnapshot.UNAVAILABLE,
+                available ? poolMXBean.getThreadsAwaitingConnection() : PoolMetricsSnapshot.UNAVAILABLE,
+                pool.getMaximumPoolSize(),
+                pool.getMinimumIdle(),
+                pool.getConnectionTimeout(),
+                pool.getIdleTimeout(),
+                pool.getMaxLifetime(),
+                pool.isClosed(),
+                pool.isRunning());
         }
     }
 
     public void performConnectionTest() {
-        logger.info("Performing connection test");
+        performConnectionTest(DatabasePool.OLTP);
+    }
+
+    public void performConnectionTest(String poolName) {
+        logger.info("Performing connection test on pool {}", poolName);
         
         try {
-            if (dataSource instanceof HikariDataSource) {
-                HikariDataSource hikariDS = (HikariDataSource) dataSource;
+            HikariDataSource hikariDS = dataSourceRegistry.getPool(poolName);
+            
+            // Test getting a connection
+            long startTime = System.currentTimeMillis();
+            try (var connection = hikariDS.getConnection()) {
+                long connectionTime = System.currentTimeMillis() - startTime;
                 
-                // Test getting a connection
-                long startTime = System.currentTimeMillis();
-                try (var connection = hikariDS.getConnection()) {
-                    long connectionTime = System.currentTimeMillis() - startTime;
+                // Test executing a simple query
+                try (var stmt = connection.createStatement();
+                     var rs = stmt.executeQuery("SELECT 1")) {
                     
-                    // Test executing a simple query
-                    try (var stmt = connection.createStatement();
-                         var rs = stmt.executeQuery("SELECT 1")) {
-                        
-                        if (rs.next()) {
-                            logger.info("Connection test successful - Connection time: {}ms", connectionTime);
-                        }
+                    if (rs.next()) {
+                        logger.info("Connection test successful - Connection time: {}ms", connectionTime);
                     }
                 }
             }
@@ -190,12 +280,17 @@ public class ConnectionMonitoringService {
      * Suspends the connection pool
      */
     public void suspendPool() {
+        suspendPool(DatabasePool.OLTP);
+    }
+
+    public void suspendPool(String poolName) {
+        HikariPoolMXBean poolMXBean = dataSourceRegistry.getPool(poolName).getHikariPoolMXBean();
         if (poolMXBean != null) {
             try {
                 poolMXBean.suspendPool();
-                logger.info("Connection pool suspended");
+                logger.info("Connection pool {} suspended", poolName);
             } catch (Exception e) {
-                logger.error("Failed to suspend connection pool", e);
+                logger.error("Failed to suspend connection pool {}", poolName, e);
             }
         }
     }
@@ -204,12 +299,17 @@ public class ConnectionMonitoringService {
      * Resumes the connection pool
      */
     public void resumePool() {
+        resumePool(DatabasePool.OLTP);
+    }
+
+    public void resumePool(String poolName) {
+        HikariPoolMXBean poolMXBean = dataSourceRegistry.getPool(poolName).getHikariPoolMXBean();
         if (poolMXBean != null) {
             try {
                 poolMXBean.resumePool();
-                logger.info("Connection pool resumed");
+                logger.info("Connection pool {} resumed", poolName);
             } catch (Exception e) {
-                logger.error("Failed to resume connection pool", e);
+                logger.error("Failed to resume connection pool {}", poolName, e);
             }
         }
     }
@@ -218,13 +318,18 @@ public class ConnectionMonitoringService {
      * Soft evicts currently idle connections
      */
     public void softEvictConnections() {
+        softEvictConnections(DatabasePool.OLTP);
+    }
+
+    public void softEvictConnections(String poolName) {
+        HikariPoolMXBean poolMXBean = dataSourceRegistry.getPool(poolName).getHikariPoolMXBean();
         if (poolMXBean != null) {
             try {
                 poolMXBean.softEvictConnections();
-                logger.info("Soft evicted idle connections");
+                logger.info("Soft evicted idle connections on pool {}", poolName);
             } catch (Exception e) {
-                logger.error("Failed to soft evict connections", e);
+                logger.error("Failed to soft evict connections on pool {}", poolName, e);
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,302 @@
+package com.example.service;
+
+import com.example.config.DatabasePool;
+import com.example.service.admission.AdmissionContext;
+import com.example.service.admission.PriorityClass;
+import com.example.service.resilience.CircuitBreakerService;
+import com.example.service.resilience.DatabaseCircuitBreaker;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the health probes (pool, database round trip, Vault, schema) in the
+ * background, each on its own schedule and with its own timeout, and
+ * publishes the results as an immutable {@link HealthSnapshot}. Reading the
+ * health status therefore never touches the database or Vault.
+ */
+@Service
+public class HealthAggregatorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HealthAggregatorService.class);
+
+    public static final String STATUS_UP = "UP";
+    public static final String STATUS_DEGRADED = "DEGRADED";
+    public static final String STATUS_DOWN = "DOWN";
+    public static final String STATUS_UNKNOWN = "UNKNOWN";
+
+    private final ConnectionMonitoringService monitoringService;
+    private final CircuitBreakerService circuitBreakerService;
+    private final VaultService vaultService;
+    private final SchemaService schemaService;
+    private final JdbcTemplate jdbcTemplate;
+    private final Environment environment;
+
+    @Value("${app.health.enabled:true}")
+    private boolean healthAggregationEnabled;
+
+    @Value("${app.health.stale-after-intervals:3}")
+    private int staleAfterIntervals;
+
+    private final Map<String, ProbeSchedule> schedules = new LinkedHashMap<>();
+    private volatile HealthSnapshot snapshot = new HealthSnapshot(Map.of(), System.currentTimeMillis());
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService probeExecutor;
+
+    public HealthAggregatorService(ConnectionMonitoringService monitoringService,
+                                   CircuitBreakerService circuitBreakerService,
+                                   VaultService vaultService,
+                                   SchemaService schemaService,
+                                   JdbcTemplate jdbcTemplate,
+                                   Environment environment) {
+        this.monitoringService = monitoringService;
+        this.circuitBreakerService = circuitBreakerService;
+        this.vaultService = vaultService;
+        this.schemaService = schemaService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.environment = environment;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!healthAggregationEnabled) {
+            logger.info("Background health aggregation is disabled");
+            return;
+        }
+
+        register("pool", 1000, 500, this::probePool);
+        register("database", 5000, 2000, this::probeDatabase);
+        register("vault", 30000, 5000, this::probeVault);
+        register("schema", 300000, 30000, this::probeSchema);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "health-scheduler"));
+        // A probe runs at most once at a time, so one thread per probe is enough
+        probeExecutor = Executors.newFixedThreadPool(schedules.size(),
+            r -> daemon(r, "health-probe-" + threadCount.incrementAndGet()));
+
+        schedules.forEach((name, schedule) -> scheduler.scheduleWithFixedDelay(
+            () -> runProbe(name, schedule), 0, schedule.intervalMs, TimeUnit.MILLISECONDS));
+
+        logger.info("Health aggregator started with probes {}", schedules.keySet());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            probeExecutor.shutdownNow();
+        }
+    }
+
+    private void register(String name, long defaultIntervalMs, long defaultTimeoutMs,
+                          Callable<ComponentHealth> probe) {
+        long intervalMs = environment.getProperty("app.health.probes." + name + ".interval-ms",
+                                                  Long.class, defaultIntervalMs);
+        long timeoutMs = environment.getProperty("app.health.probes." + name + ".timeout-ms",
+                                                 Long.class, defaultTimeoutMs);
+        schedules.put(name, new ProbeSchedule(intervalMs, timeoutMs, probe, new AtomicBoolean()));
+    }
+
+    /**
+     * Starts one probe on the probe executor and publishes its result, or a
+     * failure once the timeout passes, without blocking the scheduler thread.
+     * A probe still blocked in its previous run (JDBC ignores interrupts) is
+     * skipped rather than started again, and its result goes stale.
+     */
+    private void runProbe(String name, ProbeSchedule schedule) {
+        if (!schedule.running.compareAndSet(false, true)) {
+            logger.debug("Skipping {} probe, the previous run is still in flight", name);
+            return;
+        }
+        long start = System.currentTimeMillis();
+        CompletableFuture<ComponentHealth> outcome = new CompletableFuture<>();
+
+        Future<?> task;
+        try {
+            task = probeExecutor.submit(() -> {
+                try {
+                    outcome.complete(schedule.probe.call());
+                } catch (Throwable e) {
+                    outcome.completeExceptionally(e);
+                } finally {
+                    schedule.running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            schedule.running.set(false);
+            return;
+        }
+
+        outcome.orTimeout(schedule.timeoutMs, TimeUnit.MILLISECONDS).whenComplete((health, error) -> {
+            ComponentHealth result = health;
+            if (error instanceof TimeoutException) {
+                task.cancel(true);
+                result = ComponentHealth.failed("Probe timed out after " + schedule.timeoutMs + "ms");
+            } else if (error != null) {
+                result = ComponentHealth.failed(error.getMessage());
+            }
+            publish(name, result.completed(start, System.currentTimeMillis() - start));
+        });
+    }
+
+    private synchronized void publish(String name, ComponentHealth result) {
+        Map<String, ComponentHealth> components = new LinkedHashMap<>(snapshot.components());
+        ComponentHealth previous = components.put(name, result);
+        snapshot = new HealthSnapshot(Collections.unmodifiableMap(components), System.currentTimeMillis());
+
+        if (previous != null && !previous.status().equals(result.status())) {
+            logger.warn("Health of {} changed from {} to {}{}", name, previous.status(), result.status(),
+                       result.error() != null ? ": " + result.error() : "");
+        }
+    }
+
+    private ComponentHealth probePool() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("pools", monitoringService.getAllPoolMetrics());
+        details.put("circuitBreakers", circuitBreakerService.getStatus());
+
+        boolean oltpAvailable = circuitBreakerService.getState(DatabasePool.OLTP) == DatabaseCircuitBreaker.State.CLOSED
+            && monitoringService.getSnapshot(DatabasePool.OLTP).running();
+        return new ComponentHealth(oltpAvailable ? STATUS_UP : STATUS_DOWN, details, null, 0, 0);
+    }
+
+    private ComponentHealth probeDatabase() throws Exception {
+        AdmissionContext context = new AdmissionContext(PriorityClass.CRITICAL, "health-probe:database",
+                                                        AdmissionContext.NO_DEADLINE, 1);
+        long start = System.nanoTime();
+        Integer result = AdmissionContext.callWith(context,
+            () -> jdbcTemplate.queryForObject("SELECT 1", Integer.class));
+        long roundTripMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("roundTripMicros", roundTripMicros);
+        return new ComponentHealth(Integer.valueOf(1).equals(result) ? STATUS_UP : STATUS_DOWN, details, null, 0, 0);
+    }
+
+    private ComponentHealth probeVault() {
+        boolean accessible = vaultService.isVaultAccessible();
+
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("accessible", accessible);
+        details.put("path", vaultService.getVaultPath());
+        return new ComponentHealth(accessible ? STATUS_UP : STATUS_DOWN, details, null, 0, 0);
+    }
+
+    private ComponentHealth probeSchema() {
+        boolean valid = schemaService.validateSchema();
+
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("valid", valid);
+        return new ComponentHealth(valid ? STATUS_UP : STATUS_DOWN, details, null, 0, 0);
+    }
+
+    public HealthSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public boolean isHealthAggregationEnabled() {
+        return healthAggregationEnabled;
+    }
+
+    /**
+     * Renders the current snapshot with per-component staleness. The overall
+     * status is DOWN when the database is unreachable, DEGRADED when another
+     * component is failing or stale, UNKNOWN before the first probes complete.
+     */
+    public Map<String, Object> describe() {
+        HealthSnapshot current = snapshot;
+        long now = System.currentTimeMillis();
+
+        String status = current.components().isEmpty() ? STATUS_UNKNOWN : STATUS_UP;
+        Map<String, Object> components = new LinkedHashMap<>();
+
+        for (Map.Entry<String, ComponentHealth> entry : current.components().entrySet()) {
+            ComponentHealth component = entry.getValue();
+            long stalenessMs = now - component.checkedAt();
+            ProbeSchedule schedule = schedules.get(entry.getKey());
+            boolean stale = schedule != null && stalenessMs > schedule.intervalMs * staleAfterIntervals
+                + schedule.timeoutMs;
+
+            Map<String, Object> view = new LinkedHashMap<>();
+            view.put("status", component.status());
+            view.put("stale", stale);
+            view.put("stalenessMs", stalenessMs);
+            view.put("checkedAt", component.checkedAt());
+            view.put("durationMs", component.durationMs());
+            if (component.error() != null) {
+                view.put("error", component.error());
+            }
+            view.putAll(component.details());
+            components.put(entry.getKey(), view);
+
+            boolean critical = "database".equals(entry.getKey()) || "pool".equals(entry.getKey());
+            if (STATUS_DOWN.equals(component.status()) && critical) {
+                status = STATUS_DOWN;
+            } else if ((STATUS_DOWN.equals(component.status()) || stale) && !STATUS_DOWN.equals(status)) {
+                status = STATUS_DEGRADED;
+            }
+        }
+
+        Map<String, Object> health = new LinkedHashMap<>();
+        health.put("status", status);
+        health.put("components", components);
+        health.put("snapshotAt", current.generatedAt());
+        health.put("timestamp", now);
+        return health;
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private record ProbeSchedule(long intervalMs, long timeoutMs, Callable<ComponentHealth> probe,
+                                 AtomicBoolean running) {
+    }
+
+    /**
+     * Immutable set of the latest probe results
+     */
+    public record HealthSnapshot(Map<String, ComponentHealth> components, long generatedAt) {
+    }
+
+    /**
+     * Result of one probe run
+     */
+    public record ComponentHealth(String status, Map<String, Object> details, String error,
+                                  long checkedAt, long durationMs) {
+
+        static ComponentHealth failed(String error) {
+            return new ComponentHealth(STATUS_DOWN, Map.of(), error, 0, 0);
+        }
+
+        ComponentHealth completed(long checkedAt, long durationMs) {
+            return new ComponentHealth(status, Collections.unmodifiableMap(new LinkedHashMap<>(details)),
+                                       error, checkedAt, durationMs);
+        }
+    }
+}
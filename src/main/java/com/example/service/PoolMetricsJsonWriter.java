@@ -0,0 +1,114 @@
+package com.example.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes {@link PoolMetricsSnapshot}s as JSON straight to an output stream.
+ * Each thread reuses one pre-sized character and byte buffer, so scraping the
+ * metrics endpoint does not allocate per request. Output is pure ASCII;
+ * anything else in strings is written as a \\u escape.
+ */
+public final class PoolMetricsJsonWriter {
+
+    private static final int INITIAL_CAPACITY = 512;
+
+    private static final ThreadLocal<Buffer> BUFFERS = ThreadLocal.withInitial(Buffer::new);
+
+    private PoolMetricsJsonWriter() {
+    }
+
+    public static void write(PoolMetricsSnapshot snapshot, OutputStream out) throws IOException {
+        Buffer buffer = BUFFERS.get();
+        StringBuilder json = buffer.reset();
+
+        json.append('{');
+        counter(json, "totalConnections", snapshot.mxBeanAvailable(), snapshot.totalConnections());
+        counter(json, "activeConnections", snapshot.mxBeanAvailable(), snapshot.activeConnections());
+        counter(json, "idleConnections", snapshot.mxBeanAvailable(), snapshot.idleConnections());
+        counter(json, "threadsAwaitingConnection", snapshot.mxBeanAvailable(), snapshot.threadsAwaitingConnection());
+        key(json, "maximumPoolSize").append(snapshot.maximumPoolSize()).append(',');
+        key(json, "minimumIdle").append(snapshot.minimumIdle()).append(',');
+        key(json, "connectionTimeout").append(snapshot.connectionTimeout()).append(',');
+        key(json, "idleTimeout").append(snapshot.idleTimeout()).append(',');
+        key(json, "maxLifetime").append(snapshot.maxLifetime()).append(',');
+        string(key(json, "poolName"), snapshot.poolName()).append(',');
+        key(json, "isClosed").append(snapshot.closed()).append(',');
+        key(json, "isRunning").append(snapshot.running()).append(',');
+        string(key(json, "pool"), snapshot.pool()).append(',');
+        key(json, "timestamp").append(snapshot.timestamp());
+        json.append('}');
+
+        buffer.flushTo(out);
+    }
+
+    public static void writeError(String error, String message, OutputStream out) throws IOException {
+        Buffer buffer = BUFFERS.get();
+        StringBuilder json = buffer.reset();
+
+        json.append('{');
+        string(key(json, "error"), error).append(',');
+        string(key(json, "message"), message);
+        json.append('}');
+
+        buffer.flushTo(out);
+    }
+
+    private static void counter(StringBuilder json, String name, boolean available, int value) {
+        key(json, name);
+        if (available) {
+            json.append(value);
+        } else {
+            json.append("\"N/A\"");
+        }
+        json.append(',');
+    }
+
+    private static StringBuilder key(StringBuilder json, String name) {
+        return json.append('"').append(name).append("\":");
+    }
+
+    private static StringBuilder string(StringBuilder json, String value) {
+        if (value == null) {
+            return json.append("null");
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                json.append("\\u");
+                String hex = Integer.toHexString(c);
+                for (int pad = hex.length(); pad < 4; pad++) {
+                    json.append('0');
+                }
+                json.append(hex);
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"');
+    }
+
+    private static final class Buffer {
+        private final StringBuilder chars = new StringBuilder(INITIAL_CAPACITY);
+        private byte[] bytes = new byte[INITIAL_CAPACITY];
+
+        StringBuilder reset() {
+            chars.setLength(0);
+            return chars;
+        }
+
+        void flushTo(OutputStream out) throws IOException {
+            int length = chars.length();
+            if (bytes.length < length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) chars.charAt(i);
+            }
+            out.write(bytes, 0, length);
+        }
+    }
+}
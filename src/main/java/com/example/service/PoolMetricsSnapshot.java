@@ -0,0 +1,64 @@
+package com.example.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable point-in-time view of one connection pool, taken with a single
+ * read of the HikariCP MXBean. Counters are -1 when the MXBean is not
+ * available (pool not started yet).
+ */
+public record PoolMetricsSnapshot(String pool,
+                                  String poolName,
+                                  long timestamp,
+                                  long sampledAtNanos,
+                                  boolean mxBeanAvailable,
+                                  int totalConnections,
+                                  int activeConnections,
+                                  int idleConnections,
+                                  int threadsAwaitingConnection,
+                                  int maximumPoolSize,
+                                  int minimumIdle,
+                                  long connectionTimeout,
+                                  long idleTimeout,
+                                  long maxLifetime,
+                                  boolean closed,
+                                  boolean running) {
+
+    public static final int UNAVAILABLE = -1;
+
+    public double utilizationPercent() {
+        if (!mxBeanAvailable || maximumPoolSize <= 0) {
+            return 0;
+        }
+        return (double) activeConnections / maximumPoolSize * 100;
+    }
+
+    public boolean atCapacity() {
+        return mxBeanAvailable && totalConnections >= maximumPoolSize;
+    }
+
+    public long ageNanos(long nowNanos) {
+        return nowNanos - sampledAtNanos;
+    }
+
+    /**
+     * Legacy map form, with the keys and "N/A" placeholders of the original metrics API
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("totalConnections", mxBeanAvailable ? totalConnections : "N/A");
+        metrics.put("activeConnections", mxBeanAvailable ? activeConnections : "N/A");
+        metrics.put("idleConnections", mxBeanAvailable ? idleConnections : "N/A");
+        metrics.put("threadsAwaitingConnection", mxBeanAvailable ? threadsAwaitingConnection : "N/A");
+        metrics.put("maximumPoolSize", maximumPoolSize);
+        metrics.put("minimumIdle", minimumIdle);
+        metrics.put("connectionTimeout", connectionTimeout);
+        metrics.put("idleTimeout", idleTimeout);
+        metrics.put("maxLifetime", maxLifetime);
+        metrics.put("poolName", poolName);
+        metrics.put("isClosed", closed);
+        metrics.put("isRunning", running);
+        return metrics;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.service;
+
+/**
+ * A connection pool outside the {@link com.example.config.DataSourceRegistry}
+ * (e.g. the reactive pool) that {@link ConnectionMonitoringService} should
+ * sample like the HikariCP pools.
+ */
+public interface PoolMetricsSource {
+
+    /**
+     * Pool name used in monitoring endpoints and metrics history
+     */
+    String getName();
+
+    /**
+     * Reads the pool once; called at most once per app.monitoring.snapshot-max-age-ms
+     */
+    PoolMetricsSnapshot sample();
+}
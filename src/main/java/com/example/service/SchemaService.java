@@ -1,5 +1,9 @@
 package com.example.service;
 
+import com.example.config.DatabasePool;
+import com.example.service.jfr.SchemaScriptEvent;
+import com.example.service.pipeline.PipelinedResult;
+import com.example.service.pipeline.QueryPipeline;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,11 +12,13 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.util.FileCopyUtils;
 
-import javax.annotation.PostConstruct;
+import jakarta.annotation.PostConstruct;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class SchemaService {
@@ -33,7 +39,7 @@ public class SchemaService {
     @Value("${app.schema.create-sample-data:false}")
     private boolean createSampleData;
 
-    public SchemaService(JdbcTemplate jdbcTemplate) {
+    public SchemaService(@DatabasePool(DatabasePool.ADMIN) JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
     }
 
@@ -74,6 +80,8 @@ public class SchemaService {
      * Execute a SQL script file
      */
     private void executeSchemaScript(String scriptName) {
+        SchemaScriptEvent event = new SchemaScriptEvent();
+        event.begin();
         try {
             logger.info("Executing SQL script: {}", scriptName);
             
@@ -98,16 +106,25 @@ public class SchemaService {
                         jdbcTemplate.execute(statement);
                         executedCount++;
                     } catch (Exception e) {
+                        event.failed++;
                         logger.warn("Failed to execute statement: {}", statement.substring(0, Math.min(statement.length(), 100)), e);
                     }
                 }
             }
             
             logger.info("Successfully executed {} statements from {}", executedCount, scriptName);
+            event.executed = executedCount;
+            event.success = true;
             
         } catch (Exception e) {
             logger.error("Failed to execute SQL script: {}", scriptName, e);
             throw new RuntimeException("SQL script execution failed: " + scriptName, e);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.script = scriptName;
+                event.commit();
+            }
         }
     }
 
@@ -181,6 +198,8 @@ public class SchemaService {
         
         // Drop views
         try {
+            jdbcTemplate.execute("DROP MATERIALIZED VIEW IF EXISTS mv_customer_summary");
+            jdbcTemplate.execute("DROP MATERIALIZED VIEW IF EXISTS mv_product_inventory");
             jdbcTemplate.execute("DROP VIEW IF EXISTS v_customer_summary CASCADE");
             jdbcTemplate.execute("DROP VIEW IF EXISTS v_product_inventory CASCADE");
             jdbcTemplate.execute("DROP VIEW IF EXISTS v_order_details CASCADE");
@@ -215,16 +234,14 @@ public class SchemaService {
                 "promotions", "addresses", "contacts", "documents", "logs"
             };
             
+            // All 25 existence checks go to the server in one round trip
+            QueryPipeline pipeline = new QueryPipeline(jdbcTemplate);
+            Map<String, PipelinedResult<Integer>> tableCounts = new LinkedHashMap<>();
             for (String table : expectedTables) {
-                Integer count = jdbcTemplate.queryForObject(
+                tableCounts.put(table, pipeline.queryForObject(
                     "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = ? AND table_schema = 'public'",
                     Integer.class, table
-                );
-                
-                if (count == null || count == 0) {
-                    logger.error("Required table '{}' not found", table);
-                    return false;
-                }
+                ));
             }
             
             // Check if sequences exist
@@ -232,14 +249,28 @@ public class SchemaService {
                 "users_seq", "categories_seq", "products_seq", "customers_seq", "orders_seq"
             };
             
+            Map<String, PipelinedResult<Integer>> sequenceCounts = new LinkedHashMap<>();
             for (String seq : expectedSequences) {
-                Integer count = jdbcTemplate.queryForObject(
+                sequenceCounts.put(seq, pipeline.queryForObject(
                     "SELECT COUNT(*) FROM information_schema.sequences WHERE sequence_name = ? AND sequence_schema = 'public'",
                     Integer.class, seq
-                );
-                
+                ));
+            }
+            
+            pipeline.execute();
+            
+            for (Map.Entry<String, PipelinedResult<Integer>> table : tableCounts.entrySet()) {
+                Integer count = table.getValue().get();
                 if (count == null || count == 0) {
-                    logger.error("Required sequence '{}' not found", seq);
+                    logger.error("Required table '{}' not found", table.getKey());
+                    return false;
+                }
+            }
+            
+            for (Map.Entry<String, PipelinedResult<Integer>> seq : sequenceCounts.entrySet()) {
+                Integer count = seq.getValue().get();
+                if (count == null || count == 0) {
+                    logger.error("Required sequence '{}' not found", seq.getKey());
                     return false;
                 }
             }
@@ -260,35 +291,35 @@ public class SchemaService {
         try {
             SchemaStatistics stats = new SchemaStatistics();
             
-            // Count tables
-            stats.tableCount = jdbcTemplate.queryForObject(
+            // The five counts are independent, so they share one round trip
+            QueryPipeline pipeline = new QueryPipeline(jdbcTemplate);
+            PipelinedResult<Integer> tableCount = pipeline.queryForObject(
                 "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = 'public'",
                 Integer.class
             );
-            
-            // Count sequences
-            stats.sequenceCount = jdbcTemplate.queryForObject(
+            PipelinedResult<Integer> sequenceCount = pipeline.queryForObject(
                 "SELECT COUNT(*) FROM information_schema.sequences WHERE sequence_schema = 'public'",
                 Integer.class
             );
-            
-            // Count indexes
-            stats.indexCount = jdbcTemplate.queryForObject(
+            PipelinedResult<Integer> indexCount = pipeline.queryForObject(
                 "SELECT COUNT(*) FROM pg_indexes WHERE schemaname = 'public'",
                 Integer.class
             );
-            
-            // Count views
-            stats.viewCount = jdbcTemplate.queryForObject(
+            PipelinedResult<Integer> viewCount = pipeline.queryForObject(
                 "SELECT COUNT(*) FROM information_schema.views WHERE table_schema = 'public'",
                 Integer.class
             );
-            
-            // Count functions
-            stats.functionCount = jdbcTemplate.queryForObject(
+            PipelinedResult<Integer> functionCount = pipeline.queryForObject(
                 "SELECT COUNT(*) FROM information_schema.routines WHERE routine_schema = 'public'",
                 Integer.class
             );
+            pipeline.execute();
+            
+            stats.tableCount = tableCount.get();
+            stats.sequenceCount = sequenceCount.get();
+            stats.indexCount = indexCount.get();
+            stats.viewCount = viewCount.get();
+            stats.functionCount = functionCount.get();
             
             return stats;
             
@@ -1,5 +1,6 @@
 package com.example.service;
 
+import com.example.service.jfr.VaultReadEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -32,20 +33,30 @@ public class VaultService {
      * @return Map containing database connection details
      */
     public Map<String, String> getCredentials() {
+        return getCredentials(vaultPath);
+    }
+
+    /**
+     * Retrieves database credentials stored at an arbitrary Vault path, e.g. one per shard
+     */
+    public Map<String, String> getCredentials(String path) {
         if (!vaultEnabled) {
             logger.warn("Vault is disabled, returning empty credentials map");
             return new HashMap<>();
         }
 
+        VaultReadEvent event = new VaultReadEvent();
+        event.begin();
         try {
-            logger.info("Retrieving credentials from Vault path: {}", vaultPath);
+            logger.info("Retrieving credentials from Vault path: {}", path);
             
-            VaultResponse response = vaultTemplate.read(vaultPath);
+            VaultResponse response = vaultTemplate.read(path);
             
             if (response == null || response.getData() == null) {
-                logger.error("No data found at Vault path: {}", vaultPath);
-                throw new RuntimeException("No credentials found in Vault at path: " + vaultPath);
+                logger.error("No data found at Vault path: {}", path);
+                throw new RuntimeException("No credentials found in Vault at path: " + path);
             }
+            event.success = true;
 
             Map<String, Object> data = response.getData();
             Map<String, String> credentials = new HashMap<>();
@@ -62,8 +73,15 @@ public class VaultService {
             return credentials;
 
         } catch (Exception e) {
-            logger.error("Failed to retrieve credentials from Vault at path: {}", vaultPath, e);
+            event.error = e.getMessage();
+            logger.error("Failed to retrieve credentials from Vault at path: {}", path, e);
             throw new RuntimeException("Failed to retrieve database credentials from Vault", e);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = path;
+                event.commit();
+            }
         }
     }
 
@@ -0,0 +1,60 @@
+package com.example.service.admission;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Admission attributes of the work running on the current thread: its
+ * priority class, the caller it is accounted to and an optional deadline.
+ *
+ * @param priority      priority class used to order waiters
+ * @param caller        key the per-caller concurrency quota is applied to
+ * @param deadlineNanos {@link System#nanoTime()} deadline, or {@link #NO_DEADLINE}
+ * @param quota         concurrency quota for the caller, 0 for the configured default
+ */
+public record AdmissionContext(PriorityClass priority, String caller, long deadlineNanos, int quota) {
+
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * Context for work that was not attributed to a caller, e.g. startup and
+     * scheduled tasks; it queues behind request traffic
+     */
+    public static final AdmissionContext UNATTRIBUTED =
+        new AdmissionContext(PriorityClass.BACKGROUND, "unattributed", NO_DEADLINE, Integer.MAX_VALUE);
+
+    private static final ThreadLocal<AdmissionContext> CURRENT = new ThreadLocal<>();
+
+    public boolean hasDeadline() {
+        return deadlineNanos != NO_DEADLINE;
+    }
+
+    public static AdmissionContext current() {
+        AdmissionContext context = CURRENT.get();
+        return context != null ? context : UNATTRIBUTED;
+    }
+
+    public static void set(AdmissionContext context) {
+        CURRENT.set(context);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Runs a task on the current thread under the given context
+     */
+    public static <T> T callWith(AdmissionContext context, Callable<T> task) throws Exception {
+        AdmissionContext previous = CURRENT.get();
+        CURRENT.set(context);
+        try {
+            return task.call();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.service.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataSource that admits each connection request through an
+ * {@link AdmissionScheduler} before borrowing from the pool. The permit is
+ * returned when the connection is closed.
+ */
+class AdmissionControlledDataSource extends DelegatingDataSource {
+
+    private final AdmissionScheduler scheduler;
+    private final long maxWaitNanos;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    AdmissionControlledDataSource(DataSource targetDataSource, AdmissionScheduler scheduler,
+                                  long maxWaitMillis, ObjectProvider<MeterRegistry> meterRegistry) {
+        super(targetDataSource);
+        this.scheduler = scheduler;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        AdmissionContext context = AdmissionContext.current();
+
+        long start = System.nanoTime();
+        AdmissionScheduler.Permit permit;
+        try {
+            permit = scheduler.acquire(context, maxWaitNanos);
+        } finally {
+            recordQueueTime(context, System.nanoTime() - start);
+        }
+
+        try {
+            return withPermit(obtainTargetDataSource().getConnection(), permit);
+        } catch (SQLException | RuntimeException e) {
+            permit.release();
+            throw e;
+        }
+    }
+
+    private void recordQueueTime(AdmissionContext context, long nanos) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Timer.builder("db.admission.queue.time")
+                .description("Time spent waiting for connection admission")
+                .tag("pool", scheduler.getPoolName())
+                .tag("class", context.priority().name())
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Connection withPermit(Connection connection, AdmissionScheduler.Permit permit) {
+        return (Connection) Proxy.newProxyInstance(
+            AdmissionControlledDataSource.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                if ("close".equals(method.getName())) {
+                    try {
+                        connection.close();
+                    } finally {
+                        permit.release();
+                    }
+                    return null;
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            });
+    }
+
+    AdmissionScheduler getScheduler() {
+        return scheduler;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.service.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Derives the {@link AdmissionContext} of each HTTP request from the handler's
+ * {@link AdmissionPolicy} and the request deadline headers:
+ * {@code X-Request-Deadline} (epoch milliseconds, propagated from upstream) or
+ * {@code X-Request-Timeout-Ms} (budget relative to arrival).
+ */
+@Component
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    static final String DEADLINE_HEADER = "X-Request-Deadline";
+    static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    @Value("${app.admission.default-request-timeout-ms:0}")
+    private long defaultRequestTimeoutMs;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        PriorityClass priority = PriorityClass.NORMAL;
+        int quota = 0;
+
+        if (handler instanceof HandlerMethod handlerMethod) {
+            AdmissionPolicy policy = AnnotatedElementUtils.findMergedAnnotation(
+                handlerMethod.getMethod(), AdmissionPolicy.class);
+            if (policy == null) {
+                policy = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), AdmissionPolicy.class);
+            }
+            if (policy != null) {
+                priority = policy.priority();
+                quota = policy.maxConcurrency();
+            }
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String caller = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+
+        AdmissionContext.set(new AdmissionContext(priority, caller, resolveDeadline(request), quota));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        AdmissionContext.clear();
+    }
+
+    private long resolveDeadline(HttpServletRequest request) {
+        long now = System.nanoTime();
+        try {
+            String deadline = request.getHeader(DEADLINE_HEADER);
+            if (deadline != null) {
+                long remainingMs = Long.parseLong(deadline.trim()) - System.currentTimeMillis();
+                return now + TimeUnit.MILLISECONDS.toNanos(remainingMs);
+            }
+
+            String timeout = request.getHeader(TIMEOUT_HEADER);
+            if (timeout != null) {
+                return now + TimeUnit.MILLISECONDS.toNanos(Long.parseLong(timeout.trim()));
+            }
+        } catch (NumberFormatException e) {
+            // Malformed headers fall back to the default budget
+        }
+
+        return defaultRequestTimeoutMs > 0
+            ? now + TimeUnit.MILLISECONDS.toNanos(defaultRequestTimeoutMs)
+            : AdmissionContext.NO_DEADLINE;
+    }
+}
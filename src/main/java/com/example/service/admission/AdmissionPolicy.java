@@ -0,0 +1,25 @@
+package com.example.service.admission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares how requests handled by a controller class or method are admitted
+ * to the connection pools. Method annotations take precedence over class ones.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AdmissionPolicy {
+
+    PriorityClass priority() default PriorityClass.NORMAL;
+
+    /**
+     * Maximum connections the endpoint may hold concurrently per pool,
+     * 0 to use app.admission.default-caller-quota
+     */
+    int maxConcurrency() default 0;
+}
@@ -0,0 +1,17 @@
+package com.example.service.admission;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Thrown instead of handing out a connection when a request's deadline has
+ * passed or it could not be admitted in time. Extends the same exception
+ * type HikariCP uses for acquisition timeouts so callers handle both alike.
+ */
+public class AdmissionRejectedException extends SQLTransientConnectionException {
+
+    private static final long serialVersionUID = 1L;
+
+    public AdmissionRejectedException(String message) {
+        super(message);
+    }
+}
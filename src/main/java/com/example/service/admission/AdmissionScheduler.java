@@ -0,0 +1,219 @@
+package com.example.service.admission;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out one permit per pooled connection. Waiters are served by priority
+ * class, then earliest deadline, then arrival order, skipping callers that
+ * already hold their concurrency quota. Waiters whose deadline passes while
+ * queued are rejected without ever taking a connection.
+ */
+class AdmissionScheduler {
+
+    private static final Comparator<Waiter> WAITER_ORDER = Comparator
+        .comparing((Waiter w) -> w.priority)
+        .thenComparingLong(w -> w.deadlineNanos)
+        .thenComparingLong(w -> w.sequence);
+
+    private final String poolName;
+    private final int permits;
+    private final int defaultCallerQuota;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeSet<Waiter> waiters = new TreeSet<>(WAITER_ORDER);
+    private final Map<String, Integer> inUseByCaller = new HashMap<>();
+    private final Map<PriorityClass, AtomicLong> rejectedByClass = new EnumMap<>(PriorityClass.class);
+    private int available;
+    private long sequence;
+
+    AdmissionScheduler(String poolName, int permits, int defaultCallerQuota) {
+        this.poolName = poolName;
+        this.permits = permits;
+        this.available = permits;
+        this.defaultCallerQuota = defaultCallerQuota > 0 ? defaultCallerQuota : permits;
+        for (PriorityClass priority : PriorityClass.values()) {
+            rejectedByClass.put(priority, new AtomicLong());
+        }
+    }
+
+    /**
+     * Blocks until a permit is granted or the wait limit passes
+     *
+     * @param maxWaitNanos upper bound on queueing when the context has no earlier deadline
+     */
+    Permit acquire(AdmissionContext context, long maxWaitNanos) throws AdmissionRejectedException {
+        long now = System.nanoTime();
+        if (context.hasDeadline() && context.deadlineNanos() - now <= 0) {
+            throw reject(context, "deadline already passed");
+        }
+
+        long waitUntil = now + maxWaitNanos;
+        if (context.hasDeadline() && context.deadlineNanos() - waitUntil < 0) {
+            waitUntil = context.deadlineNanos();
+        }
+
+        int quota = context.quota() > 0 ? context.quota() : defaultCallerQuota;
+        Waiter waiter = new Waiter(context.priority(), context.deadlineNanos(), context.caller(), quota,
+                                   lock.newCondition());
+
+        lock.lock();
+        try {
+            waiter.sequence = sequence++;
+            waiters.add(waiter);
+            dispatch();
+
+            while (!waiter.granted) {
+                long remaining = waitUntil - System.nanoTime();
+                if (waiter.expired || remaining <= 0) {
+                    waiters.remove(waiter);
+                    boolean deadlineReached = waiter.expired
+                        || (context.hasDeadline() && waitUntil == context.deadlineNanos());
+                    throw reject(context, deadlineReached
+                        ? "deadline passed while queued" : "timed out waiting for admission");
+                }
+                try {
+                    waiter.condition.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    if (waiter.granted) {
+                        releaseLocked(waiter.caller);
+                    } else {
+                        waiters.remove(waiter);
+                    }
+                    throw reject(context, "interrupted while queued");
+                }
+            }
+            return new Permit(waiter.caller);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(String caller) {
+        lock.lock();
+        try {
+            releaseLocked(caller);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseLocked(String caller) {
+        available++;
+        inUseByCaller.computeIfPresent(caller, (key, count) -> count > 1 ? count - 1 : null);
+        dispatch();
+    }
+
+    /**
+     * Grants free permits to eligible waiters in priority order. Caller must hold the lock.
+     */
+    private void dispatch() {
+        long now = System.nanoTime();
+        Iterator<Waiter> iterator = waiters.iterator();
+
+        while (available > 0 && iterator.hasNext()) {
+            Waiter waiter = iterator.next();
+
+            if (waiter.deadlineNanos != AdmissionContext.NO_DEADLINE && waiter.deadlineNanos - now <= 0) {
+                iterator.remove();
+                waiter.expired = true;
+                waiter.condition.signal();
+                continue;
+            }
+            if (inUseByCaller.getOrDefault(waiter.caller, 0) >= waiter.quota) {
+                continue;
+            }
+
+            iterator.remove();
+            available--;
+            inUseByCaller.merge(waiter.caller, 1, Integer::sum);
+            waiter.granted = true;
+            waiter.condition.signal();
+        }
+    }
+
+    private AdmissionRejectedException reject(AdmissionContext context, String reason) {
+        rejectedByClass.get(context.priority()).incrementAndGet();
+        return new AdmissionRejectedException(String.format(
+            "Connection admission rejected on pool %s for %s (%s): %s",
+            poolName, context.caller(), context.priority(), reason));
+    }
+
+    Map<String, Object> getStatus() {
+        lock.lock();
+        try {
+            Map<PriorityClass, Integer> waitingByClass = new EnumMap<>(PriorityClass.class);
+            for (PriorityClass priority : PriorityClass.values()) {
+                waitingByClass.put(priority, 0);
+            }
+            for (Waiter waiter : waiters) {
+                waitingByClass.merge(waiter.priority, 1, Integer::sum);
+            }
+
+            Map<PriorityClass, Long> rejected = new EnumMap<>(PriorityClass.class);
+            rejectedByClass.forEach((priority, count) -> rejected.put(priority, count.get()));
+
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("permits", permits);
+            status.put("available", available);
+            status.put("defaultCallerQuota", defaultCallerQuota);
+            status.put("waitingByClass", waitingByClass);
+            status.put("rejectedByClass", rejected);
+            status.put("inUseByCaller", new HashMap<>(inUseByCaller));
+            return status;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    String getPoolName() {
+        return poolName;
+    }
+
+    private static final class Waiter {
+        final PriorityClass priority;
+        final long deadlineNanos;
+        final String caller;
+        final int quota;
+        final Condition condition;
+        long sequence;
+        boolean granted;
+        boolean expired;
+
+        Waiter(PriorityClass priority, long deadlineNanos, String caller, int quota, Condition condition) {
+            this.priority = priority;
+            this.deadlineNanos = deadlineNanos;
+            this.caller = caller;
+            this.quota = quota;
+            this.condition = condition;
+        }
+    }
+
+    /**
+     * A granted permit; releasing it more than once has no effect
+     */
+    final class Permit {
+        private final String caller;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(String caller) {
+            this.caller = caller;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                AdmissionScheduler.this.release(caller);
+            }
+        }
+    }
+}
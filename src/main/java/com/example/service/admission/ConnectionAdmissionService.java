@@ -0,0 +1,93 @@
+package com.example.service.admission;
+
+import com.example.config.DataSourceDecorator;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Puts a priority- and quota-aware admission layer in front of every named
+ * pool. Each pool gets one permit per connection; see {@link AdmissionScheduler}
+ * for the scheduling rules and {@link AdmissionPolicy} for declaring classes.
+ */
+@Service
+@Order(ConnectionAdmissionService.ORDER)
+public class ConnectionAdmissionService implements DataSourceDecorator {
+
+    public static final int ORDER = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionAdmissionService.class);
+
+    private final boolean admissionEnabled;
+    private final int defaultCallerQuota;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, AdmissionControlledDataSource> dataSources = new ConcurrentHashMap<>();
+
+    public ConnectionAdmissionService(@Value("${app.admission.enabled:true}") boolean admissionEnabled,
+                                      @Value("${app.admission.default-caller-quota:0}") int defaultCallerQuota,
+                                      ObjectProvider<MeterRegistry> meterRegistry) {
+        this.admissionEnabled = admissionEnabled;
+        this.defaultCallerQuota = defaultCallerQuota;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public DataSource decorate(String poolName, DataSource dataSource) {
+        if (!admissionEnabled) {
+            return dataSource;
+        }
+
+        try {
+            HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+            AdmissionScheduler scheduler = new AdmissionScheduler(poolName, pool.getMaximumPoolSize(),
+                                                                  defaultCallerQuota);
+            AdmissionControlledDataSource admitted = new AdmissionControlledDataSource(
+                dataSource, scheduler, pool.getConnectionTimeout(), meterRegistry);
+            dataSources.put(poolName, admitted);
+
+            logger.info("Connection admission enabled for pool {} with {} permits", poolName,
+                       pool.getMaximumPoolSize());
+            return admitted;
+
+        } catch (SQLException e) {
+            logger.warn("Pool {} is not a HikariCP pool, admission control disabled for it", poolName);
+            return dataSource;
+        }
+    }
+
+    @Override
+    public void release(String poolName) {
+        dataSources.remove(poolName);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            registry.getMeters().stream()
+                .filter(meter -> meter.getId().getName().startsWith("db.admission.")
+                    && poolName.equals(meter.getId().getTag("pool")))
+                .forEach(registry::remove);
+        }
+    }
+
+    public boolean isAdmissionEnabled() {
+        return admissionEnabled;
+    }
+
+    /**
+     * Permits, waiters and rejections per pool
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        dataSources.forEach((pool, dataSource) -> status.put(pool, dataSource.getScheduler().getStatus()));
+        return status;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.service.admission;
+
+/**
+ * Admission priority of a caller waiting for a pooled connection. When a pool
+ * is saturated, waiters of a higher class are always served first.
+ */
+public enum PriorityClass {
+    /** Health checks and probes that decide whether the instance stays in rotation */
+    CRITICAL,
+    /** Customer-facing traffic, the default for HTTP requests */
+    NORMAL,
+    /** Admin endpoints, reports and scheduled housekeeping */
+    BACKGROUND
+}
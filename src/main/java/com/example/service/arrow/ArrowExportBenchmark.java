@@ -0,0 +1,142 @@
+package com.example.service.arrow;
+
+import com.example.config.DataSourceRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports the same source through the existing JSON path (queryForList into
+ * maps, serialized by Jackson) and through Arrow, discarding the output, and
+ * reports wall time, CPU time and heap allocation of the calling thread for
+ * each. Both run on the calling thread, so the thread-level numbers cover
+ * driver decoding as well as serialization.
+ */
+@Service
+public class ArrowExportBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArrowExportBenchmark.class);
+
+    private final ArrowExportService exportService;
+    private final ArrowExportProperties properties;
+    private final DataSourceRegistry dataSourceRegistry;
+    private final ObjectMapper objectMapper;
+
+    public ArrowExportBenchmark(ArrowExportService exportService, ArrowExportProperties properties,
+                                DataSourceRegistry dataSourceRegistry, ObjectMapper objectMapper) {
+        this.exportService = exportService;
+        this.properties = properties;
+        this.dataSourceRegistry = dataSourceRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    public synchronized Map<String, Object> run(String source, long limit, int iterations) {
+        String sql = exportService.resolve(source);
+        String statement = limit > 0 ? "SELECT * FROM (" + sql + ") arrow_export LIMIT " + limit : sql;
+        logger.info("Running JSON vs Arrow export benchmark on {}: {} iterations, limit {}", source, iterations, limit);
+
+        // One untimed round each so class loading and JIT do not count against the first format
+        runJson(statement);
+        exportService.export(source, limit, OutputStream.nullOutputStream());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("source", source);
+        result.put("limit", limit);
+        result.put("iterations", iterations);
+        result.put("json", measure(iterations, () -> runJson(statement)));
+        result.put("arrow", measure(iterations, () -> exportService.export(source, limit, OutputStream.nullOutputStream())));
+        return result;
+    }
+
+    private Map<String, Object> runJson(String statement) {
+        List<Map<String, Object>> rows = dataSourceRegistry.getJdbcTemplate(properties.getPool()).queryForList(statement);
+        CountingSink sink = new CountingSink();
+        try {
+            objectMapper.writeValue(sink, rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rows", (long) rows.size());
+        result.put("bytes", sink.count);
+        return result;
+    }
+
+    private Map<String, Object> measure(int iterations, Export export) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocation = threads instanceof com.sun.management.ThreadMXBean sun
+            ? sun : null;
+        long threadId = Thread.currentThread().getId();
+
+        long rows = 0;
+        long bytes = 0;
+        long peakDirect = 0;
+        long allocatedBefore = allocation != null ? allocation.getThreadAllocatedBytes(threadId) : -1;
+        long cpuBefore = threads.getCurrentThreadCpuTime();
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            Map<String, Object> run = export.run();
+            rows += (Long) run.get("rows");
+            bytes += (Long) run.get("bytes");
+            if (run.get("peakDirectBytes") instanceof Long peak) {
+                peakDirect = Math.max(peakDirect, peak);
+            }
+        }
+        long wallNanos = System.nanoTime() - started;
+        long cpuNanos = threads.getCurrentThreadCpuTime() - cpuBefore;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("rowsPerIteration", rows / iterations);
+        stats.put("bytesPerIteration", bytes / iterations);
+        stats.put("wallMsPerIteration", round(wallNanos / 1e6 / iterations));
+        stats.put("cpuMsPerIteration", round(cpuNanos / 1e6 / iterations));
+        if (rows > 0) {
+            stats.put("cpuNanosPerRow", round((double) cpuNanos / rows));
+        }
+        if (allocation != null) {
+            long allocated = allocation.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            stats.put("heapAllocatedBytesPerIteration", allocated / iterations);
+            if (rows > 0) {
+                stats.put("heapAllocatedBytesPerRow", allocated / rows);
+            }
+        }
+        if (peakDirect > 0) {
+            stats.put("peakDirectBytes", peakDirect);
+        }
+        return stats;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    @FunctionalInterface
+    private interface Export {
+        Map<String, Object> run();
+    }
+
+    private static final class CountingSink extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
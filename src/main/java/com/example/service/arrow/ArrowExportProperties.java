@@ -0,0 +1,59 @@
+package com.example.service.arrow;
+
+import com.example.config.DatabasePool;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arrow export settings, bound from app.arrow.*
+ *
+ * <pre>
+ * app.arrow.relations=v_product_inventory,v_customer_summary
+ * app.arrow.queries.open-orders=SELECT id, customer_id, total_amount FROM orders WHERE status = 'PENDING'
+ * </pre>
+ *
+ * Only listed relations and named queries can be exported.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.arrow")
+public class ArrowExportProperties {
+
+    private boolean enabled = true;
+    private String pool = DatabasePool.REPORTING;
+    private int batchSize = 4096;
+    private int fetchSize = 4096;
+    private long maxDirectMemory = 512L * 1024 * 1024;
+    private long maxExportMemory = 128L * 1024 * 1024;
+    private List<String> relations = new ArrayList<>(List.of("v_product_inventory", "v_customer_summary"));
+    private Map<String, String> queries = new LinkedHashMap<>();
+
+    // Getters and setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getPool() { return pool; }
+    public void setPool(String pool) { this.pool = pool; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public int getFetchSize() { return fetchSize; }
+    public void setFetchSize(int fetchSize) { this.fetchSize = fetchSize; }
+
+    public long getMaxDirectMemory() { return maxDirectMemory; }
+    public void setMaxDirectMemory(long maxDirectMemory) { this.maxDirectMemory = maxDirectMemory; }
+
+    public long getMaxExportMemory() { return maxExportMemory; }
+    public void setMaxExportMemory(long maxExportMemory) { this.maxExportMemory = maxExportMemory; }
+
+    public List<String> getRelations() { return relations; }
+    public void setRelations(List<String> relations) { this.relations = relations; }
+
+    public Map<String, String> getQueries() { return queries; }
+    public void setQueries(Map<String, String> queries) { this.queries = queries; }
+}
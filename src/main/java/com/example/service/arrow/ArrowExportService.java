@@ -0,0 +1,271 @@
+package com.example.service.arrow;
+
+import com.example.config.DataSourceRegistry;
+import com.example.service.guard.ResultSetGuardService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.arrow.adapter.jdbc.ArrowVectorIterator;
+import org.apache.arrow.adapter.jdbc.JdbcFieldInfo;
+import org.apache.arrow.adapter.jdbc.JdbcToArrow;
+import org.apache.arrow.adapter.jdbc.JdbcToArrowConfig;
+import org.apache.arrow.adapter.jdbc.JdbcToArrowConfigBuilder;
+import org.apache.arrow.adapter.jdbc.JdbcToArrowUtils;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Streams whitelisted relations and named queries as Arrow IPC. Rows are read
+ * through a server-side cursor straight into off-heap vectors, one
+ * fixed-size record batch at a time, and each batch is written before the
+ * next is read, so heap usage does not grow with the result and direct
+ * memory is capped per export by a child of a bounded root allocator.
+ */
+@Service
+public class ArrowExportService {
+
+    public static final String MEDIA_TYPE = "application/vnd.apache.arrow.stream";
+
+    private static final Logger logger = LoggerFactory.getLogger(ArrowExportService.class);
+
+    private static final Pattern RELATION = Pattern.compile("^[a-z_][a-z0-9_]*(\\.[a-z_][a-z0-9_]*)?$");
+
+    /** Widest decimal Arrow supports; used for unconstrained NUMERIC columns */
+    private static final ArrowType.Decimal WIDE_DECIMAL = new ArrowType.Decimal(38, 10, 128);
+
+    private final ArrowExportProperties properties;
+    private final DataSourceRegistry dataSourceRegistry;
+    private final AtomicLong exportIds = new AtomicLong();
+
+    private RootAllocator rootAllocator;
+
+    public ArrowExportService(ArrowExportProperties properties, DataSourceRegistry dataSourceRegistry) {
+        this.properties = properties;
+        this.dataSourceRegistry = dataSourceRegistry;
+    }
+
+    @PostConstruct
+    public void validate() {
+        for (String relation : properties.getRelations()) {
+            if (!RELATION.matcher(relation).matches()) {
+                throw new IllegalStateException("Invalid relation in app.arrow.relations: " + relation);
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (rootAllocator != null) {
+            rootAllocator.close();
+            rootAllocator = null;
+        }
+    }
+
+    /**
+     * Resolves a source name to its SQL, rejecting anything not whitelisted
+     */
+    public String resolve(String source) {
+        if (!properties.isEnabled()) {
+            throw new IllegalStateException("Arrow export is disabled");
+        }
+        String query = properties.getQueries().get(source);
+        if (query != null) {
+            return query;
+        }
+        if (properties.getRelations().contains(source)) {
+            return "SELECT * FROM " + source;
+        }
+        throw new IllegalArgumentException("Unknown export source: " + source + ", available: " + getSources().keySet());
+    }
+
+    public Map<String, String> getSources() {
+        Map<String, String> sources = new TreeMap<>();
+        properties.getRelations().forEach(relation -> sources.put(relation, "relation"));
+        properties.getQueries().keySet().forEach(name -> sources.put(name, "query"));
+        return sources;
+    }
+
+    /**
+     * Writes the source as an Arrow IPC stream (schema, record batches, end
+     * marker) and returns what was sent. A limit of 0 exports every row.
+     */
+    public Map<String, Object> export(String source, long limit, OutputStream out) {
+        String sql = resolve(source);
+        String statement = limit > 0 ? "SELECT * FROM (" + sql + ") arrow_export LIMIT ?" : sql;
+        long id = exportIds.incrementAndGet();
+        long started = System.nanoTime();
+        CountingOutputStream counting = new CountingOutputStream(out);
+
+        try (BufferAllocator allocator = allocator().newChildAllocator(
+                "arrow-export-" + id, 0, properties.getMaxExportMemory())) {
+            // Memory is capped by the allocator, so the guard's max-bytes would only cut off large exports
+            Map<String, Object> result = ResultSetGuardService.withoutByteLimit(() ->
+                dataSourceRegistry.getJdbcTemplate(properties.getPool()).query(connection -> {
+                    PreparedStatement ps = connection.prepareStatement(statement);
+                    // An explicit fetch size makes the result-set guard read through a cursor
+                    ps.setFetchSize(properties.getFetchSize());
+                    if (limit > 0) {
+                        ps.setLong(1, limit);
+                    }
+                    return ps;
+                }, resultSet -> {
+                    try {
+                        return writeStream(resultSet, allocator, counting);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+
+            result.put("source", source);
+            result.put("bytes", counting.count);
+            result.put("peakDirectBytes", allocator.getPeakMemoryAllocation());
+            result.put("elapsedMs", (System.nanoTime() - started) / 1_000_000);
+            logger.info("Arrow export {} of {}: {} rows in {} batches, {} bytes, peak {} direct bytes, {}ms",
+                       id, source, result.get("rows"), result.get("batches"), counting.count,
+                       allocator.getPeakMemoryAllocation(), result.get("elapsedMs"));
+            return result;
+        }
+    }
+
+    private Map<String, Object> writeStream(ResultSet resultSet, BufferAllocator allocator, OutputStream out)
+            throws SQLException, IOException {
+        Calendar calendar = JdbcToArrowUtils.getUtcCalendar();
+        JdbcToArrowConfig config = new JdbcToArrowConfigBuilder(allocator, calendar)
+            .setTargetBatchSize(properties.getBatchSize())
+            .setReuseVectorSchemaRoot(true)
+            .setBigDecimalRoundingMode(RoundingMode.HALF_UP)
+            .setJdbcToArrowTypeConverter(field -> arrowType(field, calendar))
+            .build();
+
+        long rows = 0;
+        int batches = 0;
+        try (ArrowVectorIterator iterator = JdbcToArrow.sqlToArrowVectorIterator(resultSet, config)) {
+            VectorSchemaRoot root = null;
+            ArrowStreamWriter writer = null;
+            try {
+                while (iterator.hasNext()) {
+                    root = iterator.next();
+                    if (writer == null) {
+                        writer = new ArrowStreamWriter(root, null, Channels.newChannel(out));
+                        writer.start();
+                    }
+                    if (root.getRowCount() == 0) {
+                        continue;
+                    }
+                    writer.writeBatch();
+                    rows += root.getRowCount();
+                    batches++;
+                }
+                if (writer == null) {
+                    // Empty result: still send the schema so readers see the columns
+                    root = VectorSchemaRoot.create(JdbcToArrowUtils.jdbcToArrowSchema(resultSet.getMetaData(), config),
+                                                   allocator);
+                    writer = new ArrowStreamWriter(root, null, Channels.newChannel(out));
+                    writer.start();
+                }
+                writer.end();
+            } finally {
+                if (writer != null) {
+                    writer.close();
+                }
+                if (root != null) {
+                    root.close();
+                }
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rows", rows);
+        result.put("batches", batches);
+        return result;
+    }
+
+    /**
+     * Default JDBC to Arrow mapping, widened where PostgreSQL reports types
+     * the adapter cannot map: unconstrained NUMERIC becomes decimal(38,10),
+     * enums, json, uuid and other driver-specific types become UTF-8 strings
+     */
+    private static ArrowType arrowType(JdbcFieldInfo field, Calendar calendar) {
+        if ((field.getJdbcType() == Types.NUMERIC || field.getJdbcType() == Types.DECIMAL)
+                && (field.getPrecision() <= 0 || field.getPrecision() > 38)) {
+            return WIDE_DECIMAL;
+        }
+        try {
+            ArrowType type = JdbcToArrowUtils.getArrowTypeFromJdbcType(field, calendar);
+            return type != null ? type : ArrowType.Utf8.INSTANCE;
+        } catch (UnsupportedOperationException e) {
+            return ArrowType.Utf8.INSTANCE;
+        }
+    }
+
+    private synchronized BufferAllocator allocator() {
+        if (rootAllocator == null) {
+            rootAllocator = new RootAllocator(properties.getMaxDirectMemory());
+        }
+        return rootAllocator;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", properties.isEnabled());
+        status.put("pool", properties.getPool());
+        status.put("batchSize", properties.getBatchSize());
+        status.put("maxDirectMemory", properties.getMaxDirectMemory());
+        status.put("maxExportMemory", properties.getMaxExportMemory());
+        synchronized (this) {
+            status.put("allocatedDirectBytes", rootAllocator != null ? rootAllocator.getAllocatedMemory() : 0);
+            status.put("peakDirectBytes", rootAllocator != null ? rootAllocator.getPeakMemoryAllocation() : 0);
+        }
+        status.put("exports", exportIds.get());
+        status.put("sources", getSources());
+        return status;
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // The writer closes its channel; the response stream belongs to the caller
+            out.flush();
+        }
+    }
+}
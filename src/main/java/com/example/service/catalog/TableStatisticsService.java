@@ -0,0 +1,256 @@
+package com.example.service.catalog;
+
+import com.example.config.DatabasePool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-table storage, maintenance and bloat figures from the catalog and
+ * cumulative statistics views, gathered by a single query and cached for
+ * app.schema.table-stats.cache-ttl-ms. Row counts are the planner's
+ * pg_class.reltuples estimate; exact counts are a separate, explicit call.
+ */
+@Service
+public class TableStatisticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TableStatisticsService.class);
+
+    /** Heap tuple header without the null bitmap, and per-tuple line pointer */
+    private static final int TUPLE_HEADER_BYTES = 23;
+    private static final int ITEM_POINTER_BYTES = 4;
+    private static final int PAGE_HEADER_BYTES = 24;
+
+    private static final String TABLE_STATISTICS_SQL =
+        "SELECT n.nspname AS schema_name, c.relname AS table_name, c.relkind, " +
+        "       p.relname AS parent_name, c.reltuples, c.relpages, c.relnatts, " +
+        "       pg_relation_size(c.oid) AS heap_bytes, pg_indexes_size(c.oid) AS index_bytes, " +
+        "       COALESCE(pg_total_relation_size(NULLIF(c.reltoastrelid, 0)), 0) AS toast_bytes, " +
+        "       pg_total_relation_size(c.oid) AS total_bytes, " +
+        "       COALESCE((SELECT split_part(o, '=', 2)::int FROM unnest(c.reloptions) o " +
+        "                 WHERE o LIKE 'fillfactor=%'), 100) AS fillfactor, " +
+        "       current_setting('block_size')::int AS block_size, " +
+        "       w.data_width, w.stat_columns, " +
+        "       s.n_live_tup, s.n_dead_tup, s.n_mod_since_analyze, s.seq_scan, s.idx_scan, " +
+        "       s.last_vacuum, s.last_autovacuum, s.last_analyze, s.last_autoanalyze " +
+        "FROM pg_class c " +
+        "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+        "LEFT JOIN pg_inherits i ON i.inhrelid = c.oid " +
+        "LEFT JOIN pg_class p ON p.oid = i.inhparent " +
+        "LEFT JOIN pg_stat_user_tables s ON s.relid = c.oid " +
+        "LEFT JOIN LATERAL (" +
+        "    SELECT sum((1 - st.null_frac) * st.avg_width) AS data_width, count(*) AS stat_columns " +
+        "    FROM pg_stats st " +
+        "    WHERE st.schemaname = n.nspname AND st.tablename = c.relname AND NOT st.inherited) w ON true " +
+        "WHERE c.relkind IN ('r', 'p', 'm') " +
+        "  AND n.nspname NOT IN ('pg_catalog', 'information_schema') AND n.nspname NOT LIKE 'pg_toast%' " +
+        "ORDER BY pg_total_relation_size(c.oid) DESC, n.nspname, c.relname";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.schema.table-stats.cache-ttl-ms:30000}")
+    private long cacheTtlMs;
+
+    @Value("${app.schema.exact-count.parallel-workers:2}")
+    private int exactCountParallelWorkers;
+
+    @Value("${app.schema.exact-count.timeout-ms:60000}")
+    private long exactCountTimeoutMs;
+
+    private volatile Snapshot cached;
+
+    public TableStatisticsService(@DatabasePool(DatabasePool.REPORTING) JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Statistics for every user table, partition and materialized view,
+     * largest first; served from cache unless refresh is set or it expired
+     */
+    public Map<String, Object> getTableStatistics(boolean refresh) {
+        Snapshot snapshot = cached;
+        long now = System.currentTimeMillis();
+        if (refresh || snapshot == null || now - snapshot.takenAt() > cacheTtlMs) {
+            snapshot = new Snapshot(now, jdbcTemplate.query(TABLE_STATISTICS_SQL, (rs, rowNum) -> readTable(rs)));
+            cached = snapshot;
+        }
+
+        long totalBytes = 0;
+        long deadTuples = 0;
+        for (Map<String, Object> table : snapshot.tables()) {
+            totalBytes += (Long) table.get("totalBytes");
+            if (table.get("deadTuples") instanceof Long dead) {
+                deadTuples += dead;
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("tables", snapshot.tables());
+        result.put("count", snapshot.tables().size());
+        result.put("totalBytes", totalBytes);
+        result.put("deadTuples", deadTuples);
+        result.put("collectedAt", snapshot.takenAt());
+        result.put("ageMs", now - snapshot.takenAt());
+        return result;
+    }
+
+    /**
+     * COUNT(*) of one table in a read-only transaction with bounded
+     * parallelism and a statement timeout, so an explicit request cannot
+     * monopolize the server or the reporting pool
+     */
+    public Map<String, Object> exactCount(String table) {
+        Map<String, Object> stats = findTable(table);
+        String qualified = quote((String) stats.get("schema")) + "." + quote((String) stats.get("table"));
+
+        long started = System.nanoTime();
+        Long count = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET TRANSACTION READ ONLY");
+                statement.execute("SET LOCAL max_parallel_workers_per_gather = " + Math.max(0, exactCountParallelWorkers));
+                statement.execute("SET LOCAL statement_timeout = " + Math.max(0, exactCountTimeoutMs));
+                long rows;
+                try (ResultSet rs = statement.executeQuery("SELECT count(*) FROM " + qualified)) {
+                    rs.next();
+                    rows = rs.getLong(1);
+                }
+                connection.commit();
+                return rows;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        });
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Exact count of {}: {} rows in {}ms", qualified, count, elapsedMs);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("schema", stats.get("schema"));
+        result.put("table", stats.get("table"));
+        result.put("exactRows", count);
+        result.put("approxRows", stats.get("approxRows"));
+        if (stats.get("approxRows") instanceof Long approx && count != null && count > 0) {
+            result.put("estimateErrorPercent", Math.round((approx - count) * 1000.0 / count) / 10.0);
+        }
+        result.put("elapsedMs", elapsedMs);
+        return result;
+    }
+
+    /**
+     * Looks the table up in the (cached) catalog listing, which also keeps
+     * arbitrary input out of the COUNT statement
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> findTable(String table) {
+        String schema = null;
+        String name = table;
+        int dot = table.indexOf('.');
+        if (dot > 0) {
+            schema = table.substring(0, dot);
+            name = table.substring(dot + 1);
+        }
+        for (Map<String, Object> stats : (List<Map<String, Object>>) getTableStatistics(false).get("tables")) {
+            if (stats.get("table").equals(name) && (schema == null ? "public" : schema).equals(stats.get("schema"))) {
+                return stats;
+            }
+        }
+        throw new IllegalArgumentException("Unknown table: " + table);
+    }
+
+    private static Map<String, Object> readTable(ResultSet rs) throws SQLException {
+        Map<String, Object> table = new LinkedHashMap<>();
+        table.put("schema", rs.getString("schema_name"));
+        table.put("table", rs.getString("table_name"));
+        table.put("kind", switch (rs.getString("relkind")) {
+            case "p" -> "partitioned";
+            case "m" -> "materialized_view";
+            default -> "table";
+        });
+        String parent = rs.getString("parent_name");
+        if (parent != null) {
+            table.put("partitionOf", parent);
+        }
+
+        // reltuples is -1 until the first VACUUM or ANALYZE (PostgreSQL 14+)
+        double reltuples = rs.getDouble("reltuples");
+        table.put("approxRows", reltuples >= 0 ? Math.round(reltuples) : null);
+        table.put("heapBytes", rs.getLong("heap_bytes"));
+        table.put("indexBytes", rs.getLong("index_bytes"));
+        table.put("toastBytes", rs.getLong("toast_bytes"));
+        table.put("totalBytes", rs.getLong("total_bytes"));
+
+        long liveTuples = rs.getLong("n_live_tup");
+        boolean hasActivity = !rs.wasNull();
+        long deadTuples = rs.getLong("n_dead_tup");
+        table.put("liveTuples", hasActivity ? liveTuples : null);
+        table.put("deadTuples", hasActivity ? deadTuples : null);
+        table.put("deadTupleRatio", hasActivity && liveTuples + deadTuples > 0
+            ? Math.round(deadTuples * 1000.0 / (liveTuples + deadTuples)) / 1000.0 : null);
+        table.put("modifiedSinceAnalyze", hasActivity ? rs.getLong("n_mod_since_analyze") : null);
+        table.put("seqScans", hasActivity ? rs.getLong("seq_scan") : null);
+        table.put("indexScans", hasActivity ? rs.getLong("idx_scan") : null);
+        table.put("lastVacuum", epochMillis(rs.getTimestamp("last_vacuum")));
+        table.put("lastAutovacuum", epochMillis(rs.getTimestamp("last_autovacuum")));
+        table.put("lastAnalyze", epochMillis(rs.getTimestamp("last_analyze")));
+        table.put("lastAutoanalyze", epochMillis(rs.getTimestamp("last_autoanalyze")));
+
+        putBloatEstimate(table, rs, reltuples);
+        return table;
+    }
+
+    /**
+     * Expected heap pages from the analyzed average row width (pg_stats)
+     * versus the pages actually used; the difference approximates dead and
+     * free space. Needs ANALYZE statistics, otherwise it is left out.
+     */
+    private static void putBloatEstimate(Map<String, Object> table, ResultSet rs, double reltuples) throws SQLException {
+        long relpages = rs.getLong("relpages");
+        double dataWidth = rs.getDouble("data_width");
+        if (rs.wasNull() || rs.getLong("stat_columns") == 0 || relpages == 0 || reltuples < 0) {
+            table.put("estimatedBloatRatio", null);
+            return;
+        }
+
+        int blockSize = rs.getInt("block_size");
+        int fillfactor = rs.getInt("fillfactor");
+        int nullBitmap = (rs.getInt("relnatts") + 7) / 8;
+        long tupleBytes = align8(align8(TUPLE_HEADER_BYTES + nullBitmap) + (long) Math.ceil(dataWidth));
+        long tuplesPerPage = Math.max(1,
+            (long) ((blockSize - PAGE_HEADER_BYTES) * fillfactor / 100.0 / (tupleBytes + ITEM_POINTER_BYTES)));
+        long expectedPages = (long) Math.ceil(reltuples / tuplesPerPage);
+        long excessPages = Math.max(0, relpages - expectedPages);
+
+        table.put("estimatedBloatRatio", Math.round(excessPages * 1000.0 / relpages) / 1000.0);
+        table.put("estimatedBloatBytes", excessPages * blockSize);
+    }
+
+    private static long align8(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private static Long epochMillis(Timestamp timestamp) {
+        return timestamp != null ? timestamp.getTime() : null;
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    private record Snapshot(long takenAt, List<Map<String, Object>> tables) {
+    }
+}
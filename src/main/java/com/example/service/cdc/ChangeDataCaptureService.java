@@ -0,0 +1,291 @@
+package com.example.service.cdc;
+
+import com.example.config.DataSourceRegistry;
+import com.example.config.DatabasePool;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGProperty;
+import org.postgresql.replication.LogSequenceNumber;
+import org.postgresql.replication.PGReplicationStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Streams committed row changes from a logical replication slot (pgoutput)
+ * and fans them out to the registered {@link ChangeEventSink}s.
+ *
+ * The slot position is only confirmed after every sink has acknowledged a
+ * transaction, so delivery is at-least-once: after a sink failure or restart
+ * the unconfirmed transactions are streamed again.
+ */
+@Service
+public class ChangeDataCaptureService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeDataCaptureService.class);
+
+    private final DataSourceRegistry dataSourceRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final List<ChangeEventSink> sinks;
+
+    @Value("${app.cdc.enabled:false}")
+    private boolean cdcEnabled;
+
+    @Value("${app.cdc.slot-name:postgres_jdbc_client_cdc}")
+    private String slotName;
+
+    @Value("${app.cdc.publication-name:postgres_jdbc_client_pub}")
+    private String publicationName;
+
+    @Value("${app.cdc.tables:}")
+    private List<String> tables;
+
+    @Value("${app.cdc.poll-interval-ms:10}")
+    private long pollIntervalMs;
+
+    @Value("${app.cdc.status-interval-seconds:10}")
+    private int statusIntervalSeconds;
+
+    @Value("${app.cdc.sink-timeout-ms:30000}")
+    private long sinkTimeoutMs;
+
+    @Value("${app.cdc.retry-backoff-ms:5000}")
+    private long retryBackoffMs;
+
+    @Value("${app.cdc.max-transaction-events:100000}")
+    private int maxTransactionEvents;
+
+    private volatile boolean running;
+    private volatile Thread worker;
+    private volatile String state = "STOPPED";
+    private volatile String lastError;
+    private volatile String confirmedLsn;
+
+    private final AtomicLong transactionsDelivered = new AtomicLong();
+    private final AtomicLong eventsDelivered = new AtomicLong();
+    private final AtomicLong deliveryFailures = new AtomicLong();
+
+    public ChangeDataCaptureService(DataSourceRegistry dataSourceRegistry,
+                                    List<ChangeEventSink> sinks) {
+        this.dataSourceRegistry = dataSourceRegistry;
+        this.jdbcTemplate = dataSourceRegistry.getJdbcTemplate(DatabasePool.ADMIN);
+        this.sinks = sinks;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnReady() {
+        if (cdcEnabled) {
+            start();
+        }
+    }
+
+    public synchronized void start() {
+        if (running) {
+            logger.info("CDC stream is already running");
+            return;
+        }
+        if (sinks.isEmpty()) {
+            throw new IllegalStateException("No CDC sinks are enabled");
+        }
+
+        ensureReplicationObjects();
+
+        running = true;
+        Thread thread = new Thread(this::runStream, "cdc-replication");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+
+        logger.info("CDC stream started on slot {} with sinks {}", slotName,
+                   sinks.stream().map(ChangeEventSink::getName).collect(Collectors.toList()));
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+            logger.info("CDC stream stopped");
+        }
+        state = "STOPPED";
+    }
+
+    /**
+     * Creates the publication and the logical replication slot if they are missing
+     */
+    private void ensureReplicationObjects() {
+        String walLevel = jdbcTemplate.queryForObject("SHOW wal_level", String.class);
+        if (!"logical".equals(walLevel)) {
+            throw new IllegalStateException("CDC requires wal_level=logical, server has wal_level=" + walLevel);
+        }
+
+        Integer publications = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM pg_publication WHERE pubname = ?", Integer.class, publicationName);
+        if (publications == null || publications == 0) {
+            String target = tables.isEmpty() ? "ALL TABLES" : "TABLE " + String.join(", ", tables);
+            jdbcTemplate.execute("CREATE PUBLICATION " + publicationName + " FOR " + target);
+            logger.info("Created publication {} for {}", publicationName, target);
+        }
+
+        Integer slots = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM pg_replication_slots WHERE slot_name = ?", Integer.class, slotName);
+        if (slots == null || slots == 0) {
+            try (Connection connection = openReplicationConnection()) {
+                connection.unwrap(PGConnection.class).getReplicationAPI()
+                    .createReplicationSlot()
+                    .logical()
+                    .withSlotName(slotName)
+                    .withOutputPlugin("pgoutput")
+                    .make();
+                logger.info("Created logical replication slot {}", slotName);
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to create replication slot " + slotName, e);
+            }
+        }
+    }
+
+    private void runStream() {
+        while (running) {
+            try (Connection connection = openReplicationConnection()) {
+                PGReplicationStream stream = connection.unwrap(PGConnection.class).getReplicationAPI()
+                    .replicationStream()
+                    .logical()
+                    .withSlotName(slotName)
+                    .withSlotOption("proto_version", 1)
+                    .withSlotOption("publication_names", publicationName)
+                    .withStatusInterval(statusIntervalSeconds, TimeUnit.SECONDS)
+                    .start();
+
+                state = "STREAMING";
+                lastError = null;
+                consume(stream);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                state = "RETRYING";
+                lastError = e.getMessage();
+                logger.error("CDC stream failed, reconnecting in {}ms", retryBackoffMs, e);
+                try {
+                    Thread.sleep(retryBackoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    private void consume(PGReplicationStream stream) throws Exception {
+        PgOutputDecoder decoder = new PgOutputDecoder(maxTransactionEvents);
+
+        while (running) {
+            ByteBuffer message = stream.readPending();
+            if (message == null) {
+                Thread.sleep(pollIntervalMs);
+                continue;
+            }
+
+            PgOutputDecoder.Transaction transaction = decoder.decode(message);
+            if (transaction != null) {
+                deliver(transaction);
+                acknowledge(stream, transaction.endLsn());
+            }
+        }
+    }
+
+    private void deliver(PgOutputDecoder.Transaction transaction) throws Exception {
+        if (transaction.events().isEmpty()) {
+            return;
+        }
+
+        try {
+            // A sink throwing instead of failing its future counts as a failed delivery as well
+            CompletableFuture<?>[] deliveries = sinks.stream()
+                .map(sink -> sink.publish(transaction.events()))
+                .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(deliveries).get(sinkTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            deliveryFailures.incrementAndGet();
+            throw new IllegalStateException("Sinks did not confirm transaction " + transaction.xid(), e);
+        }
+
+        transactionsDelivered.incrementAndGet();
+        eventsDelivered.addAndGet(transaction.events().size());
+    }
+
+    private void acknowledge(PGReplicationStream stream, LogSequenceNumber lsn) throws SQLException {
+        stream.setAppliedLSN(lsn);
+        stream.setFlushedLSN(lsn);
+        stream.forceUpdateStatus();
+        confirmedLsn = lsn.asString();
+    }
+
+    private Connection openReplicationConnection() throws SQLException {
+        HikariDataSource hikariDS = dataSourceRegistry.getPool(DatabasePool.ADMIN);
+
+        Properties properties = new Properties();
+        PGProperty.USER.set(properties, hikariDS.getUsername());
+        PGProperty.PASSWORD.set(properties, hikariDS.getPassword());
+        PGProperty.ASSUME_MIN_SERVER_VERSION.set(properties, "10");
+        PGProperty.REPLICATION.set(properties, "database");
+        PGProperty.PREFER_QUERY_MODE.set(properties, "simple");
+        PGProperty.APPLICATION_NAME.set(properties, "postgres-jdbc-client-cdc");
+
+        return DriverManager.getConnection(hikariDS.getJdbcUrl(), properties);
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", cdcEnabled);
+        status.put("state", state);
+        status.put("slotName", slotName);
+        status.put("publicationName", publicationName);
+        status.put("confirmedLsn", confirmedLsn);
+        status.put("transactionsDelivered", transactionsDelivered.get());
+        status.put("eventsDelivered", eventsDelivered.get());
+        status.put("deliveryFailures", deliveryFailures.get());
+        status.put("sinks", sinks.stream().map(ChangeEventSink::getName).collect(Collectors.toList()));
+        status.put("lastError", lastError);
+        return status;
+    }
+
+    /**
+     * Drops the replication slot so the server stops retaining WAL for it
+     */
+    public void dropSlot() {
+        stop();
+        jdbcTemplate.queryForList("SELECT pg_drop_replication_slot(slot_name) FROM pg_replication_slots " +
+                                  "WHERE slot_name = ?", slotName);
+        logger.info("Dropped replication slot {}", slotName);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.service.cdc;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A single row change decoded from the logical replication stream.
+ *
+ * @param operation  kind of change
+ * @param schema     schema of the changed table
+ * @param table      name of the changed table
+ * @param xid        transaction id the change belongs to
+ * @param lsn        commit LSN of the enclosing transaction; the slot is confirmed just past it
+ * @param commitTime commit timestamp of the enclosing transaction
+ * @param before     old key or old row for UPDATE/DELETE (empty when not sent by the server)
+ * @param after      new row for INSERT/UPDATE (empty for DELETE/TRUNCATE)
+ */
+public record ChangeEvent(Operation operation,
+                          String schema,
+                          String table,
+                          long xid,
+                          String lsn,
+                          Instant commitTime,
+                          Map<String, Object> before,
+                          Map<String, Object> after) {
+
+    public enum Operation {
+        INSERT, UPDATE, DELETE, TRUNCATE
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.service.cdc;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Destination for decoded change events.
+ *
+ * Events are delivered one committed transaction at a time. The replication
+ * slot is only advanced past a transaction once every sink has completed the
+ * returned future, so a sink must not complete it before the batch is durable
+ * on its side.
+ */
+public interface ChangeEventSink {
+
+    String getName();
+
+    CompletableFuture<Void> publish(List<ChangeEvent> transaction);
+}
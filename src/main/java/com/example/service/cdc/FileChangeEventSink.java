@@ -0,0 +1,85 @@
+package com.example.service.cdc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Appends change events as JSON lines to a local file. A transaction is
+ * confirmed only after the file has been forced to disk.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cdc.sinks.file.enabled", havingValue = "true")
+public class FileChangeEventSink implements ChangeEventSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileChangeEventSink.class);
+
+    private final ObjectMapper objectMapper;
+    private final FileChannel channel;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "cdc-file-sink");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public FileChangeEventSink(ObjectMapper objectMapper,
+                               @Value("${app.cdc.sinks.file.path:cdc/changes.jsonl}") String path) throws IOException {
+        this.objectMapper = objectMapper;
+
+        Path file = Path.of(path);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                                        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        logger.info("CDC file sink writing to {}", file.toAbsolutePath());
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public CompletableFuture<Void> publish(List<ChangeEvent> transaction) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream(256 * transaction.size());
+                for (ChangeEvent event : transaction) {
+                    objectMapper.writeValue(buffer, event);
+                    buffer.write('\n');
+                }
+
+                ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to write change events to file", e);
+            }
+        }, writer);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        writer.shutdown();
+        channel.close();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.service.cdc;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Posts each committed transaction as a JSON array to every registered HTTP
+ * subscriber. The transaction is confirmed once all subscribers answer 2xx.
+ *
+ * Subscribers must be http or https URLs with a host. Ones registered at
+ * runtime must also point at a host listed in app.cdc.sinks.http.allowed-hosts,
+ * so the API cannot be used to send requests to arbitrary servers.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cdc.sinks.http.enabled", havingValue = "true")
+public class HttpSubscriberSink implements ChangeEventSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpSubscriberSink.class);
+
+    private final ObjectMapper objectMapper;
+    private final Set<String> subscribers = new CopyOnWriteArraySet<>();
+    private final HttpClient httpClient;
+
+    @Value("${app.cdc.sinks.http.request-timeout-ms:10000}")
+    private long requestTimeoutMs;
+
+    @Value("${app.cdc.sinks.http.allowed-hosts:}")
+    private List<String> allowedHosts = List.of();
+
+    public HttpSubscriberSink(ObjectMapper objectMapper,
+                              @Value("${app.cdc.sinks.http.subscribers:}") List<String> initialSubscribers) {
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        initialSubscribers.stream()
+            .filter(url -> !url.isBlank())
+            .map(String::trim)
+            .forEach(url -> subscribers.add(parse(url).toString()));
+    }
+
+    @Override
+    public String getName() {
+        return "http";
+    }
+
+    @Override
+    public CompletableFuture<Void> publish(List<ChangeEvent> transaction) {
+        if (subscribers.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(transaction);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<?>[] deliveries = subscribers.stream()
+            .map(url -> deliver(url, body))
+            .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(deliveries);
+    }
+
+    private CompletableFuture<Void> deliver(String url, byte[] body) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMillis(requestTimeoutMs))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        } catch (IllegalArgumentException e) {
+            // Fail this delivery, not the replication loop
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .thenAccept(response -> {
+                if (response.statusCode() / 100 != 2) {
+                    logger.warn("CDC subscriber {} rejected batch with status {}", url, response.statusCode());
+                    throw new IllegalStateException("Subscriber " + url + " returned " + response.statusCode());
+                }
+            });
+    }
+
+    public void addSubscriber(String url) {
+        URI uri = parse(url);
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        if (allowedHosts.stream().map(allowed -> allowed.trim().toLowerCase(Locale.ROOT)).noneMatch(host::equals)) {
+            throw new IllegalArgumentException("host " + host + " is not in app.cdc.sinks.http.allowed-hosts");
+        }
+        subscribers.add(uri.toString());
+        logger.info("Registered CDC subscriber: {}", uri);
+    }
+
+    /**
+     * Parses a subscriber URL, accepting only absolute http and https URLs with a host
+     */
+    static URI parse(String url) {
+        URI uri = URI.create(url);
+        String scheme = uri.getScheme();
+        if (scheme == null || !(scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https"))) {
+            throw new IllegalArgumentException("only http and https URLs are accepted: " + url);
+        }
+        if (uri.getHost() == null || uri.getHost().isEmpty()) {
+            throw new IllegalArgumentException("URL has no host: " + url);
+        }
+        return uri;
+    }
+
+    public boolean removeSubscriber(String url) {
+        boolean removed = subscribers.remove(url);
+        if (removed) {
+            logger.info("Removed CDC subscriber: {}", url);
+        }
+        return removed;
+    }
+
+    public Set<String> getSubscribers() {
+        return Set.copyOf(subscribers);
+    }
+}
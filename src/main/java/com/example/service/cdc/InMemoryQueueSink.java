@@ -0,0 +1,74 @@
+package com.example.service.cdc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-process queue of change events, drained through the CDC REST API
+ * or by other beans. A full queue rejects the transaction so the slot is not
+ * acknowledged and the changes are redelivered.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cdc.sinks.queue.enabled", havingValue = "true", matchIfMissing = true)
+public class InMemoryQueueSink implements ChangeEventSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryQueueSink.class);
+
+    private final BlockingQueue<ChangeEvent> queue;
+
+    @Value("${app.cdc.sinks.queue.offer-timeout-ms:5000}")
+    private long offerTimeoutMs;
+
+    public InMemoryQueueSink(@Value("${app.cdc.sinks.queue.capacity:10000}") int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public String getName() {
+        return "queue";
+    }
+
+    @Override
+    public CompletableFuture<Void> publish(List<ChangeEvent> transaction) {
+        if (queue.remainingCapacity() < transaction.size()) {
+            logger.warn("CDC queue has no room for {} events ({} remaining)",
+                       transaction.size(), queue.remainingCapacity());
+            return CompletableFuture.failedFuture(new IllegalStateException("CDC queue is full"));
+        }
+
+        try {
+            for (ChangeEvent event : transaction) {
+                if (!queue.offer(event, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    return CompletableFuture.failedFuture(new IllegalStateException("CDC queue is full"));
+                }
+            }
+            return CompletableFuture.completedFuture(null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Removes and returns up to {@code maxEvents} queued events
+     */
+    public List<ChangeEvent> drain(int maxEvents) {
+        List<ChangeEvent> events = new ArrayList<>(Math.min(maxEvents, queue.size()));
+        queue.drainTo(events, maxEvents);
+        return events;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+}
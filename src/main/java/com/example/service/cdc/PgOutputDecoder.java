@@ -0,0 +1,192 @@
+package com.example.service.cdc;
+
+import org.postgresql.replication.LogSequenceNumber;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decoder for the pgoutput logical decoding protocol (version 1).
+ *
+ * Changes are buffered per transaction and handed back as a {@link Transaction}
+ * when the commit message arrives, so sinks only ever see committed work.
+ * Not thread safe; one instance belongs to one replication stream.
+ */
+class PgOutputDecoder {
+
+    private static final long POSTGRES_EPOCH_OFFSET_SECONDS = 946_684_800L;
+
+    private final Map<Integer, Relation> relations = new HashMap<>();
+    private final int maxTransactionEvents;
+
+    private List<ChangeEvent> pending;
+    private long xid;
+    private Instant commitTime;
+    private String finalLsn;
+
+    PgOutputDecoder(int maxTransactionEvents) {
+        this.maxTransactionEvents = maxTransactionEvents;
+    }
+
+    /**
+     * Decodes one message from the stream.
+     *
+     * @return the completed transaction if the message was a commit, otherwise null
+     */
+    Transaction decode(ByteBuffer buffer) {
+        char type = (char) buffer.get();
+        switch (type) {
+            case 'B' -> {
+                finalLsn = LogSequenceNumber.valueOf(buffer.getLong()).asString();
+                commitTime = toInstant(buffer.getLong());
+                xid = Integer.toUnsignedLong(buffer.getInt());
+                pending = new ArrayList<>();
+            }
+            case 'C' -> {
+                buffer.get(); // flags, unused
+                buffer.getLong(); // commit LSN
+                LogSequenceNumber endLsn = LogSequenceNumber.valueOf(buffer.getLong());
+                Transaction transaction = new Transaction(xid, endLsn,
+                    pending == null ? List.of() : Collections.unmodifiableList(pending));
+                pending = null;
+                return transaction;
+            }
+            case 'R' -> decodeRelation(buffer);
+            case 'I' -> {
+                Relation relation = relation(buffer.getInt());
+                buffer.get(); // 'N'
+                add(relation, ChangeEvent.Operation.INSERT, Map.of(), readTuple(buffer, relation));
+            }
+            case 'U' -> {
+                Relation relation = relation(buffer.getInt());
+                Map<String, Object> before = Map.of();
+                char marker = (char) buffer.get();
+                if (marker == 'K' || marker == 'O') {
+                    before = readTuple(buffer, relation);
+                    buffer.get(); // 'N'
+                }
+                add(relation, ChangeEvent.Operation.UPDATE, before, readTuple(buffer, relation));
+            }
+            case 'D' -> {
+                Relation relation = relation(buffer.getInt());
+                buffer.get(); // 'K' or 'O'
+                add(relation, ChangeEvent.Operation.DELETE, readTuple(buffer, relation), Map.of());
+            }
+            case 'T' -> {
+                int relationCount = buffer.getInt();
+                buffer.get(); // options
+                for (int i = 0; i < relationCount; i++) {
+                    add(relation(buffer.getInt()), ChangeEvent.Operation.TRUNCATE, Map.of(), Map.of());
+                }
+            }
+            default -> {
+                // Origin ('O') and type ('Y') messages carry nothing we publish
+            }
+        }
+        return null;
+    }
+
+    private void decodeRelation(ByteBuffer buffer) {
+        int oid = buffer.getInt();
+        String schema = readString(buffer);
+        String table = readString(buffer);
+        buffer.get(); // replica identity setting
+        short columnCount = buffer.getShort();
+
+        String[] names = new String[columnCount];
+        int[] typeOids = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            buffer.get(); // flags
+            names[i] = readString(buffer);
+            typeOids[i] = buffer.getInt();
+            buffer.getInt(); // type modifier
+        }
+        relations.put(oid, new Relation(schema, table, names, typeOids));
+    }
+
+    private Map<String, Object> readTuple(ByteBuffer buffer, Relation relation) {
+        short columnCount = buffer.getShort();
+        Map<String, Object> values = new LinkedHashMap<>(columnCount * 2);
+
+        for (int i = 0; i < columnCount; i++) {
+            char kind = (char) buffer.get();
+            switch (kind) {
+                case 'n' -> values.put(relation.names[i], null);
+                case 'u' -> {
+                    // Unchanged TOAST value, not sent by the server
+                }
+                case 't' -> {
+                    byte[] bytes = new byte[buffer.getInt()];
+                    buffer.get(bytes);
+                    values.put(relation.names[i], convert(relation.typeOids[i],
+                                                          new String(bytes, StandardCharsets.UTF_8)));
+                }
+                default -> throw new IllegalStateException("Unsupported tuple column kind: " + kind);
+            }
+        }
+        return values;
+    }
+
+    private void add(Relation relation, ChangeEvent.Operation operation,
+                     Map<String, Object> before, Map<String, Object> after) {
+        if (pending == null) {
+            throw new IllegalStateException("Change received outside of a transaction");
+        }
+        if (pending.size() >= maxTransactionEvents) {
+            throw new IllegalStateException("Transaction " + xid + " exceeds " + maxTransactionEvents
+                + " changes; raise app.cdc.max-transaction-events");
+        }
+        pending.add(new ChangeEvent(operation, relation.schema, relation.table, xid,
+                                    finalLsn, commitTime, before, after));
+    }
+
+    private Relation relation(int oid) {
+        Relation relation = relations.get(oid);
+        if (relation == null) {
+            throw new IllegalStateException("Change for unknown relation OID " + oid);
+        }
+        return relation;
+    }
+
+    private static Object convert(int typeOid, String text) {
+        return switch (typeOid) {
+            case 16 -> "t".equals(text);
+            case 20, 21, 23, 26 -> Long.parseLong(text);
+            case 700, 701 -> Double.parseDouble(text);
+            case 1700 -> new BigDecimal(text);
+            default -> text;
+        };
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int start = buffer.position();
+        while (buffer.get() != 0) {
+            // advance to the terminating zero byte
+        }
+        int length = buffer.position() - start - 1;
+        return new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+    }
+
+    private static Instant toInstant(long postgresMicros) {
+        long micros = postgresMicros + POSTGRES_EPOCH_OFFSET_SECONDS * 1_000_000L;
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                                     Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+
+    private record Relation(String schema, String table, String[] names, int[] typeOids) {
+    }
+
+    /**
+     * A committed transaction and the LSN to acknowledge once it is delivered
+     */
+    record Transaction(long xid, LogSequenceNumber endLsn, List<ChangeEvent> events) {
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.service.driver;
+
+import com.example.config.DataSourceRegistry;
+import com.example.config.DatabasePool;
+import com.example.config.DriverProfile;
+import com.zaxxer.hikari.HikariDataSource;
+import org.postgresql.PGProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Runs the same three workloads on one fresh, unpooled connection per
+ * {@link DriverProfile}, plus one with pgjdbc defaults (what the pools got
+ * while they were configured with MySQL Connector/J property names):
+ *
+ * <ul>
+ *   <li>lookups: a new PreparedStatement per primary-key read, the way
+ *       JdbcTemplate issues them, which shows prepareThreshold and the
+ *       statement cache</li>
+ *   <li>batch insert: one executeBatch, which shows reWriteBatchedInserts</li>
+ *   <li>scan: a large result read with auto-commit off, which shows
+ *       defaultRowFetchSize and binaryTransfer</li>
+ * </ul>
+ *
+ * Data lives in a temporary table, so nothing outside the session changes.
+ */
+@Service
+public class DriverProfileBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverProfileBenchmark.class);
+
+    private static final String DEFAULTS = "driver-defaults";
+
+    private final DataSourceRegistry dataSourceRegistry;
+
+    public DriverProfileBenchmark(DataSourceRegistry dataSourceRegistry) {
+        this.dataSourceRegistry = dataSourceRegistry;
+    }
+
+    public synchronized Map<String, Object> run(int lookups, int batchRows, int scanRows) throws SQLException {
+        HikariDataSource pool = dataSourceRegistry.getPool(DatabasePool.OLTP);
+        logger.info("Running driver profile benchmark: {} lookups, {} batch rows, {} scan rows", lookups, batchRows, scanRows);
+
+        Map<String, Properties> candidates = new LinkedHashMap<>();
+        candidates.put(DEFAULTS, new Properties());
+        for (DriverProfile profile : DriverProfile.values()) {
+            candidates.put(profile.name().toLowerCase(Locale.ROOT), profile.properties());
+        }
+
+        Map<String, Object> profiles = new LinkedHashMap<>();
+        for (Map.Entry<String, Properties> candidate : candidates.entrySet()) {
+            Properties properties = new Properties();
+            properties.putAll(candidate.getValue());
+            PGProperty.USER.set(properties, pool.getUsername());
+            PGProperty.PASSWORD.set(properties, pool.getPassword());
+            PGProperty.APPLICATION_NAME.set(properties, "postgres-jdbc-client-driver-benchmark");
+
+            try (Connection connection = DriverManager.getConnection(pool.getJdbcUrl(), properties)) {
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("properties", candidate.getValue());
+                result.put("batchInsert", batchInsert(connection, batchRows));
+                result.put("lookups", lookups(connection, lookups, batchRows));
+                result.put("scan", scan(connection, scanRows));
+                result.put("serverPreparedStatements", count(connection, "SELECT count(*) FROM pg_prepared_statements"));
+                profiles.put(candidate.getKey(), result);
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("lookups", lookups);
+        result.put("batchRows", batchRows);
+        result.put("scanRows", scanRows);
+        result.put("profiles", profiles);
+        return result;
+    }
+
+    private Map<String, Object> batchInsert(Connection connection, int rows) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMPORARY TABLE driver_benchmark "
+                + "(id BIGINT PRIMARY KEY, payload TEXT NOT NULL, amount NUMERIC(12, 2) NOT NULL)");
+        }
+
+        long started = System.nanoTime();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO driver_benchmark (id, payload, amount) VALUES (?, ?, ?)")) {
+            for (int id = 1; id <= rows; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, "payload-" + id);
+                insert.setBigDecimal(3, BigDecimal.valueOf(id % 10000, 2));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        long elapsed = System.nanoTime() - started;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("elapsedMs", round(elapsed / 1e6));
+        result.put("rowsPerSecond", Math.round(rows / (elapsed / 1e9)));
+        return result;
+    }
+
+    private Map<String, Object> lookups(Connection connection, int lookups, int rows) throws SQLException {
+        long[] nanos = new long[lookups];
+        for (int i = 0; i < lookups; i++) {
+            long started = System.nanoTime();
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT payload, amount FROM driver_benchmark WHERE id = ?")) {
+                select.setLong(1, 1 + (i * 7919L) % rows);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        resultSet.getString(1);
+                        resultSet.getBigDecimal(2);
+                    }
+                }
+            }
+            nanos[i] = System.nanoTime() - started;
+        }
+        long first = nanos[0];
+        Arrays.sort(nanos);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("firstMicros", round(first / 1e3));
+        result.put("avgMicros", round(Arrays.stream(nanos).average().orElse(0) / 1e3));
+        result.put("p50Micros", round(nanos[lookups / 2] / 1e3));
+        result.put("p99Micros", round(nanos[Math.min(lookups - 1, (int) (lookups * 0.99))] / 1e3));
+        return result;
+    }
+
+    private Map<String, Object> scan(Connection connection, int rows) throws SQLException {
+        long started = System.nanoTime();
+        long read = 0;
+        long heapBefore = usedHeap();
+        long peakHeap = heapBefore;
+        connection.setAutoCommit(false);
+        try (PreparedStatement scan = connection.prepareStatement(
+                "SELECT g, md5(g::text), g * 1.5, now() FROM generate_series(1, ?) g")) {
+            scan.setInt(1, rows);
+            try (ResultSet resultSet = scan.executeQuery()) {
+                while (resultSet.next()) {
+                    resultSet.getLong(1);
+                    resultSet.getString(2);
+                    resultSet.getBigDecimal(3);
+                    resultSet.getTimestamp(4);
+                    if (++read % 10000 == 0) {
+                        peakHeap = Math.max(peakHeap, usedHeap());
+                    }
+                }
+            }
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        long elapsed = System.nanoTime() - started;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rows", read);
+        result.put("elapsedMs", round(elapsed / 1e6));
+        // Indicative only: other threads allocate too, but buffering the whole result dominates
+        result.put("heapGrowthMb", round(Math.max(0, peakHeap - heapBefore) / (1024.0 * 1024.0)));
+        return result;
+    }
+
+    private static long count(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
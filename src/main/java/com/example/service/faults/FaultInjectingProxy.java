@@ -0,0 +1,291 @@
+package com.example.service.faults;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process TCP proxy on a loopback port that forwards to a Postgres server
+ * and injects network faults into the traffic passing through it:
+ *
+ * <ul>
+ *   <li>latency and jitter: every chunk is held until its due time, with
+ *       order preserved like on a real TCP stream</li>
+ *   <li>bandwidth: each direction is paced to a byte rate</li>
+ *   <li>blackhole: nothing is forwarded and new connections are not
+ *       passed on until the fault is healed, like a partition dropping
+ *       packets</li>
+ *   <li>resets: open connections are closed with an RST</li>
+ * </ul>
+ *
+ * Faults can change at any time and apply to connections already open.
+ */
+public class FaultInjectingProxy implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FaultInjectingProxy.class);
+
+    private static final int CHUNK_SIZE = 8192;
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+
+    /**
+     * Faults applied to the traffic; zero disables each one
+     */
+    public record Faults(long latencyMs, long jitterMs, long bytesPerSecond, boolean blackhole) {
+        public static final Faults NONE = new Faults(0, 0, 0, false);
+    }
+
+    private final String targetHost;
+    private final int targetPort;
+    private final ServerSocket serverSocket;
+    private final Set<Link> links = ConcurrentHashMap.newKeySet();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong resets = new AtomicLong();
+    private final Object healed = new Object();
+
+    private volatile Faults faults = Faults.NONE;
+    private volatile boolean closed;
+
+    public FaultInjectingProxy(String targetHost, int targetPort) throws IOException {
+        this.targetHost = targetHost;
+        this.targetPort = targetPort;
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        daemon(this::acceptLoop, "fault-proxy-accept").start();
+        logger.info("Fault-injecting proxy listening on {} for {}:{}", getPort(), targetHost, targetPort);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public Faults getFaults() {
+        return faults;
+    }
+
+    public void setFaults(Faults faults) {
+        this.faults = faults;
+        synchronized (healed) {
+            healed.notifyAll();
+        }
+    }
+
+    public void heal() {
+        setFaults(Faults.NONE);
+    }
+
+    /**
+     * Closes every open connection with an RST
+     *
+     * @return connections reset
+     */
+    public int resetConnections() {
+        int count = 0;
+        for (Link link : links) {
+            link.reset();
+            count++;
+        }
+        resets.addAndGet(count);
+        return count;
+    }
+
+    public int getActiveConnections() {
+        return links.size();
+    }
+
+    public long getAcceptedConnections() {
+        return accepted.get();
+    }
+
+    public long getResetConnections() {
+        return resets.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        heal();
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.debug("Closing proxy socket failed: {}", e.getMessage());
+        }
+        links.forEach(Link::close);
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            Socket client;
+            try {
+                client = serverSocket.accept();
+            } catch (IOException e) {
+                if (!closed) {
+                    logger.warn("Fault-injecting proxy stopped accepting: {}", e.getMessage());
+                }
+                return;
+            }
+            accepted.incrementAndGet();
+            daemon(() -> connect(client), "fault-proxy-connect").start();
+        }
+    }
+
+    private void connect(Socket client) {
+        Socket server = new Socket();
+        try {
+            // A blackhole swallows the handshake too
+            awaitHealed();
+            server.connect(new InetSocketAddress(targetHost, targetPort), CONNECT_TIMEOUT_MS);
+            client.setTcpNoDelay(true);
+            server.setTcpNoDelay(true);
+            Link link = new Link(client, server);
+            links.add(link);
+            link.start();
+        } catch (IOException | InterruptedException e) {
+            closeQuietly(client);
+            closeQuietly(server);
+        }
+    }
+
+    private void awaitHealed() throws InterruptedException {
+        synchronized (healed) {
+            while (faults.blackhole() && !closed) {
+                healed.wait(100);
+            }
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Already gone
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private record Chunk(long dueNanos, byte[] data) {
+        static final Chunk EOF = new Chunk(0, new byte[0]);
+    }
+
+    /**
+     * One proxied connection: a reader and a writer thread per direction,
+     * with a queue between them that holds chunks until they are due
+     */
+    private final class Link {
+        private final Socket client;
+        private final Socket server;
+        private final AtomicInteger finished = new AtomicInteger();
+
+        Link(Socket client, Socket server) {
+            this.client = client;
+            this.server = server;
+        }
+
+        void start() throws IOException {
+            pipe(client.getInputStream(), server.getOutputStream(), server, "upstream");
+            pipe(server.getInputStream(), client.getOutputStream(), client, "downstream");
+        }
+
+        private void pipe(InputStream in, OutputStream out, Socket outSocket, String direction) {
+            BlockingQueue<Chunk> queue = new LinkedBlockingQueue<>();
+
+            daemon(() -> {
+                byte[] buffer = new byte[CHUNK_SIZE];
+                long lastDue = 0;
+                try {
+                    int read;
+                    while ((read = in.read(buffer)) >= 0) {
+                        Faults current = faults;
+                        long delayNanos = TimeUnit.MILLISECONDS.toNanos(current.latencyMs()
+                            + (current.jitterMs() > 0 ? ThreadLocalRandom.current().nextLong(current.jitterMs() + 1) : 0));
+                        // Jitter must not reorder the stream
+                        lastDue = Math.max(System.nanoTime() + delayNanos, lastDue);
+                        queue.put(new Chunk(lastDue, Arrays.copyOf(buffer, read)));
+                    }
+                } catch (IOException | InterruptedException e) {
+                    close();
+                } finally {
+                    // Also wakes the writer when the link was closed underneath it
+                    queue.offer(Chunk.EOF);
+                }
+            }, "fault-proxy-" + direction + "-read").start();
+
+            daemon(() -> {
+                try {
+                    while (true) {
+                        Chunk chunk = queue.take();
+                        if (chunk == Chunk.EOF) {
+                            outSocket.shutdownOutput();
+                            if (finished.incrementAndGet() == 2) {
+                                close();
+                            }
+                            return;
+                        }
+                        awaitHealed();
+                        long waitNanos = chunk.dueNanos() - System.nanoTime();
+                        if (waitNanos > 0) {
+                            TimeUnit.NANOSECONDS.sleep(waitNanos);
+                        }
+                        write(out, chunk.data());
+                    }
+                } catch (IOException | InterruptedException e) {
+                    close();
+                }
+            }, "fault-proxy-" + direction + "-write").start();
+        }
+
+        private void write(OutputStream out, byte[] data) throws IOException, InterruptedException {
+            long bytesPerSecond = faults.bytesPerSecond();
+            if (bytesPerSecond <= 0) {
+                out.write(data);
+                out.flush();
+                return;
+            }
+            // Slices of about 20ms so the rate stays smooth
+            int slice = (int) Math.max(1, Math.min(data.length, bytesPerSecond / 50));
+            for (int offset = 0; offset < data.length; offset += slice) {
+                int length = Math.min(slice, data.length - offset);
+                out.write(data, offset, length);
+                out.flush();
+                TimeUnit.NANOSECONDS.sleep(length * 1_000_000_000L / bytesPerSecond);
+            }
+        }
+
+        void reset() {
+            try {
+                client.setSoLinger(true, 0);
+                server.setSoLinger(true, 0);
+            } catch (IOException ignored) {
+                // Closed already, nothing left to reset
+            }
+            close();
+        }
+
+        void close() {
+            if (links.remove(this)) {
+                closeQuietly(client);
+                closeQuietly(server);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.service.faults;
+
+import java.util.Locale;
+
+/**
+ * Scripted faults the resilience harness runs, each between a healthy
+ * baseline phase and a recovery phase
+ */
+public enum FaultScenario {
+
+    BASELINE("No fault, for reference"),
+    LATENCY("Fixed latency on every chunk in both directions"),
+    JITTER("Random latency between zero and the jitter bound, order preserved"),
+    BANDWIDTH("Both directions paced to a byte rate"),
+    RESET("Every open connection reset once when the fault starts"),
+    FLAPPING("Every open connection reset repeatedly during the fault"),
+    BLACKHOLE("No traffic and no new connections until healed");
+
+    private final String description;
+
+    FaultScenario(String description) {
+        this.description = description;
+    }
+
+    public String description() {
+        return description;
+    }
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static FaultScenario of(String name) {
+        for (FaultScenario scenario : values()) {
+            if (scenario.name().equalsIgnoreCase(name.trim())) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown fault scenario: " + name);
+    }
+}
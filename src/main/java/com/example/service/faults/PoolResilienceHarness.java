@@ -0,0 +1,359 @@
+package com.example.service.faults;
+
+import com.example.config.ConnectionPoolFactory;
+import com.example.config.DataSourceRegistry;
+import com.example.config.DatabaseConfiguration.PoolSettings;
+import com.example.config.DatabasePool;
+import com.example.service.ConnectionMonitoringService;
+import com.example.service.admission.AdmissionRejectedException;
+import com.example.service.resilience.CircuitOpenException;
+import com.zaxxer.hikari.HikariDataSource;
+import org.postgresql.Driver;
+import org.postgresql.PGProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.net.SocketTimeoutException;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs load through a throwaway pool that connects via a
+ * {@link FaultInjectingProxy}, injects one scripted fault per scenario and
+ * reports how the pool and the resilience decorators behaved: latency
+ * percentiles and errors by type per phase, the time to the first error,
+ * and how long the pool took to serve requests again after the fault was
+ * healed.
+ *
+ * The pool is built from app.resilience.pool.* by the regular pool factory
+ * and registered under {@value #POOL_NAME}, so circuit breaking, admission
+ * control and the other decorators are part of what is measured. A scenario
+ * runs three phases: baseline, fault and recovery.
+ */
+@Service
+public class PoolResilienceHarness {
+
+    private static final Logger logger = LoggerFactory.getLogger(PoolResilienceHarness.class);
+
+    public static final String POOL_NAME = "resilience";
+
+    private static final String QUERY = "SELECT g, md5(g::text) FROM generate_series(1, ?) g";
+
+    private final ConnectionPoolFactory poolFactory;
+    private final DataSourceRegistry dataSourceRegistry;
+    private final ConnectionMonitoringService monitoringService;
+    private final ResilienceHarnessProperties properties;
+
+    public PoolResilienceHarness(ConnectionPoolFactory poolFactory,
+                                 DataSourceRegistry dataSourceRegistry,
+                                 ConnectionMonitoringService monitoringService,
+                                 ResilienceHarnessProperties properties) {
+        this.poolFactory = poolFactory;
+        this.dataSourceRegistry = dataSourceRegistry;
+        this.monitoringService = monitoringService;
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public synchronized Map<String, Object> run(List<FaultScenario> scenarios) throws Exception {
+        if (!properties.isEnabled()) {
+            throw new IllegalStateException("Resilience harness is disabled (app.resilience.enabled=false)");
+        }
+        if (dataSourceRegistry.hasPool(POOL_NAME)) {
+            throw new IllegalStateException("Connection pool name is taken: " + POOL_NAME);
+        }
+        HikariDataSource oltp = dataSourceRegistry.getPool(DatabasePool.OLTP);
+        Properties url = Driver.parseURL(oltp.getJdbcUrl(), null);
+        if (url == null) {
+            throw new IllegalStateException("Cannot parse the OLTP pool URL");
+        }
+        // Multi-host URLs: the first host is the one behind the proxy
+        String host = PGProperty.PG_HOST.getOrDefault(url).split(",")[0];
+        int port = Integer.parseInt(PGProperty.PG_PORT.getOrDefault(url).split(",")[0]);
+        String database = PGProperty.PG_DBNAME.getOrDefault(url);
+        int query = oltp.getJdbcUrl().indexOf('?');
+        String suffix = query >= 0 ? oltp.getJdbcUrl().substring(query) : "";
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        try (FaultInjectingProxy proxy = new FaultInjectingProxy(host, port)) {
+            Map<String, String> credentials = new HashMap<>();
+            credentials.put("url", "jdbc:postgresql://127.0.0.1:" + proxy.getPort() + "/" + database + suffix);
+            credentials.put("username", oltp.getUsername());
+            credentials.put("password", oltp.getPassword());
+            credentials.put("driver", Driver.class.getName());
+
+            for (FaultScenario scenario : scenarios) {
+                logger.info("Running resilience scenario {} through proxy port {}", scenario, proxy.getPort());
+                results.put(scenario.key(), runScenario(scenario, proxy, credentials));
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("target", host + ":" + port);
+        result.put("clients", properties.getClients());
+        result.put("phaseMs", properties.getPhaseMs());
+        result.put("pool", describe(poolFactory.effective(POOL_NAME, properties.getPool())));
+        result.put("scenarios", results);
+        return result;
+    }
+
+    private Map<String, Object> runScenario(FaultScenario scenario, FaultInjectingProxy proxy,
+                                            Map<String, String> credentials) throws InterruptedException {
+        proxy.heal();
+        long acceptedBefore = proxy.getAcceptedConnections();
+        long resetsBefore = proxy.getResetConnections();
+
+        HikariDataSource pool = poolFactory.create(POOL_NAME, properties.getPool(), credentials);
+        dataSourceRegistry.register(POOL_NAME, pool);
+        ScheduledExecutorService flapper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "resilience-flapper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Load load = new Load(dataSourceRegistry.getJdbcTemplate(POOL_NAME));
+
+        Map<String, Object> atFaultEnd;
+        Map<String, Object> atEnd;
+        long faultStarted;
+        long healed;
+        Long recovered;
+        try {
+            load.start();
+            Thread.sleep(properties.getPhaseMs());
+
+            faultStarted = System.nanoTime();
+            inject(scenario, proxy, flapper);
+            Thread.sleep(properties.getPhaseMs());
+            atFaultEnd = monitoringService.getSnapshot(POOL_NAME).toMap();
+
+            flapper.shutdownNow();
+            proxy.heal();
+            healed = System.nanoTime();
+            recovered = load.awaitRecovery(healed);
+            atEnd = monitoringService.getSnapshot(POOL_NAME).toMap();
+        } finally {
+            flapper.shutdownNow();
+            proxy.heal();
+            load.stop();
+            dataSourceRegistry.unregister(POOL_NAME).close();
+        }
+
+        List<Sample> samples = new ArrayList<>(load.samples);
+        Map<String, Object> phases = new LinkedHashMap<>();
+        phases.put("baseline", summarize(samples, Long.MIN_VALUE, faultStarted));
+        phases.put("fault", summarize(samples, faultStarted, healed));
+        phases.put("recovery", summarize(samples, healed, Long.MAX_VALUE));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("description", scenario.description());
+        result.put("phases", phases);
+        OptionalLong firstError = samples.stream()
+            .filter(sample -> sample.error() != null && sample.endNanos() >= faultStarted)
+            .mapToLong(Sample::endNanos)
+            .min();
+        result.put("timeToFirstErrorMs", firstError.isPresent() ? millis(firstError.getAsLong() - faultStarted) : null);
+        result.put("recovered", recovered != null);
+        result.put("recoveryMs", recovered != null ? millis(recovered - healed) : null);
+        result.put("proxyConnectionsAccepted", proxy.getAcceptedConnections() - acceptedBefore);
+        result.put("proxyConnectionsReset", proxy.getResetConnections() - resetsBefore);
+        result.put("poolAtFaultEnd", atFaultEnd);
+        result.put("poolAtEnd", atEnd);
+        return result;
+    }
+
+    private void inject(FaultScenario scenario, FaultInjectingProxy proxy, ScheduledExecutorService flapper) {
+        switch (scenario) {
+            case BASELINE -> { }
+            case LATENCY -> proxy.setFaults(new FaultInjectingProxy.Faults(properties.getLatencyMs(), 0, 0, false));
+            case JITTER -> proxy.setFaults(new FaultInjectingProxy.Faults(0, properties.getJitterMs(), 0, false));
+            case BANDWIDTH -> proxy.setFaults(new FaultInjectingProxy.Faults(0, 0, properties.getBytesPerSecond(), false));
+            case BLACKHOLE -> proxy.setFaults(new FaultInjectingProxy.Faults(0, 0, 0, true));
+            case RESET -> proxy.resetConnections();
+            case FLAPPING -> flapper.scheduleAtFixedRate(proxy::resetConnections, 0,
+                properties.getFlapIntervalMs(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static Map<String, Object> describe(PoolSettings settings) {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("maximumPoolSize", settings.getMaximumPoolSize());
+        pool.put("minimumIdle", settings.getMinimumIdle());
+        pool.put("connectionTimeout", settings.getConnectionTimeout());
+        pool.put("validationTimeout", settings.getValidationTimeout());
+        pool.put("keepaliveTime", settings.getKeepaliveTime());
+        pool.put("maxLifetime", settings.getMaxLifetime());
+        pool.put("driverProperties", settings.getDriverProperties());
+        return pool;
+    }
+
+    private static Map<String, Object> summarize(List<Sample> samples, long fromNanos, long toNanos) {
+        List<Sample> phase = samples.stream()
+            .filter(sample -> sample.startNanos() >= fromNanos && sample.startNanos() < toNanos)
+            .toList();
+        long[] durations = phase.stream().mapToLong(Sample::durationNanos).sorted().toArray();
+        Map<String, Long> errors = new TreeMap<>();
+        phase.stream()
+            .filter(sample -> sample.error() != null)
+            .forEach(sample -> errors.merge(sample.error(), 1L, Long::sum));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", phase.size());
+        summary.put("errors", errors);
+        summary.put("p50Ms", percentile(durations, 0.50));
+        summary.put("p95Ms", percentile(durations, 0.95));
+        summary.put("p99Ms", percentile(durations, 0.99));
+        summary.put("maxMs", durations.length > 0 ? millis(durations[durations.length - 1]) : 0.0);
+        return summary;
+    }
+
+    /**
+     * Error type as the caller would act on it
+     */
+    static String classify(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CircuitOpenException) {
+                return "circuit-open";
+            }
+            if (cause instanceof AdmissionRejectedException) {
+                return "admission-rejected";
+            }
+            if (cause instanceof SocketTimeoutException) {
+                return "socket-timeout";
+            }
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                // Hikari's connection-timeout
+                return "connection-timeout";
+            }
+            if (cause instanceof SQLException sql && sql.getSQLState() != null) {
+                if (sql.getSQLState().startsWith("08")) {
+                    return "connection-failure";
+                }
+                if (sql.getSQLState().equals("57014")) {
+                    return "statement-timeout";
+                }
+            }
+        }
+        return "other";
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        return millis(sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))]);
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1e4) / 100.0;
+    }
+
+    private record Sample(long startNanos, long durationNanos, String error) {
+        long endNanos() {
+            return startNanos + durationNanos;
+        }
+    }
+
+    /**
+     * Client threads issuing the query back to back
+     */
+    private final class Load {
+        private final JdbcTemplate jdbcTemplate;
+        private final ConcurrentLinkedQueue<Sample> samples = new ConcurrentLinkedQueue<>();
+        private final List<Thread> threads = new ArrayList<>();
+        private final AtomicInteger consecutiveSuccesses = new AtomicInteger();
+        private volatile long healedNanos = Long.MAX_VALUE;
+        private volatile Long recoveredNanos;
+        private volatile boolean running = true;
+
+        Load(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        void start() {
+            for (int i = 0; i < properties.getClients(); i++) {
+                Thread thread = new Thread(this::loop, "resilience-client-" + i);
+                thread.setDaemon(true);
+                threads.add(thread);
+                thread.start();
+            }
+        }
+
+        private void loop() {
+            while (running) {
+                long started = System.nanoTime();
+                String error = null;
+                try {
+                    jdbcTemplate.queryForList(QUERY, properties.getRows());
+                } catch (RuntimeException e) {
+                    error = classify(e);
+                }
+                long finished = System.nanoTime();
+                samples.add(new Sample(started, finished - started, error));
+
+                if (started >= healedNanos) {
+                    if (error != null) {
+                        consecutiveSuccesses.set(0);
+                    } else if (consecutiveSuccesses.incrementAndGet() >= properties.getRecoverySuccesses()
+                            && recoveredNanos == null) {
+                        recoveredNanos = finished;
+                    }
+                }
+                if (error != null) {
+                    // Failures are often instant; do not spin on them
+                    sleepQuietly(10);
+                }
+            }
+        }
+
+        /**
+         * Waits until enough consecutive requests started after the heal have
+         * succeeded
+         *
+         * @return when recovery completed, or null on timeout
+         */
+        Long awaitRecovery(long healed) throws InterruptedException {
+            healedNanos = healed;
+            long deadline = healed + TimeUnit.MILLISECONDS.toNanos(properties.getRecoveryTimeoutMs());
+            while (recoveredNanos == null && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            return recoveredNanos;
+        }
+
+        void stop() throws InterruptedException {
+            running = false;
+            for (Thread thread : threads) {
+                thread.join(properties.getRecoveryTimeoutMs());
+            }
+        }
+
+        private void sleepQuietly(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.service.faults;
+
+import com.example.config.DatabaseConfiguration.PoolSettings;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fault-injection harness settings, bound from app.resilience.*
+ *
+ * The pool under test is configured under app.resilience.pool.* exactly like
+ * a named pool, so connection-timeout, max-lifetime, validation-timeout,
+ * keepalive-time and driver-properties (socketTimeout, connectTimeout) can
+ * be tried out before they go into app.database.pools.*. Runs are refused
+ * unless app.resilience.enabled=true: they open a proxy and a pool against
+ * the OLTP database and load it for minutes.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.resilience")
+public class ResilienceHarnessProperties {
+
+    private boolean enabled = false;
+    private int clients = 4;
+    private int rows = 50;
+    private long phaseMs = 5000;
+    private long recoveryTimeoutMs = 30000;
+    private int recoverySuccesses = 20;
+    private long latencyMs = 100;
+    private long jitterMs = 200;
+    private long bytesPerSecond = 65536;
+    private long flapIntervalMs = 1000;
+    private PoolSettings pool = new PoolSettings();
+
+    // Getters and setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getClients() { return clients; }
+    public void setClients(int clients) { this.clients = clients; }
+
+    public int getRows() { return rows; }
+    public void setRows(int rows) { this.rows = rows; }
+
+    public long getPhaseMs() { return phaseMs; }
+    public void setPhaseMs(long phaseMs) { this.phaseMs = phaseMs; }
+
+    public long getRecoveryTimeoutMs() { return recoveryTimeoutMs; }
+    public void setRecoveryTimeoutMs(long recoveryTimeoutMs) { this.recoveryTimeoutMs = recoveryTimeoutMs; }
+
+    public int getRecoverySuccesses() { return recoverySuccesses; }
+    public void setRecoverySuccesses(int recoverySuccesses) { this.recoverySuccesses = recoverySuccesses; }
+
+    public long getLatencyMs() { return latencyMs; }
+    public void setLatencyMs(long latencyMs) { this.latencyMs = latencyMs; }
+
+    public long getJitterMs() { return jitterMs; }
+    public void setJitterMs(long jitterMs) { this.jitterMs = jitterMs; }
+
+    public long getBytesPerSecond() { return bytesPerSecond; }
+    public void setBytesPerSecond(long bytesPerSecond) { this.bytesPerSecond = bytesPerSecond; }
+
+    public long getFlapIntervalMs() { return flapIntervalMs; }
+    public void setFlapIntervalMs(long flapIntervalMs) { this.flapIntervalMs = flapIntervalMs; }
+
+    public PoolSettings getPool() { return pool; }
+    public void setPool(PoolSettings pool) { this.pool = pool; }
+}
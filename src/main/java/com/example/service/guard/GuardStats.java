@@ -0,0 +1,44 @@
+package com.example.service.guard;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-pool result-set counters, read by the Micrometer binder and the status endpoint
+ */
+class GuardStats {
+
+    final LongAdder materialized = new LongAdder();
+    final LongAdder cursor = new LongAdder();
+    final LongAdder oversizedRows = new LongAdder();
+    final LongAdder oversizedBytes = new LongAdder();
+    final LongAdder aborted = new LongAdder();
+    final LongAdder rows = new LongAdder();
+    final LongAdder bytes = new LongAdder();
+    final LongAccumulator largestRows = new LongAccumulator(Math::max, 0);
+    final LongAccumulator largestBytes = new LongAccumulator(Math::max, 0);
+
+    void record(boolean streamed, long resultRows, long resultBytes) {
+        (streamed ? cursor : materialized).increment();
+        rows.add(resultRows);
+        bytes.add(resultBytes);
+        largestRows.accumulate(resultRows);
+        largestBytes.accumulate(resultBytes);
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("materializedResultSets", materialized.sum());
+        view.put("cursorResultSets", cursor.sum());
+        view.put("oversizedByRows", oversizedRows.sum());
+        view.put("oversizedByBytes", oversizedBytes.sum());
+        view.put("aborted", aborted.sum());
+        view.put("rowsRead", rows.sum());
+        view.put("approxBytesRead", bytes.sum());
+        view.put("largestRows", largestRows.get());
+        view.put("largestApproxBytes", largestBytes.get());
+        return view;
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.service.guard;
+
+import com.example.service.tracing.SqlFingerprint;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Connection, statement and result-set proxies enforcing the limits of
+ * {@link ResultSetGuardService}. A cursor opened on an autocommit connection
+ * owns a transaction scope that is committed and returned to autocommit when
+ * its result set or statement closes, and rolled back if the connection is
+ * closed first.
+ */
+class GuardedDataSource extends DelegatingDataSource {
+
+    private final String poolName;
+    private final ResultSetGuardService guard;
+    private final GuardStats stats;
+
+    GuardedDataSource(DataSource targetDataSource, String poolName, ResultSetGuardService guard, GuardStats stats) {
+        super(targetDataSource);
+        this.poolName = poolName;
+        this.guard = guard;
+        this.stats = stats;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = obtainTargetDataSource().getConnection();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private int ownedCursors;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("close") && ownedCursors > 0) {
+                // Scope abandoned with its result set still open; the pool would roll it back as well
+                ownedCursors = 0;
+                try {
+                    target.rollback();
+                    target.setAutoCommit(true);
+                } catch (SQLException ignored) {
+                    // The pool resets autocommit and discards the transaction anyway
+                }
+            } else if (name.equals("setAutoCommit") || name.equals("commit") || name.equals("rollback")) {
+                // The caller takes over transaction control; open cursors end with its transaction
+                ownedCursors = 0;
+            }
+
+            Object result = GuardedDataSource.invoke(target, method, args);
+            if (result instanceof Statement statement && (name.equals("createStatement")
+                    || name.equals("prepareStatement") || name.equals("prepareCall"))) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                    new Class<?>[] {method.getReturnType()}, new StatementHandler(statement, this, sql));
+            }
+            return result;
+        }
+
+        /**
+         * Turns autocommit off for a cursor read; returns false when the
+         * connection already runs a caller transaction
+         */
+        boolean openCursorScope() throws SQLException {
+            if (!target.getAutoCommit()) {
+                return false;
+            }
+            target.setAutoCommit(false);
+            ownedCursors++;
+            return true;
+        }
+
+        void closeCursorScope(boolean commit) throws SQLException {
+            if (ownedCursors == 0) {
+                return;
+            }
+            if (--ownedCursors == 0) {
+                // Committed rather than rolled back: the read may be a data-modifying CTE
+                if (commit) {
+                    target.commit();
+                } else {
+                    target.rollback();
+                }
+                target.setAutoCommit(true);
+            }
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final ConnectionHandler connection;
+        private final String preparedSql;
+        private boolean explicitFetchSize;
+        private boolean ownsCursorScope;
+        private SqlFingerprint lastFingerprint;
+        private boolean lastStreamed;
+
+        StatementHandler(Statement target, ConnectionHandler connection, String preparedSql) {
+            this.target = target;
+            this.connection = connection;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "setFetchSize" -> explicitFetchSize = args[0] instanceof Integer size && size > 0;
+                case "executeQuery" -> {
+                    return executeQuery(method, args);
+                }
+                case "getResultSet" -> {
+                    Object result = GuardedDataSource.invoke(target, method, args);
+                    return result instanceof ResultSet resultSet && lastFingerprint != null
+                        ? wrap(resultSet, lastFingerprint, lastStreamed) : result;
+                }
+                case "close" -> {
+                    try {
+                        return GuardedDataSource.invoke(target, method, args);
+                    } finally {
+                        endCursorScope(true);
+                    }
+                }
+                default -> {
+                    if (name.startsWith("execute")) {
+                        endCursorScope(true);
+                        lastFingerprint = SqlFingerprint.of(sql(args));
+                        lastStreamed = false;
+                    }
+                }
+            }
+            return GuardedDataSource.invoke(target, method, args);
+        }
+
+        private Object executeQuery(Method method, Object[] args) throws Throwable {
+            // Re-executing implicitly closes the previous result set
+            endCursorScope(true);
+
+            SqlFingerprint fingerprint = SqlFingerprint.of(sql(args));
+            if (target.getFetchSize() == 0 && guard.getFetchSize() > 0) {
+                target.setFetchSize(guard.getFetchSize());
+            }
+
+            boolean streamed = false;
+            if (target.getResultSetType() == ResultSet.TYPE_FORWARD_ONLY && target.getFetchSize() > 0) {
+                if (guard.wantsCursor(fingerprint, explicitFetchSize)) {
+                    ownsCursorScope = connection.openCursorScope();
+                    streamed = true;
+                } else {
+                    // Already inside a caller transaction, so pgjdbc fetches in batches anyway
+                    streamed = !connection.target.getAutoCommit();
+                }
+            }
+            if (!streamed && guard.getAction() == ResultSetGuardService.Action.ABORT
+                    && guard.getMaxRows() > 0 && target.getMaxRows() == 0) {
+                // Stops the server after one row too many instead of buffering the whole result
+                target.setMaxRows((int) Math.min(Integer.MAX_VALUE, guard.getMaxRows() + 1));
+            }
+
+            lastFingerprint = fingerprint;
+            lastStreamed = streamed;
+            try {
+                return wrap((ResultSet) GuardedDataSource.invoke(target, method, args), fingerprint, streamed);
+            } catch (Throwable e) {
+                try {
+                    endCursorScope(false);
+                } catch (SQLException rollbackFailure) {
+                    e.addSuppressed(rollbackFailure);
+                }
+                throw e;
+            }
+        }
+
+        private String sql(Object[] args) {
+            return args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+        }
+
+        private ResultSet wrap(ResultSet resultSet, SqlFingerprint fingerprint, boolean streamed) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[] {ResultSet.class}, new ResultSetHandler(resultSet, this, fingerprint, streamed));
+        }
+
+        void endCursorScope(boolean commit) throws SQLException {
+            if (ownsCursorScope) {
+                ownsCursorScope = false;
+                connection.closeCursorScope(commit);
+            }
+        }
+    }
+
+    private final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final StatementHandler statement;
+        private final SqlFingerprint fingerprint;
+        private final boolean streamed;
+        private final boolean byteLimited = !ResultSetGuardService.isByteLimitExempt();
+        private long rows;
+        private long bytes;
+        private boolean reported;
+        private boolean finished;
+
+        ResultSetHandler(ResultSet target, StatementHandler statement, SqlFingerprint fingerprint, boolean streamed) {
+            this.target = target;
+            this.statement = statement;
+            this.fingerprint = fingerprint;
+            this.streamed = streamed;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("close")) {
+                try {
+                    return GuardedDataSource.invoke(target, method, args);
+                } finally {
+                    finish();
+                    statement.endCursorScope(true);
+                }
+            }
+
+            Object result = GuardedDataSource.invoke(target, method, args);
+            if (name.equals("next")) {
+                if (Boolean.TRUE.equals(result)) {
+                    rows++;
+                    check();
+                } else {
+                    finish();
+                }
+            } else if (name.startsWith("get") && args != null && args.length == 1) {
+                bytes += estimate(result);
+            }
+            return result;
+        }
+
+        private void check() throws SQLException {
+            ResultSetGuardService.Action action = guard.getAction();
+            String reason = null;
+            if (!streamed && guard.getMaxRows() > 0 && rows > guard.getMaxRows()) {
+                reason = "rows";
+            } else if (byteLimited && guard.getMaxBytes() > 0 && bytes > guard.getMaxBytes()
+                    && (!streamed || action == ResultSetGuardService.Action.ABORT)) {
+                // Streamed reads only fail on bytes when aborting: the caller may be collecting them
+                reason = "bytes";
+            }
+            if (reason == null || reported) {
+                return;
+            }
+
+            reported = true;
+            boolean aborting = action == ResultSetGuardService.Action.ABORT;
+            guard.reportOversized(poolName, stats, fingerprint, reason, rows, bytes, aborting);
+            if (aborting) {
+                finish();
+                throw new ResultSetLimitExceededException(String.format(
+                    "Result set exceeded the %s limit (%d rows, ~%d bytes read); add a LIMIT or set a fetch size to stream it",
+                    reason, rows, bytes));
+            }
+        }
+
+        private void finish() {
+            if (!finished) {
+                finished = true;
+                stats.record(streamed, rows, bytes);
+            }
+        }
+
+        private static long estimate(Object value) {
+            if (value == null) {
+                return 0;
+            }
+            if (value instanceof String s) {
+                return 40 + 2L * s.length();
+            }
+            if (value instanceof byte[] b) {
+                return 16 + b.length;
+            }
+            if (value instanceof BigDecimal) {
+                return 32;
+            }
+            if (value instanceof Number || value instanceof Boolean) {
+                return 8;
+            }
+            return 24;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.service.guard;
+
+import com.example.config.DataSourceDecorator;
+import com.example.service.admission.ConnectionAdmissionService;
+import com.example.service.tracing.SqlFingerprint;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Keeps large query results from being materialized on the heap. pgjdbc reads
+ * a whole result set before executeQuery returns unless the statement has a
+ * fetch size and runs outside autocommit, so the innermost DataSource
+ * decorator:
+ * <ul>
+ *   <li>applies app.result-guard.fetch-size to statements that set none;</li>
+ *   <li>switches reads into cursor mode (autocommit off until the result set
+ *       closes) for statements with an explicit fetch size, for fingerprints
+ *       previously seen over the limits, or for every read when
+ *       cursor-mode=always;</li>
+ *   <li>counts rows and approximate bytes per result set and, above max-rows
+ *       or max-bytes, either aborts the read or lets it finish and streams
+ *       that fingerprint from then on.</li>
+ * </ul>
+ */
+@Service
+@Order(ResultSetGuardService.ORDER)
+public class ResultSetGuardService implements DataSourceDecorator, MeterBinder {
+
+    public static final int ORDER = ConnectionAdmissionService.ORDER - 50;
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultSetGuardService.class);
+
+    private static final int MAX_LEARNED = 1024;
+
+    private static final ThreadLocal<Boolean> BYTE_LIMIT_EXEMPT = new ThreadLocal<>();
+
+    public enum Action {
+        /** Fail the read with {@link ResultSetLimitExceededException} */
+        ABORT,
+        /** Let the read finish and stream later executions of the same query */
+        STREAM
+    }
+
+    public enum CursorMode {
+        NEVER, AUTO, ALWAYS
+    }
+
+    @Value("${app.result-guard.enabled:true}")
+    private boolean guardEnabled;
+
+    @Value("${app.result-guard.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${app.result-guard.max-rows:100000}")
+    private long maxRows;
+
+    @Value("${app.result-guard.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${app.result-guard.action:ABORT}")
+    private Action action;
+
+    @Value("${app.result-guard.cursor-mode:AUTO}")
+    private CursorMode cursorMode;
+
+    private final Map<String, GuardStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, OversizedQuery> oversized = new ConcurrentHashMap<>();
+    private volatile MeterRegistry meterRegistry;
+
+    @Override
+    public DataSource decorate(String poolName, DataSource dataSource) {
+        if (!guardEnabled) {
+            return dataSource;
+        }
+
+        GuardStats poolStats = stats.computeIfAbsent(poolName, name -> new GuardStats());
+        if (meterRegistry != null) {
+            registerMeters(meterRegistry, poolName, poolStats);
+        }
+        logger.info("Result-set guard enabled for pool {} (fetch size: {}, max rows: {}, max bytes: {}, action: {}, cursor mode: {})",
+                   poolName, fetchSize, maxRows, maxBytes, action, cursorMode);
+        return new GuardedDataSource(dataSource, poolName, this, poolStats);
+    }
+
+    @Override
+    public void release(String poolName) {
+        stats.remove(poolName);
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            registry.getMeters().stream()
+                .filter(meter -> meter.getId().getName().startsWith("db.resultset.")
+                    && poolName.equals(meter.getId().getTag("pool")))
+                .forEach(registry::remove);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        stats.forEach((pool, poolStats) -> registerMeters(registry, pool, poolStats));
+        Gauge.builder("db.resultset.oversized.fingerprints", oversized, Map::size)
+            .description("Distinct queries switched to cursor mode after exceeding the result-set limits")
+            .register(registry);
+    }
+
+    private void registerMeters(MeterRegistry registry, String poolName, GuardStats poolStats) {
+        counter(registry, "db.resultset.count", poolName, "mode", "materialized", poolStats, s -> s.materialized.sum());
+        counter(registry, "db.resultset.count", poolName, "mode", "cursor", poolStats, s -> s.cursor.sum());
+        counter(registry, "db.resultset.oversized", poolName, "reason", "rows", poolStats, s -> s.oversizedRows.sum());
+        counter(registry, "db.resultset.oversized", poolName, "reason", "bytes", poolStats, s -> s.oversizedBytes.sum());
+        FunctionCounter.builder("db.resultset.aborted", poolStats, s -> s.aborted.sum())
+            .description("Reads aborted by the result-set guard")
+            .tag("pool", poolName)
+            .register(registry);
+        Gauge.builder("db.resultset.largest.bytes", poolStats, s -> s.largestBytes.get())
+            .description("Largest approximate result-set size seen")
+            .baseUnit("bytes")
+            .tag("pool", poolName)
+            .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String name, String poolName, String tag, String value,
+                                GuardStats poolStats, ToDoubleFunction<GuardStats> f) {
+        FunctionCounter.builder(name, poolStats, f)
+            .tag("pool", poolName)
+            .tag(tag, value)
+            .register(registry);
+    }
+
+    int getFetchSize() {
+        return fetchSize;
+    }
+
+    long getMaxRows() {
+        return maxRows;
+    }
+
+    long getMaxBytes() {
+        return maxBytes;
+    }
+
+    Action getAction() {
+        return action;
+    }
+
+    /**
+     * Runs a read on the current thread without the max-bytes check, for
+     * readers whose memory is bounded elsewhere (the Arrow export streams
+     * through a capped allocator). Row limits and cursor mode still apply.
+     */
+    public static <T> T withoutByteLimit(Supplier<T> read) {
+        Boolean previous = BYTE_LIMIT_EXEMPT.get();
+        BYTE_LIMIT_EXEMPT.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous != null) {
+                BYTE_LIMIT_EXEMPT.set(previous);
+            } else {
+                BYTE_LIMIT_EXEMPT.remove();
+            }
+        }
+    }
+
+    static boolean isByteLimitExempt() {
+        return Boolean.TRUE.equals(BYTE_LIMIT_EXEMPT.get());
+    }
+
+    /**
+     * Whether an autocommit read should be moved into cursor mode
+     */
+    boolean wantsCursor(SqlFingerprint fingerprint, boolean explicitFetchSize) {
+        return switch (cursorMode) {
+            case NEVER -> false;
+            case ALWAYS -> true;
+            case AUTO -> explicitFetchSize || oversized.containsKey(fingerprint.id());
+        };
+    }
+
+    /**
+     * Records a result set that crossed a limit and remembers its fingerprint,
+     * so AUTO cursor mode streams the next execution
+     */
+    void reportOversized(String poolName, GuardStats poolStats, SqlFingerprint fingerprint,
+                         String reason, long rows, long bytes, boolean aborting) {
+        ("rows".equals(reason) ? poolStats.oversizedRows : poolStats.oversizedBytes).increment();
+        if (aborting) {
+            poolStats.aborted.increment();
+        }
+
+        OversizedQuery query = oversized.get(fingerprint.id());
+        if (query == null && oversized.size() < MAX_LEARNED) {
+            query = oversized.computeIfAbsent(fingerprint.id(), id -> new OversizedQuery(fingerprint.normalized()));
+        }
+        if (query != null) {
+            query.record(rows, bytes);
+        }
+
+        logger.warn("Oversized result on pool {} ({} over limit, {} rows, ~{} bytes, {}): {}",
+                   poolName, reason, rows, bytes, aborting ? "aborted" : "streaming from now on",
+                   abbreviate(fingerprint.normalized()));
+    }
+
+    public boolean isGuardEnabled() {
+        return guardEnabled;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", guardEnabled);
+        status.put("fetchSize", fetchSize);
+        status.put("maxRows", maxRows);
+        status.put("maxBytes", maxBytes);
+        status.put("action", action);
+        status.put("cursorMode", cursorMode);
+
+        Map<String, Object> pools = new LinkedHashMap<>();
+        stats.forEach((pool, poolStats) -> pools.put(pool, poolStats.toMap()));
+        status.put("pools", pools);
+
+        List<Map<String, Object>> queries = new ArrayList<>();
+        oversized.entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<String, OversizedQuery> e) -> e.getValue().maxBytes.get()).reversed())
+            .limit(50)
+            .forEach(e -> queries.add(e.getValue().toMap(e.getKey())));
+        status.put("oversizedQueries", queries);
+        return status;
+    }
+
+    /**
+     * Forgets the learned fingerprints, e.g. after a fix makes a query selective again
+     */
+    public int clearOversized() {
+        int cleared = oversized.size();
+        oversized.clear();
+        return cleared;
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() > 200 ? sql.substring(0, 200) + "..." : sql;
+    }
+
+    private static final class OversizedQuery {
+        private final String statement;
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong maxRows = new AtomicLong();
+        private final AtomicLong maxBytes = new AtomicLong();
+        private volatile long lastSeen;
+
+        OversizedQuery(String statement) {
+            this.statement = statement;
+        }
+
+        void record(long rows, long bytes) {
+            hits.incrementAndGet();
+            maxRows.accumulateAndGet(rows, Math::max);
+            maxBytes.accumulateAndGet(bytes, Math::max);
+            lastSeen = System.currentTimeMillis();
+        }
+
+        Map<String, Object> toMap(String id) {
+            Map<String, Object> view = new LinkedHashMap<>();
+            view.put("fingerprint", id);
+            view.put("statement", abbreviate(statement));
+            view.put("hits", hits.get());
+            view.put("maxRows", maxRows.get());
+            view.put("maxApproxBytes", maxBytes.get());
+            view.put("lastSeen", lastSeen);
+            return view;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.service.guard;
+
+import java.sql.SQLException;
+
+/**
+ * Raised by the result-set guard when a query returns more rows or bytes than
+ * app.result-guard allows. Uses SQLSTATE 54000 (program_limit_exceeded) so it
+ * is translated like the server-side equivalent.
+ */
+public class ResultSetLimitExceededException extends SQLException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ResultSetLimitExceededException(String message) {
+        super(message, "54000");
+    }
+}
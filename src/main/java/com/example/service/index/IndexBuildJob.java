@@ -0,0 +1,136 @@
+package com.example.service.index;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One queued, running or finished index build. Mutable state is only
+ * written by the manager; readers get a consistent view through {@link #describe()}.
+ */
+public class IndexBuildJob {
+
+    public enum Kind {
+        BUILD, REBUILD
+    }
+
+    public enum State {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED
+    }
+
+    private final long id;
+    private final Kind kind;
+    private final String indexName;
+    private final String tableName;
+    private final String statement;
+    private final long submittedAt = System.currentTimeMillis();
+
+    private State state = State.QUEUED;
+    private int attempts;
+    private long notBefore;
+    private long startedAt;
+    private long finishedAt;
+    private int backendPid;
+    private String message;
+
+    IndexBuildJob(long id, Kind kind, String indexName, String tableName, String statement) {
+        this.id = id;
+        this.kind = kind;
+        this.indexName = indexName;
+        this.tableName = tableName;
+        this.statement = statement;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    String getStatement() {
+        return statement;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    synchronized boolean isActive() {
+        return state == State.QUEUED || state == State.RUNNING;
+    }
+
+    synchronized int getAttempts() {
+        return attempts;
+    }
+
+    synchronized long getNotBefore() {
+        return notBefore;
+    }
+
+    synchronized int getBackendPid() {
+        return backendPid;
+    }
+
+    synchronized void started() {
+        state = State.RUNNING;
+        attempts++;
+        startedAt = System.currentTimeMillis();
+        message = null;
+    }
+
+    synchronized void attachedTo(int pid) {
+        backendPid = pid;
+    }
+
+    synchronized void requeue(long retryAt, String reason) {
+        state = State.QUEUED;
+        notBefore = retryAt;
+        backendPid = 0;
+        message = reason;
+    }
+
+    synchronized void finish(State finalState, String finalMessage) {
+        state = finalState;
+        finishedAt = System.currentTimeMillis();
+        backendPid = 0;
+        message = finalMessage;
+    }
+
+    synchronized Map<String, Object> describe() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("id", id);
+        view.put("kind", kind);
+        view.put("index", indexName);
+        view.put("table", tableName);
+        view.put("state", state);
+        view.put("attempts", attempts);
+        view.put("statement", statement);
+        view.put("submittedAt", submittedAt);
+        if (startedAt > 0) {
+            view.put("startedAt", startedAt);
+        }
+        if (finishedAt > 0) {
+            view.put("finishedAt", finishedAt);
+            view.put("durationMs", finishedAt - startedAt);
+        }
+        if (state == State.QUEUED && notBefore > System.currentTimeMillis()) {
+            view.put("retryAt", notBefore);
+        }
+        if (backendPid > 0) {
+            view.put("backendPid", backendPid);
+        }
+        if (message != null) {
+            view.put("message", message);
+        }
+        return view;
+    }
+}
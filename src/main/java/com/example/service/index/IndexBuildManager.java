@@ -0,0 +1,559 @@
+package com.example.service.index;
+
+import com.example.config.DataSourceRegistry;
+import com.example.config.DatabasePool;
+import com.example.service.ConnectionMonitoringService;
+import com.example.service.PoolMetricsSnapshot;
+import com.example.service.admission.AdmissionContext;
+import com.example.service.admission.PriorityClass;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileCopyUtils;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds and rebuilds indexes online. Every build runs as CREATE INDEX
+ * CONCURRENTLY (or REINDEX ... CONCURRENTLY) on the admin pool, so writes to
+ * the table continue during the build. Builds are queued and started by a
+ * dispatcher that allows app.indexes.max-concurrent-builds at a time, and only
+ * one while the database is busy. Failed builds leave an INVALID index behind;
+ * it is dropped and the build retried with backoff. A periodic scan repairs
+ * invalid indexes left over from earlier crashes.
+ */
+@Service
+public class IndexBuildManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexBuildManager.class);
+
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+        "(?is)^\\s*CREATE\\s+(UNIQUE\\s+)?INDEX\\s+(?:CONCURRENTLY\\s+)?(?:IF\\s+NOT\\s+EXISTS\\s+)?"
+        + "([a-z_][a-z0-9_]*)\\s+ON\\s+(?:ONLY\\s+)?([a-z_][a-z0-9_]*)\\s*([(]|USING\\s)(.*?)\\s*;?\\s*$");
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final Pattern REINDEX_LEFTOVER = Pattern.compile(".*_cc(new|old)\\d*$");
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String QUERY_CANCELED = "57014";
+    private static final int MAX_IDENTIFIER_LENGTH = 63;
+    private static final int FINISHED_JOBS_KEPT = 200;
+
+    private final DataSourceRegistry dataSourceRegistry;
+    private final JdbcTemplate adminJdbcTemplate;
+    private final JdbcTemplate monitorJdbcTemplate;
+    private final ConnectionMonitoringService monitoringService;
+
+    private final NavigableMap<Long, IndexBuildJob> jobs = new ConcurrentSkipListMap<>();
+    private final AtomicLong jobIds = new AtomicLong();
+    private final AtomicInteger running = new AtomicInteger();
+    private final ExecutorService buildExecutor;
+
+    @Value("${app.indexes.max-concurrent-builds:2}")
+    private int maxConcurrentBuilds;
+
+    @Value("${app.indexes.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.indexes.retry-backoff-ms:30000}")
+    private long retryBackoffMs;
+
+    @Value("${app.indexes.busy.pool-utilization-percent:50}")
+    private double busyPoolUtilizationPercent;
+
+    @Value("${app.indexes.busy.active-sessions:20}")
+    private int busyActiveSessions;
+
+    @Value("${app.indexes.auto-repair-invalid:true}")
+    private boolean autoRepairInvalid;
+
+    public IndexBuildManager(DataSourceRegistry dataSourceRegistry,
+                             ConnectionMonitoringService monitoringService) {
+        this.dataSourceRegistry = dataSourceRegistry;
+        this.adminJdbcTemplate = dataSourceRegistry.getJdbcTemplate(DatabasePool.ADMIN);
+        this.monitorJdbcTemplate = dataSourceRegistry.getJdbcTemplate(DatabasePool.REPORTING);
+        this.monitoringService = monitoringService;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.buildExecutor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "index-build-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        buildExecutor.shutdownNow();
+    }
+
+    /**
+     * Queues a CREATE INDEX statement; it is always executed CONCURRENTLY and IF NOT EXISTS
+     */
+    public IndexBuildJob submitBuild(String createIndexStatement) {
+        Matcher matcher = CREATE_INDEX.matcher(createIndexStatement);
+        if (!matcher.matches() || matcher.group(5).contains(";")) {
+            throw new IllegalArgumentException("Not a single CREATE INDEX statement: " + createIndexStatement);
+        }
+        String unique = matcher.group(1) != null ? "UNIQUE " : "";
+        String indexName = matcher.group(2).toLowerCase();
+        String tableName = matcher.group(3).toLowerCase();
+        String body = matcher.group(4) + matcher.group(5);
+
+        String statement = "CREATE " + unique + "INDEX CONCURRENTLY IF NOT EXISTS " + indexName
+            + " ON " + tableName + " " + body;
+        return enqueue(IndexBuildJob.Kind.BUILD, indexName, tableName, statement);
+    }
+
+    /**
+     * Queues a REINDEX INDEX CONCURRENTLY of an existing index
+     */
+    public IndexBuildJob submitRebuild(String indexName) {
+        if (!IDENTIFIER.matcher(indexName).matches()) {
+            throw new IllegalArgumentException("Invalid index name: " + indexName);
+        }
+        List<String> tables = adminJdbcTemplate.queryForList(
+            "SELECT t.relname FROM pg_index x JOIN pg_class c ON c.oid = x.indexrelid " +
+            "JOIN pg_class t ON t.oid = x.indrelid JOIN pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE n.nspname = current_schema() AND c.relname = ?", String.class, indexName);
+        if (tables.isEmpty()) {
+            throw new IllegalArgumentException("Unknown index: " + indexName);
+        }
+        return enqueue(IndexBuildJob.Kind.REBUILD, indexName, tables.get(0),
+                       "REINDEX INDEX CONCURRENTLY " + indexName);
+    }
+
+    /**
+     * Queues every CREATE INDEX statement of a schema script (e.g. 03_create_indexes.sql)
+     */
+    public List<IndexBuildJob> submitScript(String scriptName) throws IOException {
+        if (!scriptName.matches("[A-Za-z0-9_.-]+\\.sql")) {
+            throw new IllegalArgumentException("Invalid script name: " + scriptName);
+        }
+        ClassPathResource resource = new ClassPathResource("db/" + scriptName);
+        if (!resource.exists()) {
+            throw new IllegalArgumentException("SQL script not found: " + scriptName);
+        }
+        String sql = FileCopyUtils.copyToString(
+            new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
+
+        List<IndexBuildJob> submitted = new ArrayList<>();
+        for (String chunk : sql.split(";\\s*\\n")) {
+            StringBuilder statement = new StringBuilder();
+            for (String part : chunk.split("\\n")) {
+                if (!part.trim().startsWith("--") && !part.trim().startsWith("\\")) {
+                    statement.append(part).append('\n');
+                }
+            }
+            if (CREATE_INDEX.matcher(statement).matches()) {
+                submitted.add(submitBuild(statement.toString()));
+            }
+        }
+        logger.info("Queued {} online index builds from {}", submitted.size(), scriptName);
+        return submitted;
+    }
+
+    /**
+     * Cancels a queued build, or the backend of a running one
+     */
+    public boolean cancel(long jobId) {
+        IndexBuildJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Unknown index build: " + jobId);
+        }
+        synchronized (job) {
+            if (job.getState() == IndexBuildJob.State.QUEUED) {
+                job.finish(IndexBuildJob.State.CANCELLED, "Cancelled before start");
+                return true;
+            }
+            if (job.getState() == IndexBuildJob.State.RUNNING && job.getBackendPid() > 0) {
+                Boolean cancelled = monitorJdbcTemplate.queryForObject(
+                    "SELECT pg_cancel_backend(?)", Boolean.class, job.getBackendPid());
+                if (Boolean.TRUE.equals(cancelled)) {
+                    job.finish(IndexBuildJob.State.CANCELLED, "Cancelled while running");
+                }
+                return Boolean.TRUE.equals(cancelled);
+            }
+        }
+        return false;
+    }
+
+    private IndexBuildJob enqueue(IndexBuildJob.Kind kind, String indexName, String tableName, String statement) {
+        for (IndexBuildJob existing : jobs.values()) {
+            if (existing.isActive() && existing.getIndexName().equals(indexName)) {
+                return existing;
+            }
+        }
+        IndexBuildJob job = new IndexBuildJob(jobIds.incrementAndGet(), kind, indexName, tableName, statement);
+        jobs.put(job.getId(), job);
+        trimFinishedJobs();
+        logger.info("Queued index {} #{}: {}", kind, job.getId(), statement);
+        return job;
+    }
+
+    /**
+     * Starts queued builds while under the current concurrency limit
+     */
+    @Scheduled(fixedDelayString = "${app.indexes.dispatch-interval-ms:1000}")
+    public void dispatch() {
+        if (jobs.values().stream().noneMatch(job -> job.getState() == IndexBuildJob.State.QUEUED)) {
+            return;
+        }
+
+        int limit = currentConcurrencyLimit();
+        long now = System.currentTimeMillis();
+        for (IndexBuildJob job : jobs.values()) {
+            if (running.get() >= limit) {
+                return;
+            }
+            synchronized (job) {
+                if (job.getState() != IndexBuildJob.State.QUEUED || job.getNotBefore() > now) {
+                    continue;
+                }
+                job.started();
+            }
+            running.incrementAndGet();
+            buildExecutor.submit(() -> {
+                try {
+                    run(job);
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * The configured limit when the database is quiet, one build while it is
+     * busy. Never more than the admin pool can serve alongside its other work.
+     */
+    int currentConcurrencyLimit() {
+        int adminPoolSize = dataSourceRegistry.getPool(DatabasePool.ADMIN).getMaximumPoolSize();
+        int limit = Math.max(1, Math.min(maxConcurrentBuilds, adminPoolSize - 1));
+        return isDatabaseBusy() ? 1 : limit;
+    }
+
+    boolean isDatabaseBusy() {
+        PoolMetricsSnapshot oltp = monitoringService.getSnapshot(DatabasePool.OLTP);
+        if (oltp.utilizationPercent() >= busyPoolUtilizationPercent || oltp.threadsAwaitingConnection() > 0) {
+            return true;
+        }
+        try {
+            Integer active = monitorJdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_stat_activity WHERE state = 'active' AND backend_type = 'client backend' " +
+                "AND pid <> pg_backend_pid()", Integer.class);
+            return active != null && active >= busyActiveSessions;
+        } catch (Exception e) {
+            logger.debug("Could not read database activity, assuming busy: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private void run(IndexBuildJob job) {
+        AdmissionContext context = new AdmissionContext(PriorityClass.BACKGROUND, "index-build",
+                                                        AdmissionContext.NO_DEADLINE, 0);
+        try {
+            AdmissionContext.callWith(context, () -> {
+                execute(job);
+                return null;
+            });
+        } catch (Exception e) {
+            handleFailure(job, e);
+        }
+    }
+
+    private void execute(IndexBuildJob job) {
+        logger.info("Starting index {} #{} (attempt {}): {}", job.getKind(), job.getId(), job.getAttempts(),
+                   job.getStatement());
+
+        List<String> statements = job.getKind() == IndexBuildJob.Kind.BUILD
+            ? buildStatements(job)
+            : List.of(job.getStatement());
+        if (job.getKind() == IndexBuildJob.Kind.BUILD) {
+            dropIfInvalid(job.getIndexName());
+        }
+
+        adminJdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                try (var rs = statement.executeQuery("SELECT pg_backend_pid()")) {
+                    rs.next();
+                    job.attachedTo(rs.getInt(1));
+                }
+                for (String sql : statements) {
+                    statement.execute(sql);
+                }
+            }
+            return null;
+        });
+
+        if (!isValid(job.getIndexName())) {
+            throw new IllegalStateException("Index " + job.getIndexName() + " is invalid after build");
+        }
+        job.finish(IndexBuildJob.State.SUCCEEDED, null);
+        logger.info("Index {} #{} of {} completed", job.getKind(), job.getId(), job.getIndexName());
+    }
+
+    /**
+     * CREATE INDEX CONCURRENTLY is not supported on a partitioned table, so the
+     * parent index is created ON ONLY the parent (instant, invalid), each
+     * partition is indexed concurrently and attached, which validates the parent
+     */
+    private List<String> buildStatements(IndexBuildJob job) {
+        List<String> partitions = adminJdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = to_regclass(?) AND c.relkind = 'r' ORDER BY c.relname",
+            String.class, job.getTableName());
+        if (partitions.isEmpty()) {
+            return List.of(job.getStatement());
+        }
+
+        String onlyParent = job.getStatement()
+            .replaceFirst("INDEX CONCURRENTLY IF NOT EXISTS", "INDEX IF NOT EXISTS")
+            .replaceFirst(" ON " + job.getTableName() + " ", " ON ONLY " + job.getTableName() + " ");
+        List<String> statements = new ArrayList<>();
+        statements.add(onlyParent);
+        for (String partition : partitions) {
+            String childIndex = identifier(partition + "_" + job.getIndexName());
+            statements.add(job.getStatement()
+                .replaceFirst("IF NOT EXISTS " + job.getIndexName() + " ON " + job.getTableName() + " ",
+                              "IF NOT EXISTS " + childIndex + " ON " + partition + " "));
+            statements.add("ALTER INDEX " + job.getIndexName() + " ATTACH PARTITION " + childIndex);
+        }
+        return statements;
+    }
+
+    private void handleFailure(IndexBuildJob job, Exception e) {
+        String sqlState = sqlState(e);
+        String reason = e.getMessage();
+
+        try {
+            if (job.getKind() == IndexBuildJob.Kind.BUILD) {
+                dropIfInvalid(job.getIndexName());
+            } else {
+                dropReindexLeftovers(job.getIndexName());
+            }
+        } catch (Exception cleanupFailure) {
+            logger.warn("Failed to clean up after index {} #{}: {}", job.getKind(), job.getId(),
+                       cleanupFailure.getMessage());
+        }
+
+        synchronized (job) {
+            if (job.getState() == IndexBuildJob.State.CANCELLED || QUERY_CANCELED.equals(sqlState)) {
+                job.finish(IndexBuildJob.State.CANCELLED, "Cancelled: " + reason);
+                return;
+            }
+            if (UNIQUE_VIOLATION.equals(sqlState) || job.getAttempts() >= maxAttempts) {
+                job.finish(IndexBuildJob.State.FAILED, reason);
+                logger.error("Index {} #{} of {} failed after {} attempts: {}", job.getKind(), job.getId(),
+                            job.getIndexName(), job.getAttempts(), reason);
+                return;
+            }
+            long retryAt = System.currentTimeMillis() + retryBackoffMs * job.getAttempts();
+            job.requeue(retryAt, "Attempt " + job.getAttempts() + " failed: " + reason);
+        }
+        logger.warn("Index {} #{} of {} failed, retrying: {}", job.getKind(), job.getId(), job.getIndexName(), reason);
+    }
+
+    private void dropIfInvalid(String indexName) {
+        if (Boolean.FALSE.equals(validity(indexName))) {
+            logger.info("Dropping invalid index {} before building it", indexName);
+            // Partitioned indexes cannot be dropped concurrently; they hold no data of their own
+            List<String> kind = adminJdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)", String.class, indexName);
+            adminJdbcTemplate.execute((kind.contains("I") ? "DROP INDEX IF EXISTS " : "DROP INDEX CONCURRENTLY IF EXISTS ")
+                + indexName);
+        }
+    }
+
+    private void dropReindexLeftovers(String indexName) {
+        List<String> leftovers = adminJdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_index x JOIN pg_class c ON c.oid = x.indexrelid " +
+            "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE n.nspname = current_schema() AND NOT x.indisvalid AND c.relname LIKE ? || '\\_cc%'",
+            String.class, indexName);
+        for (String leftover : leftovers) {
+            logger.info("Dropping invalid reindex leftover {}", leftover);
+            adminJdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + leftover);
+        }
+    }
+
+    private boolean isValid(String indexName) {
+        return Boolean.TRUE.equals(validity(indexName));
+    }
+
+    /**
+     * True or false for an existing index, null when it does not exist
+     */
+    private Boolean validity(String indexName) {
+        List<Boolean> valid = adminJdbcTemplate.queryForList(
+            "SELECT x.indisvalid FROM pg_index x WHERE x.indexrelid = to_regclass(?)", Boolean.class, indexName);
+        return valid.isEmpty() ? null : valid.get(0);
+    }
+
+    /**
+     * Invalid indexes in the current schema that no build is working on
+     */
+    public List<Map<String, Object>> findInvalidIndexes() {
+        return adminJdbcTemplate.queryForList(
+            "SELECT c.relname AS index_name, t.relname AS table_name, pg_get_indexdef(c.oid) AS definition " +
+            "FROM pg_index x JOIN pg_class c ON c.oid = x.indexrelid JOIN pg_class t ON t.oid = x.indrelid " +
+            "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE n.nspname = current_schema() AND NOT x.indisvalid AND c.relkind = 'i' " +
+            "AND NOT EXISTS (SELECT 1 FROM pg_stat_progress_create_index p WHERE p.index_relid = c.oid) " +
+            "ORDER BY c.relname");
+    }
+
+    /**
+     * Drops leftovers of interrupted REINDEX CONCURRENTLY runs and queues a
+     * rebuild for every other invalid index
+     */
+    @Scheduled(fixedDelayString = "${app.indexes.invalid-check-interval-ms:600000}",
+               initialDelayString = "${app.indexes.invalid-check-initial-delay-ms:120000}")
+    public void repairInvalidIndexes() {
+        if (!autoRepairInvalid) {
+            return;
+        }
+        try {
+            for (Map<String, Object> invalid : findInvalidIndexes()) {
+                String indexName = (String) invalid.get("index_name");
+                boolean building = jobs.values().stream()
+                    .anyMatch(job -> job.isActive() && job.getIndexName().equals(indexName));
+                if (building) {
+                    continue;
+                }
+                if (REINDEX_LEFTOVER.matcher(indexName).matches()) {
+                    logger.warn("Dropping invalid reindex leftover {}", indexName);
+                    adminJdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + indexName);
+                } else {
+                    logger.warn("Found invalid index {} on {}, queueing rebuild", indexName, invalid.get("table_name"));
+                    submitRebuild(indexName);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Invalid index scan failed", e);
+        }
+    }
+
+    /**
+     * All known jobs, newest first, with live progress for running builds
+     */
+    public List<Map<String, Object>> getJobs() {
+        Map<Integer, Map<String, Object>> progress = readProgress();
+        List<Map<String, Object>> views = new ArrayList<>();
+        for (IndexBuildJob job : jobs.descendingMap().values()) {
+            views.add(describe(job, progress));
+        }
+        return views;
+    }
+
+    public Map<String, Object> getJob(long jobId) {
+        IndexBuildJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Unknown index build: " + jobId);
+        }
+        return describe(job, readProgress());
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("queued", jobs.values().stream().filter(job -> job.getState() == IndexBuildJob.State.QUEUED).count());
+        status.put("maxConcurrentBuilds", maxConcurrentBuilds);
+        status.put("currentLimit", currentConcurrencyLimit());
+        return status;
+    }
+
+    private Map<String, Object> describe(IndexBuildJob job, Map<Integer, Map<String, Object>> progress) {
+        Map<String, Object> view = job.describe();
+        Map<String, Object> live = progress.get(job.getBackendPid());
+        if (live != null) {
+            view.put("progress", live);
+        }
+        return view;
+    }
+
+    /**
+     * pg_stat_progress_create_index rows keyed by backend pid
+     */
+    private Map<Integer, Map<String, Object>> readProgress() {
+        Map<Integer, Map<String, Object>> progress = new LinkedHashMap<>();
+        if (running.get() == 0) {
+            return progress;
+        }
+        try {
+            monitorJdbcTemplate.query(
+                "SELECT pid, phase, lockers_total, lockers_done, blocks_total, blocks_done, " +
+                "tuples_total, tuples_done, partitions_total, partitions_done " +
+                "FROM pg_stat_progress_create_index",
+                rs -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    long blocksTotal = rs.getLong("blocks_total");
+                    long tuplesTotal = rs.getLong("tuples_total");
+                    row.put("phase", rs.getString("phase"));
+                    row.put("lockersTotal", rs.getLong("lockers_total"));
+                    row.put("lockersDone", rs.getLong("lockers_done"));
+                    row.put("blocksTotal", blocksTotal);
+                    row.put("blocksDone", rs.getLong("blocks_done"));
+                    row.put("tuplesTotal", tuplesTotal);
+                    row.put("tuplesDone", rs.getLong("tuples_done"));
+                    row.put("partitionsTotal", rs.getLong("partitions_total"));
+                    row.put("partitionsDone", rs.getLong("partitions_done"));
+                    if (blocksTotal > 0) {
+                        row.put("phasePercent", Math.round(rs.getLong("blocks_done") * 1000.0 / blocksTotal) / 10.0);
+                    } else if (tuplesTotal > 0) {
+                        row.put("phasePercent", Math.round(rs.getLong("tuples_done") * 1000.0 / tuplesTotal) / 10.0);
+                    }
+                    progress.put(rs.getInt("pid"), row);
+                });
+        } catch (Exception e) {
+            logger.debug("Could not read index build progress: {}", e.getMessage());
+        }
+        return progress;
+    }
+
+    private void trimFinishedJobs() {
+        long finished = jobs.values().stream().filter(job -> !job.isActive()).count();
+        for (IndexBuildJob job : jobs.values()) {
+            if (finished <= FINISHED_JOBS_KEPT) {
+                return;
+            }
+            if (!job.isActive()) {
+                jobs.remove(job.getId());
+                finished--;
+            }
+        }
+    }
+
+    private static String sqlState(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                return sqlException.getSQLState();
+            }
+        }
+        return null;
+    }
+
+    private static String identifier(String name) {
+        return name.length() > MAX_IDENTIFIER_LENGTH ? name.substring(0, MAX_IDENTIFIER_LENGTH) : name;
+    }
+}
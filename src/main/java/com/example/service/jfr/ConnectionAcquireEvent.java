@@ -0,0 +1,32 @@
+package com.example.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Time a caller waited for a pooled connection; the duration covers admission
+ * queueing and circuit breaker checks as well as the Hikari borrow itself.
+ */
+@Name(ConnectionAcquireEvent.NAME)
+@Label("Connection Acquire")
+@Description("Wait for a connection from a JDBC pool")
+@Category({"PostgreSQL Client", "Connection Pool"})
+@StackTrace(false)
+@Threshold("1 ms")
+public class ConnectionAcquireEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.example.db.ConnectionAcquire";
+
+    @Label("Pool")
+    String pool;
+
+    @Label("Success")
+    boolean success;
+
+    @Label("Error")
+    String error;
+}
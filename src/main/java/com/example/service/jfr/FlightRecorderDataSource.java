@@ -0,0 +1,169 @@
+package com.example.service.jfr;
+
+import com.example.service.tracing.SqlFingerprint;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Emits {@link ConnectionAcquireEvent} for every borrow and, while a recording
+ * has {@link StatementExecuteEvent} enabled, proxies the connection to time
+ * execute calls. With no recording running the only cost is the begin/end of
+ * a disabled event, which the JIT reduces to almost nothing; connections are
+ * then handed out unwrapped.
+ */
+class FlightRecorderDataSource extends DelegatingDataSource {
+
+    private final String poolName;
+
+    FlightRecorderDataSource(DataSource targetDataSource, String poolName) {
+        super(targetDataSource);
+        this.poolName = poolName;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        ConnectionAcquireEvent event = new ConnectionAcquireEvent();
+        event.begin();
+        Connection connection;
+        try {
+            connection = obtainTargetDataSource().getConnection();
+        } catch (SQLException | RuntimeException e) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.pool = poolName;
+                event.error = e.getMessage();
+                event.commit();
+            }
+            throw e;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.pool = poolName;
+            event.success = true;
+            event.commit();
+        }
+
+        if (!new StatementExecuteEvent().isEnabled()) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class}, new ConnectionHandler(connection, poolName));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private final String poolName;
+
+        ConnectionHandler(Connection target, String poolName) {
+            this.target = target;
+            this.poolName = poolName;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = FlightRecorderDataSource.invoke(target, method, args);
+            String name = method.getName();
+            if (result instanceof Statement statement && (name.equals("createStatement")
+                    || name.equals("prepareStatement") || name.equals("prepareCall"))) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                    new Class<?>[] {method.getReturnType()}, new StatementHandler(statement, poolName, sql));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String poolName;
+        private final String preparedSql;
+        private int batchSize;
+
+        StatementHandler(Statement target, String poolName, String preparedSql) {
+            this.target = target;
+            this.poolName = poolName;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                if (name.equals("addBatch")) {
+                    batchSize++;
+                }
+                return FlightRecorderDataSource.invoke(target, method, args);
+            }
+
+            int batch = batchSize;
+            batchSize = 0;
+            StatementExecuteEvent event = new StatementExecuteEvent();
+            event.begin();
+            try {
+                Object result = FlightRecorderDataSource.invoke(target, method, args);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.success = true;
+                    event.rowsAffected = rowsAffected(result);
+                    commit(event, sql(args), batch);
+                }
+                return result;
+            } catch (Throwable e) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.rowsAffected = -1;
+                    event.error = e.getMessage();
+                    commit(event, sql(args), batch);
+                }
+                throw e;
+            }
+        }
+
+        private String sql(Object[] args) {
+            return args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+        }
+
+        private void commit(StatementExecuteEvent event, String sql, int batch) {
+            // Fingerprinting is only paid for events that pass the threshold
+            SqlFingerprint fingerprint = SqlFingerprint.of(sql);
+            event.pool = poolName;
+            event.fingerprint = fingerprint.normalized();
+            event.fingerprintId = fingerprint.id();
+            event.batchSize = batch;
+            event.commit();
+        }
+
+        private static long rowsAffected(Object result) {
+            if (result instanceof Integer count) {
+                return count;
+            }
+            if (result instanceof Long count) {
+                return count;
+            }
+            if (result instanceof int[] counts) {
+                long total = 0;
+                for (int count : counts) {
+                    total += Math.max(0, count);
+                }
+                return total;
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.service.jfr;
+
+import com.example.config.DataSourceDecorator;
+import com.example.service.resilience.CircuitBreakerService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Registers the application's JDK Flight Recorder events and wires the
+ * connection and statement events into every pool. Thresholds live in
+ * jfr/postgres-jdbc-client.jfc, which can be passed to -XX:StartFlightRecording
+ * or jcmd JFR.start alongside the JDK's default settings; recordings can also
+ * be started from the API with that file layered over the default profile.
+ * Sits between the circuit breaker and tracing, so acquire events include
+ * admission and breaker time.
+ */
+@Service
+@Order(FlightRecorderService.ORDER)
+public class FlightRecorderService implements DataSourceDecorator {
+
+    public static final int ORDER = CircuitBreakerService.ORDER + 50;
+
+    static final String SETTINGS_RESOURCE = "jfr/postgres-jdbc-client.jfc";
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    private static final List<Class<? extends Event>> EVENTS = List.of(
+        ConnectionAcquireEvent.class, StatementExecuteEvent.class, VaultReadEvent.class, SchemaScriptEvent.class);
+
+    private static final Map<String, String> THRESHOLD_KEYS = Map.of(
+        "connection-acquire", ConnectionAcquireEvent.NAME + "#threshold",
+        "statement-execute", StatementExecuteEvent.NAME + "#threshold",
+        "vault-read", VaultReadEvent.NAME + "#threshold",
+        "schema-script", SchemaScriptEvent.NAME + "#threshold");
+
+    @Value("${app.jfr.enabled:true}")
+    private boolean jfrEnabled;
+
+    @Value("${app.jfr.recording-dir:recordings}")
+    private String recordingDir;
+
+    @Value("${app.jfr.max-age-minutes:30}")
+    private long maxAgeMinutes;
+
+    private boolean available;
+    private Recording recording;
+    private Map<String, String> recordingThresholds = Map.of();
+
+    @PostConstruct
+    public void registerEvents() {
+        available = jfrEnabled && FlightRecorder.isAvailable();
+        if (!available) {
+            logger.info("JFR events are {}", jfrEnabled ? "unavailable on this JVM" : "disabled");
+            return;
+        }
+        // Registering up front makes the event types visible to recordings
+        // and JMC before the first instance is committed
+        EVENTS.forEach(FlightRecorder::register);
+        logger.info("Registered {} JFR event types, settings in classpath:{}", EVENTS.size(), SETTINGS_RESOURCE);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    @Override
+    public DataSource decorate(String poolName, DataSource dataSource) {
+        return jfrEnabled ? new FlightRecorderDataSource(dataSource, poolName) : dataSource;
+    }
+
+    /**
+     * Starts an in-process recording using the JDK default profile plus this
+     * application's event settings; thresholds maps the short event keys
+     * (connection-acquire, statement-execute, vault-read, schema-script) to
+     * JFR durations such as "5 ms"
+     */
+    public synchronized Map<String, Object> startRecording(Duration duration, Map<String, String> thresholds)
+            throws IOException, ParseException {
+        if (!available) {
+            throw new IllegalStateException("JFR is not available or app.jfr.enabled=false");
+        }
+        if (recording != null) {
+            throw new IllegalStateException("A recording is already running: " + recording.getName());
+        }
+
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        settings.putAll(loadSettings().getSettings());
+        Map<String, String> applied = new TreeMap<>();
+        thresholds.forEach((event, threshold) -> {
+            String key = THRESHOLD_KEYS.get(event);
+            if (key == null) {
+                throw new IllegalArgumentException("Unknown JFR event '" + event + "', expected one of "
+                    + new TreeMap<>(THRESHOLD_KEYS).keySet());
+            }
+            settings.put(key, threshold);
+            applied.put(event, threshold);
+        });
+
+        Recording started = new Recording(settings);
+        started.setName("postgres-jdbc-client-" + Instant.now().getEpochSecond());
+        started.setToDisk(true);
+        started.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+        if (duration != null && !duration.isZero()) {
+            started.setDuration(duration);
+        }
+        started.start();
+        recording = started;
+        recordingThresholds = applied;
+        logger.info("Started JFR recording {} (duration {}, threshold overrides {})",
+                   started.getName(), duration, applied);
+        return getStatus();
+    }
+
+    /**
+     * Stops the running recording (if still active) and writes it to the recording directory
+     */
+    public synchronized Map<String, Object> stopRecording() throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("No recording is running");
+        }
+
+        Path dir = Path.of(recordingDir);
+        Files.createDirectories(dir);
+        Path file = dir.resolve(recording.getName() + ".jfr").toAbsolutePath();
+        try {
+            if (recording.getState() == jdk.jfr.RecordingState.RUNNING) {
+                recording.stop();
+            }
+            recording.dump(file);
+        } finally {
+            recording.close();
+            recording = null;
+            recordingThresholds = Map.of();
+        }
+        logger.info("JFR recording written to {}", file);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("file", file.toString());
+        result.put("sizeBytes", Files.size(file));
+        return result;
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", jfrEnabled);
+        status.put("available", available);
+        status.put("settingsResource", SETTINGS_RESOURCE);
+        status.put("events", EVENTS.stream().map(FlightRecorderService::eventName).toList());
+        if (recording != null) {
+            Map<String, Object> active = new LinkedHashMap<>();
+            active.put("name", recording.getName());
+            active.put("state", recording.getState());
+            active.put("startTime", recording.getStartTime());
+            active.put("duration", recording.getDuration());
+            active.put("thresholdOverrides", recordingThresholds);
+            status.put("recording", active);
+        }
+        return status;
+    }
+
+    private static Configuration loadSettings() throws IOException, ParseException {
+        ClassPathResource resource = new ClassPathResource(SETTINGS_RESOURCE);
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+
+    private static String eventName(Class<? extends Event> event) {
+        jdk.jfr.Name name = event.getAnnotation(jdk.jfr.Name.class);
+        return name != null ? name.value() : event.getName();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Execution of one classpath schema script by the schema service.
+ */
+@Name(SchemaScriptEvent.NAME)
+@Label("Schema Script")
+@Description("Execution of a schema initialization script")
+@Category({"PostgreSQL Client", "Schema"})
+@StackTrace(false)
+@Threshold("0 ms")
+public class SchemaScriptEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.example.schema.ScriptExecute";
+
+    @Label("Script")
+    public String script;
+
+    @Label("Statements Executed")
+    public int executed;
+
+    @Label("Statements Failed")
+    public int failed;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,44 @@
+package com.example.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One JDBC execute call. The statement is recorded as its literal-free
+ * fingerprint, so recordings never contain bind values.
+ */
+@Name(StatementExecuteEvent.NAME)
+@Label("Statement Execute")
+@Description("Execution of a JDBC statement, identified by its SQL fingerprint")
+@Category({"PostgreSQL Client", "Statement"})
+@StackTrace(false)
+@Threshold("10 ms")
+public class StatementExecuteEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.example.db.StatementExecute";
+
+    @Label("Pool")
+    String pool;
+
+    @Label("Fingerprint")
+    String fingerprint;
+
+    @Label("Fingerprint Id")
+    String fingerprintId;
+
+    @Label("Batch Size")
+    int batchSize;
+
+    @Label("Rows Affected")
+    long rowsAffected;
+
+    @Label("Success")
+    boolean success;
+
+    @Label("Error")
+    String error;
+}
@@ -0,0 +1,31 @@
+package com.example.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A credential read from Vault. Only the path is recorded, never the secret.
+ */
+@Name(VaultReadEvent.NAME)
+@Label("Vault Read")
+@Description("Read of database credentials from Vault")
+@Category({"PostgreSQL Client", "Vault"})
+@StackTrace(false)
+@Threshold("0 ms")
+public class VaultReadEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.example.vault.Read";
+
+    @Label("Path")
+    public String path;
+
+    @Label("Success")
+    public boolean success;
+
+    @Label("Error")
+    public String error;
+}
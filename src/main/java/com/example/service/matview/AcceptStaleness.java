@@ -0,0 +1,22 @@
+package com.example.service.matview;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that reads made while handling a controller class or method may
+ * be served from a materialized view refreshed at most this long ago. Method
+ * annotations take precedence over class ones; an {@code X-Accept-Staleness}
+ * request header (seconds) overrides both.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AcceptStaleness {
+
+    /** Maximum age of the materialized data in seconds */
+    long seconds();
+}
@@ -0,0 +1,66 @@
+package com.example.service.matview;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Connection and statement proxies that pass SQL through
+ * {@link MaterializedViewRouter#rewrite} with the staleness declared when the
+ * connection was taken.
+ */
+class MaterializedViewDataSource extends DelegatingDataSource {
+
+    private final MaterializedViewRouter router;
+
+    MaterializedViewDataSource(DataSource targetDataSource, MaterializedViewRouter router) {
+        super(targetDataSource);
+        this.router = router;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = obtainTargetDataSource().getConnection();
+        long maxStalenessMs = StalenessContext.current();
+        if (maxStalenessMs < 0) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                String name = method.getName();
+                if ((name.equals("prepareStatement") || name.equals("prepareCall"))
+                        && args != null && args[0] instanceof String sql) {
+                    args[0] = router.rewrite(sql, maxStalenessMs);
+                }
+                Object result = invoke(connection, method, args);
+                if (name.equals("createStatement") && result instanceof Statement statement) {
+                    return routed(statement, maxStalenessMs);
+                }
+                return result;
+            });
+    }
+
+    private Statement routed(Statement statement, long maxStalenessMs) {
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+            new Class<?>[] {Statement.class}, (proxy, method, args) -> {
+                if (method.getName().startsWith("execute") && args != null && args[0] instanceof String sql) {
+                    args[0] = router.rewrite(sql, maxStalenessMs);
+                }
+                return invoke(statement, method, args);
+            });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.service.matview;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materialized copies of reporting views, bound from app.matviews.*
+ *
+ * <pre>
+ * app.matviews.views.mv_customer_summary.source=v_customer_summary
+ * app.matviews.views.mv_customer_summary.unique-key=id
+ * app.matviews.views.mv_customer_summary.refresh-interval=5m
+ * </pre>
+ *
+ * The copy is created as SELECT * FROM the source unless a query is given;
+ * either way it must have exactly the source's columns, since redirected
+ * reads are not otherwise changed. The unique key is what
+ * REFRESH ... CONCURRENTLY matches rows on.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.matviews")
+public class MaterializedViewProperties {
+
+    private boolean enabled = false;
+    private long initialDelayMs = 10000;
+    private long refreshTimeoutMs = 600000;
+    private long lockTimeoutMs = 5000;
+    private Map<String, ViewSpec> views = new LinkedHashMap<>();
+
+    // Getters and setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public long getInitialDelayMs() { return initialDelayMs; }
+    public void setInitialDelayMs(long initialDelayMs) { this.initialDelayMs = initialDelayMs; }
+
+    public long getRefreshTimeoutMs() { return refreshTimeoutMs; }
+    public void setRefreshTimeoutMs(long refreshTimeoutMs) { this.refreshTimeoutMs = refreshTimeoutMs; }
+
+    public long getLockTimeoutMs() { return lockTimeoutMs; }
+    public void setLockTimeoutMs(long lockTimeoutMs) { this.lockTimeoutMs = lockTimeoutMs; }
+
+    public Map<String, ViewSpec> getViews() { return views; }
+    public void setViews(Map<String, ViewSpec> views) { this.views = views; }
+
+    /**
+     * One materialized view; source is the plain view reads are redirected from
+     */
+    public static class ViewSpec {
+        private String source;
+        private String query;
+        private List<String> uniqueKey = new ArrayList<>();
+        private Duration refreshInterval = Duration.ofMinutes(5);
+        private boolean concurrent = true;
+
+        // Getters and setters
+        public String getSource() { return source; }
+        public void setSource(String source) { this.source = source; }
+
+        public String getQuery() { return query; }
+        public void setQuery(String query) { this.query = query; }
+
+        public List<String> getUniqueKey() { return uniqueKey; }
+        public void setUniqueKey(List<String> uniqueKey) { this.uniqueKey = uniqueKey; }
+
+        public Duration getRefreshInterval() { return refreshInterval; }
+        public void setRefreshInterval(Duration refreshInterval) { this.refreshInterval = refreshInterval; }
+
+        public boolean isConcurrent() { return concurrent; }
+        public void setConcurrent(boolean concurrent) { this.concurrent = concurrent; }
+    }
+}
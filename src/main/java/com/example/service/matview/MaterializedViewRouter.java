@@ -0,0 +1,105 @@
+package com.example.service.matview;
+
+import com.example.config.DataSourceDecorator;
+import com.example.service.guard.ResultSetGuardService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Redirects reads of a plain view to its materialized copy when the work on
+ * the current thread declared an acceptable staleness
+ * ({@link StalenessContext}) and the copy was refreshed recently enough.
+ * Innermost decorator, so only the driver sees the rewritten SQL; connections
+ * taken without a declared staleness are passed through untouched.
+ */
+@Service
+@Order(MaterializedViewRouter.ORDER)
+public class MaterializedViewRouter implements DataSourceDecorator {
+
+    public static final int ORDER = ResultSetGuardService.ORDER - 25;
+
+    private static final Logger logger = LoggerFactory.getLogger(MaterializedViewRouter.class);
+
+    private static final Pattern READ = Pattern.compile("^\\s*(SELECT|WITH)\\b", Pattern.CASE_INSENSITIVE);
+
+    private final MaterializedViewProperties properties;
+    private final Map<String, String> routes = new HashMap<>();
+    private final Map<String, Long> refreshedAt = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> redirects = new ConcurrentHashMap<>();
+
+    public MaterializedViewRouter(MaterializedViewProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void init() {
+        properties.getViews().forEach((view, spec) -> {
+            if (spec.getSource() != null) {
+                routes.put(spec.getSource().toLowerCase(Locale.ROOT), view);
+                redirects.put(view, new LongAdder());
+            }
+        });
+    }
+
+    @Override
+    public DataSource decorate(String poolName, DataSource dataSource) {
+        if (!properties.isEnabled() || routes.isEmpty()) {
+            return dataSource;
+        }
+        logger.info("Materialized view routing enabled for pool {}", poolName);
+        return new MaterializedViewDataSource(dataSource, this);
+    }
+
+    /**
+     * Replaces FROM and JOIN references to sources whose copy is at most
+     * maxStalenessMs old; see {@link TableReferences} for what is left alone
+     */
+    String rewrite(String sql, long maxStalenessMs) {
+        if (sql == null || !READ.matcher(sql).find()) {
+            return sql;
+        }
+
+        long now = System.currentTimeMillis();
+        Set<String> redirected = new HashSet<>();
+        String rewritten = TableReferences.rewrite(sql, source -> {
+            String view = routes.get(source);
+            Long asOf = view != null ? refreshedAt.get(view) : null;
+            if (asOf == null || now - asOf > maxStalenessMs) {
+                return null;
+            }
+            redirected.add(view);
+            return view;
+        });
+        redirected.forEach(view -> redirects.get(view).increment());
+        return rewritten;
+    }
+
+    /**
+     * Records that the view holds data as of the given time
+     */
+    void markRefreshed(String view, long asOfMillis) {
+        refreshedAt.put(view, asOfMillis);
+    }
+
+    Long getRefreshedAt(String view) {
+        return refreshedAt.get(view);
+    }
+
+    long getRedirects(String view) {
+        LongAdder count = redirects.get(view);
+        return count != null ? count.sum() : 0;
+    }
+}
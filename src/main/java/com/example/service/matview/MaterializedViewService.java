@@ -0,0 +1,275 @@
+package com.example.service.matview;
+
+import com.example.config.DatabasePool;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Creates the materialized views configured under app.matviews.views, with
+ * the unique index REFRESH ... CONCURRENTLY needs, and refreshes each on its
+ * own interval from a single background thread. A concurrent refresh only
+ * blocks other refreshes of the same view, never its readers; the first
+ * refresh of an unpopulated view has to be a plain one.
+ *
+ * Freshness is tracked from the start of the last successful refresh in this
+ * process and published to {@link MaterializedViewRouter}, so reads are only
+ * redirected once the copy is known to be recent enough.
+ */
+@Service
+public class MaterializedViewService implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaterializedViewService.class);
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MaterializedViewProperties properties;
+    private final MaterializedViewRouter router;
+    private final Map<String, ViewState> states = new LinkedHashMap<>();
+
+    private volatile MeterRegistry meterRegistry;
+    private ScheduledExecutorService scheduler;
+
+    public MaterializedViewService(@DatabasePool(DatabasePool.ADMIN) JdbcTemplate jdbcTemplate,
+                                   MaterializedViewProperties properties, MaterializedViewRouter router) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.router = router;
+        properties.getViews().keySet().forEach(view -> states.put(view, new ViewState()));
+    }
+
+    @PostConstruct
+    public void start() {
+        properties.getViews().forEach((view, spec) -> {
+            if (!IDENTIFIER.matcher(view).matches() || spec.getSource() == null
+                    || !IDENTIFIER.matcher(spec.getSource()).matches()) {
+                throw new IllegalStateException("Invalid materialized view or source name in app.matviews.views: " + view);
+            }
+            if (spec.getUniqueKey().isEmpty() && spec.isConcurrent()) {
+                throw new IllegalStateException("Materialized view " + view + " needs a unique-key for concurrent refresh");
+            }
+            for (String column : spec.getUniqueKey()) {
+                if (!IDENTIFIER.matcher(column).matches()) {
+                    throw new IllegalStateException("Invalid unique-key column for materialized view " + view + ": " + column);
+                }
+            }
+        });
+
+        if (!properties.isEnabled() || properties.getViews().isEmpty()) {
+            logger.info("Materialized view refresh is disabled");
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "matview-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        properties.getViews().forEach((view, spec) -> scheduler.scheduleWithFixedDelay(
+            () -> scheduledRefresh(view), properties.getInitialDelayMs(),
+            spec.getRefreshInterval().toMillis(), TimeUnit.MILLISECONDS));
+
+        logger.info("Materialized view refresh scheduled for {}", properties.getViews().keySet());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        states.forEach((view, state) -> {
+            Gauge.builder("db.matview.staleness", state,
+                          s -> s.refreshedAt > 0 ? (System.currentTimeMillis() - s.refreshedAt) / 1000.0 : Double.NaN)
+                .description("Age of the data in the materialized view, from the start of its last successful refresh")
+                .baseUnit("seconds")
+                .tag("view", view)
+                .register(registry);
+            FunctionCounter.builder("db.matview.redirects", router, r -> r.getRedirects(view))
+                .description("Reads redirected from the source view to the materialized view")
+                .tag("view", view)
+                .register(registry);
+        });
+    }
+
+    private void scheduledRefresh(String view) {
+        try {
+            refresh(view);
+        } catch (Exception e) {
+            logger.warn("Scheduled refresh of materialized view {} failed: {}", view, e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the view if needed and refreshes it, waiting for a refresh of
+     * the same view already in progress
+     *
+     * @return how the refresh went
+     */
+    public Map<String, Object> refresh(String view) {
+        if (!properties.isEnabled()) {
+            throw new IllegalStateException("Materialized views are disabled");
+        }
+        MaterializedViewProperties.ViewSpec spec = properties.getViews().get(view);
+        if (spec == null) {
+            throw new IllegalArgumentException("Unknown materialized view: " + view + ", available: " + states.keySet());
+        }
+
+        ViewState state = states.get(view);
+        synchronized (state) {
+            long started = System.nanoTime();
+            boolean success = false;
+            try {
+                if (!state.created) {
+                    create(view, spec);
+                    state.created = true;
+                }
+                long[] asOf = new long[1];
+                boolean concurrent = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+                    boolean autoCommit = connection.getAutoCommit();
+                    connection.setAutoCommit(false);
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("SET LOCAL lock_timeout = " + properties.getLockTimeoutMs());
+                        statement.execute("SET LOCAL statement_timeout = " + properties.getRefreshTimeoutMs());
+                        boolean populated;
+                        try (ResultSet rs = statement.executeQuery(
+                                "SELECT relispopulated FROM pg_class WHERE oid = '" + view + "'::regclass")) {
+                            populated = rs.next() && rs.getBoolean(1);
+                        }
+                        boolean useConcurrent = populated && spec.isConcurrent();
+                        // The refresh sees the data committed when its statement starts
+                        asOf[0] = System.currentTimeMillis();
+                        statement.execute("REFRESH MATERIALIZED VIEW " + (useConcurrent ? "CONCURRENTLY " : "") + view);
+                        connection.commit();
+                        return useConcurrent;
+                    } catch (SQLException e) {
+                        connection.rollback();
+                        throw e;
+                    } finally {
+                        connection.setAutoCommit(autoCommit);
+                    }
+                });
+
+                long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                state.refreshedAt = asOf[0];
+                state.lastDurationMs = durationMs;
+                state.lastError = null;
+                state.refreshes++;
+                router.markRefreshed(view, asOf[0]);
+                success = true;
+                logger.info("Refreshed materialized view {}{} in {}ms", view, concurrent ? " concurrently" : "", durationMs);
+
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("view", view);
+                result.put("concurrent", concurrent);
+                result.put("durationMs", durationMs);
+                result.put("refreshedAt", asOf[0]);
+                return result;
+            } catch (RuntimeException e) {
+                state.failures++;
+                state.lastError = e.getMessage();
+                throw e;
+            } finally {
+                recordRefresh(view, success, System.nanoTime() - started);
+            }
+        }
+    }
+
+    private void create(String view, MaterializedViewProperties.ViewSpec spec) {
+        String query = spec.getQuery() != null ? spec.getQuery() : "SELECT * FROM " + spec.getSource();
+        jdbcTemplate.execute("CREATE MATERIALIZED VIEW IF NOT EXISTS " + view + " AS " + query + " WITH NO DATA");
+        // Reads are redirected to the copy unchanged, so SELECT * must return what the source returns
+        List<String> columns = columns(view);
+        List<String> sourceColumns = columns(spec.getSource());
+        if (!columns.equals(sourceColumns)) {
+            throw new IllegalStateException("Materialized view " + view + " has columns " + columns
+                + " but its source " + spec.getSource() + " has " + sourceColumns
+                + "; fix the query (and drop the existing view) before reads can be redirected to it");
+        }
+        if (!spec.getUniqueKey().isEmpty()) {
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + view + "_key ON " + view
+                + " (" + String.join(", ", spec.getUniqueKey()) + ")");
+        }
+        logger.info("Materialized view {} over {} is in place", view, spec.getSource());
+    }
+
+    private List<String> columns(String relation) {
+        return jdbcTemplate.queryForList(
+            "SELECT attname || ' ' || format_type(atttypid, atttypmod) FROM pg_attribute "
+                + "WHERE attrelid = ?::regclass AND attnum > 0 AND NOT attisdropped ORDER BY attnum",
+            String.class, relation);
+    }
+
+    private void recordRefresh(String view, boolean success, long nanos) {
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            Timer.builder("db.matview.refresh")
+                .description("Materialized view refresh duration")
+                .tag("view", view)
+                .tag("outcome", success ? "success" : "failure")
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> views = new LinkedHashMap<>();
+        long now = System.currentTimeMillis();
+        properties.getViews().forEach((view, spec) -> {
+            ViewState state = states.get(view);
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("source", spec.getSource());
+            status.put("uniqueKey", spec.getUniqueKey());
+            status.put("concurrent", spec.isConcurrent());
+            status.put("refreshIntervalMs", spec.getRefreshInterval().toMillis());
+            status.put("refreshedAt", state.refreshedAt > 0 ? state.refreshedAt : null);
+            status.put("stalenessMs", state.refreshedAt > 0 ? now - state.refreshedAt : null);
+            status.put("routable", router.getRefreshedAt(view) != null);
+            status.put("lastDurationMs", state.lastDurationMs);
+            status.put("refreshes", state.refreshes);
+            status.put("failures", state.failures);
+            status.put("lastError", state.lastError);
+            status.put("redirects", router.getRedirects(view));
+            views.put(view, status);
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", properties.isEnabled());
+        result.put("views", views);
+        return result;
+    }
+
+    private static final class ViewState {
+        volatile boolean created;
+        volatile long refreshedAt;
+        volatile long lastDurationMs;
+        volatile long refreshes;
+        volatile long failures;
+        volatile String lastError;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.service.matview;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Staleness the work on the current thread accepts for reads of views that
+ * have a materialized copy. Without a context, reads always hit the views.
+ */
+public final class StalenessContext {
+
+    private static final ThreadLocal<Long> MAX_STALENESS_MS = new ThreadLocal<>();
+
+    private StalenessContext() {
+    }
+
+    /**
+     * @return accepted staleness in milliseconds, or -1 when none was declared
+     */
+    public static long current() {
+        Long maxStalenessMs = MAX_STALENESS_MS.get();
+        return maxStalenessMs != null ? maxStalenessMs : -1;
+    }
+
+    public static void set(long maxStalenessMs) {
+        MAX_STALENESS_MS.set(maxStalenessMs);
+    }
+
+    public static void clear() {
+        MAX_STALENESS_MS.remove();
+    }
+
+    /**
+     * Runs a task on the current thread accepting the given staleness
+     */
+    public static <T> T callWith(long maxStalenessMs, Callable<T> task) throws Exception {
+        Long previous = MAX_STALENESS_MS.get();
+        MAX_STALENESS_MS.set(maxStalenessMs);
+        try {
+            return task.call();
+        } finally {
+            if (previous != null) {
+                MAX_STALENESS_MS.set(previous);
+            } else {
+                MAX_STALENESS_MS.remove();
+            }
+        }
+    }
+}
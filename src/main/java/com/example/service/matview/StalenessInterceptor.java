@@ -0,0 +1,69 @@
+package com.example.service.matview;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sets the {@link StalenessContext} of each HTTP request from the
+ * {@code X-Accept-Staleness} header (seconds) or the handler's
+ * {@link AcceptStaleness} annotation.
+ */
+@Component
+public class StalenessInterceptor implements AsyncHandlerInterceptor {
+
+    static final String STALENESS_HEADER = "X-Accept-Staleness";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Never inherit a bound left behind by an earlier request on this thread
+        StalenessContext.clear();
+        long maxStalenessMs = -1;
+
+        String header = request.getHeader(STALENESS_HEADER);
+        if (header != null) {
+            try {
+                maxStalenessMs = TimeUnit.SECONDS.toMillis(Long.parseLong(header.trim()));
+            } catch (NumberFormatException e) {
+                // Malformed headers fall back to the handler's declaration
+            }
+        }
+
+        if (maxStalenessMs < 0 && handler instanceof HandlerMethod handlerMethod) {
+            AcceptStaleness accept = AnnotatedElementUtils.findMergedAnnotation(
+                handlerMethod.getMethod(), AcceptStaleness.class);
+            if (accept == null) {
+                accept = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), AcceptStaleness.class);
+            }
+            if (accept != null) {
+                maxStalenessMs = TimeUnit.SECONDS.toMillis(accept.seconds());
+            }
+        }
+
+        if (maxStalenessMs >= 0) {
+            StalenessContext.set(maxStalenessMs);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        StalenessContext.clear();
+    }
+
+    /**
+     * Async handlers finish on other threads; afterCompletion does not run
+     * on this one, so the bound must not outlive the synchronous part
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        StalenessContext.clear();
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.service.matview;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Rewrites the relations a statement reads in its FROM and JOIN clauses.
+ * Only unqualified, unquoted table references are considered; string and
+ * dollar-quoted literals, comments, quoted identifiers, column names,
+ * aliases, function calls and schema-qualified names are left as they are.
+ */
+final class TableReferences {
+
+    /** Words that may follow a table reference without being its alias */
+    private static final Set<String> NOT_ALIAS = Set.of(
+        "where", "join", "inner", "left", "right", "full", "cross", "natural", "on", "using", "group", "order",
+        "limit", "offset", "fetch", "for", "having", "window", "union", "intersect", "except", "returning",
+        "tablesample");
+
+    /** Words that end the FROM list of the current query level */
+    private static final Set<String> END_OF_FROM = Set.of(
+        "where", "group", "order", "limit", "offset", "fetch", "for", "having", "window", "union", "intersect",
+        "except", "returning");
+
+    private TableReferences() {
+    }
+
+    /**
+     * Replaces every table reference for which replacement returns a name. A
+     * reference without an alias keeps its old name as alias, so columns
+     * qualified with it still resolve.
+     */
+    static String rewrite(String sql, UnaryOperator<String> replacement) {
+        List<Token> tokens = tokenize(sql);
+        StringBuilder out = null;
+        int copied = 0;
+
+        Deque<Level> levels = new ArrayDeque<>();
+        levels.push(new Level());
+        boolean expectTable = false;
+        for (int i = 0; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            Level level = levels.peek();
+            String previous = i > 0 ? tokens.get(i - 1).text() : "";
+
+            if (token.is("(")) {
+                expectTable = false;
+                levels.push(new Level());
+                continue;
+            }
+            if (token.is(")")) {
+                if (levels.size() > 1) {
+                    levels.pop();
+                }
+                continue;
+            }
+            if (token.is(",")) {
+                expectTable = level.inFrom;
+                continue;
+            }
+            if (token.kind() != Kind.WORD) {
+                expectTable = false;
+                continue;
+            }
+
+            switch (token.text()) {
+                case "select" -> {
+                    level.select = true;
+                    level.inFrom = false;
+                    expectTable = false;
+                }
+                case "from" -> {
+                    // FROM inside extract(), substring() or IS DISTINCT FROM is not a FROM clause
+                    level.inFrom = level.select && !previous.equals("distinct");
+                    expectTable = level.inFrom;
+                }
+                case "join" -> {
+                    level.inFrom = true;
+                    expectTable = true;
+                }
+                case "only", "lateral" -> {
+                    // Modifiers in front of the reference
+                }
+                default -> {
+                    if (END_OF_FROM.contains(token.text())) {
+                        level.inFrom = false;
+                    }
+                    if (expectTable) {
+                        expectTable = false;
+                        Token next = i + 1 < tokens.size() ? tokens.get(i + 1) : null;
+                        boolean qualified = next != null && next.is(".");
+                        boolean call = next != null && next.is("(");
+                        String target = qualified || call ? null : replacement.apply(token.text());
+                        if (target != null) {
+                            boolean aliased = next != null && next.kind() == Kind.WORD && !NOT_ALIAS.contains(next.text());
+                            if (out == null) {
+                                out = new StringBuilder(sql.length() + 32);
+                            }
+                            out.append(sql, copied, token.start()).append(target);
+                            if (!aliased) {
+                                out.append(" AS ").append(sql, token.start(), token.end());
+                            }
+                            copied = token.end();
+                        }
+                    }
+                }
+            }
+        }
+
+        if (out == null) {
+            return sql;
+        }
+        return out.append(sql, copied, sql.length()).toString();
+    }
+
+    private static List<Token> tokenize(String sql) {
+        List<Token> tokens = new ArrayList<>();
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            int start = i;
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                while (i < length && sql.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int close = sql.indexOf("*/", i + 2);
+                i = close < 0 ? length : close + 2;
+            } else if (c == '\'') {
+                Token last = tokens.isEmpty() ? null : tokens.get(tokens.size() - 1);
+                boolean escapes = last != null && last.end() == i && last.kind() == Kind.WORD && last.text().equals("e");
+                i = skipQuoted(sql, i, '\'', escapes);
+                tokens.add(new Token(Kind.OTHER, "'", start, i));
+            } else if (c == '"') {
+                i = skipQuoted(sql, i, '"', false);
+                tokens.add(new Token(Kind.OTHER, "\"", start, i));
+            } else if (c == '$' && dollarTag(sql, i) != null) {
+                String tag = dollarTag(sql, i);
+                int close = sql.indexOf(tag, i + tag.length());
+                i = close < 0 ? length : close + tag.length();
+                tokens.add(new Token(Kind.OTHER, "$", start, i));
+            } else if (Character.isLetter(c) || c == '_') {
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_'
+                                      || sql.charAt(i) == '$')) {
+                    i++;
+                }
+                tokens.add(new Token(Kind.WORD, sql.substring(start, i).toLowerCase(Locale.ROOT), start, i));
+            } else if (Character.isDigit(c) || c == '$') {
+                i++;
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                tokens.add(new Token(Kind.OTHER, sql.substring(start, i), start, i));
+            } else {
+                i++;
+                tokens.add(new Token(Kind.PUNCT, String.valueOf(c), start, i));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Index after a quoted literal or identifier; a doubled quote is part of
+     * it, as is a backslash-escaped character in E'' strings
+     */
+    private static int skipQuoted(String sql, int open, char quote, boolean backslashEscapes) {
+        int i = open + 1;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (backslashEscapes && c == '\\') {
+                i += 2;
+            } else if (c == quote && i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                i += 2;
+            } else if (c == quote) {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return sql.length();
+    }
+
+    /**
+     * The $tag$ opening a dollar-quoted literal at the given index, or null
+     * for anything else (e.g. a $1 parameter)
+     */
+    private static String dollarTag(String sql, int start) {
+        int i = start + 1;
+        if (i < sql.length() && Character.isDigit(sql.charAt(i))) {
+            return null;
+        }
+        while (i < sql.length() && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_')) {
+            i++;
+        }
+        return i < sql.length() && sql.charAt(i) == '$' ? sql.substring(start, i + 1) : null;
+    }
+
+    private enum Kind {
+        WORD, PUNCT, OTHER
+    }
+
+    private record Token(Kind kind, String text, int start, int end) {
+        boolean is(String punctuation) {
+            return kind == Kind.PUNCT && text.equals(punctuation);
+        }
+    }
+
+    /** One query level, i.e. the statement or a parenthesized part of it */
+    private static final class Level {
+        private boolean select;
+        private boolean inFrom;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.service.metrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * One memory-mapped segment file of fixed-width records.
+ *
+ * <pre>
+ * header (32 bytes): magic, version, fieldCount, capacity, startMillis, count, reserved
+ * record:            timestamp (long), samples (int), avg (float x fieldCount), max (float x fieldCount)
+ * </pre>
+ *
+ * The record is written before the count is bumped, so a segment reopened
+ * after a crash only ever exposes complete records. Dirty pages belong to the
+ * OS page cache and survive a JVM crash without an explicit force.
+ */
+class MappedSegment implements AutoCloseable {
+
+    static final String SUFFIX = ".seg";
+
+    private static final int MAGIC = 0x54534547; // "TSEG"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int COUNT_OFFSET = 24;
+
+    private final Path file;
+    private final int fieldCount;
+    private final int capacity;
+    private final int recordSize;
+    private final long startMillis;
+    private final MappedByteBuffer buffer;
+    private int count;
+
+    private MappedSegment(Path file, MappedByteBuffer buffer, int fieldCount, int capacity,
+                          long startMillis, int count) {
+        this.file = file;
+        this.buffer = buffer;
+        this.fieldCount = fieldCount;
+        this.capacity = capacity;
+        this.recordSize = recordSize(fieldCount);
+        this.startMillis = startMillis;
+        this.count = count;
+    }
+
+    static int recordSize(int fieldCount) {
+        return Long.BYTES + Integer.BYTES + 2 * fieldCount * Float.BYTES;
+    }
+
+    static Path fileFor(Path directory, long startMillis) {
+        return directory.resolve(String.format("%019d%s", startMillis, SUFFIX));
+    }
+
+    static long startOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Opens a segment for appending, creating and sizing the file if needed
+     */
+    static MappedSegment openForWrite(Path file, int fieldCount, int capacity, long startMillis) throws IOException {
+        long size = HEADER_SIZE + (long) capacity * recordSize(fieldCount);
+        boolean exists = Files.exists(file) && Files.size(file) == size;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (exists && buffer.getInt(0) == MAGIC && buffer.getInt(8) == fieldCount) {
+                int count = Math.min(buffer.getInt(COUNT_OFFSET), capacity);
+                return new MappedSegment(file, buffer, fieldCount, capacity, buffer.getLong(16), count);
+            }
+
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, fieldCount);
+            buffer.putInt(12, capacity);
+            buffer.putLong(16, startMillis);
+            buffer.putInt(COUNT_OFFSET, 0);
+            return new MappedSegment(file, buffer, fieldCount, capacity, startMillis, 0);
+        }
+    }
+
+    /**
+     * Maps an existing segment read-only; returns null when the file is not a valid segment
+     */
+    static MappedSegment openForRead(Path file, int fieldCount) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(8) != fieldCount) {
+                return null;
+            }
+            int capacity = buffer.getInt(12);
+            int count = Math.min(buffer.getInt(COUNT_OFFSET), capacity);
+            return new MappedSegment(file, buffer, fieldCount, capacity, buffer.getLong(16), count);
+        }
+    }
+
+    boolean isFull() {
+        return count >= capacity;
+    }
+
+    long lastTimestamp() {
+        return count == 0 ? Long.MIN_VALUE : buffer.getLong(HEADER_SIZE + (count - 1) * recordSize);
+    }
+
+    void append(long timestamp, int samples, float[] avg, float[] max) {
+        int offset = HEADER_SIZE + count * recordSize;
+        buffer.putLong(offset, timestamp);
+        buffer.putInt(offset + Long.BYTES, samples);
+        int fieldOffset = offset + Long.BYTES + Integer.BYTES;
+        for (int i = 0; i < fieldCount; i++) {
+            buffer.putFloat(fieldOffset + i * Float.BYTES, avg[i]);
+            buffer.putFloat(fieldOffset + (fieldCount + i) * Float.BYTES, max[i]);
+        }
+        count++;
+        buffer.putInt(COUNT_OFFSET, count);
+    }
+
+    /**
+     * Adds every record with from <= timestamp <= to, up to limit points in total
+     */
+    void read(long from, long to, List<MetricPoint> into, int limit) {
+        ByteBuffer view = buffer.duplicate();
+        int visible = Math.min(buffer.getInt(COUNT_OFFSET), capacity);
+
+        for (int i = firstIndexAtOrAfter(view, from, visible); i < visible && into.size() < limit; i++) {
+            int offset = HEADER_SIZE + i * recordSize;
+            long timestamp = view.getLong(offset);
+            if (timestamp > to) {
+                return;
+            }
+            int samples = view.getInt(offset + Long.BYTES);
+            float[] avg = new float[fieldCount];
+            float[] max = new float[fieldCount];
+            int fieldOffset = offset + Long.BYTES + Integer.BYTES;
+            for (int f = 0; f < fieldCount; f++) {
+                avg[f] = view.getFloat(fieldOffset + f * Float.BYTES);
+                max[f] = view.getFloat(fieldOffset + (fieldCount + f) * Float.BYTES);
+            }
+            into.add(new MetricPoint(timestamp, samples, avg, max));
+        }
+    }
+
+    // Records are appended in timestamp order, so the start can be found by binary search
+    private int firstIndexAtOrAfter(ByteBuffer view, long from, int visible) {
+        int low = 0;
+        int high = visible;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (view.getLong(HEADER_SIZE + mid * recordSize) < from) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    long getStartMillis() {
+        return startMillis;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * Flushes dirty pages to disk; the mapping itself is released when the buffer is collected
+     */
+    @Override
+    public void close() {
+        buffer.force();
+    }
+}
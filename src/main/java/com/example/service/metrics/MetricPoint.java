@@ -0,0 +1,8 @@
+package com.example.service.metrics;
+
+/**
+ * One aggregated bucket read back from the store: the bucket start, the
+ * number of raw samples it covers and the mean and maximum of every field
+ */
+public record MetricPoint(long timestamp, int samples, float[] avg, float[] max) {
+}
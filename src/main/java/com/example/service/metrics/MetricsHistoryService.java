@@ -0,0 +1,155 @@
+package com.example.service.metrics;
+
+import com.example.service.ConnectionMonitoringService;
+import com.example.service.PoolMetricsSnapshot;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists the connection pool snapshots of {@link ConnectionMonitoringService}
+ * into a local {@link TimeSeriesStore}, so pool history survives restarts and
+ * can be queried without touching the database.
+ */
+@Service
+public class MetricsHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsHistoryService.class);
+
+    static final List<String> POOL_FIELDS = List.of(
+        "totalConnections", "activeConnections", "idleConnections", "threadsAwaitingConnection");
+
+    private final ConnectionMonitoringService monitoringService;
+
+    @Value("${app.metrics.store.enabled:true}")
+    private boolean storeEnabled;
+
+    @Value("${app.metrics.store.path:metrics}")
+    private String storePath;
+
+    @Value("${app.metrics.store.retention-hours.second:24}")
+    private long secondTierRetentionHours;
+
+    @Value("${app.metrics.store.retention-hours.minute:720}")
+    private long minuteTierRetentionHours;
+
+    @Value("${app.metrics.store.retention-hours.hour:8760}")
+    private long hourTierRetentionHours;
+
+    private TimeSeriesStore store;
+    private final float[] values = new float[POOL_FIELDS.size()];
+
+    public MetricsHistoryService(ConnectionMonitoringService monitoringService) {
+        this.monitoringService = monitoringService;
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!storeEnabled) {
+            logger.info("Metrics history store is disabled");
+            return;
+        }
+
+        Map<MetricsTier, Long> retention = new EnumMap<>(MetricsTier.class);
+        retention.put(MetricsTier.SECOND, TimeUnit.HOURS.toMillis(secondTierRetentionHours));
+        retention.put(MetricsTier.MINUTE, TimeUnit.HOURS.toMillis(minuteTierRetentionHours));
+        retention.put(MetricsTier.HOUR, TimeUnit.HOURS.toMillis(hourTierRetentionHours));
+
+        try {
+            store = new TimeSeriesStore(Path.of(storePath), retention);
+            for (String pool : monitoringService.getPoolNames()) {
+                store.series(seriesName(pool), POOL_FIELDS);
+            }
+            logger.info("Metrics history store opened at {}", store.getRoot().toAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Failed to open metrics history store at {}, history disabled", storePath, e);
+            store = null;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    /**
+     * Appends one sample per pool; intermediate tiers are aggregated by the store
+     */
+    @Scheduled(fixedRateString = "${app.metrics.store.sample-interval-ms:1000}")
+    public synchronized void sample() {
+        if (store == null) {
+            return;
+        }
+
+        for (String pool : monitoringService.getPoolNames()) {
+            try {
+                PoolMetricsSnapshot snapshot = monitoringService.getSnapshot(pool);
+                if (!snapshot.mxBeanAvailable()) {
+                    continue;
+                }
+                values[0] = snapshot.totalConnections();
+                values[1] = snapshot.activeConnections();
+                values[2] = snapshot.idleConnections();
+                values[3] = snapshot.threadsAwaitingConnection();
+                store.series(seriesName(pool), POOL_FIELDS).append(snapshot.timestamp(), values);
+            } catch (Exception e) {
+                logger.debug("Failed to record metrics history for pool {}: {}", pool, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Pool history between from and to (epoch millis). Without an explicit
+     * tier the finest one that fits maxPoints is used.
+     */
+    public Map<String, Object> query(String pool, String tierLabel, long from, long to, int maxPoints)
+            throws IOException {
+        if (store == null) {
+            throw new IllegalStateException("Metrics history store is disabled");
+        }
+        if (!monitoringService.getPoolNames().contains(pool)) {
+            throw new IllegalArgumentException("Unknown connection pool: " + pool);
+        }
+        if (to < from) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+
+        MetricsTier tier = tierLabel == null || tierLabel.isBlank()
+            ? MetricsTier.forRange(to - from, maxPoints)
+            : MetricsTier.fromLabel(tierLabel);
+        List<MetricPoint> points = store.series(seriesName(pool), POOL_FIELDS).query(tier, from, to, maxPoints);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pool", pool);
+        result.put("tier", tier.getLabel());
+        result.put("from", from);
+        result.put("to", to);
+        result.put("fields", POOL_FIELDS);
+        result.put("points", points);
+        result.put("count", points.size());
+        result.put("truncated", points.size() >= maxPoints);
+        return result;
+    }
+
+    public boolean isStoreEnabled() {
+        return store != null;
+    }
+
+    private static String seriesName(String pool) {
+        return "pool." + pool;
+    }
+}
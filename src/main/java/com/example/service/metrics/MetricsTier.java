@@ -0,0 +1,60 @@
+package com.example.service.metrics;
+
+/**
+ * Downsampling tiers of the metrics store. Each tier aggregates samples into
+ * buckets of {@link #getStepMillis()} and rotates to a new segment file every
+ * {@link #getSegmentSpanMillis()}.
+ */
+public enum MetricsTier {
+
+    SECOND("1s", 1_000L, 3_600_000L),
+    MINUTE("1m", 60_000L, 86_400_000L),
+    HOUR("1h", 3_600_000L, 30L * 86_400_000L);
+
+    private final String label;
+    private final long stepMillis;
+    private final long segmentSpanMillis;
+
+    MetricsTier(String label, long stepMillis, long segmentSpanMillis) {
+        this.label = label;
+        this.stepMillis = stepMillis;
+        this.segmentSpanMillis = segmentSpanMillis;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getStepMillis() {
+        return stepMillis;
+    }
+
+    public long getSegmentSpanMillis() {
+        return segmentSpanMillis;
+    }
+
+    int getSegmentCapacity() {
+        return (int) (segmentSpanMillis / stepMillis);
+    }
+
+    /**
+     * Finest tier whose point count over the range stays within maxPoints
+     */
+    public static MetricsTier forRange(long rangeMillis, int maxPoints) {
+        for (MetricsTier tier : values()) {
+            if (rangeMillis / tier.stepMillis <= maxPoints) {
+                return tier;
+            }
+        }
+        return HOUR;
+    }
+
+    public static MetricsTier fromLabel(String label) {
+        for (MetricsTier tier : values()) {
+            if (tier.label.equalsIgnoreCase(label) || tier.name().equalsIgnoreCase(label)) {
+                return tier;
+            }
+        }
+        throw new IllegalArgumentException("Unknown metrics tier: " + label + " (expected 1s, 1m or 1h)");
+    }
+}
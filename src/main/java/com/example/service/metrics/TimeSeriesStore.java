@@ -0,0 +1,264 @@
+package com.example.service.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * On-disk store of fixed-width metric samples. Every series is kept in one
+ * directory per {@link MetricsTier}, as memory-mapped segment files that are
+ * rotated on the tier's segment span and deleted past the tier's retention.
+ * Samples are aggregated (mean and max per field) into the bucket of every
+ * tier as they arrive; a bucket is written once the next one starts.
+ *
+ * <pre>
+ * {root}/{series}/{1s|1m|1h}/{segmentStartMillis}.seg
+ * </pre>
+ */
+public class TimeSeriesStore implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeSeriesStore.class);
+
+    private final Path root;
+    private final Map<MetricsTier, Integer> retainedSegments;
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    /**
+     * @param retention how long each tier is kept, in milliseconds
+     */
+    public TimeSeriesStore(Path root, Map<MetricsTier, Long> retention) throws IOException {
+        this.root = root;
+        this.retainedSegments = new EnumMap<>(MetricsTier.class);
+        for (MetricsTier tier : MetricsTier.values()) {
+            long retentionMillis = retention.getOrDefault(tier, tier.getSegmentSpanMillis());
+            int segments = (int) Math.max(1, (retentionMillis + tier.getSegmentSpanMillis() - 1)
+                / tier.getSegmentSpanMillis());
+            // One extra segment so a full retention window is always covered
+            retainedSegments.put(tier, segments + 1);
+        }
+        Files.createDirectories(root);
+    }
+
+    /**
+     * Returns the named series, creating its directories on first use
+     */
+    public Series series(String name, List<String> fields) {
+        if (!name.matches("[A-Za-z0-9._-]+")) {
+            throw new IllegalArgumentException("Invalid series name: " + name);
+        }
+        Series existing = series.computeIfAbsent(name, key -> new Series(key, List.copyOf(fields)));
+        if (!existing.fields.equals(fields)) {
+            throw new IllegalArgumentException("Series " + name + " already registered with fields " + existing.fields);
+        }
+        return existing;
+    }
+
+    public Series getSeries(String name) {
+        return series.get(name);
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    @Override
+    public void close() {
+        series.values().forEach(Series::close);
+    }
+
+    /**
+     * One named series of a fixed set of fields
+     */
+    public final class Series {
+
+        private final String name;
+        private final List<String> fields;
+        private final Map<MetricsTier, TierWriter> writers = new EnumMap<>(MetricsTier.class);
+
+        private Series(String name, List<String> fields) {
+            this.name = name;
+            this.fields = fields;
+            for (MetricsTier tier : MetricsTier.values()) {
+                Path directory = root.resolve(name).resolve(tier.getLabel());
+                try {
+                    Files.createDirectories(directory);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                writers.put(tier, new TierWriter(tier, directory, fields.size()));
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public List<String> getFields() {
+            return fields;
+        }
+
+        /**
+         * Records one sample; values must have one entry per field
+         */
+        public synchronized void append(long timestamp, float[] values) {
+            if (values.length != fields.size()) {
+                throw new IllegalArgumentException("Expected " + fields.size() + " values, got " + values.length);
+            }
+            for (TierWriter writer : writers.values()) {
+                try {
+                    writer.add(timestamp, values);
+                } catch (IOException e) {
+                    logger.warn("Failed to write {} sample of series {}: {}", writer.tier.getLabel(), name,
+                               e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * Points of one tier with from <= timestamp <= to, oldest first, at most limit points
+         */
+        public List<MetricPoint> query(MetricsTier tier, long from, long to, int limit) throws IOException {
+            TierWriter writer = writers.get(tier);
+            List<MetricPoint> points = new ArrayList<>();
+
+            synchronized (this) {
+                List<Path> files = writer.segmentFiles();
+                for (int i = 0; i < files.size() && points.size() < limit; i++) {
+                    long start = MappedSegment.startOf(files.get(i));
+                    long end = i + 1 < files.size() ? MappedSegment.startOf(files.get(i + 1)) : Long.MAX_VALUE;
+                    if (start > to || end <= from) {
+                        continue;
+                    }
+                    if (writer.current != null && writer.current.getStartMillis() == start) {
+                        writer.current.read(from, to, points, limit);
+                    } else {
+                        MappedSegment segment = MappedSegment.openForRead(files.get(i), fields.size());
+                        if (segment != null) {
+                            segment.read(from, to, points, limit);
+                        }
+                    }
+                }
+            }
+            return points;
+        }
+
+        private synchronized void close() {
+            for (TierWriter writer : writers.values()) {
+                try {
+                    writer.flush();
+                } catch (IOException e) {
+                    logger.warn("Failed to flush series {} tier {}: {}", name, writer.tier.getLabel(), e.getMessage());
+                }
+                writer.closeCurrent();
+            }
+        }
+    }
+
+    /**
+     * Aggregates samples into the current bucket of one tier and appends
+     * finished buckets to the active segment
+     */
+    private final class TierWriter {
+
+        private final MetricsTier tier;
+        private final Path directory;
+        private final int fieldCount;
+        private final float[] sum;
+        private final float[] max;
+        private final float[] avg;
+        private long bucketStart = Long.MIN_VALUE;
+        private int samples;
+        private MappedSegment current;
+
+        TierWriter(MetricsTier tier, Path directory, int fieldCount) {
+            this.tier = tier;
+            this.directory = directory;
+            this.fieldCount = fieldCount;
+            this.sum = new float[fieldCount];
+            this.max = new float[fieldCount];
+            this.avg = new float[fieldCount];
+        }
+
+        void add(long timestamp, float[] values) throws IOException {
+            long bucket = timestamp - Math.floorMod(timestamp, tier.getStepMillis());
+            if (bucket != bucketStart) {
+                flush();
+                bucketStart = bucket;
+            }
+            for (int i = 0; i < fieldCount; i++) {
+                sum[i] += values[i];
+                max[i] = samples == 0 ? values[i] : Math.max(max[i], values[i]);
+            }
+            samples++;
+        }
+
+        void flush() throws IOException {
+            if (samples == 0) {
+                return;
+            }
+            for (int i = 0; i < fieldCount; i++) {
+                avg[i] = sum[i] / samples;
+            }
+
+            MappedSegment segment = segmentFor(bucketStart);
+            // Buckets already persisted before a restart are not written twice
+            if (!segment.isFull() && bucketStart > segment.lastTimestamp()) {
+                segment.append(bucketStart, samples, avg, max);
+            }
+
+            Arrays.fill(sum, 0);
+            Arrays.fill(max, 0);
+            samples = 0;
+        }
+
+        private MappedSegment segmentFor(long timestamp) throws IOException {
+            long span = tier.getSegmentSpanMillis();
+            if (current != null && !current.isFull()
+                && timestamp >= current.getStartMillis() && timestamp < current.getStartMillis() + span) {
+                return current;
+            }
+
+            closeCurrent();
+            long start = timestamp - Math.floorMod(timestamp, span);
+            current = MappedSegment.openForWrite(MappedSegment.fileFor(directory, start), fieldCount,
+                                                 tier.getSegmentCapacity(), start);
+            enforceRetention();
+            return current;
+        }
+
+        void closeCurrent() {
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+        }
+
+        List<Path> segmentFiles() throws IOException {
+            try (Stream<Path> files = Files.list(directory)) {
+                return files.filter(file -> file.getFileName().toString().endsWith(MappedSegment.SUFFIX))
+                    .sorted()
+                    .toList();
+            }
+        }
+
+        private void enforceRetention() throws IOException {
+            List<Path> files = segmentFiles();
+            int excess = files.size() - retainedSegments.get(tier);
+            for (int i = 0; i < excess; i++) {
+                Files.deleteIfExists(files.get(i));
+                logger.debug("Deleted expired metrics segment {}", files.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.service.paging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a page: the sort key of that row (in its
+ * PostgreSQL text form, null for a NULL key) and its id as the tie-breaker.
+ * Handed to clients as an opaque URL-safe token that also pins the table,
+ * sort column and direction it was issued for.
+ */
+public record KeysetCursor(String table, String sort, boolean descending, String value, long id) {
+
+    private static final String VERSION = "1";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        String plain = String.join("|", VERSION, table, sort, descending ? "desc" : "asc",
+            value != null ? ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8)) : "",
+            value != null ? "v" : "n", Long.toString(id));
+        return ENCODER.encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String[] parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 7 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid page cursor");
+            }
+            String value = "v".equals(parts[5]) ? new String(DECODER.decode(parts[4]), StandardCharsets.UTF_8) : null;
+            return new KeysetCursor(parts[1], parts[2], "desc".equals(parts[3]), value, Long.parseLong(parts[6]));
+        } catch (IllegalArgumentException e) {
+            // Also covers malformed base64 and ids
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.service.paging;
+
+import com.example.config.DataSourceRegistry;
+import com.example.config.DatabasePool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keyset (seek method) pagination over the tables of the public schema.
+ * Each page continues strictly after the (sort key, id) of the previous
+ * page's last row, so the server walks the sort index from that point
+ * instead of counting past OFFSET rows, and a page costs the same at any
+ * depth. Sorts are only accepted on columns leading a valid, non-partial
+ * btree index.
+ *
+ * NULL sort keys are kept in a segment of their own, where PostgreSQL puts
+ * them by default: after all values ascending, before them descending. A
+ * page that crosses the boundary is filled from two index scans.
+ */
+@Service
+public class KeysetPaginationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeysetPaginationService.class);
+
+    private static final String ID = "id";
+
+    private static final String COLUMNS_SQL =
+        "SELECT a.attname, format_type(a.atttypid, a.atttypmod) AS type, a.attnotnull " +
+        "FROM pg_attribute a " +
+        "JOIN pg_class c ON c.oid = a.attrelid " +
+        "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+        "WHERE n.nspname = 'public' AND c.relname = ? AND c.relkind IN ('r', 'p') " +
+        "  AND a.attnum > 0 AND NOT a.attisdropped " +
+        "ORDER BY a.attnum";
+
+    private static final String SORT_INDEXES_SQL =
+        "SELECT i.relname AS index_name, a1.attname AS first_column, a2.attname AS second_column " +
+        "FROM pg_index x " +
+        "JOIN pg_class i ON i.oid = x.indexrelid " +
+        "JOIN pg_class t ON t.oid = x.indrelid " +
+        "JOIN pg_namespace n ON n.oid = t.relnamespace " +
+        "JOIN pg_am am ON am.oid = i.relam " +
+        "JOIN pg_attribute a1 ON a1.attrelid = t.oid AND a1.attnum = x.indkey[0] " +
+        "LEFT JOIN pg_attribute a2 ON a2.attrelid = t.oid AND a2.attnum = x.indkey[1] " +
+        "WHERE n.nspname = 'public' AND t.relname = ? AND am.amname = 'btree' " +
+        "  AND x.indpred IS NULL AND x.indisvalid " +
+        "ORDER BY x.indisprimary DESC, i.relname";
+
+    private final DataSourceRegistry dataSourceRegistry;
+    private final Map<String, TableMetadata> metadata = new ConcurrentHashMap<>();
+
+    @Value("${app.paging.pool:" + DatabasePool.REPORTING + "}")
+    private String pool;
+
+    @Value("${app.paging.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${app.paging.max-limit:1000}")
+    private int maxLimit;
+
+    @Value("${app.paging.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${app.paging.metadata-ttl-ms:300000}")
+    private long metadataTtlMs;
+
+    public KeysetPaginationService(DataSourceRegistry dataSourceRegistry) {
+        this.dataSourceRegistry = dataSourceRegistry;
+    }
+
+    /**
+     * Validates a page request against the catalog. A cursor carries its own
+     * sort; a sort or direction given with it has to match.
+     */
+    public KeysetQuery plan(String table, String sort, String direction, String cursor,
+                            Integer limit, List<String> columns) {
+        TableMetadata meta = metadata(table);
+
+        KeysetCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            after = KeysetCursor.decode(cursor);
+            if (!after.table().equals(table)
+                    || (sort != null && !sort.equals(after.sort()))
+                    || (direction != null && descending(direction) != after.descending())) {
+                throw new IllegalArgumentException("Cursor was issued for a different table or sort");
+            }
+            sort = after.sort();
+        }
+
+        String sortColumn = sort != null ? sort : ID;
+        String index = meta.sortIndexes().get(sortColumn);
+        if (!meta.columns().containsKey(sortColumn)) {
+            throw new IllegalArgumentException("Unknown sort column " + sortColumn + " on " + table);
+        }
+        if (index == null) {
+            throw new IllegalArgumentException("Sorting " + table + " by " + sortColumn
+                + " is not backed by an index; sortable columns: " + meta.sortIndexes().keySet());
+        }
+
+        List<String> selected = new ArrayList<>();
+        if (columns == null || columns.isEmpty()) {
+            selected.addAll(meta.columns().keySet());
+        } else {
+            for (String column : columns) {
+                if (!meta.columns().containsKey(column)) {
+                    throw new IllegalArgumentException("Unknown column " + column + " on " + table);
+                }
+                selected.add(column);
+            }
+        }
+
+        int pageSize = limit != null ? limit : defaultLimit;
+        if (pageSize < 1 || pageSize > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+
+        boolean descending = after != null ? after.descending() : direction != null && descending(direction);
+        return new KeysetQuery(table, sortColumn, descending, after, pageSize, List.copyOf(selected), index);
+    }
+
+    /**
+     * Reads one page, handing each row to the consumer as it arrives from
+     * the server cursor
+     *
+     * @return rows read, whether more follow and the cursor of the next page
+     */
+    public Map<String, Object> stream(KeysetQuery query, RowConsumer consumer) {
+        TableMetadata meta = metadata(query.table());
+        TableMetadata.Column sortColumn = meta.columns().get(query.sort());
+        boolean nullable = !sortColumn.notNull() && !query.sort().equals(ID);
+        long started = System.nanoTime();
+
+        // Segments in scan order; a cursor skips the segments before its own
+        List<Boolean> nullSegments = new ArrayList<>();
+        if (!nullable) {
+            nullSegments.add(false);
+        } else {
+            nullSegments.add(query.descending());
+            nullSegments.add(!query.descending());
+        }
+        KeysetCursor after = query.after();
+        if (nullable && after != null) {
+            while (nullSegments.get(0) != (after.value() == null)) {
+                nullSegments.remove(0);
+            }
+        }
+
+        PageState page = new PageState();
+        for (boolean nullSegment : nullSegments) {
+            if (page.read > query.limit()) {
+                break;
+            }
+            boolean continuing = after != null && (after.value() == null) == nullSegment;
+            readSegment(query, sortColumn, nullable, nullSegment, continuing ? after : null, page, consumer);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        boolean hasMore = page.read > query.limit();
+        result.put("rows", page.emitted);
+        result.put("hasMore", hasMore);
+        result.put("nextCursor", hasMore
+            ? new KeysetCursor(query.table(), query.sort(), query.descending(), page.lastValue, page.lastId).encode()
+            : null);
+        result.put("elapsedMs", (System.nanoTime() - started) / 1_000_000);
+        return result;
+    }
+
+    private void readSegment(KeysetQuery query, TableMetadata.Column sortColumn, boolean nullable,
+                             boolean nullSegment, KeysetCursor after, PageState page, RowConsumer consumer) {
+        String sort = quote(query.sort());
+        String id = quote(ID);
+        String direction = query.descending() ? "DESC" : "ASC";
+        String comparison = query.descending() ? "<" : ">";
+
+        Set<String> read = new LinkedHashSet<>(query.columns());
+        read.add(query.sort());
+        read.add(ID);
+        List<String> quoted = read.stream().map(KeysetPaginationService::quote).toList();
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(String.join(", ", quoted))
+            .append(" FROM ").append(quote(query.table()));
+        List<Object> params = new ArrayList<>();
+        if (nullSegment) {
+            sql.append(" WHERE ").append(sort).append(" IS NULL");
+            if (after != null) {
+                sql.append(" AND ").append(id).append(' ').append(comparison).append(" ?");
+                params.add(after.id());
+            }
+            sql.append(" ORDER BY ").append(id).append(' ').append(direction);
+        } else {
+            if (query.sort().equals(ID)) {
+                if (after != null) {
+                    sql.append(" WHERE ").append(id).append(' ').append(comparison).append(" ?");
+                    params.add(after.id());
+                }
+                sql.append(" ORDER BY ").append(id).append(' ').append(direction);
+            } else {
+                if (after != null) {
+                    // Row comparison, so the whole predicate is one index condition
+                    sql.append(" WHERE (").append(sort).append(", ").append(id).append(") ").append(comparison)
+                        .append(" (CAST(? AS ").append(sortColumn.type()).append("), ?)");
+                    params.add(after.value());
+                    params.add(after.id());
+                } else if (nullable) {
+                    sql.append(" WHERE ").append(sort).append(" IS NOT NULL");
+                }
+                sql.append(" ORDER BY ").append(sort).append(' ').append(direction)
+                    .append(", ").append(id).append(' ').append(direction);
+            }
+        }
+        sql.append(" LIMIT ?");
+        params.add(query.limit() + 1 - page.read);
+
+        logger.debug("Keyset page SQL: {}", sql);
+        JdbcTemplate jdbcTemplate = dataSourceRegistry.getJdbcTemplate(pool);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString());
+            // An explicit fetch size lets the result-set guard read the page through a cursor
+            ps.setFetchSize(Math.min(fetchSize, query.limit() + 1));
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, rs -> {
+            page.read++;
+            if (page.read > query.limit()) {
+                return;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String column : query.columns()) {
+                row.put(column, rs.getObject(column));
+            }
+            page.lastValue = nullSegment ? null : rs.getString(query.sort());
+            page.lastId = rs.getLong(ID);
+            page.emitted++;
+            try {
+                consumer.accept(row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private TableMetadata metadata(String table) {
+        TableMetadata cached = metadata.get(table);
+        long now = System.currentTimeMillis();
+        if (cached != null && now - cached.loadedAt() <= metadataTtlMs) {
+            return cached;
+        }
+
+        JdbcTemplate jdbcTemplate = dataSourceRegistry.getJdbcTemplate(pool);
+        Map<String, TableMetadata.Column> columns = new LinkedHashMap<>();
+        jdbcTemplate.query(COLUMNS_SQL, rs -> {
+            columns.put(rs.getString("attname"),
+                        new TableMetadata.Column(rs.getString("type"), rs.getBoolean("attnotnull")));
+        }, table);
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("Unknown table: " + table);
+        }
+        if (!columns.containsKey(ID)) {
+            throw new IllegalArgumentException("Table " + table + " has no id column to page by");
+        }
+
+        // Leading column -> index, preferring (column, id) so ties need no extra sort step
+        Map<String, String> sortIndexes = new LinkedHashMap<>();
+        Set<String> exact = new LinkedHashSet<>();
+        jdbcTemplate.query(SORT_INDEXES_SQL, rs -> {
+            String column = rs.getString("first_column");
+            String index = rs.getString("index_name");
+            boolean withId = column.equals(ID) || ID.equals(rs.getString("second_column"));
+            if (withId) {
+                if (exact.add(column)) {
+                    sortIndexes.put(column, index);
+                }
+            } else {
+                sortIndexes.putIfAbsent(column, index);
+            }
+        }, table);
+
+        TableMetadata loaded = new TableMetadata(columns, sortIndexes, now);
+        metadata.put(table, loaded);
+        return loaded;
+    }
+
+    private static boolean descending(String direction) {
+        return switch (direction.toLowerCase()) {
+            case "asc" -> false;
+            case "desc" -> true;
+            default -> throw new IllegalArgumentException("direction must be asc or desc");
+        };
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Receives the rows of a page in order
+     */
+    @FunctionalInterface
+    public interface RowConsumer {
+        void accept(Map<String, Object> row) throws IOException;
+    }
+
+    private static final class PageState {
+        private int read;
+        private int emitted;
+        private String lastValue;
+        private long lastId;
+    }
+
+    private record TableMetadata(Map<String, Column> columns, Map<String, String> sortIndexes, long loadedAt) {
+
+        private record Column(String type, boolean notNull) {
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.service.paging;
+
+import java.util.List;
+
+/**
+ * A validated page request, produced by {@link KeysetPaginationService#plan}
+ *
+ * @param table      table in the public schema
+ * @param sort       sort column, backed by the btree index named in index
+ * @param descending sort direction; id breaks ties in the same direction
+ * @param after      position to continue from, null for the first page
+ * @param limit      rows per page
+ * @param columns    columns returned per row
+ * @param index      index the sort is served from
+ */
+public record KeysetQuery(String table, String sort, boolean descending, KeysetCursor after,
+                          int limit, List<String> columns, String index) {
+}
@@ -0,0 +1,573 @@
+package com.example.service.partition;
+
+import com.example.config.DatabasePool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains declarative range partitioning for the tables configured under
+ * app.partitioning.tables. On every run it pre-creates the upcoming
+ * partitions and detaches (optionally drops) partitions past retention.
+ *
+ * New partitions are created as standalone tables with the parent's indexes
+ * and constraints, then attached; ATTACH only takes SHARE UPDATE EXCLUSIVE on
+ * the parent, so reads and writes keep flowing. Expired partitions are
+ * detached CONCURRENTLY where the server supports it. All DDL that needs a
+ * parent lock runs with app.partitioning.lock-timeout-ms and is simply retried
+ * on the next run when it cannot get the lock.
+ */
+@Service
+public class PartitionManagementService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionManagementService.class);
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final Pattern INDEX_DEFINITION = Pattern.compile("^CREATE (UNIQUE )?INDEX (\\S+) ON (?:ONLY )?(\\S+) (USING .*)$");
+    private static final Pattern LOWER_BOUND = Pattern.compile("FROM \\('(\\d{4}-\\d{2}-\\d{2})[^']*'\\)");
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('(\\d{4}-\\d{2}-\\d{2})[^']*'\\)");
+    private static final DateTimeFormatter MONTHLY_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final DateTimeFormatter DAILY_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM_dd");
+    private static final int MAX_IDENTIFIER_LENGTH = 63;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitionProperties properties;
+
+    public PartitionManagementService(@DatabasePool(DatabasePool.ADMIN) JdbcTemplate jdbcTemplate,
+                                      PartitionProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${app.partitioning.check-interval-ms:3600000}",
+               initialDelayString = "${app.partitioning.initial-delay-ms:60000}")
+    public void maintainAll() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        for (String table : properties.getTables().keySet()) {
+            try {
+                maintain(table);
+            } catch (Exception e) {
+                logger.error("Partition maintenance failed for table {}", table, e);
+            }
+        }
+    }
+
+    /**
+     * Runs one maintenance pass over a configured table
+     *
+     * @return what was created, converted, detached and dropped
+     */
+    public synchronized Map<String, Object> maintain(String table) {
+        PartitionProperties.TableSpec spec = spec(table);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        List<String> created = new ArrayList<>();
+        List<String> detached = new ArrayList<>();
+        List<String> dropped = new ArrayList<>();
+        summary.put("table", table);
+
+        String kind = relationKind(table);
+        if (kind == null) {
+            logger.debug("Partitioned table {} does not exist, skipping", table);
+            summary.put("result", "missing");
+            return summary;
+        }
+
+        LocalDate today = jdbcTemplate.queryForObject("SELECT CURRENT_DATE", LocalDate.class);
+        if ("r".equals(kind)) {
+            if (!spec.isConvertExisting()) {
+                logger.warn("Table {} is not partitioned and convert-existing is off, skipping", table);
+                summary.put("result", "not-partitioned");
+                return summary;
+            }
+            convertToPartitioned(table, spec, today);
+            summary.put("converted", true);
+        }
+
+        ensurePartitions(table, spec, today, created);
+        if (spec.getRetention() > 0) {
+            applyRetention(table, spec, today, detached, dropped);
+        }
+
+        summary.put("result", "ok");
+        summary.put("created", created);
+        summary.put("detached", detached);
+        summary.put("dropped", dropped);
+        return summary;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Partition layout and sizes of every configured table
+     */
+    public Map<String, Object> getLayout() {
+        Map<String, Object> layout = new LinkedHashMap<>();
+        for (Map.Entry<String, PartitionProperties.TableSpec> entry : properties.getTables().entrySet()) {
+            String table = entry.getKey();
+            PartitionProperties.TableSpec spec = entry.getValue();
+
+            Map<String, Object> view = new LinkedHashMap<>();
+            view.put("column", spec.getColumn());
+            view.put("interval", spec.getInterval());
+            view.put("premake", spec.getPremake());
+            view.put("retention", spec.getRetention());
+            view.put("retentionAction", spec.getRetentionAction());
+
+            String kind = IDENTIFIER.matcher(table).matches() ? relationKind(table) : null;
+            view.put("kind", kind == null ? "missing" : "p".equals(kind) ? "partitioned" : "regular");
+            if ("p".equals(kind)) {
+                List<Partition> partitions = listPartitions(table);
+                view.put("partitions", partitions);
+                view.put("partitionCount", partitions.size());
+                view.put("totalBytes", partitions.stream().mapToLong(Partition::totalBytes).sum());
+            }
+            layout.put(table, view);
+        }
+        return layout;
+    }
+
+    private void ensurePartitions(String table, PartitionProperties.TableSpec spec, LocalDate today,
+                                  List<String> created) {
+        List<Partition> existing = listPartitions(table);
+        LocalDate start = intervalStart(today, spec.getInterval());
+
+        for (int i = 0; i <= spec.getPremake(); i++) {
+            LocalDate from = plus(start, spec.getInterval(), i);
+            LocalDate to = plus(from, spec.getInterval(), 1);
+            boolean covered = existing.stream().anyMatch(p -> p.overlaps(from, to));
+            if (!covered) {
+                String name = partitionName(table, from, spec.getInterval());
+                createPartition(table, name, from, to);
+                created.add(name);
+            }
+        }
+    }
+
+    /**
+     * Builds the partition as a plain table with the parent's indexes and
+     * constraints first, so ATTACH has nothing left to build under lock.
+     * LIKE copies no foreign keys; ATTACH clones the parent's onto the still
+     * empty partition.
+     */
+    private void createPartition(String table, String name, LocalDate from, LocalDate to) {
+        logger.info("Creating partition {} of {} for [{}, {})", name, table, from, to);
+
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " (LIKE " + table
+            + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING GENERATED INCLUDING STORAGE INCLUDING COMMENTS)");
+        try {
+            for (ParentIndex index : parentIndexes(table)) {
+                if (index.constraintDefinition() != null) {
+                    jdbcTemplate.execute("ALTER TABLE " + name + " ADD CONSTRAINT "
+                        + identifier(name + "_" + index.constraintName()) + " " + index.constraintDefinition());
+                } else {
+                    jdbcTemplate.execute(rewriteIndex(index.definition(), identifier(name + "_" + index.name()), name));
+                }
+            }
+            executeWithLockTimeout(List.of("ALTER TABLE " + table + " ATTACH PARTITION " + name
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')"), false);
+        } catch (RuntimeException e) {
+            // Leave nothing half-built behind; the next run starts over
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+            throw e;
+        }
+    }
+
+    private void applyRetention(String table, PartitionProperties.TableSpec spec, LocalDate today,
+                                List<String> detached, List<String> dropped) {
+        LocalDate cutoff = plus(intervalStart(today, spec.getInterval()), spec.getInterval(), -spec.getRetention());
+
+        for (Partition partition : listPartitions(table)) {
+            if (partition.to() == null || partition.to().isAfter(cutoff)) {
+                continue;
+            }
+
+            logger.info("Partition {} of {} ends {} and is past retention (cutoff {}), detaching",
+                       partition.name(), table, partition.to(), cutoff);
+            detachPartition(table, partition.name());
+            detached.add(partition.name());
+
+            if (spec.getRetentionAction() == PartitionProperties.RetentionAction.DROP) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition.name());
+                dropped.add(partition.name());
+                logger.info("Dropped expired partition {}", partition.name());
+            }
+        }
+    }
+
+    private void detachPartition(String table, String partition) {
+        String detach = "ALTER TABLE " + table + " DETACH PARTITION " + partition;
+        if (serverVersion() < 140000 || hasDefaultPartition(table)) {
+            executeWithLockTimeout(List.of(detach), true);
+            return;
+        }
+
+        if (isDetachPending(partition)) {
+            // A previous concurrent detach was interrupted; finish it
+            jdbcTemplate.execute(detach + " FINALIZE");
+            return;
+        }
+        jdbcTemplate.execute(detach + " CONCURRENTLY");
+    }
+
+    /**
+     * Converts a regular table into a range-partitioned one without copying
+     * rows: the existing table becomes the partition for everything before the
+     * next interval, and new intervals get fresh partitions. Foreign keys of
+     * the table are recreated on the partitioned parent, so every partition
+     * carries them; tables referenced by foreign keys are refused.
+     *
+     * PostgreSQL requires unique keys on a partitioned table to contain the
+     * partition column, so a key such as PRIMARY KEY (id) becomes
+     * (id, order_date) and id alone is no longer unique. That only happens
+     * when the table sets widen-unique-keys; otherwise conversion is refused.
+     */
+    private void convertToPartitioned(String table, PartitionProperties.TableSpec spec, LocalDate today) {
+        String column = spec.getColumn();
+        String legacy = identifier(table + "_legacy");
+        LocalDate cutover = plus(intervalStart(today, spec.getInterval()), spec.getInterval(), 1);
+
+        if (serverVersion() < 130000) {
+            throw new IllegalStateException("Online conversion to a partitioned table requires PostgreSQL 13 or later");
+        }
+        if (relationKind(legacy) != null) {
+            throw new IllegalStateException("Cannot convert " + table + ": " + legacy + " already exists");
+        }
+        // Rows elsewhere point at a key that would stop being unique, and the
+        // constraint would have to move to the new parent
+        List<String> referencing = jdbcTemplate.queryForList(
+            "SELECT conrelid::regclass::text || '.' || conname FROM pg_constraint " +
+            "WHERE contype = 'f' AND confrelid = ?::regclass ORDER BY 1", String.class, table);
+        if (!referencing.isEmpty()) {
+            throw new IllegalStateException("Cannot convert " + table + ": it is referenced by foreign keys " + referencing);
+        }
+        List<ForeignKey> foreignKeys = foreignKeys(table);
+        List<String> notValidated = foreignKeys.stream().filter(key -> !key.validated()).map(ForeignKey::name).toList();
+        if (!notValidated.isEmpty()) {
+            // A partitioned table cannot take NOT VALID foreign keys
+            throw new IllegalStateException("Cannot convert " + table + ": validate foreign keys " + notValidated + " first");
+        }
+        List<String> materializedViews = dependentViews(table, "m").stream().map(View::name).toList();
+        if (!materializedViews.isEmpty()) {
+            throw new IllegalStateException("Cannot convert " + table + ": materialized views depend on it " + materializedViews);
+        }
+        List<UniqueIndex> uniqueIndexes = uniqueIndexes(table);
+        for (UniqueIndex index : uniqueIndexes) {
+            if (!index.simple()) {
+                throw new IllegalStateException("Cannot convert " + table + ": unique index " + index.name()
+                    + " uses expressions or a predicate");
+            }
+        }
+        List<String> widened = uniqueIndexes.stream()
+            .filter(index -> !List.of(index.columns().split(",")).contains(column))
+            .map(index -> index.name() + " (" + index.columns() + ")")
+            .toList();
+        if (!widened.isEmpty() && !spec.isWidenUniqueKeys()) {
+            throw new IllegalStateException("Cannot convert " + table + ": unique keys " + widened
+                + " would only be unique together with " + column + " after partitioning; set app.partitioning.tables."
+                + table + ".widen-unique-keys=true to accept that");
+        }
+
+        logger.info("Converting {} to a partitioned table on {}, rows before {} stay in {}",
+                   table, column, cutover, legacy);
+        if (!widened.isEmpty()) {
+            logger.warn("Unique keys {} of {} are widened with {} and no longer unique on their own",
+                       widened, table, column);
+        }
+
+        // 1. Unique keys widened with the partition column, built without blocking writes
+        List<String> parentKeys = new ArrayList<>();
+        List<String> legacyKeyConstraints = new ArrayList<>();
+        for (UniqueIndex index : uniqueIndexes) {
+            List<String> columns = new ArrayList<>(List.of(index.columns().split(",")));
+            if (!columns.contains(column)) {
+                columns.add(column);
+            }
+            String keyColumns = String.join(", ", columns);
+            String keyIndex = identifier(table + "_" + String.join("_", columns) + "_part_key");
+
+            jdbcTemplate.execute("CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS " + keyIndex
+                + " ON " + table + " (" + keyColumns + ")");
+            legacyKeyConstraints.add("ALTER TABLE " + table + " ADD CONSTRAINT " + keyIndex + " UNIQUE USING INDEX " + keyIndex);
+            parentKeys.add("ALTER TABLE " + table + " ADD CONSTRAINT "
+                + identifier(table + "_" + String.join("_", columns) + (index.primary() ? "_p_pkey" : "_p_key"))
+                + (index.primary() ? " PRIMARY KEY (" : " UNIQUE (") + keyColumns + ")");
+        }
+
+        // 2. Bound check validated up front so NOT NULL and ATTACH need no table scan under lock
+        String boundCheck = identifier(table + "_partition_bound");
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + boundCheck + " CHECK (" + column
+            + " IS NOT NULL AND " + column + " < '" + cutover + "') NOT VALID");
+        jdbcTemplate.execute("ALTER TABLE " + table + " VALIDATE CONSTRAINT " + boundCheck);
+
+        // Definitions captured while they still name the original table
+        List<String> indexes = new ArrayList<>();
+        for (ParentIndex index : parentIndexes(table)) {
+            if (!index.unique()) {
+                indexes.add(rewriteIndex(index.definition(), identifier(index.name() + "_p"), table));
+            }
+        }
+        List<Map<String, Object>> checks = jdbcTemplate.queryForList(
+            "SELECT conname, pg_get_constraintdef(oid) AS definition FROM pg_constraint " +
+            "WHERE conrelid = ?::regclass AND contype = 'c' AND conname <> ?", table, boundCheck);
+        List<Map<String, Object>> triggers = jdbcTemplate.queryForList(
+            "SELECT tgname, pg_get_triggerdef(oid) AS definition FROM pg_trigger " +
+            "WHERE tgrelid = ?::regclass AND NOT tgisinternal", table);
+        List<View> views = dependentViews(table, "v");
+
+        // 3. Swap in one short transaction
+        List<String> swap = new ArrayList<>();
+        swap.add("ALTER TABLE " + table + " ALTER COLUMN " + column + " SET NOT NULL");
+        swap.addAll(legacyKeyConstraints);
+        swap.add("ALTER TABLE " + table + " RENAME TO " + legacy);
+        swap.add("CREATE TABLE " + table + " (LIKE " + legacy
+            + " INCLUDING DEFAULTS INCLUDING GENERATED INCLUDING STORAGE INCLUDING COMMENTS) PARTITION BY RANGE (" + column + ")");
+        for (Map<String, Object> check : checks) {
+            swap.add("ALTER TABLE " + table + " ADD CONSTRAINT " + check.get("conname") + " " + check.get("definition"));
+        }
+        swap.addAll(parentKeys);
+        // Added while the parent has no partitions; ATTACH then adopts the legacy
+        // table's identical, validated foreign keys instead of checking them again
+        for (ForeignKey foreignKey : foreignKeys) {
+            swap.add("ALTER TABLE " + table + " ADD CONSTRAINT " + foreignKey.name() + " " + foreignKey.definition());
+        }
+        swap.add("ALTER TABLE " + table + " ATTACH PARTITION " + legacy + " FOR VALUES FROM (MINVALUE) TO ('" + cutover + "')");
+        // Creating an index on the parent adopts the matching index on the legacy partition
+        swap.addAll(indexes);
+        for (Map<String, Object> trigger : triggers) {
+            swap.add("DROP TRIGGER " + trigger.get("tgname") + " ON " + legacy);
+            swap.add((String) trigger.get("definition"));
+        }
+        // Views are bound to the renamed table; re-parsing their text binds them to the new parent
+        for (View view : views) {
+            swap.add("CREATE OR REPLACE VIEW " + view.name() + " AS " + view.definition());
+        }
+        executeWithLockTimeout(swap, true);
+
+        jdbcTemplate.execute("ALTER TABLE " + legacy + " DROP CONSTRAINT IF EXISTS " + boundCheck);
+        logger.info("Table {} converted to a partitioned table", table);
+    }
+
+    private List<Partition> listPartitions(String table) {
+        List<Partition> partitions = jdbcTemplate.query(
+            "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) AS bound, " +
+            "GREATEST(c.reltuples, 0)::bigint AS estimated_rows, pg_total_relation_size(c.oid) AS total_bytes, " +
+            "pg_size_pretty(pg_total_relation_size(c.oid)) AS total_size " +
+            "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = ?::regclass",
+            (rs, rowNum) -> {
+                String bound = rs.getString("bound");
+                return new Partition(rs.getString("relname"), bound,
+                                     parseBound(LOWER_BOUND, bound), parseBound(UPPER_BOUND, bound),
+                                     "DEFAULT".equals(bound),
+                                     rs.getLong("estimated_rows"), rs.getLong("total_bytes"), rs.getString("total_size"));
+            },
+            table);
+        partitions.sort(Comparator.comparing(Partition::from, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return partitions;
+    }
+
+    private List<ParentIndex> parentIndexes(String table) {
+        return jdbcTemplate.query(
+            "SELECT i.relname AS index_name, pg_get_indexdef(x.indexrelid) AS definition, x.indisunique, " +
+            "con.conname, pg_get_constraintdef(con.oid) AS constraint_definition " +
+            "FROM pg_index x JOIN pg_class i ON i.oid = x.indexrelid " +
+            "LEFT JOIN pg_constraint con ON con.conindid = x.indexrelid AND con.conrelid = x.indrelid " +
+            "AND con.contype IN ('p', 'u', 'x') " +
+            "WHERE x.indrelid = ?::regclass ORDER BY i.relname",
+            (rs, rowNum) -> new ParentIndex(rs.getString("index_name"), rs.getString("definition"),
+                                            rs.getBoolean("indisunique"), rs.getString("conname"),
+                                            rs.getString("constraint_definition")),
+            table);
+    }
+
+    private List<UniqueIndex> uniqueIndexes(String table) {
+        return jdbcTemplate.query(
+            "SELECT i.relname AS index_name, x.indisprimary, " +
+            "x.indexprs IS NULL AND x.indpred IS NULL AS simple, " +
+            "array_to_string(ARRAY(SELECT a.attname FROM unnest(x.indkey) WITH ORDINALITY k(attnum, ord) " +
+            "JOIN pg_attribute a ON a.attrelid = x.indrelid AND a.attnum = k.attnum ORDER BY k.ord), ',') AS columns " +
+            "FROM pg_index x JOIN pg_class i ON i.oid = x.indexrelid " +
+            "WHERE x.indrelid = ?::regclass AND x.indisunique ORDER BY i.relname",
+            (rs, rowNum) -> new UniqueIndex(rs.getString("index_name"), rs.getBoolean("indisprimary"),
+                                            rs.getBoolean("simple"), rs.getString("columns")),
+            table);
+    }
+
+    private List<ForeignKey> foreignKeys(String table) {
+        return jdbcTemplate.query(
+            "SELECT conname, pg_get_constraintdef(oid) AS definition, convalidated FROM pg_constraint " +
+            "WHERE conrelid = ?::regclass AND contype = 'f' ORDER BY conname",
+            (rs, rowNum) -> new ForeignKey(rs.getString("conname"), rs.getString("definition"),
+                                           rs.getBoolean("convalidated")),
+            table);
+    }
+
+    private List<View> dependentViews(String table, String relkind) {
+        return jdbcTemplate.query(
+            "SELECT DISTINCT v.relname, pg_get_viewdef(v.oid) AS definition " +
+            "FROM pg_depend d JOIN pg_rewrite r ON r.oid = d.objid JOIN pg_class v ON v.oid = r.ev_class " +
+            "WHERE d.refobjid = ?::regclass AND d.classid = 'pg_rewrite'::regclass AND v.relkind = ? " +
+            "AND v.oid <> d.refobjid",
+            (rs, rowNum) -> new View(rs.getString("relname"), rs.getString("definition")),
+            table, relkind);
+    }
+
+    private String relationKind(String name) {
+        List<String> kinds = jdbcTemplate.queryForList(
+            "SELECT c.relkind::text FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE n.nspname = current_schema() AND c.relname = ?", String.class, name);
+        return kinds.isEmpty() ? null : kinds.get(0);
+    }
+
+    private boolean hasDefaultPartition(String table) {
+        return listPartitions(table).stream().anyMatch(Partition::isDefault);
+    }
+
+    private boolean isDetachPending(String partition) {
+        Boolean pending = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(bool_or(inhdetachpending), false) FROM pg_inherits WHERE inhrelid = ?::regclass",
+            Boolean.class, partition);
+        return Boolean.TRUE.equals(pending);
+    }
+
+    private int serverVersion() {
+        Integer version = jdbcTemplate.queryForObject("SELECT current_setting('server_version_num')::int", Integer.class);
+        return version != null ? version : 0;
+    }
+
+    /**
+     * Runs DDL with a lock timeout so a busy table makes the statement fail
+     * fast instead of queueing every other session behind it
+     */
+    private void executeWithLockTimeout(List<String> statements, boolean transactional) {
+        long lockTimeoutMs = properties.getLockTimeoutMs();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            try (Statement statement = connection.createStatement()) {
+                if (transactional) {
+                    connection.setAutoCommit(false);
+                    statement.execute("SET LOCAL lock_timeout = " + lockTimeoutMs);
+                } else {
+                    statement.execute("SET lock_timeout = " + lockTimeoutMs);
+                }
+                try {
+                    for (String sql : statements) {
+                        logger.debug("Partition DDL: {}", sql);
+                        statement.execute(sql);
+                    }
+                    if (transactional) {
+                        connection.commit();
+                    }
+                } catch (SQLException e) {
+                    if (transactional) {
+                        connection.rollback();
+                    }
+                    throw e;
+                } finally {
+                    if (!transactional) {
+                        statement.execute("RESET lock_timeout");
+                    }
+                }
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    private PartitionProperties.TableSpec spec(String table) {
+        PartitionProperties.TableSpec spec = properties.getTables().get(table);
+        if (spec == null) {
+            throw new IllegalArgumentException("Table is not configured for partitioning: " + table);
+        }
+        if (!IDENTIFIER.matcher(table).matches() || spec.getColumn() == null
+            || !IDENTIFIER.matcher(spec.getColumn()).matches()) {
+            throw new IllegalArgumentException("Invalid partitioning configuration for table " + table);
+        }
+        return spec;
+    }
+
+    private static String rewriteIndex(String definition, String indexName, String target) {
+        Matcher matcher = INDEX_DEFINITION.matcher(definition);
+        if (!matcher.matches()) {
+            throw new IllegalStateException("Unrecognized index definition: " + definition);
+        }
+        String schema = matcher.group(3).contains(".") ? matcher.group(3).substring(0, matcher.group(3).indexOf('.') + 1) : "";
+        return "CREATE " + (matcher.group(1) != null ? "UNIQUE " : "") + "INDEX " + indexName
+            + " ON " + schema + target + " " + matcher.group(4);
+    }
+
+    private static LocalDate parseBound(Pattern pattern, String bound) {
+        if (bound == null) {
+            return null;
+        }
+        Matcher matcher = pattern.matcher(bound);
+        return matcher.find() ? LocalDate.parse(matcher.group(1)) : null;
+    }
+
+    static LocalDate intervalStart(LocalDate date, PartitionProperties.Interval interval) {
+        return interval == PartitionProperties.Interval.MONTHLY ? date.withDayOfMonth(1) : date;
+    }
+
+    static LocalDate plus(LocalDate date, PartitionProperties.Interval interval, int amount) {
+        return interval == PartitionProperties.Interval.MONTHLY ? date.plusMonths(amount) : date.plusDays(amount);
+    }
+
+    static String partitionName(String table, LocalDate from, PartitionProperties.Interval interval) {
+        DateTimeFormatter suffix = interval == PartitionProperties.Interval.MONTHLY ? MONTHLY_SUFFIX : DAILY_SUFFIX;
+        return identifier(table + "_p" + from.format(suffix));
+    }
+
+    private static String identifier(String name) {
+        return name.length() > MAX_IDENTIFIER_LENGTH ? name.substring(0, MAX_IDENTIFIER_LENGTH) : name;
+    }
+
+    /**
+     * One partition; a null bound is MINVALUE / MAXVALUE
+     */
+    public record Partition(String name, String bound, LocalDate from, LocalDate to, boolean isDefault,
+                            long estimatedRows, long totalBytes, String totalSize) {
+
+        boolean overlaps(LocalDate rangeFrom, LocalDate rangeTo) {
+            if (isDefault) {
+                return false;
+            }
+            boolean startsBeforeEnd = from == null || from.isBefore(rangeTo);
+            boolean endsAfterStart = to == null || to.isAfter(rangeFrom);
+            return startsBeforeEnd && endsAfterStart;
+        }
+    }
+
+    private record ParentIndex(String name, String definition, boolean unique,
+                               String constraintName, String constraintDefinition) {
+    }
+
+    private record UniqueIndex(String name, boolean primary, boolean simple, String columns) {
+    }
+
+    private record ForeignKey(String name, String definition, boolean validated) {
+    }
+
+    private record View(String name, String definition) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.service.partition;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Declarative range partitioning, bound from app.partitioning.*
+ *
+ * <pre>
+ * app.partitioning.tables.orders.column=order_date
+ * app.partitioning.tables.orders.interval=monthly
+ * app.partitioning.tables.orders.premake=3
+ * app.partitioning.tables.orders.retention=24
+ * app.partitioning.tables.orders.retention-action=detach
+ * </pre>
+ */
+@Component
+@ConfigurationProperties(prefix = "app.partitioning")
+public class PartitionProperties {
+
+    private boolean enabled = false;
+    private long lockTimeoutMs = 5000;
+    private Map<String, TableSpec> tables = new LinkedHashMap<>();
+
+    // Getters and setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public long getLockTimeoutMs() { return lockTimeoutMs; }
+    public void setLockTimeoutMs(long lockTimeoutMs) { this.lockTimeoutMs = lockTimeoutMs; }
+
+    public Map<String, TableSpec> getTables() { return tables; }
+    public void setTables(Map<String, TableSpec> tables) { this.tables = tables; }
+
+    public enum Interval {
+        DAILY, MONTHLY
+    }
+
+    public enum RetentionAction {
+        /** Detach expired partitions and keep them as standalone tables */
+        DETACH,
+        /** Detach and drop expired partitions */
+        DROP
+    }
+
+    /**
+     * Partitioning of one table; retention is counted in intervals, 0 keeps everything.
+     * convert-existing turns a regular table into a partitioned one; widen-unique-keys
+     * lets that conversion add the partition column to unique keys lacking it.
+     */
+    public static class TableSpec {
+        private String column;
+        private Interval interval = Interval.MONTHLY;
+        private int premake = 3;
+        private int retention = 0;
+        private RetentionAction retentionAction = RetentionAction.DETACH;
+        private boolean convertExisting = false;
+        private boolean widenUniqueKeys = false;
+
+        // Getters and setters
+        public String getColumn() { return column; }
+        public void setColumn(String column) { this.column = column; }
+
+        public Interval getInterval() { return interval; }
+        public void setInterval(Interval interval) { this.interval = interval; }
+
+        public int getPremake() { return premake; }
+        public void setPremake(int premake) { this.premake = premake; }
+
+        public int getRetention() { return retention; }
+        public void setRetention(int retention) { this.retention = retention; }
+
+        public RetentionAction getRetentionAction() { return retentionAction; }
+        public void setRetentionAction(RetentionAction retentionAction) { this.retentionAction = retentionAction; }
+
+        public boolean isConvertExisting() { return convertExisting; }
+        public void setConvertExisting(boolean convertExisting) { this.convertExisting = convertExisting; }
+
+        public boolean isWidenUniqueKeys() { return widenUniqueKeys; }
+        public void setWidenUniqueKeys(boolean widenUniqueKeys) { this.widenUniqueKeys = widenUniqueKeys; }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.service.pipeline;
+
+/**
+ * Result slot of one statement added to a {@link QueryPipeline}; readable
+ * once the pipeline has been executed.
+ */
+public final class PipelinedResult<T> {
+
+    private final String sql;
+    private T value;
+    private boolean completed;
+
+    PipelinedResult(String sql) {
+        this.sql = sql;
+    }
+
+    void complete(T result) {
+        this.value = result;
+        this.completed = true;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public T get() {
+        if (!completed) {
+            throw new IllegalStateException("Pipeline has not been executed yet: " + sql);
+        }
+        return value;
+    }
+}
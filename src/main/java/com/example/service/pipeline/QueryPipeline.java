@@ -0,0 +1,148 @@
+package com.example.service.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects independent read queries and sends them to the server in one
+ * round trip instead of one per query.
+ *
+ * <p>The statements are joined into a single multi-statement
+ * PreparedStatement. pgjdbc splits it again and sends every statement as its
+ * own Parse/Bind/Execute sequence followed by a single Sync, so each keeps
+ * its bind parameters and its own result set while the client waits for the
+ * server only once. Because the statements share one Sync they run in one
+ * implicit transaction: a failing statement aborts the rest and the whole
+ * pipeline throws. Only use it for queries that do not depend on each other.
+ *
+ * <pre>
+ * QueryPipeline pipeline = new QueryPipeline(jdbcTemplate);
+ * PipelinedResult&lt;Integer&gt; tables = pipeline.queryForObject("SELECT COUNT(*) FROM ...", Integer.class);
+ * PipelinedResult&lt;List&lt;String&gt;&gt; names = pipeline.query("SELECT name FROM ... WHERE x = ?", rowMapper, x);
+ * pipeline.execute();
+ * tables.get();
+ * </pre>
+ */
+public class QueryPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryPipeline.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<Entry<?>> entries = new ArrayList<>();
+    private boolean executed;
+
+    public QueryPipeline(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds a query returning all mapped rows
+     */
+    public <T> PipelinedResult<List<T>> query(String sql, RowMapper<T> rowMapper, Object... args) {
+        return add(sql, args, rs -> new RowMapperResultSetExtractor<>(rowMapper).extractData(rs));
+    }
+
+    /**
+     * Adds a query returning exactly one row with a single column
+     */
+    public <T> PipelinedResult<T> queryForObject(String sql, Class<T> requiredType, Object... args) {
+        RowMapper<T> rowMapper = new SingleColumnRowMapper<>(requiredType);
+        return add(sql, args, rs -> {
+            List<T> rows = new RowMapperResultSetExtractor<>(rowMapper, 1).extractData(rs);
+            if (rows.size() != 1) {
+                throw new IncorrectResultSizeDataAccessException(1, rows.size());
+            }
+            return rows.get(0);
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Sends all queued statements on one connection and fills their results
+     */
+    public void execute() {
+        if (executed) {
+            throw new IllegalStateException("Pipeline has already been executed");
+        }
+        executed = true;
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sql = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+        for (Entry<?> entry : entries) {
+            if (sql.length() > 0) {
+                sql.append(";\n");
+            }
+            sql.append(entry.sql());
+            args.addAll(Arrays.asList(entry.args()));
+        }
+
+        long started = System.nanoTime();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql.toString())) {
+                new ArgumentPreparedStatementSetter(args.toArray()).setValues(ps);
+                boolean hasResultSet = ps.execute();
+                for (Entry<?> entry : entries) {
+                    if (!hasResultSet) {
+                        throw new SQLException("Pipelined statement did not return a result set: " + entry.sql());
+                    }
+                    try (ResultSet rs = ps.getResultSet()) {
+                        entry.extract(rs);
+                    }
+                    hasResultSet = ps.getMoreResults();
+                }
+            }
+            return null;
+        });
+
+        logger.debug("Executed {} pipelined statements in {}ms", entries.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private <T> PipelinedResult<T> add(String sql, Object[] args, Extractor<T> extractor) {
+        if (executed) {
+            throw new IllegalStateException("Pipeline has already been executed");
+        }
+        String statement = sql.strip();
+        while (statement.endsWith(";")) {
+            statement = statement.substring(0, statement.length() - 1).stripTrailing();
+        }
+        if (statement.indexOf(';') >= 0) {
+            throw new IllegalArgumentException("Pipelined statements must be single statements: " + sql);
+        }
+        PipelinedResult<T> result = new PipelinedResult<>(statement);
+        entries.add(new Entry<>(statement, args != null ? args : new Object[0], extractor, result));
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface Extractor<T> {
+        T extract(ResultSet rs) throws SQLException;
+    }
+
+    private record Entry<T>(String sql, Object[] args, Extractor<T> extractor, PipelinedResult<T> result) {
+
+        void extract(ResultSet rs) throws SQLException {
+            result.complete(extractor.extract(rs));
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package com.example.service.prewarm;
+
+import com.example.config.DatabasePool;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Warms the Postgres buffer cache with the relations the application
+ * actually uses, so the first minutes after a restart or failover are not
+ * spent reading hot tables and indexes from disk one miss at a time.
+ *
+ * Hotness comes from sampling pg_statio_user_tables and
+ * pg_statio_user_indexes: the blocks each relation touched since the last
+ * sample are added to a decaying score, and the top relations are persisted
+ * to app.prewarm.file so they survive restarts of either side.
+ *
+ * A warm-up loads the hottest relations with pg_prewarm, in block-range
+ * chunks spread over app.prewarm.parallelism connections and paced to
+ * app.prewarm.max-bytes-per-second, until app.prewarm.max-shared-buffers-fraction
+ * of shared_buffers is used. It runs during startup, before the application
+ * reports ready, and again whenever the backend behind the pool changes
+ * (a different server address or postmaster start time); readiness is
+ * withdrawn while that re-warm runs.
+ */
+@Service
+public class BufferPrewarmService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BufferPrewarmService.class);
+
+    private static final String SAMPLE_SQL =
+        "SELECT relid::regclass::text AS relation, '" + HotRelation.TABLE + "' AS kind, " +
+        "       coalesce(heap_blks_read, 0) + coalesce(heap_blks_hit, 0) AS blocks " +
+        "FROM pg_statio_user_tables " +
+        "UNION ALL " +
+        "SELECT indexrelid::regclass::text, '" + HotRelation.INDEX + "', " +
+        "       coalesce(idx_blks_read, 0) + coalesce(idx_blks_hit, 0) " +
+        "FROM pg_statio_user_indexes";
+
+    private static final String BACKEND_SQL =
+        "SELECT coalesce(host(inet_server_addr()), 'local') || ':' || coalesce(inet_server_port(), 0)::text " +
+        "       || '@' || pg_postmaster_start_time()::text";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.prewarm.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.prewarm.file:prewarm/hot-relations.json}")
+    private String file;
+
+    @Value("${app.prewarm.sample-interval-ms:60000}")
+    private long sampleIntervalMs;
+
+    @Value("${app.prewarm.backend-check-interval-ms:15000}")
+    private long backendCheckIntervalMs;
+
+    @Value("${app.prewarm.max-relations:50}")
+    private int maxRelations;
+
+    @Value("${app.prewarm.decay:0.8}")
+    private double decay;
+
+    @Value("${app.prewarm.max-shared-buffers-fraction:0.5}")
+    private double maxSharedBuffersFraction;
+
+    @Value("${app.prewarm.parallelism:2}")
+    private int parallelism;
+
+    @Value("${app.prewarm.chunk-blocks:1024}")
+    private long chunkBlocks;
+
+    @Value("${app.prewarm.max-bytes-per-second:104857600}")
+    private long maxBytesPerSecond;
+
+    @Value("${app.prewarm.readiness-timeout-ms:120000}")
+    private long readinessTimeoutMs;
+
+    // Both guarded by counters
+    private final Map<String, HotRelation> scores = new HashMap<>();
+    private final Map<String, Long> counters = new HashMap<>();
+
+    private volatile List<HotRelation> hotRelations = List.of();
+    private volatile String backend;
+    private volatile String state = "idle";
+    private volatile long lastSampleAt;
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    private final Object pacing = new Object();
+    private long nextSlotNanos;
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService coordinator;
+
+    public BufferPrewarmService(@DatabasePool(DatabasePool.ADMIN) JdbcTemplate jdbcTemplate,
+                                ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT);
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.info("Buffer cache pre-warming is disabled");
+            return;
+        }
+        load();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "prewarm-scheduler"));
+        coordinator = Executors.newSingleThreadExecutor(r -> daemon(r, "prewarm"));
+        scheduler.scheduleWithFixedDelay(this::scheduledSample, sampleIntervalMs, sampleIntervalMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::checkBackend, backendCheckIntervalMs, backendCheckIntervalMs,
+                                         TimeUnit.MILLISECONDS);
+
+        logger.info("Buffer cache pre-warming enabled with {} persisted hot relations", hotRelations.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            coordinator.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Warms the cache from the application runner. Spring only reports the
+     * application ready once the runners return, so blocking here gates
+     * readiness; after app.prewarm.readiness-timeout-ms the warm-up carries
+     * on in the background and startup continues.
+     */
+    public void warmUpAtStartup() {
+        if (!enabled) {
+            return;
+        }
+        awaitWarmUp("startup");
+    }
+
+    /**
+     * Runs a warm-up now without touching readiness
+     */
+    public Map<String, Object> warmUp() {
+        if (!enabled) {
+            throw new IllegalStateException("Buffer cache pre-warming is disabled");
+        }
+        return warmUp("manual");
+    }
+
+    private void awaitWarmUp(String reason) {
+        Future<Map<String, Object>> run = coordinator.submit(() -> warmUp(reason));
+        try {
+            run.get(readinessTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Buffer cache warm-up ({}) still running after {}ms, reporting ready anyway",
+                        reason, readinessTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.warn("Buffer cache warm-up ({}) failed: {}", reason, e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Re-warms when the pool is now talking to a different server, with
+     * readiness withdrawn until the warm-up finishes or times out
+     */
+    private void checkBackend() {
+        String current;
+        try {
+            current = jdbcTemplate.queryForObject(BACKEND_SQL, String.class);
+        } catch (Exception e) {
+            logger.debug("Backend check for pre-warming failed: {}", e.getMessage());
+            return;
+        }
+
+        String previous = backend;
+        backend = current;
+        if (previous == null || previous.equals(current)) {
+            return;
+        }
+
+        logger.warn("Backend server changed from {} to {}, re-warming the buffer cache", previous, current);
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        try {
+            awaitWarmUp("backend change");
+        } finally {
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        }
+    }
+
+    private synchronized Map<String, Object> warmUp(String reason) {
+        long started = System.nanoTime();
+        state = "warming";
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("reason", reason);
+        try {
+            backend = jdbcTemplate.queryForObject(BACKEND_SQL, String.class);
+            run.put("backend", backend);
+
+            if (hotRelations.isEmpty()) {
+                // Nothing persisted yet: the server's cumulative counters are the best guess
+                sample();
+            }
+            List<HotRelation> hot = hotRelations;
+            if (hot.isEmpty()) {
+                run.put("skipped", "No hot relations recorded yet");
+                state = "idle";
+                return finish(run, started);
+            }
+
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_prewarm");
+            int blockSize = jdbcTemplate.queryForObject("SELECT current_setting('block_size')::int", Integer.class);
+            // shared_buffers is reported in blocks
+            long sharedBuffers = jdbcTemplate.queryForObject(
+                "SELECT setting::bigint FROM pg_settings WHERE name = 'shared_buffers'", Long.class);
+            long budget = (long) (sharedBuffers * maxSharedBuffersFraction);
+            run.put("budgetBlocks", budget);
+
+            Queue<Chunk> chunks = new ConcurrentLinkedQueue<>();
+            List<String> planned = new ArrayList<>();
+            for (HotRelation relation : hot) {
+                if (budget <= 0) {
+                    break;
+                }
+                Long blocks = jdbcTemplate.queryForObject(
+                    "SELECT pg_relation_size(to_regclass(?)) / current_setting('block_size')::bigint",
+                    Long.class, relation.relation());
+                if (blocks == null || blocks == 0) {
+                    continue;
+                }
+                long take = Math.min(blocks, budget);
+                for (long first = 0; first < take; first += chunkBlocks) {
+                    chunks.add(new Chunk(relation.relation(), first, Math.min(first + chunkBlocks, take) - 1));
+                }
+                budget -= take;
+                planned.add(relation.relation());
+            }
+            run.put("relations", planned);
+            run.put("chunks", chunks.size());
+
+            AtomicLong loaded = new AtomicLong();
+            AtomicInteger failures = new AtomicInteger();
+            Callable<Void> worker = () -> {
+                Chunk chunk;
+                while ((chunk = chunks.poll()) != null) {
+                    pace((chunk.last() - chunk.first() + 1) * blockSize);
+                    try {
+                        Long blocks = jdbcTemplate.queryForObject("SELECT pg_prewarm(to_regclass(?), 'buffer', 'main', ?, ?)",
+                                                                  Long.class, chunk.relation(), chunk.first(), chunk.last());
+                        loaded.addAndGet(blocks != null ? blocks : 0);
+                    } catch (DataAccessException e) {
+                        // Usually a relation dropped or truncated since it was sized
+                        failures.incrementAndGet();
+                        logger.debug("Pre-warming {} blocks {}-{} failed: {}", chunk.relation(), chunk.first(),
+                                     chunk.last(), e.getMessage());
+                    }
+                }
+                return null;
+            };
+
+            int workers = Math.max(1, parallelism);
+            AtomicInteger threadCount = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(workers,
+                r -> daemon(r, "prewarm-worker-" + threadCount.incrementAndGet()));
+            try {
+                List<Callable<Void>> tasks = new ArrayList<>();
+                for (int i = 0; i < workers; i++) {
+                    tasks.add(worker);
+                }
+                executor.invokeAll(tasks);
+            } finally {
+                executor.shutdownNow();
+            }
+
+            run.put("blocksLoaded", loaded.get());
+            run.put("bytesLoaded", loaded.get() * blockSize);
+            run.put("failedChunks", failures.get());
+            state = "warm";
+            finish(run, started);
+            logger.info("Buffer cache warm-up ({}) loaded {} MB from {} relations in {}ms", reason,
+                        loaded.get() * blockSize / (1024 * 1024), planned.size(), run.get("elapsedMs"));
+            return run;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            state = "failed";
+            run.put("error", "Interrupted");
+            return finish(run, started);
+        } catch (RuntimeException e) {
+            state = "failed";
+            run.put("error", e.getMessage());
+            finish(run, started);
+            throw e;
+        }
+    }
+
+    private Map<String, Object> finish(Map<String, Object> run, long started) {
+        run.put("elapsedMs", (System.nanoTime() - started) / 1_000_000);
+        run.put("completedAt", System.currentTimeMillis());
+        lastRun = run;
+        return run;
+    }
+
+    /**
+     * Spaces chunk reads so that, across all workers, no more than
+     * app.prewarm.max-bytes-per-second are requested from the server
+     */
+    private void pace(long bytes) throws InterruptedException {
+        if (maxBytesPerSecond <= 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (pacing) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextSlotNanos);
+            nextSlotNanos = slot + bytes * 1_000_000_000L / maxBytesPerSecond;
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private void scheduledSample() {
+        try {
+            sample();
+        } catch (Exception e) {
+            logger.debug("Hot relation sampling failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Adds the blocks each relation touched since the previous sample to its
+     * decayed score and persists the new top list
+     */
+    public void sample() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(SAMPLE_SQL);
+        List<HotRelation> top;
+        synchronized (counters) {
+            // Scores loaded from the file already cover the history; the first sample is only a baseline
+            boolean baseline = counters.isEmpty() && !scores.isEmpty();
+            scores.replaceAll((relation, hot) -> new HotRelation(relation, hot.kind(), hot.score() * decay));
+
+            Set<String> seen = new HashSet<>();
+            for (Map<String, Object> row : rows) {
+                String relation = (String) row.get("relation");
+                long blocks = ((Number) row.get("blocks")).longValue();
+                seen.add(relation);
+
+                Long previous = counters.put(relation, blocks);
+                long delta = previous == null ? (baseline ? 0 : blocks) : blocks >= previous ? blocks - previous : blocks;
+                if (delta > 0) {
+                    HotRelation hot = scores.get(relation);
+                    scores.put(relation, new HotRelation(relation, (String) row.get("kind"),
+                                                         (hot != null ? hot.score() : 0) + delta));
+                }
+            }
+            scores.keySet().retainAll(seen);
+            counters.keySet().retainAll(seen);
+
+            top = scores.values().stream()
+                .filter(hot -> hot.score() >= 1)
+                .sorted(Comparator.comparingDouble(HotRelation::score).reversed())
+                .limit(maxRelations)
+                .toList();
+        }
+        hotRelations = top;
+        lastSampleAt = System.currentTimeMillis();
+        save(top);
+    }
+
+    private void load() {
+        Path path = Paths.get(file);
+        if (!Files.exists(path)) {
+            return;
+        }
+        try {
+            List<HotRelation> loaded = objectMapper.readValue(path.toFile(), new TypeReference<List<HotRelation>>() {});
+            synchronized (counters) {
+                loaded.forEach(hot -> scores.put(hot.relation(), hot));
+            }
+            hotRelations = List.copyOf(loaded);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable hot relation list {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void save(List<HotRelation> top) {
+        Path path = Paths.get(file).toAbsolutePath();
+        try {
+            Files.createDirectories(path.getParent());
+            Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+            objectMapper.writeValue(temporary.toFile(), top);
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to persist hot relation list to {}: {}", path, e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("state", state);
+        status.put("backend", backend);
+        status.put("file", file);
+        status.put("lastSampleAt", lastSampleAt);
+        status.put("parallelism", parallelism);
+        status.put("maxBytesPerSecond", maxBytesPerSecond);
+        status.put("maxSharedBuffersFraction", maxSharedBuffersFraction);
+        status.put("hotRelations", hotRelations);
+        status.put("lastRun", lastRun);
+        return status;
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private record Chunk(String relation, long first, long last) {
+    }
+}
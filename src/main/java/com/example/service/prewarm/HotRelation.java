@@ -0,0 +1,14 @@
+package com.example.service.prewarm;
+
+/**
+ * A table or index in the persisted hot list
+ *
+ * @param relation relation name as regclass text, schema-qualified when outside the search path
+ * @param kind     table or index
+ * @param score    decayed count of blocks accessed across samples
+ */
+public record HotRelation(String relation, String kind, double score) {
+
+    public static final String TABLE = "table";
+    public static final String INDEX = "index";
+}
@@ -0,0 +1,153 @@
+package com.example.service.reactive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the same slow query through the blocking OLTP JDBC pool (one thread
+ * per in-flight request) and the reactive pool (no thread per request) and
+ * reports throughput, CPU time per request and thread usage of each. Both
+ * paths are limited by their pool size on the database side, so compare
+ * them with equal app.database.pool and app.r2dbc.pool sizes.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.r2dbc", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveBenchmarkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveBenchmarkService.class);
+
+    private static final Duration RUN_TIMEOUT = Duration.ofMinutes(5);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReactiveQueryService reactiveQueryService;
+
+    public ReactiveBenchmarkService(JdbcTemplate jdbcTemplate, ReactiveQueryService reactiveQueryService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reactiveQueryService = reactiveQueryService;
+    }
+
+    /**
+     * @param requests    queries per mode
+     * @param concurrency in-flight queries per mode (blocking threads / flatMap concurrency)
+     * @param sleepMs     server-side latency of each query, simulating a slow statement
+     */
+    public synchronized Map<String, Object> run(int requests, int concurrency, long sleepMs) {
+        double sleepSeconds = sleepMs / 1000.0;
+        logger.info("Running blocking vs reactive benchmark: {} requests, concurrency {}, {}ms per query",
+                   requests, concurrency, sleepMs);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", requests);
+        result.put("concurrency", concurrency);
+        result.put("sleepMs", sleepMs);
+        result.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        result.put("blocking", measure(errors -> runBlocking(requests, concurrency, sleepSeconds, errors), requests));
+        result.put("reactive", measure(errors -> runReactive(requests, concurrency, sleepSeconds, errors), requests));
+        return result;
+    }
+
+    private void runBlocking(int requests, int concurrency, double sleepSeconds, LongAdder errors) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, "benchmark-blocking-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                futures.add(executor.submit(() ->
+                    jdbcTemplate.queryForObject("SELECT 1 FROM pg_sleep(?)", Integer.class, sleepSeconds)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    errors.increment();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void runReactive(int requests, int concurrency, double sleepSeconds, LongAdder errors) {
+        Flux.range(0, requests)
+            .flatMap(i -> reactiveQueryService.queryForObject("SELECT 1 FROM pg_sleep($1)", Integer.class, sleepSeconds)
+                .onErrorResume(e -> {
+                    errors.increment();
+                    return Mono.empty();
+                }), concurrency)
+            .then()
+            .block(RUN_TIMEOUT);
+    }
+
+    private Map<String, Object> measure(Workload workload, int requests) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int threadsBefore = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+        long cpuBefore = processCpuNanos();
+        long started = System.nanoTime();
+
+        LongAdder errors = new LongAdder();
+        workload.run(errors);
+
+        long wallNanos = System.nanoTime() - started;
+        long cpuNanos = processCpuNanos() - cpuBefore;
+        double wallSeconds = wallNanos / 1e9;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("wallMs", wallNanos / 1_000_000);
+        stats.put("errors", errors.sum());
+        stats.put("throughputPerSecond", round(requests / wallSeconds));
+        if (cpuNanos > 0) {
+            double cpuSeconds = cpuNanos / 1e9;
+            stats.put("cpuMs", cpuNanos / 1_000_000);
+            stats.put("coresUsed", round(cpuSeconds / wallSeconds));
+            // Requests completed per second of one fully used core
+            stats.put("throughputPerCore", round(requests / cpuSeconds));
+        }
+        stats.put("peakThreads", threads.getPeakThreadCount());
+        stats.put("threadsAdded", Math.max(0, threads.getPeakThreadCount() - threadsBefore));
+        return stats;
+    }
+
+    private static long processCpuNanos() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean sunOs) {
+            return sunOs.getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    @FunctionalInterface
+    private interface Workload {
+        void run(LongAdder errors);
+    }
+}
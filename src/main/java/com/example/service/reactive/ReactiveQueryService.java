@@ -0,0 +1,49 @@
+package com.example.service.reactive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Non-blocking queries on the R2DBC pool. Statements use native $1, $2, ...
+ * placeholders. Rows are pulled from the server in fetch-size chunks as the
+ * subscriber requests them, so a slow consumer holds a connection but no
+ * thread and never buffers the whole result.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.r2dbc", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveQueryService {
+
+    private final DatabaseClient databaseClient;
+
+    @Value("${app.r2dbc.fetch-size:256}")
+    private int fetchSize;
+
+    public ReactiveQueryService(DatabaseClient reactiveDatabaseClient) {
+        this.databaseClient = reactiveDatabaseClient;
+    }
+
+    public Flux<Map<String, Object>> query(String sql, Object... args) {
+        return bind(sql, args).fetch().all().limitRate(fetchSize);
+    }
+
+    /**
+     * Single value of the first column of a one-row result
+     */
+    public <T> Mono<T> queryForObject(String sql, Class<T> requiredType, Object... args) {
+        return bind(sql, args).map(row -> row.get(0, requiredType)).one();
+    }
+
+    private DatabaseClient.GenericExecuteSpec bind(String sql, Object... args) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        for (int i = 0; i < args.length; i++) {
+            spec = args[i] != null ? spec.bind(i, args[i]) : spec.bindNull(i, Object.class);
+        }
+        return spec;
+    }
+}
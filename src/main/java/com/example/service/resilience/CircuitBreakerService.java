@@ -0,0 +1,128 @@
+package com.example.service.resilience;
+
+import com.example.config.DataSourceDecorator;
+import com.example.service.admission.ConnectionAdmissionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps every named pool in a {@link DatabaseCircuitBreaker} so that during a
+ * database outage requests fail immediately instead of each blocking a request
+ * thread for the full connection timeout. Applied outside the admission layer
+ * so an open circuit never queues.
+ */
+@Service
+@Order(CircuitBreakerService.ORDER)
+public class CircuitBreakerService implements DataSourceDecorator, MeterBinder {
+
+    public static final int ORDER = ConnectionAdmissionService.ORDER + 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreakerService.class);
+
+    private final Map<String, DatabaseCircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    @Value("${app.circuit-breaker.enabled:true}")
+    private boolean circuitBreakerEnabled;
+
+    @Value("${app.circuit-breaker.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${app.circuit-breaker.open-duration-ms:10000}")
+    private long openDurationMs;
+
+    @Value("${app.circuit-breaker.validation-timeout-seconds:2}")
+    private int validationTimeoutSeconds;
+
+    private volatile MeterRegistry meterRegistry;
+
+    @Override
+    public DataSource decorate(String poolName, DataSource dataSource) {
+        if (!circuitBreakerEnabled) {
+            return dataSource;
+        }
+
+        DatabaseCircuitBreaker breaker = new DatabaseCircuitBreaker(
+            poolName, failureThreshold, openDurationMs, this::onTransition);
+        breakers.put(poolName, breaker);
+        if (meterRegistry != null) {
+            registerStateGauge(meterRegistry, poolName, breaker);
+        }
+
+        logger.info("Circuit breaker enabled for pool {} (threshold: {}, open duration: {}ms)",
+                   poolName, failureThreshold, openDurationMs);
+        return new CircuitBreakingDataSource(dataSource, breaker, validationTimeoutSeconds);
+    }
+
+    @Override
+    public void release(String poolName) {
+        breakers.remove(poolName);
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            registry.getMeters().stream()
+                .filter(meter -> meter.getId().getName().startsWith("db.circuit.")
+                    && poolName.equals(meter.getId().getTag("pool")))
+                .forEach(registry::remove);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        breakers.forEach((pool, breaker) -> registerStateGauge(registry, pool, breaker));
+    }
+
+    private void registerStateGauge(MeterRegistry registry, String poolName, DatabaseCircuitBreaker breaker) {
+        // Looked up by name so the gauge follows a breaker replaced when the pool is re-registered
+        Gauge.builder("db.circuit.state", breakers, b -> b.getOrDefault(poolName, breaker).getState().ordinal())
+            .description("Circuit breaker state (0=closed, 1=open, 2=half-open)")
+            .tag("pool", poolName)
+            .register(registry);
+    }
+
+    private void onTransition(String poolName, DatabaseCircuitBreaker.State state) {
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            Counter.builder("db.circuit.transitions")
+                .description("Circuit breaker state transitions")
+                .tag("pool", poolName)
+                .tag("state", state.name())
+                .register(registry)
+                .increment();
+        }
+    }
+
+    public boolean isCircuitBreakerEnabled() {
+        return circuitBreakerEnabled;
+    }
+
+    public DatabaseCircuitBreaker.State getState(String poolName) {
+        DatabaseCircuitBreaker breaker = breakers.get(poolName);
+        return breaker != null ? breaker.getState() : DatabaseCircuitBreaker.State.CLOSED;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        breakers.forEach((pool, breaker) -> status.put(pool, breaker.getStatus()));
+        return status;
+    }
+
+    public void reset(String poolName) {
+        DatabaseCircuitBreaker breaker = breakers.get(poolName);
+        if (breaker == null) {
+            throw new IllegalArgumentException("No circuit breaker for pool: " + poolName);
+        }
+        breaker.reset();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.service.resilience;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DataSource guarded by a {@link DatabaseCircuitBreaker}. A half-open trial
+ * connection is validated before it is handed to the caller.
+ */
+class CircuitBreakingDataSource extends DelegatingDataSource {
+
+    private final DatabaseCircuitBreaker circuitBreaker;
+    private final int validationTimeoutSeconds;
+
+    CircuitBreakingDataSource(DataSource targetDataSource, DatabaseCircuitBreaker circuitBreaker,
+                              int validationTimeoutSeconds) {
+        super(targetDataSource);
+        this.circuitBreaker = circuitBreaker;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        boolean trial = circuitBreaker.acquirePermission();
+
+        Connection connection;
+        try {
+            connection = obtainTargetDataSource().getConnection();
+        } catch (SQLException e) {
+            circuitBreaker.onFailure(e);
+            throw e;
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure(new SQLException(e.getMessage(), "08001", e));
+            throw e;
+        }
+
+        if (trial) {
+            boolean valid;
+            try {
+                valid = connection.isValid(validationTimeoutSeconds);
+            } catch (SQLException | RuntimeException e) {
+                throw failTrial(connection, new SQLException("Trial connection validation failed: " + e.getMessage(), "08006", e));
+            }
+            if (!valid) {
+                throw failTrial(connection, new SQLException("Trial connection failed validation", "08006"));
+            }
+        }
+
+        circuitBreaker.onSuccess();
+        return connection;
+    }
+
+    /**
+     * Closes a trial connection that failed validation and reports the outcome,
+     * so the breaker never stays half-open without a trial in flight
+     */
+    private SQLException failTrial(Connection connection, SQLException failure) {
+        try {
+            connection.close();
+        } catch (SQLException | RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+        circuitBreaker.onFailure(failure);
+        return failure;
+    }
+
+    DatabaseCircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.service.resilience;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Thrown immediately instead of waiting for a connection while the circuit
+ * breaker of a pool is open.
+ */
+public class CircuitOpenException extends SQLTransientConnectionException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterMillis;
+
+    /**
+     * @param retryAfterMillis time until the breaker lets a trial connection
+     *                         through, 0 if one is already under way
+     */
+    public CircuitOpenException(String message, long retryAfterMillis) {
+        super(message, "08001");
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
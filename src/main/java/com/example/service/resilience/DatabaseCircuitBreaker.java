@@ -0,0 +1,151 @@
+package com.example.service.resilience;
+
+import com.example.service.admission.AdmissionRejectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * Circuit breaker for one connection pool.
+ *
+ * CLOSED: connections are handed out normally; consecutive acquisition or
+ * validation failures trip the breaker. OPEN: requests fail immediately until
+ * the open interval has elapsed. HALF_OPEN: exactly one caller performs a
+ * trial acquisition and validation; its outcome closes or re-opens the circuit
+ * while every other caller keeps failing fast.
+ */
+public class DatabaseCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String poolName;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private final BiConsumer<String, State> transitionListener;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong();
+    private final AtomicLong rejectedRequests = new AtomicLong();
+    private volatile long lastTransitionAt = System.currentTimeMillis();
+    private volatile String lastFailure;
+
+    public DatabaseCircuitBreaker(String poolName, int failureThreshold, long openDurationMillis,
+                                  BiConsumer<String, State> transitionListener) {
+        this.poolName = poolName;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMillis;
+        this.transitionListener = transitionListener;
+    }
+
+    /**
+     * Decides whether a request may proceed.
+     *
+     * @return true if the caller was chosen as the half-open trial and must
+     *         report its outcome through {@link #onSuccess()} or {@link #onFailure(SQLException)}
+     * @throws CircuitOpenException if the request must fail fast
+     */
+    public boolean acquirePermission() throws CircuitOpenException {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return false;
+        }
+
+        long remainingMillis = openDurationMillis - (System.currentTimeMillis() - openedAt.get());
+        if (current == State.OPEN && remainingMillis <= 0 && transition(State.OPEN, State.HALF_OPEN)) {
+            logger.info("Circuit breaker for pool {} is half-open, probing with a trial connection", poolName);
+            return true;
+        }
+
+        rejectedRequests.incrementAndGet();
+        throw new CircuitOpenException("Circuit breaker for pool " + poolName + " is " + state.get()
+            + ", failing fast (last failure: " + lastFailure + ")", Math.max(0, remainingMillis));
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        if (transition(State.HALF_OPEN, State.CLOSED)) {
+            logger.info("Circuit breaker for pool {} closed, database is reachable again", poolName);
+        }
+    }
+
+    public void onFailure(SQLException e) {
+        if (e instanceof AdmissionRejectedException) {
+            // Overload shedding is not a sign of a database outage, but a shed
+            // trial must hand the probe back: without it the breaker would stay
+            // half-open and reject everyone. openedAt is left as it was, so the
+            // next caller becomes the trial right away.
+            if (transition(State.HALF_OPEN, State.OPEN)) {
+                logger.info("Circuit breaker trial for pool {} was shed by admission control, releasing the probe", poolName);
+            }
+            return;
+        }
+        lastFailure = e.getMessage();
+
+        if (state.get() == State.HALF_OPEN) {
+            openedAt.set(System.currentTimeMillis());
+            if (transition(State.HALF_OPEN, State.OPEN)) {
+                logger.warn("Circuit breaker trial for pool {} failed, re-opening: {}", poolName, e.getMessage());
+            }
+            return;
+        }
+
+        int failures = consecutiveFailures.incrementAndGet();
+        if (failures >= failureThreshold) {
+            openedAt.set(System.currentTimeMillis());
+            if (transition(State.CLOSED, State.OPEN)) {
+                logger.error("Circuit breaker for pool {} opened after {} consecutive failures: {}",
+                            poolName, failures, e.getMessage());
+            }
+        }
+    }
+
+    private boolean transition(State from, State to) {
+        if (state.compareAndSet(from, to)) {
+            lastTransitionAt = System.currentTimeMillis();
+            transitionListener.accept(poolName, to);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Forces the breaker back to CLOSED, e.g. after manual intervention
+     */
+    public void reset() {
+        consecutiveFailures.set(0);
+        State previous = state.getAndSet(State.CLOSED);
+        if (previous != State.CLOSED) {
+            lastTransitionAt = System.currentTimeMillis();
+            transitionListener.accept(poolName, State.CLOSED);
+            logger.info("Circuit breaker for pool {} reset from {}", poolName, previous);
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state.get());
+        status.put("consecutiveFailures", consecutiveFailures.get());
+        status.put("failureThreshold", failureThreshold);
+        status.put("openDurationMs", openDurationMillis);
+        status.put("rejectedRequests", rejectedRequests.get());
+        status.put("lastTransitionAt", lastTransitionAt);
+        status.put("lastFailure", lastFailure);
+        return status;
+    }
+}
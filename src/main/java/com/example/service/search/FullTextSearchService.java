@@ -0,0 +1,304 @@
+package com.example.service.search;
+
+import com.example.config.DataSourceRegistry;
+import com.example.config.DatabasePool;
+import com.example.service.index.IndexBuildJob;
+import com.example.service.index.IndexBuildManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Ranked full-text search over products and customers.
+ *
+ * Each target's document is a weighted tsvector expression indexed with GIN.
+ * With app.search.storage=EXPRESSION (the default) the index is built on the
+ * expression itself: nothing is added to the table, no row is rewritten, and
+ * the build runs CONCURRENTLY through {@link IndexBuildManager}.
+ * GENERATED_COLUMN adds a stored search_vector column instead, which saves
+ * recomputing the vector when ranking but rewrites the table under an
+ * exclusive lock, so it is meant for maintenance windows or empty tables.
+ *
+ * Terms match as prefixes. When nothing matches, the optional trigram
+ * fallback (pg_trgm) finds names within app.search.trigram-threshold
+ * similarity, which catches typos.
+ */
+@Service
+public class FullTextSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FullTextSearchService.class);
+
+    private static final Pattern LANGUAGE = Pattern.compile("[a-z_]+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_TERMS = 8;
+    private static final String VECTOR_COLUMN = "search_vector";
+
+    public enum Storage {
+        EXPRESSION, GENERATED_COLUMN
+    }
+
+    private final DataSourceRegistry dataSourceRegistry;
+    private final IndexBuildManager indexBuildManager;
+
+    @Value("${app.search.pool:" + DatabasePool.REPORTING + "}")
+    private String pool;
+
+    @Value("${app.search.language:english}")
+    private String language;
+
+    @Value("${app.search.storage:EXPRESSION}")
+    private Storage storage;
+
+    @Value("${app.search.trigram-fallback:true}")
+    private boolean trigramFallback;
+
+    @Value("${app.search.trigram-threshold:0.3}")
+    private double trigramThreshold;
+
+    @Value("${app.search.default-limit:20}")
+    private int defaultLimit;
+
+    @Value("${app.search.max-limit:100}")
+    private int maxLimit;
+
+    @Value("${app.search.lock-timeout-ms:5000}")
+    private long lockTimeoutMs;
+
+    private volatile Boolean trigramAvailable;
+
+    public FullTextSearchService(DataSourceRegistry dataSourceRegistry, IndexBuildManager indexBuildManager) {
+        this.dataSourceRegistry = dataSourceRegistry;
+        this.indexBuildManager = indexBuildManager;
+    }
+
+    /**
+     * Prepares a target for search: the stored column when configured, the
+     * pg_trgm extension, and the GIN indexes, which are queued as online
+     * builds and finish in the background
+     */
+    public Map<String, Object> setup(SearchTarget target) {
+        String document = document(target);
+        JdbcTemplate admin = dataSourceRegistry.getJdbcTemplate(DatabasePool.ADMIN);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("target", target.table());
+        result.put("storage", storage);
+
+        if (storage == Storage.GENERATED_COLUMN) {
+            String vectorExpression = expression(target);
+            admin.execute((ConnectionCallback<Void>) connection -> {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET LOCAL lock_timeout = " + lockTimeoutMs);
+                    statement.execute("ALTER TABLE " + target.table() + " ADD COLUMN IF NOT EXISTS " + VECTOR_COLUMN
+                        + " tsvector GENERATED ALWAYS AS (" + vectorExpression + ") STORED");
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+                return null;
+            });
+            logger.info("Stored search vector column in place on {}", target.table());
+        }
+
+        List<Map<String, Object>> builds = new ArrayList<>();
+        builds.add(describe(indexBuildManager.submitBuild("CREATE INDEX " + target.searchIndexName()
+            + " ON " + target.table() + " USING gin ((" + document + "))")));
+
+        if (trigramFallback) {
+            try {
+                admin.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+                trigramAvailable = true;
+                builds.add(describe(indexBuildManager.submitBuild("CREATE INDEX " + target.trigramIndexName()
+                    + " ON " + target.table() + " USING gin ((" + target.trigramExpression() + ") gin_trgm_ops)")));
+            } catch (Exception e) {
+                logger.warn("pg_trgm is not available, trigram fallback stays off: {}", e.getMessage());
+                trigramAvailable = false;
+                result.put("trigramError", e.getMessage());
+            }
+        }
+
+        result.put("indexBuilds", builds);
+        return result;
+    }
+
+    /**
+     * Ranked prefix search; falls back to trigram similarity on the name when
+     * nothing matches and fuzzy is set
+     */
+    public Map<String, Object> search(SearchTarget target, String text, Integer limit, boolean fuzzy) {
+        String tsquery = prefixQuery(text);
+        int rows = limit != null ? limit : defaultLimit;
+        if (rows < 1 || rows > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+
+        long started = System.nanoTime();
+        JdbcTemplate jdbcTemplate = dataSourceRegistry.getJdbcTemplate(pool);
+        String sql = fulltextSql(target.columns(), target.table(), document(target));
+        List<Map<String, Object>> hits = jdbcTemplate.queryForList(sql, tsquery, tsquery, tsquery, tsquery, rows);
+        String mode = "fulltext";
+
+        if (hits.isEmpty() && fuzzy && trigramFallback && isTrigramAvailable(jdbcTemplate)) {
+            hits = trigramSearch(jdbcTemplate, target, text.trim(), rows);
+            mode = "trigram";
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("target", target.table());
+        result.put("query", tsquery);
+        result.put("mode", mode);
+        result.put("count", hits.size());
+        result.put("results", hits);
+        result.put("elapsedMs", (System.nanoTime() - started) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Ranked match of a document expression; parameters are the tsquery
+     * text twice for the rank, twice for the match, and the limit
+     */
+    String fulltextSql(List<String> columns, String table, String document) {
+        String query = "(to_tsquery('simple'::regconfig, ?) || to_tsquery('" + language + "'::regconfig, ?))";
+        return "SELECT " + String.join(", ", columns)
+            + ", ts_rank_cd(" + document + ", " + query + ") AS rank"
+            + " FROM " + table
+            + " WHERE " + document + " @@ " + query
+            + " ORDER BY rank DESC, id LIMIT ?";
+    }
+
+    private List<Map<String, Object>> trigramSearch(JdbcTemplate jdbcTemplate, SearchTarget target,
+                                                    String text, int rows) {
+        String expression = target.trigramExpression();
+        String sql = "SELECT " + String.join(", ", target.columns())
+            + ", similarity(" + expression + ", ?) AS rank"
+            + " FROM " + target.table()
+            + " WHERE (" + expression + ") % ?"
+            + " ORDER BY rank DESC, id LIMIT ?";
+
+        return jdbcTemplate.execute((ConnectionCallback<List<Map<String, Object>>>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                // The % operator uses this threshold and, unlike similarity() > x, can use the index
+                try (PreparedStatement threshold = connection.prepareStatement(
+                        "SELECT set_config('pg_trgm.similarity_threshold', ?, true)")) {
+                    threshold.setString(1, Double.toString(trigramThreshold));
+                    threshold.execute();
+                }
+                List<Map<String, Object>> hits = new ArrayList<>();
+                ColumnMapRowMapper mapper = new ColumnMapRowMapper();
+                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                    ps.setString(1, text);
+                    ps.setString(2, text);
+                    ps.setInt(3, rows);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            hits.add(mapper.mapRow(rs, hits.size()));
+                        }
+                    }
+                }
+                connection.commit();
+                return hits;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        });
+    }
+
+    /**
+     * Turns free text into an AND of prefix terms, e.g. {@code red sho} into
+     * {@code red:* & sho:*}; anything but letters and digits separates terms
+     */
+    static String prefixQuery(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Search text is required");
+        }
+        List<String> terms = new ArrayList<>();
+        for (String term : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!term.isEmpty() && terms.size() < MAX_TERMS) {
+                terms.add(term + ":*");
+            }
+        }
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search text has no searchable terms");
+        }
+        return String.join(" & ", terms);
+    }
+
+    /**
+     * The expression queries match against, identical to the indexed one so
+     * the planner can use the GIN index
+     */
+    String document(SearchTarget target) {
+        return storage == Storage.GENERATED_COLUMN ? VECTOR_COLUMN : expression(target);
+    }
+
+    /**
+     * The tsvector expression of a target in the configured language
+     */
+    String expression(SearchTarget target) {
+        if (!LANGUAGE.matcher(language).matches()) {
+            throw new IllegalStateException("Invalid app.search.language: " + language);
+        }
+        return target.document(language);
+    }
+
+    private boolean isTrigramAvailable(JdbcTemplate jdbcTemplate) {
+        Boolean available = trigramAvailable;
+        if (available == null) {
+            available = !jdbcTemplate.queryForList(
+                "SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm'", Integer.class).isEmpty();
+            trigramAvailable = available;
+        }
+        return available;
+    }
+
+    private Map<String, Object> describe(IndexBuildJob job) {
+        return indexBuildManager.getJob(job.getId());
+    }
+
+    public Map<String, Object> getStatus() {
+        JdbcTemplate jdbcTemplate = dataSourceRegistry.getJdbcTemplate(pool);
+        Map<String, Object> targets = new LinkedHashMap<>();
+        for (SearchTarget target : SearchTarget.values()) {
+            Map<String, Object> status = new LinkedHashMap<>();
+            for (String index : List.of(target.searchIndexName(), target.trigramIndexName())) {
+                List<Boolean> valid = jdbcTemplate.queryForList(
+                    "SELECT x.indisvalid FROM pg_index x JOIN pg_class c ON c.oid = x.indexrelid " +
+                    "WHERE c.relname = ?", Boolean.class, index);
+                status.put(index, valid.isEmpty() ? "missing" : valid.get(0) ? "valid" : "invalid");
+            }
+            targets.put(target.table(), status);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("language", language);
+        result.put("storage", storage);
+        result.put("trigramFallback", trigramFallback);
+        result.put("trigramThreshold", trigramThreshold);
+        result.put("targets", targets);
+        return result;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.service.search;
+
+import com.example.config.DataSourceRegistry;
+import com.example.config.DatabasePool;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Compares today's ILIKE '%term%' search with the full-text path on a
+ * generated, unlogged copy of the products search columns, so neither the
+ * business tables nor their indexes are touched. For each term it reports
+ * latency over the iterations and, from one EXPLAIN ANALYZE, the scan nodes
+ * used and the buffers read.
+ */
+@Service
+public class SearchBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchBenchmark.class);
+
+    private static final String TABLE = "search_benchmark_products";
+    private static final int LIMIT = 20;
+
+    private static final String[] WORDS = {
+        "wireless", "ergonomic", "stainless", "cotton", "premium", "organic", "compact", "portable",
+        "leather", "bamboo", "carbon", "vintage", "smart", "solar", "thermal", "waterproof",
+        "keyboard", "mouse", "monitor", "chair", "desk", "lamp", "bottle", "jacket",
+        "sneaker", "backpack", "speaker", "headphones", "charger", "cable", "blender", "kettle",
+        "camera", "tripod", "notebook", "pencil", "watch", "wallet", "helmet", "gloves"
+    };
+
+    private final FullTextSearchService searchService;
+    private final DataSourceRegistry dataSourceRegistry;
+    private final ObjectMapper objectMapper;
+
+    public SearchBenchmark(FullTextSearchService searchService, DataSourceRegistry dataSourceRegistry,
+                           ObjectMapper objectMapper) {
+        this.searchService = searchService;
+        this.dataSourceRegistry = dataSourceRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    public synchronized Map<String, Object> run(int rows, int iterations, List<String> terms) {
+        JdbcTemplate jdbcTemplate = dataSourceRegistry.getJdbcTemplate(DatabasePool.ADMIN);
+        String document = searchService.expression(SearchTarget.PRODUCTS);
+        List<String> columns = List.of("id", "name", "sku");
+
+        logger.info("Running search benchmark: {} generated rows, {} iterations, terms {}", rows, iterations, terms);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rows", rows);
+        result.put("iterations", iterations);
+        try {
+            long started = System.nanoTime();
+            generate(jdbcTemplate, rows, document);
+            result.put("setupMs", (System.nanoTime() - started) / 1_000_000);
+
+            String ilikeSql = "SELECT id, name, sku FROM " + TABLE
+                + " WHERE name ILIKE ? OR description ILIKE ? OR sku ILIKE ? LIMIT " + LIMIT;
+            String fulltextSql = searchService.fulltextSql(columns, TABLE, document);
+
+            Map<String, Object> perTerm = new LinkedHashMap<>();
+            for (String term : terms) {
+                String pattern = "%" + term + "%";
+                String tsquery = FullTextSearchService.prefixQuery(term);
+                Object[] ilikeArgs = {pattern, pattern, pattern};
+                Object[] fulltextArgs = {tsquery, tsquery, tsquery, tsquery, LIMIT};
+
+                Map<String, Object> comparison = new LinkedHashMap<>();
+                comparison.put("ilike", measure(jdbcTemplate, ilikeSql, ilikeArgs, iterations));
+                comparison.put("fulltext", measure(jdbcTemplate, fulltextSql, fulltextArgs, iterations));
+                perTerm.put(term, comparison);
+            }
+            result.put("terms", perTerm);
+        } finally {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE);
+        }
+        return result;
+    }
+
+    private void generate(JdbcTemplate jdbcTemplate, int rows, String document) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE);
+        jdbcTemplate.execute("CREATE UNLOGGED TABLE " + TABLE
+            + " (id BIGINT PRIMARY KEY, sku TEXT NOT NULL, name TEXT NOT NULL, description TEXT)");
+
+        String vocabulary = "ARRAY['" + String.join("','", WORDS) + "']";
+        // The outer reference (g > 0) makes the word subqueries run once per row
+        jdbcTemplate.update("INSERT INTO " + TABLE + " (id, sku, name, description) "
+            + "SELECT g, 'SKU-' || lpad(g::text, 8, '0'), "
+            + "  (SELECT string_agg(w[1 + floor(random() * array_length(w, 1))::int], ' ') "
+            + "   FROM generate_series(1, 3) WHERE g > 0), "
+            + "  (SELECT string_agg(w[1 + floor(random() * array_length(w, 1))::int], ' ') "
+            + "   FROM generate_series(1, 15) WHERE g > 0) "
+            + "FROM generate_series(1, ?) g, (SELECT " + vocabulary + " AS w) vocabulary", rows);
+
+        jdbcTemplate.execute("CREATE INDEX ON " + TABLE + " USING gin ((" + document + "))");
+        jdbcTemplate.execute("ANALYZE " + TABLE);
+    }
+
+    private Map<String, Object> measure(JdbcTemplate jdbcTemplate, String sql, Object[] args, int iterations) {
+        long[] nanos = new long[iterations];
+        int matches = 0;
+        // One untimed run so both paths start with the same cache state
+        jdbcTemplate.queryForList(sql, args);
+        for (int i = 0; i < iterations; i++) {
+            long started = System.nanoTime();
+            matches = jdbcTemplate.queryForList(sql, args).size();
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", matches);
+        stats.put("avgMs", round(Arrays.stream(nanos).average().orElse(0) / 1e6));
+        stats.put("p50Ms", round(nanos[iterations / 2] / 1e6));
+        stats.put("maxMs", round(nanos[iterations - 1] / 1e6));
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + sql, String.class, args);
+        try {
+            JsonNode root = objectMapper.readTree(plan).get(0);
+            JsonNode top = root.get("Plan");
+            TreeSet<String> scans = new TreeSet<>();
+            collectScans(top, scans);
+            stats.put("scans", scans);
+            stats.put("sharedBlocks", top.path("Shared Hit Blocks").asLong() + top.path("Shared Read Blocks").asLong());
+            stats.put("executionMs", root.path("Execution Time").asDouble());
+        } catch (Exception e) {
+            stats.put("planError", e.getMessage());
+        }
+        return stats;
+    }
+
+    private static void collectScans(JsonNode node, TreeSet<String> scans) {
+        String type = node.path("Node Type").asText();
+        if (type.contains("Scan")) {
+            scans.add(type);
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectScans(child, scans);
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
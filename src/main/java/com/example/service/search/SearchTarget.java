@@ -0,0 +1,73 @@
+package com.example.service.search;
+
+import java.util.List;
+
+/**
+ * Searchable tables, with the document each row is indexed as. Codes, SKUs,
+ * names and e-mail addresses go through the 'simple' configuration (no
+ * stemming, no stop words); free text uses the configured language.
+ */
+public enum SearchTarget {
+
+    PRODUCTS("products",
+             List.of("id", "name", "sku", "brand", "selling_price", "is_active"),
+             "setweight(to_tsvector('simple'::regconfig, coalesce(sku, '') || ' ' || coalesce(name, '')), 'A')"
+                 + " || setweight(to_tsvector('%1$s'::regconfig, coalesce(name, '')), 'A')"
+                 + " || setweight(to_tsvector('%1$s'::regconfig, coalesce(description, '')), 'B')",
+             "name"),
+
+    CUSTOMERS("customers",
+              List.of("id", "customer_code", "first_name", "last_name", "company_name", "email", "is_active"),
+              "setweight(to_tsvector('simple'::regconfig, coalesce(customer_code, '') || ' ' || coalesce(first_name, '')"
+                  + " || ' ' || coalesce(last_name, '') || ' ' || coalesce(company_name, '')), 'A')"
+                  + " || setweight(to_tsvector('simple'::regconfig, coalesce(email, '')), 'B')",
+              "coalesce(first_name, '') || ' ' || coalesce(last_name, '') || ' ' || coalesce(company_name, '')");
+
+    private final String table;
+    private final List<String> columns;
+    private final String documentTemplate;
+    private final String trigramExpression;
+
+    SearchTarget(String table, List<String> columns, String documentTemplate, String trigramExpression) {
+        this.table = table;
+        this.columns = columns;
+        this.documentTemplate = documentTemplate;
+        this.trigramExpression = trigramExpression;
+    }
+
+    public String table() {
+        return table;
+    }
+
+    /** Columns returned per hit */
+    public List<String> columns() {
+        return columns;
+    }
+
+    /** The tsvector expression for a text search configuration */
+    public String document(String language) {
+        return String.format(documentTemplate, language);
+    }
+
+    /** The text the trigram fallback compares against */
+    public String trigramExpression() {
+        return trigramExpression;
+    }
+
+    public String searchIndexName() {
+        return "idx_" + table + "_search";
+    }
+
+    public String trigramIndexName() {
+        return "idx_" + table + "_name_trgm";
+    }
+
+    public static SearchTarget of(String name) {
+        for (SearchTarget target : values()) {
+            if (target.table.equalsIgnoreCase(name)) {
+                return target;
+            }
+        }
+        throw new IllegalArgumentException("Unknown search target: " + name + ", available: products, customers");
+    }
+}
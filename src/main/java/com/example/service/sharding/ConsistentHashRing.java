@@ -0,0 +1,87 @@
+package com.example.service.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent-hash ring. Every shard owns weight * virtualNodes
+ * points, so adding or removing a shard only remaps the keys adjacent to
+ * its points instead of reshuffling everything.
+ */
+final class ConsistentHashRing {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final NavigableMap<Long, String> ring;
+
+    ConsistentHashRing(Map<String, Integer> weights, int virtualNodes) {
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        TreeMap<Long, String> points = new TreeMap<>();
+        weights.forEach((shard, weight) -> {
+            int nodes = Math.max(1, weight) * Math.max(1, virtualNodes);
+            for (int i = 0; i < nodes; i++) {
+                // On a (very unlikely) collision the lexically smaller shard wins, so the ring stays deterministic
+                points.merge(hash(shard + "#" + i), shard, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        });
+        this.ring = Collections.unmodifiableNavigableMap(points);
+    }
+
+    String route(long key) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(mix(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    int size() {
+        return ring.size();
+    }
+
+    /**
+     * Share of the key space each shard owns, for the topology view
+     */
+    Map<String, Double> ownership() {
+        Map<String, Double> shares = new TreeMap<>();
+        if (ring.size() == 1) {
+            shares.put(ring.firstEntry().getValue(), 1.0);
+            return shares;
+        }
+        long previous = ring.lastKey();
+        for (Map.Entry<Long, String> point : ring.entrySet()) {
+            // A point owns the keys between the previous point and itself; the subtraction wraps around the ring
+            shares.merge(point.getValue(), unsigned(point.getKey() - previous) / 0x1p64, Double::sum);
+            previous = point.getKey();
+        }
+        return shares;
+    }
+
+    private static double unsigned(long value) {
+        return value >= 0 ? value : value + 0x1p64;
+    }
+
+    private static long hash(String value) {
+        long h = FNV_OFFSET;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= FNV_PRIME;
+        }
+        return mix(h);
+    }
+
+    /**
+     * MurmurHash3 fmix64 finalizer; spreads sequential customer ids over the ring
+     */
+    private static long mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
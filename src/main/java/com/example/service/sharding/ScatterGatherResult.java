@@ -0,0 +1,20 @@
+package com.example.service.sharding;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merged rows of a query fanned out to every shard, with per-shard row counts
+ * and timings. Shards that failed or timed out are listed in failures and the
+ * result is partial.
+ */
+public record ScatterGatherResult<T>(List<T> rows,
+                                     Map<String, Integer> shardRows,
+                                     Map<String, Long> shardDurationsMs,
+                                     Map<String, String> failures,
+                                     long elapsedMs) {
+
+    public boolean isPartial() {
+        return !failures.isEmpty();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.service.sharding;
+
+import com.example.config.DatabaseConfiguration.PoolSettings;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shard topology, bound from app.sharding.* (or from the topology file when
+ * one is configured). Pool settings left unset inherit app.database.pool.*
+ *
+ * <pre>
+ * app.sharding.shards.s0.vault-path=secret/database/shard-0
+ * app.sharding.shards.s1.url=jdbc:postgresql://localhost:5433/shard1
+ * app.sharding.shards.s1.username=postgres
+ * app.sharding.shards.s1.password=postgres
+ * app.sharding.shards.s1.weight=2
+ * </pre>
+ */
+public class ShardProperties {
+
+    private boolean enabled = false;
+    private int virtualNodes = 128;
+    private long scatterTimeoutMs = 5000;
+    private int scatterThreads = 8;
+    private long retireGraceMs = 30000;
+    private String topologyFile;
+    private Map<String, ShardSpec> shards = new LinkedHashMap<>();
+
+    // Getters and setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getVirtualNodes() { return virtualNodes; }
+    public void setVirtualNodes(int virtualNodes) { this.virtualNodes = virtualNodes; }
+
+    public long getScatterTimeoutMs() { return scatterTimeoutMs; }
+    public void setScatterTimeoutMs(long scatterTimeoutMs) { this.scatterTimeoutMs = scatterTimeoutMs; }
+
+    public int getScatterThreads() { return scatterThreads; }
+    public void setScatterThreads(int scatterThreads) { this.scatterThreads = scatterThreads; }
+
+    public long getRetireGraceMs() { return retireGraceMs; }
+    public void setRetireGraceMs(long retireGraceMs) { this.retireGraceMs = retireGraceMs; }
+
+    public String getTopologyFile() { return topologyFile; }
+    public void setTopologyFile(String topologyFile) { this.topologyFile = topologyFile; }
+
+    public Map<String, ShardSpec> getShards() { return shards; }
+    public void setShards(Map<String, ShardSpec> shards) { this.shards = shards; }
+
+    /**
+     * One shard database. Credentials come from vault-path when Vault is
+     * enabled, otherwise (or for missing keys) from url/username/password.
+     */
+    public static class ShardSpec extends PoolSettings {
+        private String vaultPath;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName = "org.postgresql.Driver";
+        private int weight = 1;
+
+        // Getters and setters
+        public String getVaultPath() { return vaultPath; }
+        public void setVaultPath(String vaultPath) { this.vaultPath = vaultPath; }
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+
+        public String getDriverClassName() { return driverClassName; }
+        public void setDriverClassName(String driverClassName) { this.driverClassName = driverClassName; }
+
+        public int getWeight() { return weight; }
+        public void setWeight(int weight) { this.weight = weight; }
+    }
+}
@@ -0,0 +1,503 @@
+package com.example.service.sharding;
+
+import com.example.config.ConnectionPoolFactory;
+import com.example.config.DataSourceRegistry;
+import com.example.service.VaultService;
+import com.example.service.admission.AdmissionContext;
+import com.example.service.sharding.ShardProperties.ShardSpec;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes customer-scoped work to one of several shard databases by hashing
+ * customer_id onto a {@link ConsistentHashRing}, and fans queries that span
+ * all customers out to every shard in parallel.
+ *
+ * <p>Each shard gets its own pool registered in the {@link DataSourceRegistry}
+ * as shard-&lt;name&gt;, so admission control, circuit breakers, monitoring and
+ * metrics history cover shards like any other pool. The topology is
+ * immutable and swapped atomically on {@link #reload()}; only shards whose
+ * connection settings changed get a new pool. Pools of replaced or removed
+ * shards are drained rather than closed, so queries already running on them
+ * finish. Reloading changes routing only, moving rows between shards is left
+ * to the operator.
+ */
+@Service
+public class ShardRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRouter.class);
+
+    static final String PREFIX = "app.sharding";
+    static final String POOL_PREFIX = "shard-";
+    static final long RETIRE_CHECK_MS = 250;
+
+    private final DataSourceRegistry dataSourceRegistry;
+    private final ConnectionPoolFactory poolFactory;
+    private final VaultService vaultService;
+    private final Environment environment;
+    private final ExecutorService scatterExecutor;
+    private final ScheduledExecutorService retireExecutor;
+    private final Set<HikariDataSource> retiring = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.vault.enabled:true}")
+    private boolean vaultEnabled;
+
+    private volatile Topology topology = Topology.EMPTY;
+
+    public ShardRouter(DataSourceRegistry dataSourceRegistry, ConnectionPoolFactory poolFactory,
+                       VaultService vaultService, Environment environment,
+                       @Value("${app.sharding.scatter-threads:8}") int scatterThreads) {
+        this.dataSourceRegistry = dataSourceRegistry;
+        this.poolFactory = poolFactory;
+        this.vaultService = vaultService;
+        this.environment = environment;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scatterExecutor = Executors.newFixedThreadPool(Math.max(1, scatterThreads), r -> {
+            Thread thread = new Thread(r, "shard-scatter-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.retireExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "shard-retire");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void initialize() {
+        if (!environment.getProperty(PREFIX + ".enabled", Boolean.class, false)) {
+            logger.info("Sharding is disabled");
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.error("Failed to initialize shard topology, sharded endpoints are unavailable", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scatterExecutor.shutdownNow();
+        retireExecutor.shutdownNow();
+        retiring.forEach(HikariDataSource::close);
+        retiring.clear();
+    }
+
+    /**
+     * Re-reads the topology and swaps it in. Unchanged shards keep their pool,
+     * changed ones get a new pool and the old one is retired after the swap:
+     * its connections are evicted as they are returned, and it is closed once
+     * none is in use or app.sharding.retire-grace-ms has passed. If any new
+     * pool cannot be created the current topology stays in place.
+     */
+    public synchronized Map<String, Object> reload() {
+        ShardProperties properties = bindProperties();
+        Topology current = topology;
+        Map<String, ShardSpec> specs = properties.isEnabled() ? properties.getShards() : Map.of();
+
+        Map<String, Shard> reused = new LinkedHashMap<>();
+        Map<String, HikariDataSource> created = new LinkedHashMap<>();
+        Map<String, String> fingerprints = new HashMap<>();
+        try {
+            for (Map.Entry<String, ShardSpec> entry : specs.entrySet()) {
+                String name = entry.getKey();
+                ShardSpec spec = entry.getValue();
+                Map<String, String> credentials = resolveCredentials(name, spec);
+                String fingerprint = fingerprint(spec, credentials);
+                fingerprints.put(name, fingerprint);
+
+                Shard existing = current.shards().get(name);
+                if (existing != null && existing.fingerprint().equals(fingerprint)) {
+                    reused.put(name, existing);
+                } else {
+                    created.put(name, poolFactory.create(POOL_PREFIX + name, spec, credentials));
+                }
+            }
+        } catch (RuntimeException e) {
+            created.values().forEach(HikariDataSource::close);
+            throw new IllegalStateException("Shard topology reload failed, keeping version "
+                + current.version() + ": " + e.getMessage(), e);
+        }
+
+        Map<String, Shard> shards = new LinkedHashMap<>();
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (Map.Entry<String, ShardSpec> entry : specs.entrySet()) {
+            String name = entry.getKey();
+            String poolName = POOL_PREFIX + name;
+            HikariDataSource pool = created.get(name);
+            if (pool != null) {
+                dataSourceRegistry.register(poolName, pool);
+            } else {
+                pool = reused.get(name).pool();
+            }
+            shards.put(name, new Shard(name, poolName, entry.getValue().getWeight(), fingerprints.get(name),
+                                       maskUrl(pool.getJdbcUrl()), pool, dataSourceRegistry.getJdbcTemplate(poolName)));
+            weights.put(name, entry.getValue().getWeight());
+        }
+
+        ConsistentHashRing ring = shards.isEmpty() ? null : new ConsistentHashRing(weights, properties.getVirtualNodes());
+        Topology next = new Topology(current.version() + 1, System.currentTimeMillis(), ring, shards,
+                                     properties.getVirtualNodes(), properties.getScatterTimeoutMs());
+        topology = next;
+
+        // Retire pools that were removed or replaced, now that nothing routes to them
+        List<String> removed = new ArrayList<>();
+        current.shards().forEach((name, shard) -> {
+            if (reused.containsKey(name)) {
+                return;
+            }
+            if (!shards.containsKey(name)) {
+                dataSourceRegistry.unregister(shard.poolName());
+                removed.add(name);
+            }
+            retire(shard, properties.getRetireGraceMs());
+        });
+
+        logger.info("Shard topology version {} active with {} shards (added or changed: {}, removed: {})",
+                   next.version(), shards.size(), created.keySet(), removed);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("version", next.version());
+        summary.put("shards", new ArrayList<>(shards.keySet()));
+        summary.put("created", new ArrayList<>(created.keySet()));
+        summary.put("unchanged", new ArrayList<>(reused.keySet()));
+        summary.put("removed", removed);
+        return summary;
+    }
+
+    /**
+     * Evicts the pool's connections as they are returned and schedules the
+     * close for when none is in use any more, or the grace period is over
+     */
+    private void retire(Shard shard, long graceMs) {
+        HikariDataSource pool = shard.pool();
+        HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+        if (mxBean != null) {
+            mxBean.softEvictConnections();
+        }
+        retiring.add(pool);
+        logger.info("Retiring connection pool of shard {}, closing it once idle or after {} ms", shard.name(), graceMs);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(graceMs);
+        retireExecutor.execute(() -> closeWhenIdle(shard, deadline));
+    }
+
+    private void closeWhenIdle(Shard shard, long deadline) {
+        HikariDataSource pool = shard.pool();
+        HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+        int active = mxBean != null ? mxBean.getActiveConnections() : 0;
+        if (active > 0 && System.nanoTime() - deadline < 0) {
+            retireExecutor.schedule(() -> closeWhenIdle(shard, deadline), RETIRE_CHECK_MS, TimeUnit.MILLISECONDS);
+            return;
+        }
+
+        if (active > 0) {
+            logger.warn("Closing connection pool of retired shard {} with {} connections still in use",
+                       shard.name(), active);
+        } else {
+            logger.info("Closing connection pool of retired shard {}", shard.name());
+        }
+        retiring.remove(pool);
+        pool.close();
+    }
+
+    public boolean isEnabled() {
+        return topology.ring() != null;
+    }
+
+    /**
+     * Name of the shard owning the given customer
+     */
+    public String shardFor(long customerId) {
+        return requireRing().route(customerId);
+    }
+
+    /**
+     * JdbcTemplate of the shard owning the given customer
+     */
+    public JdbcTemplate forCustomer(long customerId) {
+        Topology current = topology;
+        if (current.ring() == null) {
+            throw new IllegalStateException("Sharding is not enabled");
+        }
+        return current.shards().get(current.ring().route(customerId)).jdbcTemplate();
+    }
+
+    /**
+     * Runs the query on every shard in parallel and merges the results. When
+     * an order is given each shard's rows must already be sorted by it (the
+     * query's ORDER BY), and the shard results are merged without re-sorting.
+     * A limit above zero caps both the rows fetched per shard and the merged
+     * result. Shards that fail or exceed app.sharding.scatter-timeout-ms are
+     * reported in the result instead of failing the whole query.
+     */
+    public <T> ScatterGatherResult<T> scatterGather(String sql, RowMapper<T> rowMapper,
+                                                    Comparator<? super T> order, int limit, Object... args) {
+        Topology current = topology;
+        if (current.ring() == null) {
+            throw new IllegalStateException("Sharding is not enabled");
+        }
+
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(current.scatterTimeoutMs());
+        int queryTimeoutSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(current.scatterTimeoutMs() + 999));
+        AdmissionContext admission = AdmissionContext.current();
+
+        Map<String, Future<ShardRows<T>>> futures = new LinkedHashMap<>();
+        current.shards().forEach((name, shard) -> futures.put(name, scatterExecutor.submit(() ->
+            AdmissionContext.callWith(admission, () -> {
+                long shardStarted = System.nanoTime();
+                List<T> rows = shard.jdbcTemplate().query(con -> {
+                    PreparedStatement ps = con.prepareStatement(sql);
+                    ps.setQueryTimeout(queryTimeoutSeconds);
+                    if (limit > 0) {
+                        ps.setMaxRows(limit);
+                    }
+                    new ArgumentPreparedStatementSetter(args).setValues(ps);
+                    return ps;
+                }, rowMapper);
+                return new ShardRows<>(rows, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - shardStarted));
+            }))));
+
+        Map<String, List<T>> results = new LinkedHashMap<>();
+        Map<String, Integer> shardRows = new LinkedHashMap<>();
+        Map<String, Long> durations = new LinkedHashMap<>();
+        Map<String, String> failures = new LinkedHashMap<>();
+        futures.forEach((name, future) -> {
+            try {
+                ShardRows<T> result = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                results.put(name, result.rows());
+                shardRows.put(name, result.rows().size());
+                durations.put(name, result.durationMs());
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                failures.put(name, "Timed out after " + current.scatterTimeoutMs() + "ms");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                failures.put(name, cause.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                failures.put(name, "Interrupted");
+            }
+        });
+
+        if (!failures.isEmpty()) {
+            logger.warn("Scatter-gather query incomplete, failed shards: {}", failures);
+        }
+
+        List<T> merged = merge(results.values(), order, limit);
+        return new ScatterGatherResult<>(merged, shardRows, durations, failures,
+                                         TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * Topology version, ring size and per-shard key-space ownership
+     */
+    public Map<String, Object> getTopology() {
+        Topology current = topology;
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("enabled", current.ring() != null);
+        view.put("version", current.version());
+        if (current.ring() == null) {
+            return view;
+        }
+        view.put("loadedAt", current.loadedAt());
+        view.put("virtualNodes", current.virtualNodes());
+        view.put("ringPoints", current.ring().size());
+        view.put("scatterTimeoutMs", current.scatterTimeoutMs());
+
+        Map<String, Double> ownership = current.ring().ownership();
+        List<Map<String, Object>> shards = new ArrayList<>();
+        current.shards().values().forEach(shard -> {
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("name", shard.name());
+            info.put("pool", shard.poolName());
+            info.put("url", shard.url());
+            info.put("weight", shard.weight());
+            info.put("keySpacePercent", Math.round(ownership.getOrDefault(shard.name(), 0.0) * 10000) / 100.0);
+            shards.add(info);
+        });
+        view.put("shards", shards);
+        return view;
+    }
+
+    private ConsistentHashRing requireRing() {
+        ConsistentHashRing ring = topology.ring();
+        if (ring == null) {
+            throw new IllegalStateException("Sharding is not enabled");
+        }
+        return ring;
+    }
+
+    private static <T> List<T> merge(Iterable<List<T>> shardResults, Comparator<? super T> order, int limit) {
+        int max = limit > 0 ? limit : Integer.MAX_VALUE;
+        List<T> merged = new ArrayList<>();
+        if (order == null) {
+            for (List<T> rows : shardResults) {
+                for (T row : rows) {
+                    if (merged.size() >= max) {
+                        return merged;
+                    }
+                    merged.add(row);
+                }
+            }
+            return merged;
+        }
+
+        // k-way merge of the already sorted shard results
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>((a, b) -> order.compare(a.head(), b.head()));
+        for (List<T> rows : shardResults) {
+            if (!rows.isEmpty()) {
+                heads.add(new Cursor<>(rows));
+            }
+        }
+        while (!heads.isEmpty() && merged.size() < max) {
+            Cursor<T> cursor = heads.poll();
+            merged.add(cursor.head());
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Binds app.sharding.* from the environment; when a topology file is set
+     * its shards replace the configured ones. The file uses the same keys,
+     * e.g. app.sharding.shards.s0.url=...
+     */
+    private ShardProperties bindProperties() {
+        ShardProperties properties = Binder.get(environment)
+            .bind(PREFIX, ShardProperties.class)
+            .orElseGet(ShardProperties::new);
+
+        String topologyFile = properties.getTopologyFile();
+        if (topologyFile == null || topologyFile.isBlank()) {
+            return properties;
+        }
+
+        Properties fileProperties = new Properties();
+        try (Reader reader = Files.newBufferedReader(Path.of(topologyFile))) {
+            fileProperties.load(reader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read shard topology file " + topologyFile + ": " + e.getMessage(), e);
+        }
+
+        properties.setShards(new LinkedHashMap<>());
+        new Binder(new MapConfigurationPropertySource(fileProperties))
+            .bind(PREFIX, Bindable.ofInstance(properties));
+        return properties;
+    }
+
+    private Map<String, String> resolveCredentials(String shard, ShardSpec spec) {
+        Map<String, String> credentials = new HashMap<>();
+        if (vaultEnabled && spec.getVaultPath() != null && !spec.getVaultPath().isBlank()) {
+            vaultService.getCredentials(spec.getVaultPath()).forEach((key, value) -> {
+                if (value != null) {
+                    credentials.put(key, value);
+                }
+            });
+        }
+        credentials.putIfAbsent("url", spec.getUrl());
+        credentials.putIfAbsent("username", spec.getUsername());
+        credentials.putIfAbsent("password", spec.getPassword());
+        credentials.putIfAbsent("driver", spec.getDriverClassName());
+
+        if (credentials.get("url") == null) {
+            throw new IllegalArgumentException("No JDBC URL for shard " + shard
+                + " (set vault-path with Vault enabled, or url)");
+        }
+        return credentials;
+    }
+
+    /**
+     * Everything that requires a new pool when it changes; weight only affects routing
+     */
+    static String fingerprint(ShardSpec spec, Map<String, String> credentials) {
+        return String.join("|",
+            credentials.get("url"), credentials.get("username"),
+            Integer.toHexString(Objects.hashCode(credentials.get("password"))), credentials.get("driver"),
+            String.valueOf(spec.getPoolName()), String.valueOf(spec.getMaximumPoolSize()),
+            String.valueOf(spec.getMinimumIdle()), String.valueOf(spec.getConnectionTimeout()),
+            String.valueOf(spec.getIdleTimeout()), String.valueOf(spec.getMaxLifetime()),
+            String.valueOf(spec.getLeakDetectionThreshold()), String.valueOf(spec.getValidationTimeout()),
+            String.valueOf(spec.getKeepaliveTime()), String.valueOf(spec.getStatementTimeout()),
+            String.valueOf(spec.getApplicationName()), String.valueOf(spec.getDriverProfile()),
+            String.valueOf(new TreeMap<>(spec.getDriverProperties())));
+    }
+
+    private static String maskUrl(String url) {
+        return url == null ? null : url.replaceAll("://[^@]+@", "://***:***@");
+    }
+
+    private record Shard(String name, String poolName, int weight, String fingerprint, String url,
+                         HikariDataSource pool, JdbcTemplate jdbcTemplate) {
+    }
+
+    private record Topology(long version, long loadedAt, ConsistentHashRing ring, Map<String, Shard> shards,
+                            int virtualNodes, long scatterTimeoutMs) {
+        static final Topology EMPTY = new Topology(0, 0, null, Map.of(), 0, 0);
+    }
+
+    private record ShardRows<T>(List<T> rows, long durationMs) {
+    }
+
+    private static final class Cursor<T> {
+        private final List<T> rows;
+        private int position;
+
+        Cursor(List<T> rows) {
+            this.rows = rows;
+        }
+
+        T head() {
+            return rows.get(position);
+        }
+
+        boolean advance() {
+            return ++position < rows.size();
+        }
+    }
+}
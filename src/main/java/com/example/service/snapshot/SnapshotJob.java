@@ -0,0 +1,115 @@
+package com.example.service.snapshot;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One snapshot or restore run. Mutable state is only written by the service
+ * and its workers; readers get a consistent view through {@link #describe()}.
+ */
+public class SnapshotJob {
+
+    public enum Kind {
+        SNAPSHOT, RESTORE
+    }
+
+    public enum State {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private final long id;
+    private final Kind kind;
+    private final String table;
+    private final String snapshotName;
+    private final int parallelism;
+    private final long submittedAt = System.currentTimeMillis();
+
+    private State state = State.QUEUED;
+    private int chunksTotal;
+    private int chunksDone;
+    private long rows;
+    private long bytes;
+    private long startedAt;
+    private long finishedAt;
+    private String message;
+
+    SnapshotJob(long id, Kind kind, String table, String snapshotName, int parallelism) {
+        this.id = id;
+        this.kind = kind;
+        this.table = table;
+        this.snapshotName = snapshotName;
+        this.parallelism = parallelism;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public String getSnapshotName() {
+        return snapshotName;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    synchronized boolean isActive() {
+        return state == State.QUEUED || state == State.RUNNING;
+    }
+
+    synchronized void started(int chunks) {
+        state = State.RUNNING;
+        chunksTotal = chunks;
+        startedAt = System.currentTimeMillis();
+    }
+
+    synchronized void chunkDone(long chunkRows, long chunkBytes) {
+        chunksDone++;
+        rows += chunkRows;
+        bytes += chunkBytes;
+    }
+
+    synchronized void finish(State finalState, String finalMessage) {
+        state = finalState;
+        finishedAt = System.currentTimeMillis();
+        message = finalMessage;
+    }
+
+    synchronized Map<String, Object> describe() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("id", id);
+        view.put("kind", kind);
+        view.put("table", table);
+        view.put("snapshot", snapshotName);
+        view.put("state", state);
+        view.put("parallelism", parallelism);
+        view.put("chunksTotal", chunksTotal);
+        view.put("chunksDone", chunksDone);
+        view.put("rows", rows);
+        view.put(kind == Kind.SNAPSHOT ? "compressedBytes" : "bytesRead", bytes);
+        view.put("submittedAt", submittedAt);
+        if (startedAt > 0) {
+            view.put("startedAt", startedAt);
+            long end = finishedAt > 0 ? finishedAt : System.currentTimeMillis();
+            view.put("elapsedMs", end - startedAt);
+            if (end > startedAt) {
+                view.put("rowsPerSecond", rows * 1000 / (end - startedAt));
+            }
+        }
+        if (finishedAt > 0) {
+            view.put("finishedAt", finishedAt);
+        }
+        if (message != null) {
+            view.put("message", message);
+        }
+        return view;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.service.snapshot;
+
+import java.util.List;
+
+/**
+ * Contents of manifest.json, written after every chunk of a snapshot has
+ * been exported; a snapshot directory without a manifest is incomplete.
+ *
+ * @param snapshotId the pg_export_snapshot() id all chunks were read under
+ * @param format     COPY format of the chunk files (binary or csv)
+ * @param columns    exported columns in COPY order; generated columns are left out
+ * @param sequence   sequence feeding the key column, advanced after a restore
+ */
+public record SnapshotManifest(String table,
+                               String keyColumn,
+                               String sequence,
+                               List<String> columns,
+                               String format,
+                               String snapshotId,
+                               long createdAt,
+                               long rows,
+                               List<Chunk> chunks) {
+
+    /**
+     * One key range [fromId, toId) in its own gzip file
+     */
+    public record Chunk(int index, String file, long fromId, long toId, long rows, long bytes, String sha256) {
+    }
+}
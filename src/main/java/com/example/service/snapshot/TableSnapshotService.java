@@ -0,0 +1,613 @@
+package com.example.service.snapshot;
+
+import com.example.config.DataSourceRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Parallel, consistent table snapshots to gzip-compressed COPY files.
+ * A coordinator transaction exports its snapshot with pg_export_snapshot()
+ * and splits the table into key ranges; worker connections import that
+ * snapshot and COPY ranges out concurrently, so all chunks see the same
+ * data. Restore loads the chunks back in parallel with COPY FROM, one
+ * transaction per chunk, verifying each file's checksum before committing.
+ */
+@Service
+public class TableSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TableSnapshotService.class);
+
+    private static final Pattern TABLE = Pattern.compile("^[a-z_][a-z0-9_]*(\\.[a-z_][a-z0-9_]*)?$");
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("^[a-z0-9_.-]+$");
+    private static final Pattern SNAPSHOT_ID = Pattern.compile("^[0-9A-Fa-f-]+$");
+    private static final Pattern NEXTVAL = Pattern.compile("nextval\\('([^']+)'::regclass\\)");
+    private static final List<String> KEY_TYPES = List.of("bigint", "integer", "smallint");
+    private static final DateTimeFormatter NAME_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final String MANIFEST = "manifest.json";
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int FINISHED_JOBS_KEPT = 100;
+
+    private final DataSourceRegistry dataSourceRegistry;
+    private final ObjectMapper objectMapper;
+
+    private final NavigableMap<Long, SnapshotJob> jobs = new ConcurrentSkipListMap<>();
+    private final AtomicLong jobIds = new AtomicLong();
+    private final ExecutorService jobExecutor;
+
+    @Value("${app.snapshot.pool:bulk}")
+    private String poolName;
+
+    @Value("${app.snapshot.directory:snapshots}")
+    private String directory;
+
+    @Value("${app.snapshot.max-parallelism:8}")
+    private int maxParallelism;
+
+    @Value("${app.snapshot.chunks-per-worker:4}")
+    private int chunksPerWorker;
+
+    @Value("${app.snapshot.key-column:id}")
+    private String defaultKeyColumn;
+
+    @Value("${app.snapshot.format:binary}")
+    private String format;
+
+    @Value("${app.snapshot.compression-level:1}")
+    private int compressionLevel;
+
+    public TableSnapshotService(DataSourceRegistry dataSourceRegistry, ObjectMapper objectMapper) {
+        this.dataSourceRegistry = dataSourceRegistry;
+        this.objectMapper = objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.jobExecutor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "snapshot-job-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    /**
+     * Starts a snapshot of the table; runs in the background
+     */
+    public SnapshotJob submitSnapshot(String table, int parallelism) {
+        if (!TABLE.matcher(table).matches()) {
+            throw new IllegalArgumentException("Invalid table name: " + table);
+        }
+        String copyFormat = copyFormat();
+        int workers = workers(parallelism);
+        long id = jobIds.incrementAndGet();
+        String name = table + "-" + LocalDateTime.now().format(NAME_TIMESTAMP) + "-" + id;
+
+        SnapshotJob job = new SnapshotJob(id, SnapshotJob.Kind.SNAPSHOT, table, name, workers);
+        submit(job, () -> snapshot(job, copyFormat));
+        return job;
+    }
+
+    /**
+     * Starts loading a snapshot into targetTable (default: the table it was
+     * taken from), optionally truncating the target first
+     */
+    public SnapshotJob submitRestore(String snapshotName, String targetTable, int parallelism, boolean truncate)
+            throws IOException {
+        SnapshotManifest manifest = readManifest(snapshotName);
+        String target = targetTable == null || targetTable.isBlank() ? manifest.table() : targetTable;
+        if (!TABLE.matcher(target).matches()) {
+            throw new IllegalArgumentException("Invalid table name: " + target);
+        }
+        int workers = workers(parallelism);
+
+        SnapshotJob job = new SnapshotJob(jobIds.incrementAndGet(), SnapshotJob.Kind.RESTORE, target, snapshotName, workers);
+        submit(job, () -> restore(job, manifest, truncate));
+        return job;
+    }
+
+    private void submit(SnapshotJob job, Work work) {
+        jobs.put(job.getId(), job);
+        trimFinishedJobs();
+        jobExecutor.submit(() -> {
+            try {
+                work.run();
+                job.finish(SnapshotJob.State.SUCCEEDED, null);
+            } catch (Exception e) {
+                logger.error("{} job {} for {} failed", job.getKind(), job.getId(), job.getTable(), e);
+                job.finish(SnapshotJob.State.FAILED, rootMessage(e));
+            }
+        });
+    }
+
+    private void snapshot(SnapshotJob job, String copyFormat) throws Exception {
+        DataSource dataSource = dataSource();
+        Path dir = root().resolve(job.getSnapshotName());
+        Files.createDirectories(dir);
+        logger.info("Snapshot {} of {} started with {} workers", job.getSnapshotName(), job.getTable(), job.getParallelism());
+
+        try (Connection coordinator = dataSource.getConnection()) {
+            coordinator.setAutoCommit(false);
+            String snapshotId;
+            TableInfo info;
+            long[] bounds;
+            try (Statement statement = coordinator.createStatement()) {
+                statement.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ, READ ONLY");
+                snapshotId = queryString(statement, "SELECT pg_export_snapshot()");
+                info = describeTable(coordinator, job.getTable());
+                bounds = keyBounds(statement, job.getTable(), info.keyColumn());
+            }
+            if (!SNAPSHOT_ID.matcher(snapshotId).matches()) {
+                throw new IllegalStateException("Unexpected snapshot id: " + snapshotId);
+            }
+
+            List<KeyRange> ranges = split(bounds, job.getParallelism() * chunksPerWorker);
+            job.started(ranges.size());
+
+            Queue<KeyRange> pending = new ConcurrentLinkedQueue<>(ranges);
+            Map<Integer, SnapshotManifest.Chunk> chunks = new ConcurrentSkipListMap<>();
+            String columns = columnList(info.columns());
+            runWorkers(job, dataSource, (connection, failed) -> {
+                connection.setAutoCommit(false);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ, READ ONLY");
+                    statement.execute("SET TRANSACTION SNAPSHOT '" + snapshotId + "'");
+                }
+                CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+                KeyRange range;
+                while (!failed.get() && (range = pending.poll()) != null) {
+                    SnapshotManifest.Chunk chunk = exportChunk(copy, dir, job.getTable(), info.keyColumn(), columns,
+                                                               copyFormat, range);
+                    chunks.put(chunk.index(), chunk);
+                    job.chunkDone(chunk.rows(), chunk.bytes());
+                }
+                connection.commit();
+            });
+            // The exported snapshot only has to live until every worker imported it
+            coordinator.commit();
+
+            List<SnapshotManifest.Chunk> ordered = new ArrayList<>(chunks.values());
+            long rows = ordered.stream().mapToLong(SnapshotManifest.Chunk::rows).sum();
+            SnapshotManifest manifest = new SnapshotManifest(job.getTable(), info.keyColumn(), info.sequence(),
+                info.columns(), copyFormat, snapshotId, System.currentTimeMillis(), rows, ordered);
+            Path temporary = dir.resolve(MANIFEST + ".tmp");
+            objectMapper.writeValue(temporary.toFile(), manifest);
+            Files.move(temporary, dir.resolve(MANIFEST), StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Snapshot {} complete: {} rows in {} chunks", job.getSnapshotName(), rows, ordered.size());
+
+        } catch (Exception e) {
+            deleteDirectory(dir);
+            throw e;
+        }
+    }
+
+    private SnapshotManifest.Chunk exportChunk(CopyManager copy, Path dir, String table, String keyColumn,
+                                               String columns, String copyFormat, KeyRange range)
+            throws SQLException, IOException {
+        String file = String.format("chunk-%05d.copy.gz", range.index());
+        String sql = "COPY (SELECT " + columns + " FROM " + table
+            + " WHERE " + quote(keyColumn) + " >= " + range.fromId() + " AND " + quote(keyColumn) + " < " + range.toId()
+            + ") TO STDOUT (FORMAT " + copyFormat + ")";
+
+        MessageDigest sha256 = sha256();
+        long rows;
+        try (OutputStream out = Files.newOutputStream(dir.resolve(file));
+             DigestOutputStream digest = new DigestOutputStream(new BufferedOutputStream(out, BUFFER_SIZE), sha256);
+             GZIPOutputStream gzip = new LeveledGzipOutputStream(digest, compressionLevel)) {
+            rows = copy.copyOut(sql, gzip);
+        }
+        return new SnapshotManifest.Chunk(range.index(), file, range.fromId(), range.toId(), rows,
+            Files.size(dir.resolve(file)), HexFormat.of().formatHex(sha256.digest()));
+    }
+
+    private void restore(SnapshotJob job, SnapshotManifest manifest, boolean truncate) throws Exception {
+        DataSource dataSource = dataSource();
+        Path dir = root().resolve(job.getSnapshotName());
+        String target = job.getTable();
+
+        try (Connection connection = dataSource.getConnection()) {
+            TableInfo info = describeTable(connection, target);
+            List<String> missing = manifest.columns().stream().filter(c -> !info.columns().contains(c)).toList();
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException("Target table " + target + " lacks columns " + missing);
+            }
+            if (truncate) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("TRUNCATE " + target);
+                }
+            }
+        }
+
+        job.started(manifest.chunks().size());
+        logger.info("Restore of snapshot {} into {} started with {} workers", job.getSnapshotName(), target,
+                   job.getParallelism());
+
+        Queue<SnapshotManifest.Chunk> pending = new ConcurrentLinkedQueue<>(manifest.chunks());
+        String sql = "COPY " + target + " (" + columnList(manifest.columns()) + ") FROM STDIN (FORMAT "
+            + manifest.format() + ")";
+        runWorkers(job, dataSource, (connection, failed) -> {
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            connection.setAutoCommit(false);
+            SnapshotManifest.Chunk chunk;
+            while (!failed.get() && (chunk = pending.poll()) != null) {
+                long rows = importChunk(connection, copy, dir, sql, chunk);
+                job.chunkDone(rows, chunk.bytes());
+            }
+        });
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            String sequence = describeTable(connection, target).sequence();
+            if (sequence != null) {
+                // Rows keep their snapshot ids, so new inserts must start above them
+                try (PreparedStatement ps = connection.prepareStatement(
+                        "SELECT setval(?::regclass, GREATEST(COALESCE((SELECT max(" + quote(manifest.keyColumn()) + ") FROM "
+                        + target + "), 1), COALESCE(pg_sequence_last_value(?::regclass), 1)))")) {
+                    ps.setString(1, sequence);
+                    ps.setString(2, sequence);
+                    ps.executeQuery().close();
+                }
+            }
+            statement.execute("ANALYZE " + target);
+        }
+        logger.info("Restore of snapshot {} into {} complete", job.getSnapshotName(), target);
+    }
+
+    private long importChunk(Connection connection, CopyManager copy, Path dir, String sql, SnapshotManifest.Chunk chunk)
+            throws SQLException, IOException {
+        MessageDigest sha256 = sha256();
+        long rows;
+        try (InputStream in = Files.newInputStream(dir.resolve(chunk.file()));
+             DigestInputStream digest = new DigestInputStream(new BufferedInputStream(in, BUFFER_SIZE), sha256);
+             GZIPInputStream gzip = new GZIPInputStream(digest, BUFFER_SIZE)) {
+            rows = copy.copyIn(sql, gzip);
+            // Anything gzip did not consume still has to be part of the checksum
+            digest.transferTo(OutputStream.nullOutputStream());
+        } catch (SQLException | IOException e) {
+            connection.rollback();
+            throw e;
+        }
+
+        String actual = HexFormat.of().formatHex(sha256.digest());
+        if (!actual.equals(chunk.sha256()) || rows != chunk.rows()) {
+            connection.rollback();
+            throw new IllegalStateException("Chunk " + chunk.file() + " does not match the manifest (checksum "
+                + actual + ", " + rows + " rows)");
+        }
+        connection.commit();
+        return rows;
+    }
+
+    /**
+     * Runs one task per worker, each on its own pooled connection; the first
+     * failure stops the others from taking further chunks and is rethrown
+     */
+    private void runWorkers(SnapshotJob job, DataSource dataSource, ConnectionTask task) throws Exception {
+        int workers = job.getParallelism();
+        AtomicBoolean failed = new AtomicBoolean();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "snapshot-" + job.getId() + "-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    try (Connection connection = dataSource.getConnection()) {
+                        task.run(connection, failed);
+                    } catch (Exception e) {
+                        failed.set(true);
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+
+            Exception first = null;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    Exception cause = e.getCause() instanceof Exception c ? c : e;
+                    if (first == null) {
+                        first = cause;
+                    } else {
+                        first.addSuppressed(cause);
+                    }
+                }
+            }
+            if (first != null) {
+                throw first;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public List<Map<String, Object>> listSnapshots() throws IOException {
+        List<Map<String, Object>> snapshots = new ArrayList<>();
+        Path root = root();
+        if (!Files.isDirectory(root)) {
+            return snapshots;
+        }
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path dir : dirs) {
+                Path manifestFile = dir.resolve(MANIFEST);
+                if (!Files.exists(manifestFile)) {
+                    continue;
+                }
+                SnapshotManifest manifest = objectMapper.readValue(manifestFile.toFile(), SnapshotManifest.class);
+                Map<String, Object> view = new LinkedHashMap<>();
+                view.put("name", dir.getFileName().toString());
+                view.put("table", manifest.table());
+                view.put("rows", manifest.rows());
+                view.put("chunks", manifest.chunks().size());
+                view.put("compressedBytes", manifest.chunks().stream().mapToLong(SnapshotManifest.Chunk::bytes).sum());
+                view.put("format", manifest.format());
+                view.put("createdAt", manifest.createdAt());
+                snapshots.add(view);
+            }
+        }
+        snapshots.sort(Comparator.comparing((Map<String, Object> s) -> (Long) s.get("createdAt")).reversed());
+        return snapshots;
+    }
+
+    public SnapshotManifest readManifest(String snapshotName) throws IOException {
+        if (!SNAPSHOT_NAME.matcher(snapshotName).matches() || snapshotName.contains("..")) {
+            throw new IllegalArgumentException("Invalid snapshot name: " + snapshotName);
+        }
+        Path manifestFile = root().resolve(snapshotName).resolve(MANIFEST);
+        if (!Files.exists(manifestFile)) {
+            throw new IllegalArgumentException("Unknown or incomplete snapshot: " + snapshotName);
+        }
+        return objectMapper.readValue(manifestFile.toFile(), SnapshotManifest.class);
+    }
+
+    /**
+     * All known jobs, newest first
+     */
+    public List<Map<String, Object>> getJobs() {
+        List<Map<String, Object>> views = new ArrayList<>();
+        for (SnapshotJob job : jobs.descendingMap().values()) {
+            views.add(job.describe());
+        }
+        return views;
+    }
+
+    public Map<String, Object> getJob(long jobId) {
+        SnapshotJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Unknown snapshot job: " + jobId);
+        }
+        return job.describe();
+    }
+
+    private TableInfo describeTable(Connection connection, String table) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        String keyType = null;
+        String sequence = null;
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT a.attname, a.attgenerated <> '' AS generated, format_type(a.atttypid, a.atttypmod) AS type, " +
+                "pg_get_expr(d.adbin, d.adrelid) AS default_expr " +
+                "FROM pg_attribute a LEFT JOIN pg_attrdef d ON d.adrelid = a.attrelid AND d.adnum = a.attnum " +
+                "WHERE a.attrelid = to_regclass(?) AND a.attnum > 0 AND NOT a.attisdropped ORDER BY a.attnum")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString("attname");
+                    if (name.equals(defaultKeyColumn)) {
+                        keyType = rs.getString("type");
+                        String defaultExpr = rs.getString("default_expr");
+                        Matcher nextval = defaultExpr != null ? NEXTVAL.matcher(defaultExpr) : null;
+                        if (nextval != null && nextval.find()) {
+                            sequence = nextval.group(1);
+                        }
+                    }
+                    if (!rs.getBoolean("generated")) {
+                        columns.add(name);
+                    }
+                }
+            }
+        }
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("Unknown table: " + table);
+        }
+        if (keyType == null || !KEY_TYPES.contains(keyType)) {
+            throw new IllegalArgumentException("Table " + table + " has no integer key column '" + defaultKeyColumn + "'");
+        }
+        return new TableInfo(defaultKeyColumn, sequence, columns);
+    }
+
+    private static long[] keyBounds(Statement statement, String table, String keyColumn) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(
+                "SELECT min(" + quote(keyColumn) + "), max(" + quote(keyColumn) + ") FROM " + table)) {
+            rs.next();
+            long min = rs.getLong(1);
+            if (rs.wasNull()) {
+                return null;
+            }
+            return new long[] {min, rs.getLong(2)};
+        }
+    }
+
+    /**
+     * Equal-width key ranges; sequence-generated ids are dense enough that
+     * this balances chunks without an extra pass over the table
+     */
+    static List<KeyRange> split(long[] bounds, int chunks) {
+        List<KeyRange> ranges = new ArrayList<>();
+        if (bounds == null) {
+            return ranges;
+        }
+        long min = bounds[0];
+        long end = bounds[1] + 1;
+        long width = Math.max(1, (end - min + chunks - 1) / chunks);
+        int index = 0;
+        for (long from = min; from < end; from += width) {
+            ranges.add(new KeyRange(++index, from, Math.min(end, from + width)));
+        }
+        return ranges;
+    }
+
+    private DataSource dataSource() {
+        if (!dataSourceRegistry.hasPool(poolName)) {
+            throw new IllegalStateException("Snapshot pool '" + poolName + "' is not configured");
+        }
+        return dataSourceRegistry.getDataSource(poolName);
+    }
+
+    private int workers(int requested) {
+        if (!dataSourceRegistry.hasPool(poolName)) {
+            throw new IllegalStateException("Snapshot pool '" + poolName + "' is not configured");
+        }
+        // One connection stays free for the coordinator holding the exported snapshot
+        HikariDataSource pool = dataSourceRegistry.getPool(poolName);
+        int available = Math.max(1, pool.getMaximumPoolSize() - 1);
+        return Math.max(1, Math.min(requested, Math.min(maxParallelism, available)));
+    }
+
+    private String copyFormat() {
+        String normalized = format.trim().toLowerCase();
+        if (!normalized.equals("binary") && !normalized.equals("csv")) {
+            throw new IllegalStateException("app.snapshot.format must be binary or csv");
+        }
+        return normalized;
+    }
+
+    private Path root() {
+        return Path.of(directory);
+    }
+
+    private void trimFinishedJobs() {
+        long finished = jobs.values().stream().filter(job -> !job.isActive()).count();
+        for (SnapshotJob job : jobs.values()) {
+            if (finished <= FINISHED_JOBS_KEPT) {
+                return;
+            }
+            if (!job.isActive()) {
+                jobs.remove(job.getId());
+                finished--;
+            }
+        }
+    }
+
+    private static String queryString(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private static String columnList(List<String> columns) {
+        return String.join(", ", columns.stream().map(TableSnapshotService::quote).toList());
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteDirectory(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            logger.warn("Could not remove incomplete snapshot {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    record KeyRange(int index, long fromId, long toId) {
+    }
+
+    private record TableInfo(String keyColumn, String sequence, List<String> columns) {
+    }
+
+    @FunctionalInterface
+    private interface Work {
+        void run() throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface ConnectionTask {
+        void run(Connection connection, AtomicBoolean failed) throws Exception;
+    }
+
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+        LeveledGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out, BUFFER_SIZE);
+            def.setLevel(level);
+        }
+    }
+}
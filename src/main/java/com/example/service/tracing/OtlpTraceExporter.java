@@ -0,0 +1,182 @@
+package com.example.service.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ships finished traces to an OpenTelemetry collector using OTLP/HTTP with
+ * the JSON encoding (e.g. http://localhost:4318/v1/traces). Request threads
+ * only enqueue; batches are posted from the scheduler and dropped when the
+ * queue is full, so a slow collector never slows requests down.
+ */
+@Component
+@ConditionalOnProperty(name = "app.tracing.otlp.enabled", havingValue = "true")
+public class OtlpTraceExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(OtlpTraceExporter.class);
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final Queue<TraceRecord> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder exported = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+
+    @Value("${app.tracing.otlp.endpoint:http://localhost:4318/v1/traces}")
+    private String endpoint;
+
+    @Value("${app.tracing.otlp.batch-size:512}")
+    private int batchSize;
+
+    @Value("${app.tracing.otlp.max-queue:10000}")
+    private int maxQueue;
+
+    @Value("${app.tracing.otlp.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Value("${spring.application.name:postgres-jdbc-client}")
+    private String serviceName;
+
+    public OtlpTraceExporter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+
+    void offer(TraceRecord trace) {
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        queue.add(trace);
+    }
+
+    @Scheduled(fixedDelayString = "${app.tracing.otlp.flush-interval-ms:2000}")
+    public void flush() {
+        while (true) {
+            List<TraceRecord> batch = new ArrayList<>();
+            TraceRecord trace;
+            while (batch.size() < batchSize && (trace = queue.poll()) != null) {
+                queued.decrementAndGet();
+                batch.add(trace);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (!post(batch)) {
+                return;
+            }
+        }
+    }
+
+    private boolean post(List<TraceRecord> batch) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(toOtlp(batch));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(endpoint))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("collector answered HTTP " + response.statusCode());
+            }
+            exported.add(batch.size());
+            return true;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.debug("Failed to export {} traces to {}: {}", batch.size(), endpoint, e.getMessage());
+        }
+        failedBatches.increment();
+        dropped.add(batch.size());
+        return false;
+    }
+
+    private Map<String, Object> toOtlp(List<TraceRecord> batch) {
+        List<Map<String, Object>> spans = new ArrayList<>();
+        for (TraceRecord trace : batch) {
+            for (Span span : trace.spans()) {
+                Map<String, Object> otlpSpan = new LinkedHashMap<>();
+                otlpSpan.put("traceId", trace.traceId());
+                otlpSpan.put("spanId", span.getSpanId());
+                if (span.getParentSpanId() != null) {
+                    otlpSpan.put("parentSpanId", span.getParentSpanId());
+                }
+                otlpSpan.put("name", span.getName());
+                otlpSpan.put("kind", switch (span.getKind()) {
+                    case SERVER -> 2;
+                    case CLIENT -> 3;
+                    case INTERNAL -> 1;
+                });
+                otlpSpan.put("startTimeUnixNano", Long.toString(span.getStartEpochNanos()));
+                otlpSpan.put("endTimeUnixNano", Long.toString(span.getEndEpochNanos()));
+                otlpSpan.put("attributes", attributes(span.getAttributes()));
+                if (span.getError() != null) {
+                    otlpSpan.put("status", Map.of("code", 2, "message", span.getError()));
+                }
+                spans.add(otlpSpan);
+            }
+        }
+
+        Map<String, Object> resource = Map.of("attributes",
+            attributes(Map.of("service.name", serviceName)));
+        Map<String, Object> scopeSpans = Map.of(
+            "scope", Map.of("name", "com.example.tracing"),
+            "spans", spans);
+        return Map.of("resourceSpans", List.of(Map.of(
+            "resource", resource,
+            "scopeSpans", List.of(scopeSpans))));
+    }
+
+    private static List<Map<String, Object>> attributes(Map<String, Object> attributes) {
+        List<Map<String, Object>> result = new ArrayList<>(attributes.size());
+        attributes.forEach((key, value) -> {
+            Map<String, Object> typed;
+            if (value instanceof Boolean b) {
+                typed = Map.of("boolValue", b);
+            } else if (value instanceof Integer || value instanceof Long) {
+                typed = Map.of("intValue", value.toString());
+            } else if (value instanceof Number n) {
+                typed = Map.of("doubleValue", n.doubleValue());
+            } else {
+                typed = Map.of("stringValue", String.valueOf(value));
+            }
+            result.add(Map.of("key", key, "value", typed));
+        });
+        return result;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("endpoint", endpoint);
+        status.put("queued", queued.get());
+        status.put("exported", exported.sum());
+        status.put("dropped", dropped.sum());
+        status.put("failedBatches", failedBatches.sum());
+        return status;
+    }
+}
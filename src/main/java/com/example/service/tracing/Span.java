@@ -0,0 +1,88 @@
+package com.example.service.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One timed operation within a {@link Trace}. Spans are confined to the
+ * thread that owns the trace, so they are plain mutable objects.
+ */
+public final class Span {
+
+    public enum Kind {
+        SERVER, CLIENT, INTERNAL
+    }
+
+    private final String spanId;
+    private final String parentSpanId;
+    private final String name;
+    private final Kind kind;
+    private final long startEpochNanos;
+    private final long startNanos;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private long endNanos;
+    private String error;
+
+    Span(String spanId, String parentSpanId, String name, Kind kind, long startEpochNanos, long startNanos) {
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.startEpochNanos = startEpochNanos;
+        this.startNanos = startNanos;
+    }
+
+    public Span attribute(String key, Object value) {
+        if (value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    public void fail(Throwable throwable) {
+        this.error = throwable.getClass().getSimpleName() + ": " + throwable.getMessage();
+    }
+
+    void end(long nowNanos) {
+        if (endNanos == 0) {
+            endNanos = nowNanos;
+        }
+    }
+
+    public String getSpanId() { return spanId; }
+    public String getParentSpanId() { return parentSpanId; }
+    public String getName() { return name; }
+    public Kind getKind() { return kind; }
+    public Map<String, Object> getAttributes() { return attributes; }
+    public String getError() { return error; }
+    public boolean isEnded() { return endNanos != 0; }
+
+    public long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    public long getEndEpochNanos() {
+        return startEpochNanos + getDurationNanos();
+    }
+
+    public long getDurationNanos() {
+        return Math.max(0, endNanos - startNanos);
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("spanId", spanId);
+        if (parentSpanId != null) {
+            view.put("parentSpanId", parentSpanId);
+        }
+        view.put("name", name);
+        view.put("kind", kind);
+        view.put("startEpochMicros", startEpochNanos / 1000);
+        view.put("durationMicros", getDurationNanos() / 1000);
+        view.put("attributes", attributes);
+        if (error != null) {
+            view.put("error", error);
+        }
+        return view;
+    }
+}
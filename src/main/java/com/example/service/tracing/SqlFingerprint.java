@@ -0,0 +1,135 @@
+package com.example.service.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Normalized statement text with literals replaced by '?', so every execution
+ * of the same query shape shares one fingerprint regardless of its values.
+ * The id is a 64-bit FNV-1a hash of the normalized text.
+ */
+public record SqlFingerprint(String normalized, String id) {
+
+    private static final int MAX_CACHED = 4096;
+    private static final int MAX_LENGTH = 2048;
+
+    private static final String OPERATOR_CHARS = "=<>!+-*/%|&^~#@:";
+
+    private static final Map<String, SqlFingerprint> CACHE = new ConcurrentHashMap<>();
+
+    public static SqlFingerprint of(String sql) {
+        if (sql == null) {
+            return new SqlFingerprint("", "0000000000000000");
+        }
+        SqlFingerprint cached = CACHE.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        SqlFingerprint fingerprint = compute(sql);
+        if (CACHE.size() >= MAX_CACHED) {
+            // Literal-heavy workloads would otherwise grow the cache without bound
+            CACHE.clear();
+        }
+        CACHE.put(sql, fingerprint);
+        return fingerprint;
+    }
+
+    static SqlFingerprint compute(String sql) {
+        List<String> tokens = new ArrayList<>();
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                while (i < length && sql.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int close = sql.indexOf("*/", i + 2);
+                i = close < 0 ? length : close + 2;
+            } else if (c == '\'') {
+                // String literal, '' is an escaped quote
+                i++;
+                while (i < length && !(sql.charAt(i) == '\'' && (i + 1 >= length || sql.charAt(i + 1) != '\''))) {
+                    i += sql.charAt(i) == '\'' ? 2 : 1;
+                }
+                i++;
+                tokens.add("?");
+            } else if (c == '"') {
+                int close = sql.indexOf('"', i + 1);
+                int end = close < 0 ? length : close + 1;
+                tokens.add(sql.substring(i, end));
+                i = end;
+            } else if (c == '$' && i + 1 < length && Character.isDigit(sql.charAt(i + 1))) {
+                // Native positional parameter
+                i++;
+                while (i < length && Character.isDigit(sql.charAt(i))) {
+                    i++;
+                }
+                tokens.add("?");
+            } else if (Character.isDigit(c)) {
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                tokens.add("?");
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_'
+                                      || sql.charAt(i) == '$')) {
+                    i++;
+                }
+                tokens.add(sql.substring(start, i).toLowerCase(Locale.ROOT));
+            } else if (OPERATOR_CHARS.indexOf(c) >= 0) {
+                int start = i;
+                while (i < length && OPERATOR_CHARS.indexOf(sql.charAt(i)) >= 0) {
+                    i++;
+                }
+                tokens.add(sql.substring(start, i));
+            } else {
+                tokens.add(String.valueOf(c));
+                i++;
+            }
+        }
+
+        // Canonical spacing: one space between tokens, none inside parentheses or around . and ::
+        StringBuilder out = new StringBuilder(Math.min(length, MAX_LENGTH));
+        String previous = null;
+        for (String token : tokens) {
+            if (out.length() >= MAX_LENGTH) {
+                break;
+            }
+            if (previous != null && !previous.equals("(") && !previous.equals(".") && !previous.equals("::")
+                    && !token.equals(")") && !token.equals(",") && !token.equals(".") && !token.equals(";")
+                    && !token.equals("::")) {
+                out.append(' ');
+            }
+            out.append(token);
+            previous = token;
+        }
+        String normalized = collapseLists(out.toString());
+        return new SqlFingerprint(normalized, hash(normalized));
+    }
+
+    /**
+     * IN (?, ?, ?) and VALUES (?, ?), (?, ?) collapse to a single entry so list length does not split fingerprints
+     */
+    private static String collapseLists(String sql) {
+        return sql.replaceAll("\\(\\?(?:, \\?)*\\)", "(?...)")
+                  .replaceAll("\\(\\?\\.\\.\\.\\)(?:, \\(\\?\\.\\.\\.\\))+", "(?...)...");
+    }
+
+    private static String hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        String digits = Long.toHexString(h);
+        return "0".repeat(16 - digits.length()) + digits;
+    }
+}
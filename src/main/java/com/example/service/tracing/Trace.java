@@ -0,0 +1,110 @@
+package com.example.service.tracing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A sampled request and the spans recorded while serving it. A trace is
+ * bound to the request thread through {@link #current()}; unsampled requests
+ * have no trace at all, so instrumentation costs them a single null check.
+ */
+public final class Trace {
+
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+    private final String traceId;
+    private final Span root;
+    private final long startNanos;
+    private final long startEpochNanos;
+    private final int maxSpans;
+    private final List<Span> spans = new ArrayList<>();
+    private int droppedSpans;
+    private long instrumentationNanos;
+    private long proxiedCalls;
+    private boolean finished;
+
+    Trace(String traceId, String parentSpanId, String name, int maxSpans) {
+        this.traceId = traceId;
+        this.maxSpans = maxSpans;
+        this.startNanos = System.nanoTime();
+        this.startEpochNanos = System.currentTimeMillis() * 1_000_000L;
+        this.root = new Span(newSpanId(), parentSpanId, name, Span.Kind.SERVER, startEpochNanos, startNanos);
+        spans.add(root);
+    }
+
+    public static Trace current() {
+        return CURRENT.get();
+    }
+
+    static void set(Trace trace) {
+        CURRENT.set(trace);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Starts a child span; returns null once the per-trace span limit is
+     * reached, callers then skip recording
+     */
+    public Span startSpan(String name, Span.Kind kind, Span parent) {
+        if (finished || spans.size() >= maxSpans) {
+            droppedSpans++;
+            return null;
+        }
+        long now = System.nanoTime();
+        Span span = new Span(newSpanId(), (parent != null ? parent : root).getSpanId(), name, kind,
+                             startEpochNanos + (now - startNanos), now);
+        spans.add(span);
+        instrumentationNanos += System.nanoTime() - now;
+        return span;
+    }
+
+    public void endSpan(Span span) {
+        if (span != null) {
+            span.end(System.nanoTime());
+        }
+    }
+
+    void countProxiedCall() {
+        proxiedCalls++;
+    }
+
+    public String getTraceId() { return traceId; }
+    public Span getRoot() { return root; }
+    public List<Span> getSpans() { return Collections.unmodifiableList(spans); }
+    public int getDroppedSpans() { return droppedSpans; }
+    public long getInstrumentationNanos() { return instrumentationNanos; }
+    public long getProxiedCalls() { return proxiedCalls; }
+    public boolean isFinished() { return finished; }
+
+    long end() {
+        finished = true;
+        long now = System.nanoTime();
+        for (Span span : spans) {
+            span.end(now);
+        }
+        return now - startNanos;
+    }
+
+    static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return hex(random.nextLong()) + hex(random.nextLong());
+    }
+
+    static String newSpanId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return hex(id);
+    }
+
+    private static String hex(long value) {
+        String digits = Long.toHexString(value);
+        return "0".repeat(16 - digits.length()) + digits;
+    }
+}
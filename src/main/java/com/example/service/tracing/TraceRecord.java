@@ -0,0 +1,42 @@
+package com.example.service.tracing;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A finished trace as kept in the ring buffer and handed to the exporter
+ */
+public record TraceRecord(String traceId,
+                          String name,
+                          long startEpochMillis,
+                          long durationNanos,
+                          long instrumentationNanos,
+                          int droppedSpans,
+                          List<Span> spans) {
+
+    public Map<String, Object> summary() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("traceId", traceId);
+        view.put("name", name);
+        view.put("startEpochMillis", startEpochMillis);
+        view.put("durationMicros", durationNanos / 1000);
+        view.put("spanCount", spans.size());
+        view.put("instrumentationMicros", instrumentationNanos / 1000);
+        if (droppedSpans > 0) {
+            view.put("droppedSpans", droppedSpans);
+        }
+        return view;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> view = summary();
+        List<Map<String, Object>> spanViews = new ArrayList<>(spans.size());
+        for (Span span : spans) {
+            spanViews.add(span.toMap());
+        }
+        view.put("spans", spanViews);
+        return view;
+    }
+}
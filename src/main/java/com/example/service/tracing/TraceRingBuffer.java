@@ -0,0 +1,62 @@
+package com.example.service.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size, lock-free buffer of the most recent traces. Writers claim a
+ * slot with one atomic increment and overwrite whatever was there; readers
+ * take a best-effort copy without blocking writers.
+ */
+final class TraceRingBuffer {
+
+    private final AtomicReferenceArray<TraceRecord> slots;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+
+    TraceRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    void add(TraceRecord trace) {
+        slots.set((int) (cursor.getAndIncrement() & mask), trace);
+    }
+
+    /**
+     * Up to limit traces, newest first
+     */
+    List<TraceRecord> newest(int limit) {
+        long end = cursor.get();
+        long start = Math.max(0, end - slots.length());
+        List<TraceRecord> result = new ArrayList<>(Math.min(limit, slots.length()));
+        for (long i = end - 1; i >= start && result.size() < limit; i--) {
+            TraceRecord trace = slots.get((int) (i & mask));
+            if (trace != null) {
+                result.add(trace);
+            }
+        }
+        return result;
+    }
+
+    TraceRecord find(String traceId) {
+        for (int i = 0; i < slots.length(); i++) {
+            TraceRecord trace = slots.get(i);
+            if (trace != null && trace.traceId().equals(traceId)) {
+                return trace;
+            }
+        }
+        return null;
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    long written() {
+        return cursor.get();
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.service.tracing;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Records connection acquire, statement execute and result fetch spans for
+ * requests that carry a sampled {@link Trace}. Connections handed to
+ * unsampled requests are returned unwrapped, so they pay nothing beyond the
+ * thread-local lookup.
+ */
+class TracingDataSource extends DelegatingDataSource {
+
+    private final String poolName;
+
+    TracingDataSource(DataSource targetDataSource, String poolName) {
+        super(targetDataSource);
+        this.poolName = poolName;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Trace trace = Trace.current();
+        if (trace == null) {
+            return obtainTargetDataSource().getConnection();
+        }
+
+        Span span = trace.startSpan("db.connection.acquire", Span.Kind.INTERNAL, null);
+        if (span != null) {
+            span.attribute("db.system", "postgresql").attribute("db.pool", poolName);
+        }
+        try {
+            Connection connection = obtainTargetDataSource().getConnection();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(connection, trace, poolName));
+        } catch (SQLException | RuntimeException e) {
+            if (span != null) {
+                span.fail(e);
+            }
+            throw e;
+        } finally {
+            trace.endSpan(span);
+        }
+    }
+
+    static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private final Trace trace;
+        private final String poolName;
+
+        ConnectionHandler(Connection target, Trace trace, String poolName) {
+            this.target = target;
+            this.trace = trace;
+            this.poolName = poolName;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            trace.countProxiedCall();
+            Object result = TracingDataSource.invoke(target, method, args);
+            String name = method.getName();
+            if (result instanceof Statement statement && (name.equals("createStatement")
+                    || name.equals("prepareStatement") || name.equals("prepareCall"))) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                    new Class<?>[] {method.getReturnType()}, new StatementHandler(statement, trace, poolName, sql));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final Trace trace;
+        private final String poolName;
+        private final String preparedSql;
+        private Span lastExecute;
+        private int batchSize;
+
+        StatementHandler(Statement target, Trace trace, String poolName, String preparedSql) {
+            this.target = target;
+            this.trace = trace;
+            this.poolName = poolName;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            trace.countProxiedCall();
+            String name = method.getName();
+            if (name.equals("addBatch")) {
+                batchSize++;
+            }
+            if (!name.startsWith("execute")) {
+                Object result = TracingDataSource.invoke(target, method, args);
+                if (name.equals("getResultSet") && result instanceof ResultSet resultSet) {
+                    return wrap(resultSet, lastExecute);
+                }
+                return result;
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            Span span = trace.startSpan("db.statement.execute", Span.Kind.CLIENT, null);
+            if (span != null) {
+                SqlFingerprint fingerprint = SqlFingerprint.of(sql);
+                span.attribute("db.system", "postgresql")
+                    .attribute("db.pool", poolName)
+                    .attribute("db.statement", fingerprint.normalized())
+                    .attribute("db.fingerprint", fingerprint.id());
+                if (batchSize > 0) {
+                    span.attribute("db.batch_size", batchSize);
+                }
+            }
+            lastExecute = span;
+            batchSize = 0;
+
+            try {
+                Object result = TracingDataSource.invoke(target, method, args);
+                if (span != null) {
+                    recordRowsAffected(span, result);
+                }
+                if (result instanceof ResultSet resultSet) {
+                    trace.endSpan(span);
+                    return wrap(resultSet, span);
+                }
+                return result;
+            } catch (Throwable e) {
+                if (span != null) {
+                    span.fail(e);
+                }
+                throw e;
+            } finally {
+                trace.endSpan(span);
+            }
+        }
+
+        private Object wrap(ResultSet resultSet, Span execute) {
+            Span fetch = trace.startSpan("db.result.fetch", Span.Kind.INTERNAL, execute);
+            if (fetch == null) {
+                return resultSet;
+            }
+            fetch.attribute("db.pool", poolName);
+            return Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[] {ResultSet.class}, new ResultSetHandler(resultSet, trace, fetch, execute));
+        }
+
+        private static void recordRowsAffected(Span span, Object result) {
+            if (result instanceof Integer count && count >= 0) {
+                span.attribute("db.rows_affected", count);
+            } else if (result instanceof Long count && count >= 0) {
+                span.attribute("db.rows_affected", count);
+            } else if (result instanceof int[] counts) {
+                long total = 0;
+                for (int count : counts) {
+                    total += Math.max(0, count);
+                }
+                span.attribute("db.rows_affected", total);
+            }
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final Trace trace;
+        private final Span fetch;
+        private final Span execute;
+        private long rows;
+
+        ResultSetHandler(ResultSet target, Trace trace, Span fetch, Span execute) {
+            this.target = target;
+            this.trace = trace;
+            this.fetch = fetch;
+            this.execute = execute;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            trace.countProxiedCall();
+            String name = method.getName();
+            Object result = TracingDataSource.invoke(target, method, args);
+            if (name.equals("next")) {
+                if (Boolean.TRUE.equals(result)) {
+                    rows++;
+                } else {
+                    finish();
+                }
+            } else if (name.equals("close")) {
+                finish();
+            }
+            return result;
+        }
+
+        private void finish() {
+            if (fetch.isEnded()) {
+                return;
+            }
+            fetch.attribute("db.rows", rows);
+            if (execute != null) {
+                execute.attribute("db.rows", rows);
+            }
+            trace.endSpan(fetch);
+        }
+    }
+}
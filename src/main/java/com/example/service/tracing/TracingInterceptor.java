@@ -0,0 +1,67 @@
+package com.example.service.tracing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Opens the root span of each sampled HTTP request and closes it when the
+ * request completes. Sampled responses carry the trace id in X-Trace-Id.
+ */
+@Component
+public class TracingInterceptor implements AsyncHandlerInterceptor {
+
+    static final String TRACEPARENT_HEADER = "traceparent";
+    static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    private final TracingService tracingService;
+
+    public TracingInterceptor(TracingService tracingService) {
+        this.tracingService = tracingService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : request.getRequestURI();
+
+        Trace trace = tracingService.begin(request.getMethod() + " " + route, request.getHeader(TRACEPARENT_HEADER));
+        if (trace != null) {
+            trace.getRoot()
+                .attribute("http.method", request.getMethod())
+                .attribute("http.route", route)
+                .attribute("http.target", request.getRequestURI());
+            response.setHeader(TRACE_ID_HEADER, trace.getTraceId());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        Trace trace = Trace.current();
+        if (trace != null) {
+            trace.getRoot().attribute("http.status_code", response.getStatus());
+            if (ex != null) {
+                trace.getRoot().fail(ex);
+            }
+        }
+        tracingService.end(trace);
+    }
+
+    /**
+     * Reactive endpoints continue on other threads; the trace covers the
+     * synchronous part only and must not leak to the next request on this thread
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        Trace trace = Trace.current();
+        if (trace != null) {
+            trace.getRoot().attribute("http.async", true);
+        }
+        tracingService.end(trace);
+    }
+}
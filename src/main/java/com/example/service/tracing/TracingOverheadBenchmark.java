@@ -0,0 +1,88 @@
+package com.example.service.tracing;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures what tracing adds to a real query: the same statement runs
+ * alternately with a forced trace and untraced, and the mean latencies are
+ * compared. Alternating in small blocks keeps drift (JIT, pool state, load)
+ * from favouring either side.
+ */
+@Service
+public class TracingOverheadBenchmark {
+
+    private static final String PROBE_SQL = "SELECT relname FROM pg_class WHERE relkind = 'r' LIMIT 50";
+    private static final int BLOCK = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TracingService tracingService;
+
+    public TracingOverheadBenchmark(JdbcTemplate jdbcTemplate, TracingService tracingService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tracingService = tracingService;
+    }
+
+    public synchronized Map<String, Object> run(int iterations) throws Exception {
+        if (!tracingService.isTracingEnabled()) {
+            throw new IllegalStateException("Tracing is disabled (app.tracing.enabled)");
+        }
+
+        // Warm-up of both paths
+        for (int i = 0; i < Math.min(iterations, 200); i++) {
+            tracingService.callTraced(this::probe);
+            tracingService.callUntraced(this::probe);
+        }
+
+        long tracedNanos = 0;
+        long untracedNanos = 0;
+        for (int done = 0; done < iterations; done += BLOCK) {
+            int block = Math.min(BLOCK, iterations - done);
+            long started = System.nanoTime();
+            for (int i = 0; i < block; i++) {
+                tracingService.callUntraced(this::probe);
+            }
+            untracedNanos += System.nanoTime() - started;
+
+            started = System.nanoTime();
+            for (int i = 0; i < block; i++) {
+                tracingService.callTraced(this::probe);
+            }
+            tracedNanos += System.nanoTime() - started;
+        }
+
+        double untracedMicros = untracedNanos / 1000.0 / iterations;
+        double tracedMicros = tracedNanos / 1000.0 / iterations;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("iterations", iterations);
+        result.put("query", PROBE_SQL);
+        result.put("untracedMeanMicros", round(untracedMicros));
+        result.put("tracedMeanMicros", round(tracedMicros));
+        result.put("overheadMicrosPerQuery", round(tracedMicros - untracedMicros));
+        result.put("overheadPercent", untracedMicros > 0
+            ? round((tracedMicros - untracedMicros) / untracedMicros * 100) : 0.0);
+        result.put("sampleRate", tracingService.getSampleRate());
+        // Unsampled requests only pay the sampling decision, so the fleet-wide cost scales with the rate
+        result.put("expectedOverheadPercentAtSampleRate", untracedMicros > 0
+            ? round((tracedMicros - untracedMicros) / untracedMicros * 100 * tracingService.getSampleRate()) : 0.0);
+        return result;
+    }
+
+    private Integer probe() {
+        return jdbcTemplate.query(PROBE_SQL, rs -> {
+            int rows = 0;
+            while (rs.next()) {
+                rs.getString(1);
+                rows++;
+            }
+            return rows;
+        });
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.service.tracing;
+
+import com.example.config.DataSourceDecorator;
+import com.example.service.resilience.CircuitBreakerService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process tracing of database calls. HTTP requests are head-sampled at
+ * app.tracing.sample-rate (or follow an incoming W3C traceparent decision);
+ * sampled requests record connection acquire, statement execute and result
+ * fetch spans through {@link TracingDataSource}, the outermost DataSource
+ * decorator, so acquire time includes admission and circuit breaker waits.
+ * Finished traces go to a lock-free ring buffer and, when enabled, to the
+ * OTLP exporter.
+ */
+@Service
+@Order(TracingService.ORDER)
+public class TracingService implements DataSourceDecorator {
+
+    public static final int ORDER = CircuitBreakerService.ORDER + 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(TracingService.class);
+
+    private static final Pattern TRACEPARENT =
+        Pattern.compile("^[0-9a-f]{2}-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})$");
+
+    private final ObjectProvider<OtlpTraceExporter> exporter;
+    private final TraceRingBuffer buffer;
+    private final boolean tracingEnabled;
+    private final int maxSpansPerTrace;
+    private volatile double sampleRate;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder spans = new LongAdder();
+    private final LongAdder droppedSpans = new LongAdder();
+    private final LongAdder tracedNanos = new LongAdder();
+    private final LongAdder instrumentationNanos = new LongAdder();
+    private final LongAdder proxiedCalls = new LongAdder();
+    private volatile double proxyCallNanos;
+
+    public TracingService(ObjectProvider<OtlpTraceExporter> exporter,
+                          @Value("${app.tracing.enabled:true}") boolean tracingEnabled,
+                          @Value("${app.tracing.sample-rate:0.01}") double sampleRate,
+                          @Value("${app.tracing.buffer-size:1024}") int bufferSize,
+                          @Value("${app.tracing.max-spans-per-trace:256}") int maxSpansPerTrace) {
+        this.exporter = exporter;
+        this.tracingEnabled = tracingEnabled;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+        this.buffer = new TraceRingBuffer(bufferSize);
+        setSampleRate(sampleRate);
+    }
+
+    @PostConstruct
+    public void calibrate() {
+        if (tracingEnabled) {
+            proxyCallNanos = measureProxyCallNanos();
+            logger.info("Database tracing enabled, sample rate {}, ~{}ns per instrumented JDBC call",
+                       sampleRate, String.format("%.0f", proxyCallNanos));
+        }
+    }
+
+    @Override
+    public DataSource decorate(String poolName, DataSource dataSource) {
+        return tracingEnabled ? new TracingDataSource(dataSource, poolName) : dataSource;
+    }
+
+    /**
+     * Makes the head sampling decision for a request and binds a trace to the
+     * current thread when sampled; returns null otherwise
+     */
+    public Trace begin(String name, String traceparent) {
+        if (!tracingEnabled) {
+            return null;
+        }
+        requests.increment();
+
+        String traceId = null;
+        String parentSpanId = null;
+        boolean sample;
+        Matcher upstream = traceparent != null ? TRACEPARENT.matcher(traceparent.trim()) : null;
+        if (upstream != null && upstream.matches()) {
+            // Respect the caller's decision so distributed traces stay complete
+            traceId = upstream.group(1);
+            parentSpanId = upstream.group(2);
+            sample = (Integer.parseInt(upstream.group(3), 16) & 1) == 1;
+        } else {
+            double rate = sampleRate;
+            sample = rate > 0 && (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate);
+        }
+        if (!sample) {
+            return null;
+        }
+
+        Trace trace = new Trace(traceId != null ? traceId : Trace.newTraceId(), parentSpanId, name, maxSpansPerTrace);
+        Trace.set(trace);
+        sampled.increment();
+        return trace;
+    }
+
+    /**
+     * Ends the trace bound to the current thread and publishes it
+     */
+    public void end(Trace trace) {
+        Trace.clear();
+        if (trace == null || trace.isFinished()) {
+            return;
+        }
+        long durationNanos = trace.end();
+        long overheadNanos = trace.getInstrumentationNanos() + Math.round(trace.getProxiedCalls() * proxyCallNanos);
+
+        TraceRecord record = new TraceRecord(trace.getTraceId(), trace.getRoot().getName(),
+            trace.getRoot().getStartEpochNanos() / 1_000_000, durationNanos, overheadNanos,
+            trace.getDroppedSpans(), List.copyOf(trace.getSpans()));
+        buffer.add(record);
+
+        spans.add(record.spans().size());
+        droppedSpans.add(trace.getDroppedSpans());
+        tracedNanos.add(durationNanos);
+        instrumentationNanos.add(overheadNanos);
+        proxiedCalls.add(trace.getProxiedCalls());
+
+        OtlpTraceExporter otlp = exporter.getIfAvailable();
+        if (otlp != null) {
+            otlp.offer(record);
+        }
+    }
+
+    /**
+     * Runs a task under a forced trace that is discarded afterwards, for overhead measurement
+     */
+    <T> T callTraced(Callable<T> task) throws Exception {
+        Trace trace = new Trace(Trace.newTraceId(), null, "overhead-probe", maxSpansPerTrace);
+        Trace previous = Trace.current();
+        Trace.set(trace);
+        try {
+            return task.call();
+        } finally {
+            trace.end();
+            if (previous != null) {
+                Trace.set(previous);
+            } else {
+                Trace.clear();
+            }
+        }
+    }
+
+    /**
+     * Runs a task with tracing suppressed on the current thread
+     */
+    <T> T callUntraced(Callable<T> task) throws Exception {
+        Trace previous = Trace.current();
+        Trace.clear();
+        try {
+            return task.call();
+        } finally {
+            if (previous != null) {
+                Trace.set(previous);
+            }
+        }
+    }
+
+    public boolean isTracingEnabled() {
+        return tracingEnabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double rate) {
+        if (Double.isNaN(rate) || rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1");
+        }
+        this.sampleRate = rate;
+    }
+
+    public List<Map<String, Object>> getRecentTraces(int limit, long minDurationMs) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        long minNanos = minDurationMs * 1_000_000;
+        for (TraceRecord trace : buffer.newest(buffer.capacity())) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (trace.durationNanos() >= minNanos) {
+                result.add(trace.summary());
+            }
+        }
+        return result;
+    }
+
+    public Map<String, Object> getTrace(String traceId) {
+        TraceRecord trace = buffer.find(traceId);
+        if (trace == null) {
+            throw new IllegalArgumentException("Trace not found (it may have been overwritten): " + traceId);
+        }
+        return trace.toMap();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", tracingEnabled);
+        status.put("sampleRate", sampleRate);
+        status.put("requestsSeen", requests.sum());
+        status.put("tracesSampled", sampled.sum());
+        status.put("spansRecorded", spans.sum());
+        status.put("spansDropped", droppedSpans.sum());
+        status.put("bufferCapacity", buffer.capacity());
+        status.put("tracesWritten", buffer.written());
+
+        // Time spent in tracing code relative to the traced requests themselves
+        Map<String, Object> overhead = new LinkedHashMap<>();
+        long traced = tracedNanos.sum();
+        long instrumentation = instrumentationNanos.sum();
+        overhead.put("proxyCallNanos", Math.round(proxyCallNanos));
+        overhead.put("instrumentedCalls", proxiedCalls.sum());
+        overhead.put("instrumentationMicros", instrumentation / 1000);
+        overhead.put("percentOfTracedTime", traced > 0 ? Math.round(instrumentation * 10000.0 / traced) / 100.0 : 0.0);
+        status.put("overhead", overhead);
+
+        OtlpTraceExporter otlp = exporter.getIfAvailable();
+        status.put("otlp", otlp != null ? otlp.getStatus() : Map.of("enabled", false));
+        return status;
+    }
+
+    /**
+     * Cost of one call through a JDK dynamic proxy compared with a direct call,
+     * used to account for the per-call cost that is too small to time inline
+     */
+    private static double measureProxyCallNanos() {
+        Runnable direct = () -> { };
+        Runnable proxied = (Runnable) Proxy.newProxyInstance(Runnable.class.getClassLoader(),
+            new Class<?>[] {Runnable.class}, (proxy, method, args) -> TracingDataSource.invoke(direct, method, args));
+        int iterations = 200_000;
+        for (int i = 0; i < iterations; i++) {
+            proxied.run();
+            direct.run();
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            proxied.run();
+        }
+        long proxiedNanos = System.nanoTime() - started;
+        started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            direct.run();
+        }
+        long directNanos = System.nanoTime() - started;
+        return Math.max(0, (double) (proxiedNanos - directNanos) / iterations);
+    }
+}
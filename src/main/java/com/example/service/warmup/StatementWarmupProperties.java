@@ -0,0 +1,78 @@
+package com.example.service.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prepared-statement warm-up of new pool connections, bound from
+ * app.statement-warmup.*
+ *
+ * <pre>
+ * app.statement-warmup.enabled=true
+ * app.statement-warmup.pools=oltp
+ * app.statement-warmup.statements.oltp[0]=SELECT * FROM customers WHERE id = ?
+ * app.statement-warmup.statements.oltp[1]=SELECT * FROM orders WHERE customer_id = ? ORDER BY order_date DESC
+ * </pre>
+ *
+ * Declared statements are keyed by pool name and must match the SQL text the
+ * application prepares exactly, since pgjdbc caches per connection by text.
+ * Only the pools listed in pools are warmed. With learn=true the statements
+ * a pool prepares most often are added to the declared ones; their counts
+ * are halved every decay-interval-ms so statements that stopped running age
+ * out.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.statement-warmup")
+public class StatementWarmupProperties {
+
+    private boolean enabled = false;
+    private List<String> pools = new ArrayList<>();
+    private boolean learn = false;
+    private int prepareThreshold = 0;
+    private long minExecutions = 20;
+    private int maxStatements = 50;
+    private int maxTracked = 2000;
+    private long decayIntervalMs = 600000;
+    private long maxDurationMs = 2000;
+    private Map<String, List<String>> statements = new LinkedHashMap<>();
+
+    // Getters and setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public List<String> getPools() { return pools; }
+    public void setPools(List<String> pools) { this.pools = pools; }
+
+    public boolean isLearn() { return learn; }
+    public void setLearn(boolean learn) { this.learn = learn; }
+
+    public int getPrepareThreshold() { return prepareThreshold; }
+    public void setPrepareThreshold(int prepareThreshold) { this.prepareThreshold = prepareThreshold; }
+
+    public long getMinExecutions() { return minExecutions; }
+    public void setMinExecutions(long minExecutions) { this.minExecutions = minExecutions; }
+
+    public int getMaxStatements() { return maxStatements; }
+    public void setMaxStatements(int maxStatements) { this.maxStatements = maxStatements; }
+
+    public int getMaxTracked() { return maxTracked; }
+    public void setMaxTracked(int maxTracked) { this.maxTracked = maxTracked; }
+
+    public long getDecayIntervalMs() { return decayIntervalMs; }
+    public void setDecayIntervalMs(long decayIntervalMs) { this.decayIntervalMs = decayIntervalMs; }
+
+    public long getMaxDurationMs() { return maxDurationMs; }
+    public void setMaxDurationMs(long maxDurationMs) { this.maxDurationMs = maxDurationMs; }
+
+    public Map<String, List<String>> getStatements() { return statements; }
+    public void setStatements(Map<String, List<String>> statements) { this.statements = statements; }
+
+    public List<String> getStatements(String pool) {
+        return statements.getOrDefault(pool, new ArrayList<>());
+    }
+}
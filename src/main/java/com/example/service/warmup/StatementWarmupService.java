@@ -0,0 +1,299 @@
+package com.example.service.warmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.postgresql.PGConnection;
+import org.postgresql.PGProperty;
+import org.postgresql.PGStatement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prepares a pool's hot statements on every new physical connection before
+ * Hikari hands it out, so pool growth, evictions and max-lifetime rollover
+ * do not each cost the first requests a parse and plan round trip and the
+ * pgjdbc prepareThreshold ramp-up.
+ *
+ * Each statement is described with a prepare threshold of 1, which makes
+ * pgjdbc parse it as a named server-side statement and keep it in the
+ * connection's statement cache; the first real execution then only binds.
+ * Afterwards the connection's own threshold can be overridden with
+ * app.statement-warmup.prepare-threshold; 0 keeps the pool's driver profile.
+ *
+ * Pools opt in through app.statement-warmup.pools. A pool whose effective
+ * prepareThreshold is 0 (the REPORTING profile) is never warmed: pgjdbc would
+ * not use the prepared statements there. Statements are declared per pool
+ * and, with learning on, the most frequently prepared ones observed on the
+ * pool's connections are added.
+ */
+@Service
+public class StatementWarmupService implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementWarmupService.class);
+
+    private static final Set<String> LEARNABLE = Set.of("select", "insert", "update", "delete", "with");
+
+    private final StatementWarmupProperties properties;
+    private final Map<String, PoolWarmup> pools = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry meterRegistry;
+
+    public StatementWarmupService(StatementWarmupProperties properties) {
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Whether new connections of the pool should be warmed, given the driver
+     * properties they connect with (URL parameters included)
+     */
+    public boolean appliesTo(String poolName, Properties driverProperties) {
+        if (!properties.isEnabled() || !properties.getPools().contains(poolName)) {
+            return false;
+        }
+        int threshold = properties.getPrepareThreshold() > 0
+            ? properties.getPrepareThreshold() : prepareThreshold(driverProperties);
+        if (threshold <= 0) {
+            logger.info("Statement warm-up skips pool {}: with prepareThreshold 0 the driver never uses server-prepared statements",
+                       poolName);
+            return false;
+        }
+        return true;
+    }
+
+    private static int prepareThreshold(Properties driverProperties) {
+        String value = PGProperty.PREPARE_THRESHOLD.getOrDefault(driverProperties);
+        try {
+            return value != null ? Integer.parseInt(value.trim()) : 5;
+        } catch (NumberFormatException e) {
+            // pgjdbc falls back to its default as well
+            return 5;
+        }
+    }
+
+    /**
+     * Wraps the data source a pool opens physical connections from
+     */
+    public DataSource wrap(String poolName, DataSource dataSource) {
+        pools.computeIfAbsent(poolName, name -> new PoolWarmup());
+        return new WarmingDataSource(dataSource, poolName, this);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+    }
+
+    Connection onConnect(String poolName, Connection connection) throws SQLException {
+        PoolWarmup pool = pools.computeIfAbsent(poolName, name -> new PoolWarmup());
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(properties.getMaxDurationMs());
+        int prepared = 0;
+        int failed = 0;
+
+        try {
+            for (String sql : statements(poolName, pool)) {
+                if (System.nanoTime() > deadline) {
+                    pool.truncated.increment();
+                    break;
+                }
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    statement.unwrap(PGStatement.class).setPrepareThreshold(1);
+                    // Parse and describe without executing
+                    statement.getParameterMetaData();
+                    prepared++;
+                } catch (SQLException e) {
+                    failed++;
+                    if (pool.rejected.add(sql)) {
+                        logger.warn("Statement warm-up for pool {} skips from now on: {} ({})", poolName, sql, e.getMessage());
+                    }
+                }
+            }
+            if (properties.getPrepareThreshold() > 0) {
+                connection.unwrap(PGConnection.class).setPrepareThreshold(properties.getPrepareThreshold());
+            }
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+
+        long elapsed = System.nanoTime() - started;
+        pool.record(elapsed, prepared, failed);
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            Timer.builder("db.pool.statement.warmup")
+                .description("Time spent preparing hot statements on a new pool connection")
+                .tag("pool", poolName)
+                .register(registry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+        logger.debug("Warmed new {} connection with {} statements in {}ms", poolName, prepared,
+                     TimeUnit.NANOSECONDS.toMillis(elapsed));
+
+        if (!properties.isLearn()) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class}, new LearningHandler(connection, pool));
+    }
+
+    /**
+     * Declared statements first, then the learned ones by frequency
+     */
+    private List<String> statements(String poolName, PoolWarmup pool) {
+        Set<String> statements = new LinkedHashSet<>(properties.getStatements(poolName));
+        if (properties.isLearn()) {
+            pool.ageIfDue();
+            pool.observed.entrySet().stream()
+                .filter(entry -> entry.getValue().sum() >= properties.getMinExecutions())
+                .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+                .map(Map.Entry::getKey)
+                .forEach(statements::add);
+        }
+        statements.removeAll(pool.rejected);
+        return statements.stream().limit(properties.getMaxStatements()).toList();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> byPool = new LinkedHashMap<>();
+        pools.forEach((name, pool) -> {
+            Map<String, Object> view = new LinkedHashMap<>();
+            List<String> statements = statements(name, pool);
+            view.put("statements", statements.size());
+            view.put("declared", properties.getStatements(name).size());
+            view.put("tracked", pool.observed.size());
+            view.put("rejected", pool.rejected);
+            view.put("connectionsWarmed", pool.connections.sum());
+            view.put("statementsPrepared", pool.prepared.sum());
+            view.put("statementsFailed", pool.failed.sum());
+            view.put("truncatedWarmups", pool.truncated.sum());
+            long connections = pool.connections.sum();
+            view.put("avgWarmupMs", connections > 0 ? pool.totalNanos.sum() / connections / 1e6 : 0.0);
+            view.put("maxWarmupMs", pool.maxNanos.get() / 1e6);
+            view.put("lastWarmupMs", pool.lastNanos / 1e6);
+            view.put("hotStatements", statements);
+            byPool.put(name, view);
+        });
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", properties.isEnabled());
+        status.put("enabledPools", properties.getPools());
+        status.put("learn", properties.isLearn());
+        status.put("prepareThreshold", properties.getPrepareThreshold());
+        status.put("pools", byPool);
+        return status;
+    }
+
+    private final class PoolWarmup {
+        final Map<String, LongAdder> observed = new ConcurrentHashMap<>();
+        final Set<String> rejected = ConcurrentHashMap.newKeySet();
+        final LongAdder connections = new LongAdder();
+        final LongAdder prepared = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder truncated = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        final AtomicLong agedAt = new AtomicLong(System.nanoTime());
+        volatile long lastNanos;
+
+        void record(long nanos, int statements, int failures) {
+            connections.increment();
+            prepared.add(statements);
+            failed.add(failures);
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            lastNanos = nanos;
+        }
+
+        void observe(String sql) {
+            ageIfDue();
+            LongAdder count = observed.get(sql);
+            if (count == null) {
+                // Bounded, so one-off statements cannot grow the map without limit
+                if (observed.size() >= properties.getMaxTracked() || !learnable(sql)) {
+                    return;
+                }
+                count = observed.computeIfAbsent(sql, key -> new LongAdder());
+            }
+            count.increment();
+        }
+
+        /**
+         * Halves every count once per decay interval and forgets statements
+         * that drop to zero, so the ranking follows the current workload
+         */
+        void ageIfDue() {
+            long interval = TimeUnit.MILLISECONDS.toNanos(properties.getDecayIntervalMs());
+            long last = agedAt.get();
+            long now = System.nanoTime();
+            if (interval <= 0 || now - last < interval || !agedAt.compareAndSet(last, now)) {
+                return;
+            }
+            observed.values().removeIf(count -> {
+                long halved = count.sumThenReset() / 2;
+                count.add(halved);
+                return halved == 0;
+            });
+        }
+
+        private boolean learnable(String sql) {
+            String trimmed = sql.stripLeading();
+            int end = 0;
+            while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+                end++;
+            }
+            return LEARNABLE.contains(trimmed.substring(0, end).toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Counts prepareStatement calls by SQL text; everything else goes straight
+     * to the physical connection
+     */
+    private static final class LearningHandler implements InvocationHandler {
+        private final Connection target;
+        private final PoolWarmup pool;
+
+        LearningHandler(Connection target, PoolWarmup pool) {
+            this.target = target;
+            this.pool = pool;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("prepareStatement") && args[0] instanceof String sql) {
+                pool.observe(sql);
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.service.warmup;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * The physical-connection source of a Hikari pool: every connection the
+ * pool opens passes through {@link StatementWarmupService#onConnect} before
+ * Hikari adds it to the pool, so warm-up never runs on a borrowed connection.
+ */
+class WarmingDataSource extends DelegatingDataSource {
+
+    private final String poolName;
+    private final StatementWarmupService warmupService;
+
+    WarmingDataSource(DataSource targetDataSource, String poolName, StatementWarmupService warmupService) {
+        super(targetDataSource);
+        this.poolName = poolName;
+        this.warmupService = warmupService;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return warmupService.onConnect(poolName, obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return warmupService.onConnect(poolName, obtainTargetDataSource().getConnection(username, password));
+    }
+}
@@ -45,7 +45,9 @@ DROP FUNCTION IF EXISTS log_schema_operation(VARCHAR, VARCHAR, TEXT, INTEGER) CA
 \echo ''
 \echo '3. Dropping views...'
 
--- Drop views
+-- Drop views (materialized copies first)
+DROP MATERIALIZED VIEW IF EXISTS mv_customer_summary;
+DROP MATERIALIZED VIEW IF EXISTS mv_product_inventory;
 DROP VIEW IF EXISTS v_customer_summary CASCADE;
 DROP VIEW IF EXISTS v_product_inventory CASCADE;
 
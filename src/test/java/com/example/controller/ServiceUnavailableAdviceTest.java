@@ -0,0 +1,76 @@
+package com.example.controller;
+
+import com.example.service.admission.AdmissionRejectedException;
+import com.example.service.resilience.CircuitOpenException;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ServiceUnavailableAdviceTest {
+
+    private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new RejectingController())
+        .setControllerAdvice(new ServiceUnavailableAdvice())
+        .build();
+
+    @Test
+    void wrappedAdmissionRejectionIsServiceUnavailable() throws Exception {
+        mvc.perform(get("/rejected"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string("Retry-After", "1"))
+            .andExpect(jsonPath("$.status").value("error"))
+            .andExpect(jsonPath("$.message").value("deadline passed"));
+    }
+
+    @Test
+    void openCircuitRetriesAfterTheRemainingOpenDuration() throws Exception {
+        mvc.perform(get("/circuit-open"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string("Retry-After", "3"));
+    }
+
+    @Test
+    void onlyRejectionsAreRethrown() {
+        assertThatCode(() -> ServiceUnavailableAdvice.rethrowIfUnavailable(new SQLException("syntax error")))
+            .doesNotThrowAnyException();
+        assertThatThrownBy(() -> ServiceUnavailableAdvice.rethrowIfUnavailable(
+            new AdmissionRejectedException("deadline passed")))
+            .hasCauseInstanceOf(AdmissionRejectedException.class);
+    }
+
+    @RestController
+    static class RejectingController {
+
+        @GetMapping("/rejected")
+        String rejected() {
+            try {
+                throw new CannotGetJdbcConnectionException("Failed to obtain JDBC Connection",
+                                                           new AdmissionRejectedException("deadline passed"));
+            } catch (Exception e) {
+                ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+                return "unreachable";
+            }
+        }
+
+        @GetMapping("/circuit-open")
+        String circuitOpen() {
+            try {
+                throw new CircuitOpenException("Circuit breaker for pool oltp is OPEN", 2_500);
+            } catch (Exception e) {
+                ServiceUnavailableAdvice.rethrowIfUnavailable(e);
+                return "unreachable";
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.service.cdc;
+
+import com.example.config.DataSourceRegistry;
+import com.example.config.DatabasePool;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.postgresql.replication.LogSequenceNumber;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Streams real changes from a local Postgres running with wal_level=logical,
+ * e.g. CDC_TEST_URL=jdbc:postgresql://localhost:5432/postgres and optionally
+ * CDC_TEST_USERNAME / CDC_TEST_PASSWORD (default postgres). The user needs
+ * the REPLICATION attribute; the test creates and drops its own table,
+ * publication and slot.
+ */
+@EnabledIfEnvironmentVariable(named = "CDC_TEST_URL", matches = ".+")
+class ChangeDataCaptureLocalPostgresTest {
+
+    private static final String TABLE = "cdc_test_items";
+    private static final String SLOT = "cdc_test_slot";
+    private static final String PUBLICATION = "cdc_test_pub";
+    private static final long WAIT_MS = 15_000;
+
+    private DataSourceRegistry registry;
+    private JdbcTemplate jdbc;
+    private ControlledSink sink;
+    private ChangeDataCaptureService service;
+
+    @BeforeEach
+    void setUp() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(System.getenv("CDC_TEST_URL"));
+        config.setUsername(Objects.requireNonNullElse(System.getenv("CDC_TEST_USERNAME"), "postgres"));
+        config.setPassword(Objects.requireNonNullElse(System.getenv("CDC_TEST_PASSWORD"), "postgres"));
+        config.setMaximumPoolSize(2);
+        registry = new DataSourceRegistry(List.of());
+        registry.register(DatabasePool.ADMIN, new HikariDataSource(config));
+        jdbc = registry.getJdbcTemplate(DatabasePool.ADMIN);
+
+        dropReplicationObjects();
+        jdbc.execute("DROP TABLE IF EXISTS " + TABLE);
+        jdbc.execute("CREATE TABLE " + TABLE + " (id BIGINT PRIMARY KEY, name TEXT NOT NULL)");
+
+        sink = new ControlledSink();
+        service = new ChangeDataCaptureService(registry, List.of(sink));
+        ReflectionTestUtils.setField(service, "slotName", SLOT);
+        ReflectionTestUtils.setField(service, "publicationName", PUBLICATION);
+        ReflectionTestUtils.setField(service, "tables", List.of(TABLE));
+        ReflectionTestUtils.setField(service, "pollIntervalMs", 10L);
+        ReflectionTestUtils.setField(service, "statusIntervalSeconds", 1);
+        ReflectionTestUtils.setField(service, "sinkTimeoutMs", WAIT_MS);
+        ReflectionTestUtils.setField(service, "retryBackoffMs", 200L);
+        ReflectionTestUtils.setField(service, "maxTransactionEvents", 1000);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+        dropReplicationObjects();
+        jdbc.execute("DROP TABLE IF EXISTS " + TABLE);
+        registry.destroy();
+    }
+
+    @Test
+    void insertUpdateAndDeleteReachTheSink() {
+        jdbc.update("INSERT INTO " + TABLE + " VALUES (1, 'first')");
+        jdbc.update("UPDATE " + TABLE + " SET name = 'renamed' WHERE id = 1");
+        jdbc.update("DELETE FROM " + TABLE + " WHERE id = 1");
+
+        await(() -> sink.delivered.size() == 3);
+
+        assertThat(sink.delivered).extracting(ChangeEvent::operation).containsExactly(
+            ChangeEvent.Operation.INSERT, ChangeEvent.Operation.UPDATE, ChangeEvent.Operation.DELETE);
+        assertThat(sink.delivered.get(0).after()).containsEntry("id", 1L).containsEntry("name", "first");
+        assertThat(sink.delivered.get(1).after()).containsEntry("name", "renamed");
+        assertThat(sink.delivered.get(2).before()).containsEntry("id", 1L);
+        assertThat(sink.delivered).allMatch(event -> TABLE.equals(event.table()));
+    }
+
+    @Test
+    void positionIsOnlyConfirmedOnceTheSinkCompletes() throws Exception {
+        CompletableFuture<Void> pending = new CompletableFuture<>();
+        sink.next = pending;
+        jdbc.update("INSERT INTO " + TABLE + " VALUES (2, 'held')");
+
+        await(() -> sink.received.size() == 1);
+        Thread.sleep(300);
+        assertThat(service.getStatus().get("confirmedLsn")).isNull();
+
+        pending.complete(null);
+        await(() -> service.getStatus().get("confirmedLsn") != null);
+        assertThat(confirmedPosition()).isGreaterThan(position(sink.received.get(0).get(0)));
+    }
+
+    @Test
+    void failedDeliveryIsStreamedAgain() {
+        sink.next = CompletableFuture.failedFuture(new IllegalStateException("sink unavailable"));
+        jdbc.update("INSERT INTO " + TABLE + " VALUES (3, 'retried')");
+
+        await(() -> sink.delivered.size() == 1);
+
+        assertThat(sink.received).hasSize(2);
+        assertThat(sink.received.get(1)).isEqualTo(sink.received.get(0));
+        assertThat((Long) service.getStatus().get("deliveryFailures")).isEqualTo(1);
+        await(() -> service.getStatus().get("confirmedLsn") != null);
+        assertThat(confirmedPosition()).isGreaterThan(position(sink.delivered.get(0)));
+    }
+
+    private long confirmedPosition() {
+        return LogSequenceNumber.valueOf((String) service.getStatus().get("confirmedLsn")).asLong();
+    }
+
+    private static long position(ChangeEvent event) {
+        return LogSequenceNumber.valueOf(event.lsn()).asLong();
+    }
+
+    private void dropReplicationObjects() {
+        jdbc.queryForList("SELECT pg_drop_replication_slot(slot_name) FROM pg_replication_slots WHERE slot_name = ?", SLOT);
+        jdbc.execute("DROP PUBLICATION IF EXISTS " + PUBLICATION);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_MS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within " + WAIT_MS + "ms");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    /**
+     * Records every transaction it is handed; the next one gets the given
+     * future instead of completing right away
+     */
+    private static final class ControlledSink implements ChangeEventSink {
+        private final List<List<ChangeEvent>> received = new CopyOnWriteArrayList<>();
+        private final List<ChangeEvent> delivered = new CopyOnWriteArrayList<>();
+        private volatile CompletableFuture<Void> next;
+
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Override
+        public CompletableFuture<Void> publish(List<ChangeEvent> transaction) {
+            received.add(transaction);
+            CompletableFuture<Void> result = next != null ? next : CompletableFuture.completedFuture(null);
+            next = null;
+            return result.thenRun(() -> delivered.addAll(transaction));
+        }
+    }
+}
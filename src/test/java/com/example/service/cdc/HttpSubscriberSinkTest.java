@@ -0,0 +1,42 @@
+package com.example.service.cdc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HttpSubscriberSinkTest {
+
+    @Test
+    void onlyHttpUrlsWithAHostAreAccepted() {
+        assertThat(HttpSubscriberSink.parse("https://hooks.example.com/cdc").getHost()).isEqualTo("hooks.example.com");
+
+        for (String url : List.of("foo", "file:/etc/passwd", "ftp://example.com/x", "http:///path", "mailto:a@example.com")) {
+            assertThatThrownBy(() -> HttpSubscriberSink.parse(url)).as(url).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void runtimeSubscribersMustUseAnAllowedHost() {
+        HttpSubscriberSink sink = new HttpSubscriberSink(new ObjectMapper(), List.of("http://configured.internal:8080/cdc"));
+        ReflectionTestUtils.setField(sink, "allowedHosts", List.of("hooks.example.com"));
+
+        sink.addSubscriber("https://HOOKS.example.com/cdc");
+
+        assertThatThrownBy(() -> sink.addSubscriber("http://169.254.169.254/latest/meta-data"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("allowed-hosts");
+        assertThat(sink.getSubscribers())
+            .containsExactlyInAnyOrder("http://configured.internal:8080/cdc", "https://HOOKS.example.com/cdc");
+    }
+
+    @Test
+    void invalidConfiguredSubscriberFailsStartup() {
+        assertThatThrownBy(() -> new HttpSubscriberSink(new ObjectMapper(), List.of("file:/etc/passwd")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
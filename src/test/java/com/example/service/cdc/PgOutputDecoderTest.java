@@ -0,0 +1,259 @@
+package com.example.service.cdc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.replication.LogSequenceNumber;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PgOutputDecoderTest {
+
+    private static final int ORDERS_OID = 16401;
+    private static final long COMMIT_LSN = 0x16B3748L;
+    private static final long END_LSN = 0x16B3790L;
+    // 2024-01-02T03:04:05.123456Z in microseconds since 2000-01-01
+    private static final long COMMIT_MICROS = 757_479_845_123_456L;
+
+    private PgOutputDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        decoder = new PgOutputDecoder(10);
+        decoder.decode(relation());
+    }
+
+    @Test
+    void insertIsHandedOutOnCommitWithTypedValues() {
+        assertThat(decoder.decode(begin(742))).isNull();
+        assertThat(decoder.decode(insert(new Column('t', "7"), new Column('t', "t"),
+                                         new Column('t', "19.99"), new Column('t', "new")))).isNull();
+
+        PgOutputDecoder.Transaction transaction = decoder.decode(commit());
+
+        assertThat(transaction.xid()).isEqualTo(742);
+        assertThat(transaction.endLsn()).isEqualTo(LogSequenceNumber.valueOf(END_LSN));
+        assertThat(transaction.events()).hasSize(1);
+        ChangeEvent event = transaction.events().get(0);
+        assertThat(event.operation()).isEqualTo(ChangeEvent.Operation.INSERT);
+        assertThat(event.schema()).isEqualTo("public");
+        assertThat(event.table()).isEqualTo("orders");
+        assertThat(event.lsn()).isEqualTo(LogSequenceNumber.valueOf(COMMIT_LSN).asString());
+        assertThat(event.commitTime()).isEqualTo(Instant.parse("2024-01-02T03:04:05.123456Z"));
+        assertThat(event.before()).isEmpty();
+        assertThat(event.after()).containsExactly(
+            Map.entry("id", 7L),
+            Map.entry("paid", true),
+            Map.entry("total", new BigDecimal("19.99")),
+            Map.entry("status", "new"));
+    }
+
+    @Test
+    void nullAndUnchangedToastColumnsAreDistinguished() {
+        decoder.decode(begin(1));
+        decoder.decode(insert(new Column('t', "1"), new Column('n', null),
+                              new Column('u', null), new Column('t', "new")));
+
+        Map<String, Object> after = decoder.decode(commit()).events().get(0).after();
+
+        assertThat(after).containsEntry("paid", null);
+        assertThat(after).doesNotContainKey("total");
+    }
+
+    @Test
+    void updateCarriesOldKeyWhenSent() {
+        decoder.decode(begin(2));
+        decoder.decode(update('K', new Column[] {new Column('t', "7"), new Column('n', null),
+                                                 new Column('n', null), new Column('n', null)},
+                              new Column('t', "7"), new Column('t', "f"), new Column('t', "5.00"), new Column('t', "paid")));
+        decoder.decode(update('N', null,
+                              new Column('t', "8"), new Column('t', "f"), new Column('t', "1"), new Column('t', "new")));
+
+        var events = decoder.decode(commit()).events();
+
+        assertThat(events).extracting(ChangeEvent::operation)
+            .containsExactly(ChangeEvent.Operation.UPDATE, ChangeEvent.Operation.UPDATE);
+        assertThat(events.get(0).before()).containsEntry("id", 7L);
+        assertThat(events.get(0).after()).containsEntry("status", "paid");
+        assertThat(events.get(1).before()).isEmpty();
+        assertThat(events.get(1).after()).containsEntry("id", 8L);
+    }
+
+    @Test
+    void deleteAndTruncateAreDecoded() {
+        decoder.decode(begin(3));
+        decoder.decode(delete(new Column('t', "7"), new Column('n', null), new Column('n', null), new Column('n', null)));
+        decoder.decode(truncate());
+        decoder.decode(origin());
+
+        var events = decoder.decode(commit()).events();
+
+        assertThat(events).extracting(ChangeEvent::operation)
+            .containsExactly(ChangeEvent.Operation.DELETE, ChangeEvent.Operation.TRUNCATE);
+        assertThat(events.get(0).before()).containsEntry("id", 7L);
+        assertThat(events.get(0).after()).isEmpty();
+        assertThat(events.get(1).table()).isEqualTo("orders");
+    }
+
+    @Test
+    void changeOutsideTransactionIsRejected() {
+        assertThatThrownBy(() -> decoder.decode(insert(new Column('t', "1"), new Column('t', "t"),
+                                                       new Column('t', "1"), new Column('t', "new"))))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("outside of a transaction");
+    }
+
+    @Test
+    void changeForUnknownRelationIsRejected() {
+        PgOutputDecoder fresh = new PgOutputDecoder(10);
+        fresh.decode(begin(4));
+
+        assertThatThrownBy(() -> fresh.decode(insert(new Column('t', "1"))))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("unknown relation OID " + ORDERS_OID);
+    }
+
+    @Test
+    void oversizedTransactionIsRejected() {
+        PgOutputDecoder small = new PgOutputDecoder(1);
+        small.decode(relation());
+        small.decode(begin(5));
+        small.decode(truncate());
+
+        assertThatThrownBy(() -> small.decode(truncate()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("app.cdc.max-transaction-events");
+    }
+
+    private record Column(char kind, String value) {
+    }
+
+    private static ByteBuffer begin(int xid) {
+        return message(out -> {
+            out.writeByte('B');
+            out.writeLong(COMMIT_LSN);
+            out.writeLong(COMMIT_MICROS);
+            out.writeInt(xid);
+        });
+    }
+
+    private static ByteBuffer commit() {
+        return message(out -> {
+            out.writeByte('C');
+            out.writeByte(0);
+            out.writeLong(COMMIT_LSN);
+            out.writeLong(END_LSN);
+            out.writeLong(COMMIT_MICROS);
+        });
+    }
+
+    private static ByteBuffer relation() {
+        return message(out -> {
+            out.writeByte('R');
+            out.writeInt(ORDERS_OID);
+            writeString(out, "public");
+            writeString(out, "orders");
+            out.writeByte('d');
+            out.writeShort(4);
+            writeColumn(out, "id", 20);
+            writeColumn(out, "paid", 16);
+            writeColumn(out, "total", 1700);
+            writeColumn(out, "status", 25);
+        });
+    }
+
+    private static ByteBuffer insert(Column... columns) {
+        return message(out -> {
+            out.writeByte('I');
+            out.writeInt(ORDERS_OID);
+            out.writeByte('N');
+            writeTuple(out, columns);
+        });
+    }
+
+    private static ByteBuffer update(char oldMarker, Column[] old, Column... columns) {
+        return message(out -> {
+            out.writeByte('U');
+            out.writeInt(ORDERS_OID);
+            if (old != null) {
+                out.writeByte(oldMarker);
+                writeTuple(out, old);
+            }
+            out.writeByte('N');
+            writeTuple(out, columns);
+        });
+    }
+
+    private static ByteBuffer delete(Column... key) {
+        return message(out -> {
+            out.writeByte('D');
+            out.writeInt(ORDERS_OID);
+            out.writeByte('K');
+            writeTuple(out, key);
+        });
+    }
+
+    private static ByteBuffer truncate() {
+        return message(out -> {
+            out.writeByte('T');
+            out.writeInt(1);
+            out.writeByte(0);
+            out.writeInt(ORDERS_OID);
+        });
+    }
+
+    private static ByteBuffer origin() {
+        return message(out -> {
+            out.writeByte('O');
+            out.writeLong(COMMIT_LSN);
+            writeString(out, "upstream");
+        });
+    }
+
+    private static void writeColumn(DataOutputStream out, String name, int typeOid) throws IOException {
+        out.writeByte(1);
+        writeString(out, name);
+        out.writeInt(typeOid);
+        out.writeInt(-1);
+    }
+
+    private static void writeTuple(DataOutputStream out, Column... columns) throws IOException {
+        out.writeShort(columns.length);
+        for (Column column : columns) {
+            out.writeByte(column.kind());
+            if (column.kind() == 't') {
+                byte[] bytes = column.value().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.write(value.getBytes(StandardCharsets.UTF_8));
+        out.writeByte(0);
+    }
+
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static ByteBuffer message(Writer writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.service.guard;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResultSetGuardServiceTest {
+
+    private static final String SQL = "SELECT payload FROM events";
+    private static final String PAYLOAD = "x".repeat(1000);
+
+    private ResultSetGuardService guard;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        guard = new ResultSetGuardService();
+        ReflectionTestUtils.setField(guard, "guardEnabled", true);
+        ReflectionTestUtils.setField(guard, "fetchSize", 100);
+        ReflectionTestUtils.setField(guard, "maxRows", 100_000L);
+        ReflectionTestUtils.setField(guard, "maxBytes", 10_000L);
+        ReflectionTestUtils.setField(guard, "action", ResultSetGuardService.Action.ABORT);
+        ReflectionTestUtils.setField(guard, "cursorMode", ResultSetGuardService.CursorMode.AUTO);
+
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString(anyInt())).thenReturn(PAYLOAD);
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.getResultSetType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+        when(statement.getFetchSize()).thenReturn(100);
+        when(statement.executeQuery()).thenReturn(resultSet);
+
+        Connection connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(connection);
+        dataSource = guard.decorate("reporting", target);
+    }
+
+    @Test
+    void streamedReadAbortsOverMaxBytes() {
+        assertThatThrownBy(() -> read(50))
+            .isInstanceOf(ResultSetLimitExceededException.class)
+            .hasMessageContaining("bytes limit");
+    }
+
+    @Test
+    void exemptReadIsNotCutOffByMaxBytes() {
+        long rows = ResultSetGuardService.withoutByteLimit(() -> {
+            try {
+                return read(50);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(rows).isEqualTo(50);
+        assertThat(ResultSetGuardService.isByteLimitExempt()).isFalse();
+        assertThatThrownBy(() -> read(50)).isInstanceOf(ResultSetLimitExceededException.class);
+    }
+
+    private long read(int rows) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SQL)) {
+            statement.setFetchSize(100);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                long read = 0;
+                while (read < rows && resultSet.next()) {
+                    resultSet.getString(1);
+                    read++;
+                }
+                return read;
+            }
+        }
+    }
+}
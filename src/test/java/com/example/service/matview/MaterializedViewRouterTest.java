@@ -0,0 +1,82 @@
+package com.example.service.matview;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MaterializedViewRouterTest {
+
+    private static final long STALENESS_MS = 60_000;
+
+    private MaterializedViewRouter router;
+
+    @BeforeEach
+    void setUp() {
+        MaterializedViewProperties properties = new MaterializedViewProperties();
+        MaterializedViewProperties.ViewSpec spec = new MaterializedViewProperties.ViewSpec();
+        spec.setSource("v_product_inventory");
+        properties.getViews().put("mv_product_inventory", spec);
+
+        router = new MaterializedViewRouter(properties);
+        router.init();
+        router.markRefreshed("mv_product_inventory", System.currentTimeMillis());
+    }
+
+    @Test
+    void unaliasedReferenceKeepsItsNameForQualifiedColumns() {
+        assertThat(rewrite("SELECT v_product_inventory.sku FROM v_product_inventory WHERE id = ?"))
+            .isEqualTo("SELECT v_product_inventory.sku FROM mv_product_inventory AS v_product_inventory WHERE id = ?");
+    }
+
+    @Test
+    void aliasedAndJoinedReferencesAreRewritten() {
+        assertThat(rewrite("SELECT p.sku FROM products x JOIN v_product_inventory p ON p.id = x.id"))
+            .isEqualTo("SELECT p.sku FROM products x JOIN mv_product_inventory p ON p.id = x.id");
+        assertThat(rewrite("SELECT * FROM categories c, V_Product_Inventory AS p WHERE p.category_id = c.id"))
+            .isEqualTo("SELECT * FROM categories c, mv_product_inventory AS p WHERE p.category_id = c.id");
+        assertThat(rewrite("WITH low AS (SELECT id FROM v_product_inventory) SELECT count(*) FROM low"))
+            .isEqualTo("WITH low AS (SELECT id FROM mv_product_inventory AS v_product_inventory) SELECT count(*) FROM low");
+    }
+
+    @Test
+    void literalsColumnsAliasesAndQualifiedNamesAreLeftAlone() {
+        String[] untouched = {
+            "SELECT 'from v_product_inventory' AS note FROM products",
+            "SELECT $$ FROM v_product_inventory $$ FROM products",
+            "SELECT e'it\\'s FROM v_product_inventory' FROM products",
+            "SELECT p.v_product_inventory FROM products p",
+            "SELECT 1 FROM products v_product_inventory",
+            "SELECT * FROM reporting.v_product_inventory",
+            "SELECT * FROM \"v_product_inventory\"",
+            "SELECT extract(epoch FROM v_product_inventory) FROM products",
+            "SELECT * FROM products -- FROM v_product_inventory\nWHERE id = 1",
+            "SELECT * FROM products /* JOIN v_product_inventory */",
+            "SELECT * FROM products WHERE a IS DISTINCT FROM v_product_inventory",
+            "UPDATE products SET sku = ? FROM v_product_inventory WHERE products.id = v_product_inventory.id"
+        };
+        for (String sql : untouched) {
+            assertThat(rewrite(sql)).as(sql).isEqualTo(sql);
+        }
+        assertThat(router.getRedirects("mv_product_inventory")).isZero();
+    }
+
+    @Test
+    void staleCopyIsNotUsed() {
+        router.markRefreshed("mv_product_inventory", System.currentTimeMillis() - 2 * STALENESS_MS);
+        String sql = "SELECT * FROM v_product_inventory";
+
+        assertThat(rewrite(sql)).isEqualTo(sql);
+    }
+
+    @Test
+    void redirectIsCountedOncePerStatement() {
+        rewrite("SELECT * FROM v_product_inventory a JOIN v_product_inventory b ON a.id = b.id");
+
+        assertThat(router.getRedirects("mv_product_inventory")).isEqualTo(1);
+    }
+
+    private String rewrite(String sql) {
+        return router.rewrite(sql, STALENESS_MS);
+    }
+}
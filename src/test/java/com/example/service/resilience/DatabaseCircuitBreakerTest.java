@@ -0,0 +1,52 @@
+package com.example.service.resilience;
+
+import com.example.service.admission.AdmissionRejectedException;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DatabaseCircuitBreakerTest {
+
+    private final DatabaseCircuitBreaker breaker = new DatabaseCircuitBreaker("oltp", 1, 0, (pool, state) -> { });
+
+    @Test
+    void trialShedByAdmissionReleasesTheProbe() throws Exception {
+        breaker.onFailure(new SQLException("connection refused", "08001"));
+        assertThat(breaker.acquirePermission()).isTrue();
+
+        breaker.onFailure(new AdmissionRejectedException("deadline passed"));
+
+        assertThat(breaker.getState()).isEqualTo(DatabaseCircuitBreaker.State.OPEN);
+        assertThat(breaker.acquirePermission()).isTrue();
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(DatabaseCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void admissionRejectionsDoNotOpenAClosedBreaker() {
+        breaker.onFailure(new AdmissionRejectedException("deadline passed"));
+
+        assertThat(breaker.getState()).isEqualTo(DatabaseCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void failedTrialReopens() throws Exception {
+        breaker.onFailure(new SQLException("connection refused", "08001"));
+        assertThat(breaker.acquirePermission()).isTrue();
+
+        breaker.onFailure(new SQLException("connection refused", "08001"));
+
+        assertThat(breaker.getState()).isEqualTo(DatabaseCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void otherCallersFailFastWhileTheTrialIsInFlight() throws Exception {
+        breaker.onFailure(new SQLException("connection refused", "08001"));
+        assertThat(breaker.acquirePermission()).isTrue();
+
+        assertThatThrownBy(breaker::acquirePermission).isInstanceOf(CircuitOpenException.class);
+    }
+}
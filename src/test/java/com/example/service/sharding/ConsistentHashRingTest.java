@@ -0,0 +1,69 @@
+package com.example.service.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 100_000;
+
+    @Test
+    void routingIsDeterministic() {
+        ConsistentHashRing first = new ConsistentHashRing(weights(3), 128);
+        ConsistentHashRing second = new ConsistentHashRing(weights(3), 128);
+
+        for (long key = 0; key < 1000; key++) {
+            assertThat(first.route(key)).isEqualTo(second.route(key));
+        }
+    }
+
+    @Test
+    void keysSpreadInProportionToWeight() {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        weights.put("s0", 1);
+        weights.put("s1", 1);
+        weights.put("s2", 2);
+        ConsistentHashRing ring = new ConsistentHashRing(weights, 128);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (long key = 1; key <= KEYS; key++) {
+            counts.merge(ring.route(key), 1, Integer::sum);
+        }
+
+        assertThat(counts.get("s0") / (double) KEYS).isCloseTo(0.25, within(0.05));
+        assertThat(counts.get("s1") / (double) KEYS).isCloseTo(0.25, within(0.05));
+        assertThat(counts.get("s2") / (double) KEYS).isCloseTo(0.50, within(0.05));
+        assertThat(ring.ownership().values().stream().mapToDouble(Double::doubleValue).sum()).isCloseTo(1.0, within(1e-9));
+    }
+
+    @Test
+    void addingAShardOnlyMovesKeysToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(weights(3), 128);
+        ConsistentHashRing after = new ConsistentHashRing(weights(4), 128);
+
+        int moved = 0;
+        for (long key = 1; key <= KEYS; key++) {
+            String from = before.route(key);
+            String to = after.route(key);
+            if (!from.equals(to)) {
+                assertThat(to).isEqualTo("s3");
+                moved++;
+            }
+        }
+        assertThat(moved / (double) KEYS).isCloseTo(0.25, within(0.05));
+    }
+
+    private static Map<String, Integer> weights(int shards) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (int i = 0; i < shards; i++) {
+            weights.put("s" + i, 1);
+        }
+        return weights;
+    }
+}
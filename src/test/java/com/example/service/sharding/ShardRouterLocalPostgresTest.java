@@ -0,0 +1,204 @@
+package com.example.service.sharding;
+
+import com.example.config.ConnectionPoolFactory;
+import com.example.config.DataSourceRegistry;
+import com.example.service.VaultService;
+import com.example.service.warmup.StatementWarmupProperties;
+import com.example.service.warmup.StatementWarmupService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.env.MockPropertySource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the router against real databases, one per shard. Point it at two or
+ * more local Postgres instances (or databases) with e.g.
+ * SHARD_TEST_URLS=jdbc:postgresql://localhost:5432/shard0,jdbc:postgresql://localhost:5433/shard1
+ * and optionally SHARD_TEST_USERNAME / SHARD_TEST_PASSWORD (default postgres).
+ */
+@EnabledIfEnvironmentVariable(named = "SHARD_TEST_URLS", matches = ".+,.+")
+class ShardRouterLocalPostgresTest {
+
+    private static final String TABLE = "shard_router_test_customers";
+    private static final int CUSTOMERS = 200;
+
+    private final List<String> urls = Arrays.stream(System.getenv("SHARD_TEST_URLS").split(","))
+        .map(String::trim).filter(url -> !url.isEmpty()).toList();
+    private final String username = Objects.requireNonNullElse(System.getenv("SHARD_TEST_USERNAME"), "postgres");
+    private final String password = Objects.requireNonNullElse(System.getenv("SHARD_TEST_PASSWORD"), "postgres");
+
+    private MockEnvironment environment;
+    private DataSourceRegistry registry;
+    private ShardRouter router;
+
+    @BeforeEach
+    void setUp() {
+        for (String url : urls) {
+            JdbcTemplate jdbc = direct(url);
+            jdbc.execute("DROP TABLE IF EXISTS " + TABLE);
+            jdbc.execute("CREATE TABLE " + TABLE + " (customer_id BIGINT PRIMARY KEY, shard TEXT NOT NULL)");
+        }
+
+        environment = new MockEnvironment().withProperty("app.sharding.enabled", "true");
+        for (int i = 0; i < urls.size(); i++) {
+            configureShard("s" + i, urls.get(i));
+        }
+        registry = new DataSourceRegistry(List.of());
+        router = new ShardRouter(registry, new ConnectionPoolFactory(new StatementWarmupService(new StatementWarmupProperties())),
+                                 new VaultService(null), environment, 2);
+        router.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        environment.setProperty("app.sharding.enabled", "false");
+        router.reload();
+        router.shutdown();
+        for (String url : urls) {
+            direct(url).execute("DROP TABLE IF EXISTS " + TABLE);
+        }
+    }
+
+    @Test
+    void customersLandOnTheirShardAndScatterGatherFindsThemAll() {
+        for (long id = 1; id <= CUSTOMERS; id++) {
+            router.forCustomer(id).update("INSERT INTO " + TABLE + " VALUES (?, ?)", id, router.shardFor(id));
+        }
+
+        ScatterGatherResult<Long> all = router.scatterGather(
+            "SELECT customer_id FROM " + TABLE + " ORDER BY customer_id",
+            (rs, row) -> rs.getLong(1), Comparator.naturalOrder(), 0);
+
+        assertThat(all.failures()).isEmpty();
+        assertThat(all.rows()).hasSize(CUSTOMERS).isSorted();
+        for (int i = 0; i < urls.size(); i++) {
+            String shard = "s" + i;
+            long expected = countRoutedTo(shard);
+            assertThat(all.shardRows().get(shard)).isEqualTo((int) expected);
+            assertThat(direct(urls.get(i)).queryForObject(
+                "SELECT count(*) FROM " + TABLE + " WHERE shard <> ?", Long.class, shard)).isZero();
+        }
+
+        ScatterGatherResult<Long> firstTen = router.scatterGather(
+            "SELECT customer_id FROM " + TABLE + " ORDER BY customer_id",
+            (rs, row) -> rs.getLong(1), Comparator.naturalOrder(), 10);
+        assertThat(firstTen.rows()).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+    }
+
+    @Test
+    void reloadRebuildsOnlyChangedShardsAndReleasesRemovedOnes() {
+        environment.setProperty("app.sharding.shards.s0.driver-properties.socketTimeout", "60");
+        Map<String, Object> changed = router.reload();
+
+        assertThat(changed.get("created")).isEqualTo(List.of("s0"));
+        assertThat(changed.get("unchanged")).isEqualTo(shardNames(1, urls.size()));
+
+        String last = "s" + (urls.size() - 1);
+        properties().keySet().removeIf(key -> key.toString().startsWith("app.sharding.shards." + last + "."));
+        Map<String, Object> shrunk = router.reload();
+
+        assertThat(shrunk.get("removed")).isEqualTo(List.of(last));
+        assertThat(registry.hasPool(ShardRouter.POOL_PREFIX + last)).isFalse();
+        assertThat(registry.hasPool(ShardRouter.POOL_PREFIX + "s0")).isTrue();
+    }
+
+    @Test
+    void replacedPoolIsClosedOnlyOnceItsQueriesFinish() throws Exception {
+        HikariDataSource old = registry.getPool(ShardRouter.POOL_PREFIX + "s0");
+        try (Connection inFlight = old.getConnection()) {
+            environment.setProperty("app.sharding.shards.s0.driver-properties.socketTimeout", "60");
+            router.reload();
+
+            Thread.sleep(3 * ShardRouter.RETIRE_CHECK_MS);
+            assertThat(old.isClosed()).isFalse();
+            try (Statement statement = inFlight.createStatement(); ResultSet rs = statement.executeQuery("SELECT 1")) {
+                assertThat(rs.next()).isTrue();
+            }
+        }
+
+        await(old::isClosed);
+    }
+
+    @Test
+    void retiredPoolIsClosedAfterTheGracePeriod() throws Exception {
+        environment.setProperty("app.sharding.retire-grace-ms", "500");
+        HikariDataSource old = registry.getPool(ShardRouter.POOL_PREFIX + "s0");
+        try (Connection leaked = old.getConnection()) {
+            environment.setProperty("app.sharding.shards.s0.driver-properties.socketTimeout", "60");
+            router.reload();
+
+            await(old::isClosed);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 10000ms");
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private Properties properties() {
+        return (Properties) environment.getPropertySources()
+            .get(MockPropertySource.MOCK_PROPERTIES_PROPERTY_SOURCE_NAME).getSource();
+    }
+
+    private void configureShard(String shard, String url) {
+        String prefix = "app.sharding.shards." + shard + ".";
+        environment.setProperty(prefix + "url", url);
+        environment.setProperty(prefix + "username", username);
+        environment.setProperty(prefix + "password", password);
+        // A plainly constructed pool factory has no app.database.pool.* defaults
+        environment.setProperty(prefix + "maximum-pool-size", "2");
+        environment.setProperty(prefix + "minimum-idle", "0");
+        environment.setProperty(prefix + "connection-timeout", "5000");
+        environment.setProperty(prefix + "idle-timeout", "60000");
+        environment.setProperty(prefix + "max-lifetime", "300000");
+        environment.setProperty(prefix + "leak-detection-threshold", "0");
+        environment.setProperty(prefix + "application-name", "shard-router-test-" + shard);
+    }
+
+    private long countRoutedTo(String shard) {
+        long count = 0;
+        for (long id = 1; id <= CUSTOMERS; id++) {
+            if (router.shardFor(id).equals(shard)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static List<String> shardNames(int from, int to) {
+        List<String> names = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            names.add("s" + i);
+        }
+        return names;
+    }
+
+    private JdbcTemplate direct(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, username, password));
+    }
+}
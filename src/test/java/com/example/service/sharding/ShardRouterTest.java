@@ -0,0 +1,50 @@
+package com.example.service.sharding;
+
+import com.example.config.DriverProfile;
+import com.example.service.sharding.ShardProperties.ShardSpec;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardRouterTest {
+
+    private static final Map<String, String> CREDENTIALS = Map.of(
+        "url", "jdbc:postgresql://localhost:5432/shard0", "username", "postgres",
+        "password", "postgres", "driver", "org.postgresql.Driver");
+
+    @Test
+    void weightDoesNotRequireANewPool() {
+        ShardSpec spec = new ShardSpec();
+        String before = ShardRouter.fingerprint(spec, CREDENTIALS);
+
+        spec.setWeight(3);
+
+        assertThat(ShardRouter.fingerprint(spec, CREDENTIALS)).isEqualTo(before);
+    }
+
+    @Test
+    void driverSettingsRequireANewPool() {
+        ShardSpec spec = new ShardSpec();
+        String defaults = ShardRouter.fingerprint(spec, CREDENTIALS);
+
+        spec.setDriverProfile(DriverProfile.REPORTING);
+        String profiled = ShardRouter.fingerprint(spec, CREDENTIALS);
+        spec.getDriverProperties().put("socketTimeout", "30");
+        String overridden = ShardRouter.fingerprint(spec, CREDENTIALS);
+
+        assertThat(profiled).isNotEqualTo(defaults);
+        assertThat(overridden).isNotEqualTo(profiled);
+    }
+
+    @Test
+    void poolTimeoutsRequireANewPool() {
+        ShardSpec spec = new ShardSpec();
+        String before = ShardRouter.fingerprint(spec, CREDENTIALS);
+
+        spec.setKeepaliveTime(60000L);
+
+        assertThat(ShardRouter.fingerprint(spec, CREDENTIALS)).isNotEqualTo(before);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.service.warmup;
+
+import com.example.config.DriverProfile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StatementWarmupServiceTest {
+
+    private StatementWarmupProperties properties;
+    private StatementWarmupService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StatementWarmupProperties();
+        properties.setEnabled(true);
+        properties.setPools(List.of("oltp", "reporting"));
+        service = new StatementWarmupService(properties);
+    }
+
+    @Test
+    void offByDefault() {
+        StatementWarmupService defaults = new StatementWarmupService(new StatementWarmupProperties());
+
+        assertThat(defaults.isEnabled()).isFalse();
+        assertThat(defaults.appliesTo("oltp", DriverProfile.OLTP.properties())).isFalse();
+    }
+
+    @Test
+    void onlyOptedInPoolsThatServerPrepareAreWarmed() {
+        assertThat(service.appliesTo("oltp", DriverProfile.OLTP.properties())).isTrue();
+        assertThat(service.appliesTo("bulk", DriverProfile.BULK.properties())).isFalse();
+        assertThat(service.appliesTo("reporting", DriverProfile.REPORTING.properties())).isFalse();
+
+        Properties overridden = DriverProfile.OLTP.properties();
+        overridden.setProperty("prepareThreshold", "0");
+        assertThat(service.appliesTo("oltp", overridden)).isFalse();
+
+        properties.setPrepareThreshold(2);
+        assertThat(service.appliesTo("reporting", DriverProfile.REPORTING.properties())).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void learnedStatementsAgeOut() throws Exception {
+        properties.setLearn(true);
+        properties.setDecayIntervalMs(1);
+        Connection physical = mock(Connection.class);
+        when(physical.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+
+        Connection connection = service.onConnect("oltp", physical);
+        connection.prepareStatement("SELECT * FROM customers WHERE id = ?");
+        Thread.sleep(5);
+        connection.prepareStatement("SELECT * FROM orders WHERE id = ?");
+        properties.setDecayIntervalMs(60_000);
+
+        Map<String, Object> pool = (Map<String, Object>) ((Map<String, Object>) service.getStatus().get("pools")).get("oltp");
+        assertThat(pool.get("tracked")).isEqualTo(1);
+    }
+}